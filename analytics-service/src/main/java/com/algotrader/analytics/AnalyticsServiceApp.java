@@ -0,0 +1,191 @@
+package com.algotrader.analytics;
+
+import com.algotrader.analytics.bars.BarAggregator;
+import com.algotrader.analytics.bars.BarStore;
+import com.algotrader.analytics.persist.BatchConfig;
+import com.algotrader.analytics.persist.BatchWriter;
+import com.algotrader.analytics.persist.PgCopySink;
+import com.algotrader.analytics.persist.Schema;
+import com.algotrader.analytics.redis.PersistenceListener;
+import com.algotrader.shared.model.Bar;
+import com.algotrader.shared.model.Resolution;
+import com.algotrader.shared.model.Signal;
+import com.algotrader.shared.model.Tick;
+import com.algotrader.shared.stream.TransportConfig;
+import com.algotrader.shared.util.JsonUtil;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static spark.Spark.*;
+
+/**
+ * Entry point for the Analytics Service.
+ *
+ * <ul>
+ * <li>Subscribes to Redis channels {@code market_data} and
+ * {@code trading_signals} — or, with {@code TRANSPORT=STREAMS}, reads both
+ * as Redis streams through the {@code STREAM_GROUP} consumer group, so
+ * nothing published during a restart is lost.</li>
+ * <li>Buffers ticks and signals in bounded queues and persists them to
+ * PostgreSQL with one {@code COPY} per batch — a batch is written once
+ * {@code PERSIST_BATCH_SIZE} records are buffered or after
+ * {@code PERSIST_FLUSH_MILLIS}, whichever is first.</li>
+ * <li>Aggregates ticks into OHLCV bars at the {@code BAR_RESOLUTIONS}
+ * (default 1s,1m,5m,1h) and persists each sealed bar; ticks up to
+ * {@code BAR_GRACE_MILLIS} late re-publish a corrected revision.</li>
+ * <li>Exposes a SparkJava health endpoint and the bar API
+ * ({@code /bars/:symbol}, {@code /bars/:symbol/current}) on port 8082.</li>
+ * </ul>
+ */
+public class AnalyticsServiceApp {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsServiceApp.class);
+
+    private static final String TICK_CHANNEL = "market_data";
+    private static final String SIGNAL_CHANNEL = "trading_signals";
+    private static final int PERSIST_BATCH_SIZE = 5000;
+    private static final int PERSIST_FLUSH_MILLIS = 200;
+    private static final int PERSIST_QUEUE_CAPACITY = 100_000;
+    private static final int PERSIST_OFFER_TIMEOUT_MILLIS = 1000;
+    private static final int BAR_GRACE_MILLIS = 2000;
+    private static final int BAR_QUERY_LIMIT = 500;
+    private static final int HTTP_PORT = 8082;
+
+    public static void main(String[] args) {
+        String redisUri = System.getenv().getOrDefault("REDIS_URI", "redis://localhost:6379");
+        var batch = new BatchConfig(
+                Integer.parseInt(System.getenv().getOrDefault("PERSIST_BATCH_SIZE",
+                        String.valueOf(PERSIST_BATCH_SIZE))),
+                Duration.ofMillis(Long.parseLong(System.getenv().getOrDefault("PERSIST_FLUSH_MILLIS",
+                        String.valueOf(PERSIST_FLUSH_MILLIS)))),
+                Integer.parseInt(System.getenv().getOrDefault("PERSIST_QUEUE_CAPACITY",
+                        String.valueOf(PERSIST_QUEUE_CAPACITY))),
+                Duration.ofMillis(Long.parseLong(System.getenv().getOrDefault("PERSIST_OFFER_TIMEOUT_MILLIS",
+                        String.valueOf(PERSIST_OFFER_TIMEOUT_MILLIS)))),
+                Duration.ofMillis(500));
+        List<Resolution> resolutions = Arrays.stream(System.getenv().getOrDefault("BAR_RESOLUTIONS", "1s,1m,5m,1h")
+                        .split(","))
+                .map(String::trim)
+                .map(Resolution::fromLabel)
+                .toList();
+        TransportConfig transport = TransportConfig.fromEnv("analytics-service");
+        Duration barGrace = Duration.ofMillis(Long.parseLong(System.getenv().getOrDefault("BAR_GRACE_MILLIS",
+                String.valueOf(BAR_GRACE_MILLIS))));
+
+        // ── PostgreSQL connection pool ──────────────────────────────────
+        var hikari = new HikariConfig();
+        hikari.setJdbcUrl(System.getenv().getOrDefault("DB_URL", "jdbc:postgresql://localhost:5432/algotrader_db"));
+        hikari.setUsername(System.getenv().getOrDefault("DB_USER", "algotrader"));
+        hikari.setPassword(System.getenv().getOrDefault("DB_PASSWORD", "algotrader_secret"));
+        hikari.setMaximumPoolSize(4);
+        hikari.setPoolName("analytics-db");
+        var dataSource = new HikariDataSource(hikari);
+        Schema.apply(dataSource);
+
+        // ── Batch writers (one COPY per batch) ──────────────────────────
+        var tickWriter = new BatchWriter<Tick>("ticks", PgCopySink.ticks(dataSource), batch);
+        var signalWriter = new BatchWriter<Signal>("signals", PgCopySink.signals(dataSource), batch);
+        var barWriter = new BatchWriter<Bar>("bars", PgCopySink.bars(dataSource), batch);
+
+        // ── Bar aggregation ─────────────────────────────────────────────
+        var bars = new BarAggregator(resolutions, barGrace, barWriter::offer);
+        var barStore = new BarStore(dataSource);
+        ScheduledExecutorService sealer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "bar-sealer");
+            t.setDaemon(true);
+            return t;
+        });
+        // Seal bars of symbols that went quiet, once the grace window has passed
+        sealer.scheduleAtFixedRate(() -> bars.advanceTo(Instant.now().minus(barGrace)), 1, 1, TimeUnit.SECONDS);
+
+        // ── Redis subscription ──────────────────────────────────────────
+        var listener = new PersistenceListener(redisUri, transport, TICK_CHANNEL, SIGNAL_CHANNEL,
+                tickWriter, signalWriter, bars);
+
+        // ── SparkJava HTTP server ───────────────────────────────────────
+        port(HTTP_PORT);
+
+        get("/health", (req, res) -> {
+            res.type("application/json");
+            boolean redisOk = listener.isConnected();
+            boolean dbOk = dataSource.isRunning();
+            res.status(redisOk && dbOk ? 200 : 503);
+            return "{\"status\":\"" + (redisOk && dbOk ? "UP" : "DOWN")
+                    + "\",\"service\":\"analytics-service\""
+                    + ",\"persist\":{\"ticks\":" + writerJson(tickWriter)
+                    + ",\"signals\":" + writerJson(signalWriter)
+                    + ",\"bars\":" + writerJson(barWriter)
+                    + ",\"rejected\":" + listener.rejected() + "}"
+                    + ",\"aggregator\":{\"sealed\":" + bars.sealed()
+                    + ",\"revised\":" + bars.revised()
+                    + ",\"lateDropped\":" + bars.lateDropped() + "}"
+                    + ",\"redis\":" + redisOk
+                    + ",\"db\":" + dbOk + "}";
+        });
+
+        get("/bars/:symbol", (req, res) -> {
+            res.type("application/json");
+            Resolution resolution = Resolution.fromLabel(req.queryParamOrDefault("resolution", "1m"));
+            Instant to = req.queryParams("to") == null ? Instant.now() : Instant.parse(req.queryParams("to"));
+            Instant from = req.queryParams("from") == null ? Instant.EPOCH : Instant.parse(req.queryParams("from"));
+            int limit = Math.min(Integer.parseInt(req.queryParamOrDefault("limit", String.valueOf(BAR_QUERY_LIMIT))),
+                    BAR_QUERY_LIMIT);
+            return JsonUtil.toJson(barStore.find(req.params("symbol"), resolution, from, to, limit));
+        });
+
+        get("/bars/:symbol/current", (req, res) -> {
+            res.type("application/json");
+            Bar bar = bars.openBar(req.params("symbol"),
+                    Resolution.fromLabel(req.queryParamOrDefault("resolution", "1m")));
+            if (bar == null) {
+                res.status(404);
+                return "{\"error\":\"no open bar\"}";
+            }
+            return JsonUtil.toJson(bar);
+        });
+
+        // Unknown resolution, malformed number or timestamp
+        exception(IllegalArgumentException.class, (e, req, res) -> badRequest(res, e));
+        exception(DateTimeException.class, (e, req, res) -> badRequest(res, e));
+
+        log.info("Analytics Service HTTP server started on port {}", HTTP_PORT);
+
+        // ── Graceful shutdown ───────────────────────────────────────────
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            log.info("Shutting down Analytics Service...");
+            listener.close();
+            sealer.shutdownNow();
+            tickWriter.close();
+            signalWriter.close();
+            barWriter.close();
+            dataSource.close();
+            stop();
+            log.info("Analytics Service stopped.");
+        }));
+    }
+
+    private static void badRequest(spark.Response res, Exception e) {
+        res.status(400);
+        res.type("application/json");
+        res.body("{\"error\":\"" + e.getMessage().replace("\"", "'") + "\"}");
+    }
+
+    private static String writerJson(BatchWriter<?> writer) {
+        return "{\"written\":" + writer.written()
+                + ",\"batches\":" + writer.batches()
+                + ",\"queueDepth\":" + writer.queueDepth()
+                + ",\"failures\":" + writer.failures()
+                + ",\"dropped\":" + writer.dropped() + "}";
+    }
+}
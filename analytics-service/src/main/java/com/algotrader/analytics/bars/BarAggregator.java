@@ -0,0 +1,301 @@
+package com.algotrader.analytics.bars;
+
+import com.algotrader.shared.model.Bar;
+import com.algotrader.shared.model.Price;
+import com.algotrader.shared.model.Resolution;
+import com.algotrader.shared.model.Tick;
+
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Incremental OHLCV aggregation over several resolutions at once.
+ * <p>
+ * Each tick updates only the open bar of the finest resolution — O(1), no
+ * allocation. When that bar's end passes the symbol's watermark (the latest
+ * tick time seen) it is sealed, published, and merged into the open bar of
+ * the next resolution, which cascades the same way. Open/close are chosen by
+ * event time, not arrival order, so merging is order-independent.
+ * </p>
+ * <p>
+ * A tick older than the watermark still lands if its bar ended less than
+ * {@code grace} ago: a sealed bar absorbs it, is re-published with the next
+ * {@link Bar#revision()}, and passes the tick on to the coarser bars it was
+ * merged into. Anything older is dropped and counted. Recent sealed bars live
+ * in a small ring per resolution, sized to cover the grace window.
+ * </p>
+ * Methods are synchronized: ticks arrive on the Redis listener thread while
+ * {@link #advanceTo} runs on a timer and REST reads come from HTTP threads.
+ */
+public class BarAggregator {
+
+    /** Bar prices are normalized to this many decimal places. */
+    public static final int PRICE_SCALE = 8;
+    /** Bar volumes are normalized to this many decimal places. */
+    public static final int VOLUME_SCALE = 8;
+
+    private static final long NO_BAR = Long.MIN_VALUE;
+
+    private final Resolution[] resolutions;
+    private final long graceMillis;
+    private final Consumer<Bar> onBar;
+    private final Map<String, SymbolBars> symbols = new HashMap<>();
+    private final MutableBar delta = new MutableBar();
+
+    private long sealed;
+    private long revised;
+    private long lateDropped;
+
+    /**
+     * @param resolutions finest first; each must be a multiple of the previous
+     * @param grace       how long after a bar ends late ticks may still correct it
+     * @param onBar       receives every sealed bar and every revision of one
+     */
+    public BarAggregator(List<Resolution> resolutions, Duration grace, Consumer<Bar> onBar) {
+        if (resolutions.isEmpty()) {
+            throw new IllegalArgumentException("At least one resolution is required");
+        }
+        for (int i = 1; i < resolutions.size(); i++) {
+            if (resolutions.get(i).millis() % resolutions.get(i - 1).millis() != 0
+                    || resolutions.get(i).millis() <= resolutions.get(i - 1).millis()) {
+                throw new IllegalArgumentException("Resolutions must ascend in exact multiples, got: " + resolutions);
+            }
+        }
+        if (grace.isNegative()) {
+            throw new IllegalArgumentException("Grace window must be >= 0, got: " + grace);
+        }
+        this.resolutions = resolutions.toArray(Resolution[]::new);
+        this.graceMillis = grace.toMillis();
+        this.onBar = onBar;
+    }
+
+    /**
+     * Aggregates a tick. Ticks carry no traded size, so they add to
+     * {@code count} but not to {@code volume}.
+     */
+    public void onTick(Tick tick) {
+        onTrade(tick.symbol(), tick.priceMantissa(), tick.priceScale(), 0, 0, tick.timestamp().toEpochMilli());
+    }
+
+    /**
+     * Aggregates one trade.
+     *
+     * @return {@code false} if the trade was too late to correct its bar
+     */
+    public synchronized boolean onTrade(String symbol, long priceMantissa, int priceScale,
+                                        long quantityMantissa, int quantityScale, long epochMillis) {
+        SymbolBars bars = symbols.computeIfAbsent(symbol, s -> new SymbolBars(s, resolutions, graceMillis));
+        if (epochMillis > bars.watermark) {
+            advance(bars, epochMillis);
+        }
+        long start = resolutions[0].startOf(epochMillis);
+        if (start + resolutions[0].millis() + graceMillis <= bars.watermark) {
+            lateDropped++;
+            return false;
+        }
+        delta.start = start;
+        delta.reset();
+        delta.add(Price.rescale(priceMantissa, priceScale, PRICE_SCALE, RoundingMode.HALF_UP),
+                Price.rescale(quantityMantissa, quantityScale, VOLUME_SCALE, RoundingMode.HALF_UP), epochMillis);
+        apply(bars, 0, delta);
+        return true;
+    }
+
+    /**
+     * Seals every bar that ended at or before {@code time}, for symbols that
+     * have gone quiet. Pass a time at least the grace window behind the
+     * clock, or live ticks will start arriving late.
+     */
+    public synchronized void advanceTo(Instant time) {
+        long millis = time.toEpochMilli();
+        for (SymbolBars bars : symbols.values()) {
+            if (millis > bars.watermark) {
+                advance(bars, millis);
+            }
+        }
+    }
+
+    /**
+     * @return a snapshot of the still-open bar, or {@code null} if there is none
+     */
+    public synchronized Bar openBar(String symbol, Resolution resolution) {
+        SymbolBars bars = symbols.get(symbol);
+        if (bars == null) {
+            return null;
+        }
+        for (int level = 0; level < resolutions.length; level++) {
+            if (resolutions[level] == resolution) {
+                long start = bars.openStart[level];
+                return start == NO_BAR ? null : bars.slot(level, start).toBar(symbol, resolution);
+            }
+        }
+        return null;
+    }
+
+    public synchronized long sealed() {
+        return sealed;
+    }
+
+    public synchronized long revised() {
+        return revised;
+    }
+
+    public synchronized long lateDropped() {
+        return lateDropped;
+    }
+
+    // ── Internals ──────────────────────────────────────────────────────
+
+    private void advance(SymbolBars bars, long time) {
+        bars.watermark = time;
+        for (int level = 0; level < resolutions.length; level++) {
+            long start = bars.openStart[level];
+            if (start != NO_BAR && start + resolutions[level].millis() <= time) {
+                bars.openStart[level] = NO_BAR;
+                MutableBar bar = bars.slot(level, start);
+                bar.sealed = true;
+                publish(bars, level, bar);
+                sealed++;
+                if (level + 1 < resolutions.length) {
+                    apply(bars, level + 1, bar);
+                }
+            }
+        }
+    }
+
+    /**
+     * Merges {@code source} into the bar at {@code level} that contains it.
+     * An open bar just absorbs it; a sealed bar is re-published and passes
+     * {@code source} on to the next level, since it has already been merged there.
+     * A coarser bar never ends before a finer one, so once a tick passes the
+     * grace check at the finest level every bar it cascades into is in range.
+     */
+    private void apply(SymbolBars bars, int level, MutableBar source) {
+        long start = resolutions[level].startOf(source.start);
+        MutableBar bar = bars.slot(level, start);
+        boolean created = bar.start != start;
+        if (created) {
+            bar.start = start;
+            bar.reset();
+            bar.sealed = start + resolutions[level].millis() <= bars.watermark;
+            if (!bar.sealed) {
+                bars.openStart[level] = start;
+            }
+        }
+        bar.merge(source);
+        if (!bar.sealed) {
+            return;
+        }
+        if (created) {
+            // a gap bar that only came into existence late: first publication
+            sealed++;
+        } else {
+            bar.revision++;
+            revised++;
+        }
+        publish(bars, level, bar);
+        if (level + 1 < resolutions.length) {
+            apply(bars, level + 1, source);
+        }
+    }
+
+    private void publish(SymbolBars bars, int level, MutableBar bar) {
+        onBar.accept(bar.toBar(bars.symbol, resolutions[level]));
+    }
+
+    /**
+     * Per-symbol state: a ring of bars per resolution and the shared watermark.
+     */
+    private static final class SymbolBars {
+
+        final String symbol;
+        final long[] spans;
+        final MutableBar[][] rings;
+        final long[] openStart;
+        long watermark = Long.MIN_VALUE;
+
+        SymbolBars(String symbol, Resolution[] resolutions, long graceMillis) {
+            this.symbol = symbol;
+            this.spans = new long[resolutions.length];
+            this.rings = new MutableBar[resolutions.length][];
+            this.openStart = new long[resolutions.length];
+            for (int level = 0; level < resolutions.length; level++) {
+                // every bar that can still be corrected, plus the open one
+                spans[level] = resolutions[level].millis();
+                int size = (int) ((graceMillis + spans[level] - 1) / spans[level]) + 2;
+                rings[level] = new MutableBar[size];
+                for (int i = 0; i < size; i++) {
+                    rings[level][i] = new MutableBar();
+                }
+                openStart[level] = NO_BAR;
+            }
+        }
+
+        MutableBar slot(int level, long start) {
+            MutableBar[] ring = rings[level];
+            return ring[(int) Math.floorMod(Math.floorDiv(start, spans[level]), (long) ring.length)];
+        }
+    }
+
+    /**
+     * One bar's running aggregate. Open and close remember the event time
+     * they came from, so merging yields the same bar in any order.
+     */
+    private static final class MutableBar {
+
+        long start = NO_BAR;
+        long open;
+        long openTime;
+        long high;
+        long low;
+        long close;
+        long closeTime;
+        long volume;
+        long count;
+        int revision;
+        boolean sealed;
+
+        void reset() {
+            openTime = Long.MAX_VALUE;
+            closeTime = Long.MIN_VALUE;
+            high = Long.MIN_VALUE;
+            low = Long.MAX_VALUE;
+            volume = 0;
+            count = 0;
+            revision = 0;
+            sealed = false;
+        }
+
+        void add(long price, long quantity, long time) {
+            open = close = high = low = price;
+            openTime = closeTime = time;
+            volume = quantity;
+            count = 1;
+        }
+
+        void merge(MutableBar other) {
+            if (other.openTime < openTime) {
+                open = other.open;
+                openTime = other.openTime;
+            }
+            if (other.closeTime >= closeTime) {
+                close = other.close;
+                closeTime = other.closeTime;
+            }
+            high = Math.max(high, other.high);
+            low = Math.min(low, other.low);
+            volume = Math.addExact(volume, other.volume);
+            count += other.count;
+        }
+
+        Bar toBar(String symbol, Resolution resolution) {
+            return new Bar(symbol, resolution, Instant.ofEpochMilli(start), open, high, low, close, PRICE_SCALE,
+                    volume, VOLUME_SCALE, count, revision);
+        }
+    }
+}
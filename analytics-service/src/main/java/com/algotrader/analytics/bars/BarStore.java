@@ -0,0 +1,76 @@
+package com.algotrader.analytics.bars;
+
+import com.algotrader.shared.model.Bar;
+import com.algotrader.shared.model.Resolution;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.jooq.impl.DSL.field;
+import static org.jooq.impl.DSL.name;
+import static org.jooq.impl.DSL.table;
+
+/**
+ * Reads persisted bars back for the REST API.
+ * <p>
+ * Corrections are appended as new revisions, so every query keeps only the
+ * highest revision of each bar ({@code DISTINCT ON}).
+ * </p>
+ */
+public class BarStore {
+
+    private static final Field<String> SYMBOL = field(name("symbol"), String.class);
+    private static final Field<String> RESOLUTION = field(name("resolution"), String.class);
+    private static final Field<OffsetDateTime> START = field(name("start_ts"), OffsetDateTime.class);
+    private static final Field<BigDecimal> OPEN = field(name("open"), BigDecimal.class);
+    private static final Field<BigDecimal> HIGH = field(name("high"), BigDecimal.class);
+    private static final Field<BigDecimal> LOW = field(name("low"), BigDecimal.class);
+    private static final Field<BigDecimal> CLOSE = field(name("close"), BigDecimal.class);
+    private static final Field<BigDecimal> VOLUME = field(name("volume"), BigDecimal.class);
+    private static final Field<Long> TRADES = field(name("trades"), Long.class);
+    private static final Field<Integer> REVISION = field(name("revision"), Integer.class);
+
+    private final DSLContext db;
+
+    public BarStore(DataSource dataSource) {
+        this.db = DSL.using(dataSource, SQLDialect.POSTGRES);
+    }
+
+    /**
+     * @param from  inclusive lower bound on the bar start
+     * @param to    exclusive upper bound on the bar start
+     * @param limit the maximum number of bars, taking the most recent
+     * @return the latest revision of each bar, oldest first
+     */
+    public List<Bar> find(String symbol, Resolution resolution, Instant from, Instant to, int limit) {
+        List<Bar> bars = new ArrayList<>(db.select(SYMBOL, RESOLUTION, START, OPEN, HIGH, LOW, CLOSE, VOLUME,
+                        TRADES, REVISION)
+                .distinctOn(START)
+                .from(table(name("bars")))
+                .where(SYMBOL.eq(symbol))
+                .and(RESOLUTION.eq(resolution.label()))
+                .and(START.ge(from.atOffset(ZoneOffset.UTC)))
+                .and(START.lt(to.atOffset(ZoneOffset.UTC)))
+                .orderBy(START.desc(), REVISION.desc())
+                .limit(limit)
+                .fetch(BarStore::toBar));
+        Collections.reverse(bars);
+        return bars;
+    }
+
+    private static Bar toBar(Record r) {
+        return Bar.of(r.get(SYMBOL), Resolution.fromLabel(r.get(RESOLUTION)), r.get(START).toInstant(),
+                r.get(OPEN), r.get(HIGH), r.get(LOW), r.get(CLOSE), r.get(VOLUME), r.get(TRADES), r.get(REVISION));
+    }
+}
@@ -0,0 +1,33 @@
+package com.algotrader.analytics.persist;
+
+import java.time.Duration;
+
+/**
+ * Group-commit settings for a {@link BatchWriter}.
+ *
+ * @param batchSize     write as soon as this many records are buffered
+ * @param flushInterval write whatever is buffered once the oldest record has waited this long
+ * @param queueCapacity the maximum number of records buffered in memory
+ * @param offerTimeout  how long a producer may wait for queue space before the record is dropped
+ * @param retryBackoff  the initial delay before a failed batch is retried (doubles up to 30s)
+ */
+public record BatchConfig(
+        int batchSize,
+        Duration flushInterval,
+        int queueCapacity,
+        Duration offerTimeout,
+        Duration retryBackoff) {
+
+    public BatchConfig {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be > 0, got: " + batchSize);
+        }
+        if (queueCapacity < batchSize) {
+            throw new IllegalArgumentException("Queue capacity (" + queueCapacity
+                    + ") must be >= batch size (" + batchSize + ")");
+        }
+        if (flushInterval.isNegative() || flushInterval.isZero()) {
+            throw new IllegalArgumentException("Flush interval must be positive, got: " + flushInterval);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.algotrader.analytics.persist;
+
+import java.util.List;
+
+/**
+ * Writes a whole batch of records in one round trip.
+ *
+ * @param <T> the record type
+ */
+@FunctionalInterface
+public interface BatchSink<T> {
+
+    /**
+     * Persists every record in {@code batch}, or none of them.
+     *
+     * @throws Exception if the batch could not be written; it will be retried
+     */
+    void write(List<T> batch) throws Exception;
+}
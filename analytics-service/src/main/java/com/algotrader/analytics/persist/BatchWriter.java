@@ -0,0 +1,193 @@
+package com.algotrader.analytics.persist;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buffers records in a bounded queue and hands them to a {@link BatchSink}
+ * in large batches from a single writer thread.
+ * <p>
+ * Group commit: a batch is written as soon as {@code batchSize} records are
+ * buffered, or once the oldest buffered record has waited
+ * {@code flushInterval}, whichever comes first. A failed batch is retried
+ * with exponential backoff and is never split into single-row writes.
+ * </p>
+ * Backpressure: while the sink is slow or failing the queue fills up and
+ * {@link #offer} blocks the producer for up to {@code offerTimeout}; after
+ * that the record is dropped and counted. Heap use is bounded by
+ * {@code queueCapacity + batchSize} records.
+ *
+ * @param <T> the record type
+ */
+public class BatchWriter<T> implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchWriter.class);
+
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+    /** Longest the writer blocks before re-checking for shutdown. */
+    private static final long POLL_SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final String name;
+    private final BatchSink<T> sink;
+    private final BatchConfig config;
+    private final BlockingQueue<T> queue;
+    private final Thread thread;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean running = true;
+
+    /**
+     * @param name names the writer thread and log lines (e.g. "ticks")
+     */
+    public BatchWriter(String name, BatchSink<T> sink, BatchConfig config) {
+        this.name = name;
+        this.sink = sink;
+        this.config = config;
+        this.queue = new ArrayBlockingQueue<>(config.queueCapacity());
+        this.thread = new Thread(this::run, "persist-" + name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Buffers a record, waiting up to {@code offerTimeout} for space.
+     *
+     * @return {@code false} if the record was dropped
+     */
+    public boolean offer(T record) {
+        try {
+            if (running && queue.offer(record, config.offerTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (dropped.incrementAndGet() % 10_000 == 1) {
+            log.warn("[{}] Queue full ({} records) — dropping; {} dropped so far",
+                    name, config.queueCapacity(), dropped.get());
+        }
+        return false;
+    }
+
+    private void run() {
+        List<T> batch = new ArrayList<>(config.batchSize());
+        long flushNanos = config.flushInterval().toNanos();
+        while (running || !queue.isEmpty()) {
+            try {
+                T first = queue.poll(Math.min(flushNanos, POLL_SLICE_NANOS), TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushNanos;
+                while (batch.size() < config.batchSize()) {
+                    queue.drainTo(batch, config.batchSize() - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= config.batchSize() || remaining <= 0 || !running) {
+                        break;
+                    }
+                    T next = queue.poll(Math.min(remaining, POLL_SLICE_NANOS), TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+                writeWithRetry(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                // close() gave up waiting — stop without losing the interrupt
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void writeWithRetry(List<T> batch) throws InterruptedException {
+        Duration backoff = config.retryBackoff();
+        while (true) {
+            try {
+                sink.write(batch);
+                written.addAndGet(batch.size());
+                batches.incrementAndGet();
+                log.debug("[{}] Wrote batch of {}", name, batch.size());
+                return;
+            } catch (Exception e) {
+                failures.incrementAndGet();
+                if (!running) {
+                    log.error("[{}] Discarding batch of {} on shutdown: {}", name, batch.size(), e.getMessage());
+                    dropped.addAndGet(batch.size());
+                    return;
+                }
+                log.error("[{}] Batch of {} failed, retrying in {} ms: {}",
+                        name, batch.size(), backoff.toMillis(), e.getMessage());
+                Thread.sleep(backoff.toMillis());
+                backoff = backoff.multipliedBy(2).compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff.multipliedBy(2);
+            }
+        }
+    }
+
+    /**
+     * @return records successfully written
+     */
+    public long written() {
+        return written.get();
+    }
+
+    /**
+     * @return batches successfully written
+     */
+    public long batches() {
+        return batches.get();
+    }
+
+    /**
+     * @return failed write attempts (each retried)
+     */
+    public long failures() {
+        return failures.get();
+    }
+
+    /**
+     * @return records discarded because the queue stayed full
+     */
+    public long dropped() {
+        return dropped.get();
+    }
+
+    /**
+     * @return records waiting to be written
+     */
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Stops accepting records and writes out whatever is buffered (one
+     * attempt per batch), waiting up to 10 seconds.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+            if (thread.isAlive()) {
+                thread.interrupt();
+                log.warn("[{}] Writer did not drain in time; {} records left unwritten", name, queue.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("[{}] Batch writer closed — {} records in {} batches, {} dropped",
+                name, written.get(), batches.get(), dropped.get());
+    }
+}
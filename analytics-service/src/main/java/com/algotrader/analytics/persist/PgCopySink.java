@@ -0,0 +1,162 @@
+package com.algotrader.analytics.persist;
+
+import com.algotrader.shared.model.Bar;
+import com.algotrader.shared.model.Price;
+import com.algotrader.shared.model.Signal;
+import com.algotrader.shared.model.Tick;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Writes a batch with a single PostgreSQL {@code COPY ... FROM STDIN} in CSV
+ * format via the driver's {@link CopyManager}.
+ * <p>
+ * The whole batch is rendered into one buffer and streamed in one command,
+ * which runs as one transaction: either every row lands or none does.
+ * </p>
+ *
+ * @param <T> the record type
+ */
+public class PgCopySink<T> implements BatchSink<T> {
+
+    /**
+     * Appends one CSV row (without the trailing newline) for a record.
+     */
+    @FunctionalInterface
+    public interface RowFormatter<T> {
+        void format(T record, StringBuilder row);
+    }
+
+    private final DataSource dataSource;
+    private final String copySql;
+    private final RowFormatter<T> formatter;
+    private final StringBuilder buffer = new StringBuilder(1 << 16);
+
+    /**
+     * @param table   the target table
+     * @param columns the target columns, in the order the formatter writes them
+     */
+    public PgCopySink(DataSource dataSource, String table, List<String> columns, RowFormatter<T> formatter) {
+        this.dataSource = dataSource;
+        this.copySql = "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN (FORMAT csv)";
+        this.formatter = formatter;
+    }
+
+    /**
+     * @return a sink for the {@code ticks} table
+     */
+    public static PgCopySink<Tick> ticks(DataSource dataSource) {
+        return new PgCopySink<>(dataSource, "ticks", List.of("symbol", "price", "ts"), (tick, row) -> {
+            appendText(row, tick.symbol());
+            row.append(',');
+            appendPrice(row, tick.priceMantissa(), tick.priceScale());
+            row.append(',');
+            appendInstant(row, tick.timestamp());
+        });
+    }
+
+    /**
+     * @return a sink for the {@code signals} table
+     */
+    public static PgCopySink<Signal> signals(DataSource dataSource) {
+        return new PgCopySink<>(dataSource, "signals", List.of("type", "symbol", "price", "strategy", "ts"),
+                (signal, row) -> {
+                    appendText(row, signal.type() == null ? null : signal.type().name());
+                    row.append(',');
+                    appendText(row, signal.symbol());
+                    row.append(',');
+                    appendPrice(row, signal.priceMantissa(), signal.priceScale());
+                    row.append(',');
+                    appendText(row, signal.strategy());
+                    row.append(',');
+                    appendInstant(row, signal.timestamp());
+                });
+    }
+
+    /**
+     * @return a sink for the {@code bars} table; revisions are appended, not updated in place
+     */
+    public static PgCopySink<Bar> bars(DataSource dataSource) {
+        return new PgCopySink<>(dataSource, "bars", List.of("symbol", "resolution", "start_ts",
+                "open", "high", "low", "close", "volume", "trades", "revision"), (bar, row) -> {
+                    appendText(row, bar.symbol());
+                    row.append(',');
+                    appendText(row, bar.resolution().label());
+                    row.append(',');
+                    appendInstant(row, bar.start());
+                    row.append(',');
+                    appendPrice(row, bar.openMantissa(), bar.priceScale());
+                    row.append(',');
+                    appendPrice(row, bar.highMantissa(), bar.priceScale());
+                    row.append(',');
+                    appendPrice(row, bar.lowMantissa(), bar.priceScale());
+                    row.append(',');
+                    appendPrice(row, bar.closeMantissa(), bar.priceScale());
+                    row.append(',');
+                    appendPrice(row, bar.volumeMantissa(), bar.volumeScale());
+                    row.append(',').append(bar.count()).append(',').append(bar.revision());
+                });
+    }
+
+    @Override
+    public void write(List<T> batch) throws Exception {
+        byte[] payload = encode(batch);
+        try (Connection connection = dataSource.getConnection()) {
+            CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+            copy.copyIn(copySql, new ByteArrayInputStream(payload));
+        }
+    }
+
+    String copySql() {
+        return copySql;
+    }
+
+    /**
+     * Renders the batch as CSV, one row per line. Called only from the
+     * writer thread, so the buffer is reused across batches.
+     */
+    byte[] encode(List<T> batch) {
+        buffer.setLength(0);
+        for (T record : batch) {
+            formatter.format(record, buffer);
+            buffer.append('\n');
+        }
+        return buffer.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // ── CSV fields (an unquoted empty field is NULL) ───────────────────
+
+    static void appendText(StringBuilder row, String value) {
+        if (value == null) {
+            return;
+        }
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                row.append('"');
+            }
+            row.append(c);
+        }
+        row.append('"');
+    }
+
+    static void appendPrice(StringBuilder row, long mantissa, int scale) {
+        if (mantissa != Price.NONE) {
+            Price.appendTo(row, mantissa, scale);
+        }
+    }
+
+    static void appendInstant(StringBuilder row, Instant instant) {
+        if (instant != null) {
+            row.append(instant);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.algotrader.analytics.persist;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Applies the idempotent {@code db/schema.sql} script at start-up.
+ */
+public final class Schema {
+
+    private static final Logger log = LoggerFactory.getLogger(Schema.class);
+
+    private static final String SCRIPT = "/db/schema.sql";
+
+    private Schema() {
+        // utility class
+    }
+
+    public static void apply(DataSource dataSource) {
+        String script;
+        try (InputStream in = Schema.class.getResourceAsStream(SCRIPT)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing classpath resource " + SCRIPT);
+            }
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read " + SCRIPT, e);
+        }
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (String sql : script.replaceAll("(?m)^--.*$", "").split(";")) {
+                if (!sql.isBlank()) {
+                    statement.execute(sql.strip());
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to apply " + SCRIPT, e);
+        }
+        log.info("Applied schema {}", SCRIPT);
+    }
+}
@@ -0,0 +1,121 @@
+package com.algotrader.analytics.redis;
+
+import com.algotrader.analytics.bars.BarAggregator;
+import com.algotrader.analytics.persist.BatchWriter;
+import com.algotrader.shared.codec.MessageCodec;
+import com.algotrader.shared.codec.NegotiatingCodec;
+import com.algotrader.shared.codec.WireFormat;
+import com.algotrader.shared.model.Price;
+import com.algotrader.shared.model.Signal;
+import com.algotrader.shared.model.Tick;
+import com.algotrader.shared.stream.RedisStreamConsumer;
+import com.algotrader.shared.stream.RedisTransport;
+import com.algotrader.shared.stream.TransportConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Subscribes to the tick and signal channels and hands every decoded record
+ * to its {@link BatchWriter}; ticks also feed the {@link BarAggregator}.
+ * <p>
+ * Records missing a required column are rejected here, so a single bad
+ * message can never poison a whole {@code COPY} batch.
+ * </p>
+ * With {@link com.algotrader.shared.stream.Transport#STREAMS} the tick and
+ * signal streams are each read by a {@link RedisStreamConsumer} in this
+ * service's consumer group instead.
+ */
+public class PersistenceListener implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PersistenceListener.class);
+
+    private final RedisTransport redis;
+    private final RedisTransport.Receiver ticks;
+    private final RedisTransport.Receiver signals;
+    private final MessageCodec<Tick> tickCodec = NegotiatingCodec.ticks(WireFormat.JSON);
+    private final MessageCodec<Signal> signalCodec = NegotiatingCodec.signals(WireFormat.JSON);
+    private final BatchWriter<Tick> tickWriter;
+    private final BatchWriter<Signal> signalWriter;
+    private final BarAggregator bars;
+    private final String tickChannel;
+    private final String signalChannel;
+    private final AtomicLong rejected = new AtomicLong();
+
+    public PersistenceListener(String redisUri, TransportConfig transport, String tickChannel, String signalChannel,
+            BatchWriter<Tick> tickWriter, BatchWriter<Signal> signalWriter, BarAggregator bars) {
+        this.redis = new RedisTransport(redisUri, transport);
+        this.tickChannel = tickChannel;
+        this.signalChannel = signalChannel;
+        this.tickWriter = tickWriter;
+        this.signalWriter = signalWriter;
+        this.bars = bars;
+
+        // ── Inputs (ticks, signals) ─────────────────────────────────
+        this.ticks = redis.receive(tickChannel, payload -> onMessage(tickChannel, payload));
+        this.signals = redis.receive(signalChannel, payload -> onMessage(signalChannel, payload));
+        log.info("{} '{}' and '{}' for persistence",
+                transport.isStreams() ? "Consuming streams" : "Subscribed to", tickChannel, signalChannel);
+    }
+
+    /**
+     * Runs on the Lettuce event loop (or a stream consumer thread): while a
+     * writer's queue is full this blocks, which stops reading from Redis —
+     * the backpressure path.
+     */
+    private void onMessage(String channel, byte[] message) {
+        try {
+            if (channel.equals(tickChannel)) {
+                Tick tick = tickCodec.decode(message);
+                if (tick.symbol() == null || tick.priceMantissa() == Price.NONE || tick.timestamp() == null) {
+                    reject(channel, tick);
+                    return;
+                }
+                tickWriter.offer(tick);
+                bars.onTick(tick);
+            } else if (channel.equals(signalChannel)) {
+                Signal signal = signalCodec.decode(message);
+                if (signal.type() == null || signal.symbol() == null || signal.priceMantissa() == Price.NONE
+                        || signal.strategy() == null || signal.timestamp() == null) {
+                    reject(channel, signal);
+                    return;
+                }
+                signalWriter.offer(signal);
+            }
+        } catch (Exception e) {
+            rejected.incrementAndGet();
+            log.error("Error processing message from '{}': {}", channel, e.getMessage(), e);
+        }
+    }
+
+    private void reject(String channel, Object record) {
+        rejected.incrementAndGet();
+        log.warn("Rejecting incomplete record from '{}': {}", channel, record);
+    }
+
+    /**
+     * @return messages that could not be decoded or were missing required fields
+     */
+    public long rejected() {
+        return rejected.get();
+    }
+
+    /**
+     * Pings Redis to verify connectivity.
+     */
+    public boolean isConnected() {
+        return redis.isConnected();
+    }
+
+    /**
+     * Unsubscribes; the writers are closed by their owner.
+     */
+    @Override
+    public void close() {
+        log.info("Closing persistence listener...");
+        ticks.close();
+        signals.close();
+        redis.close();
+    }
+}
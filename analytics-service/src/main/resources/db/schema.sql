@@ -0,0 +1,35 @@
+-- Analytics persistence schema (applied at start-up; idempotent)
+
+CREATE TABLE IF NOT EXISTS ticks (
+    symbol TEXT        NOT NULL,
+    price  NUMERIC     NOT NULL,
+    ts     TIMESTAMPTZ NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS ticks_symbol_ts_idx ON ticks (symbol, ts);
+
+CREATE TABLE IF NOT EXISTS signals (
+    type     TEXT        NOT NULL,
+    symbol   TEXT        NOT NULL,
+    price    NUMERIC     NOT NULL,
+    strategy TEXT        NOT NULL,
+    ts       TIMESTAMPTZ NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS signals_symbol_ts_idx ON signals (symbol, ts);
+
+-- OHLCV bars; a late-tick correction appends a higher revision rather than updating
+CREATE TABLE IF NOT EXISTS bars (
+    symbol     TEXT        NOT NULL,
+    resolution TEXT        NOT NULL,
+    start_ts   TIMESTAMPTZ NOT NULL,
+    open       NUMERIC     NOT NULL,
+    high       NUMERIC     NOT NULL,
+    low        NUMERIC     NOT NULL,
+    close      NUMERIC     NOT NULL,
+    volume     NUMERIC     NOT NULL,
+    trades     BIGINT      NOT NULL,
+    revision   INT         NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS bars_symbol_resolution_start_idx ON bars (symbol, resolution, start_ts, revision);
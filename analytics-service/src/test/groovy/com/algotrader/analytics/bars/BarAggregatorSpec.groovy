@@ -0,0 +1,172 @@
+package com.algotrader.analytics.bars
+
+import com.algotrader.shared.model.Bar
+import com.algotrader.shared.model.Resolution
+import com.algotrader.shared.model.Tick
+import spock.lang.Specification
+
+import java.time.Duration
+import java.time.Instant
+
+class BarAggregatorSpec extends Specification {
+
+    static final Instant T0 = Instant.parse("2026-01-15T10:00:00Z")
+
+    List<Bar> published = []
+    def aggregator = new BarAggregator([Resolution.S1, Resolution.M1], Duration.ofSeconds(2), { published << it })
+
+    static Tick tick(String price, long offsetMillis) {
+        new Tick("BTCUSDT", new BigDecimal(price), T0.plusMillis(offsetMillis))
+    }
+
+    def "should keep OHLC and count on the open bar without publishing it"() {
+        when:
+        ["100", "105", "98", "101"].eachWithIndex { p, i -> aggregator.onTick(tick(p, i * 100)) }
+
+        then:
+        published.isEmpty()
+
+        and:
+        def bar = aggregator.openBar("BTCUSDT", Resolution.S1)
+        bar.start() == T0
+        bar.open() == 100
+        bar.high() == 105
+        bar.low() == 98
+        bar.close() == 101
+        bar.count() == 4
+        bar.revision() == 0
+    }
+
+    def "should seal a bar when a tick crosses its boundary and cascade it into the coarser bar"() {
+        when:
+        aggregator.onTick(tick("100", 0))
+        aggregator.onTick(tick("110", 500))
+        aggregator.onTick(tick("90", 1_200))
+
+        then:
+        published.size() == 1
+        with(published[0]) {
+            resolution() == Resolution.S1
+            start() == T0
+            open() == 100
+            close() == 110
+            count() == 2
+        }
+
+        and: "the minute bar has absorbed the sealed second, not yet the open one"
+        with(aggregator.openBar("BTCUSDT", Resolution.M1)) {
+            high() == 110
+            count() == 2
+        }
+
+        when: "the minute boundary passes"
+        aggregator.onTick(tick("95", 60_000))
+
+        then:
+        published*.resolution() == [Resolution.S1, Resolution.S1, Resolution.M1]
+        with(published[2]) {
+            start() == T0
+            open() == 100
+            high() == 110
+            low() == 90
+            close() == 90
+            count() == 3
+        }
+    }
+
+    def "should correct an emitted bar and its coarser bars with a late tick inside the grace window"() {
+        given: "the first second and the first minute are sealed"
+        aggregator.onTick(tick("100", 59_000))
+        aggregator.onTick(tick("100", 60_100))
+        published.clear()
+
+        when: "a tick for 10:00:59 arrives 1.5s after the bar sealed"
+        def accepted = aggregator.onTrade("BTCUSDT", 120, 0, 0, 0, T0.plusMillis(59_500).toEpochMilli())
+
+        then: "the second and the minute are re-published as revision 1"
+        accepted
+        published*.resolution() == [Resolution.S1, Resolution.M1]
+        published.every { it.revision() == 1 && it.high() == 120 && it.close() == 120 && it.count() == 2 }
+        aggregator.revised() == 2
+    }
+
+    def "should drop ticks whose bar left the grace window"() {
+        given:
+        aggregator.onTick(tick("100", 0))
+        aggregator.onTick(tick("100", 5_000))
+        published.clear()
+
+        expect:
+        !aggregator.onTrade("BTCUSDT", 120, 0, 0, 0, T0.plusMillis(500).toEpochMilli())
+        aggregator.lateDropped() == 1
+        published.isEmpty()
+    }
+
+    def "should pick open and close by event time when ticks arrive out of order"() {
+        when:
+        aggregator.onTick(tick("102", 600))
+        aggregator.onTick(tick("100", 100))
+        aggregator.onTick(tick("101", 300))
+
+        then:
+        with(aggregator.openBar("BTCUSDT", Resolution.S1)) {
+            open() == 100
+            close() == 102
+        }
+    }
+
+    def "should publish a bar for a gap that only a late tick fills"() {
+        given: "ticks at 0s and 2s leave 10:00:01 empty"
+        aggregator.onTick(tick("100", 0))
+        aggregator.onTick(tick("100", 2_000))
+        published.clear()
+
+        when:
+        aggregator.onTick(tick("99", 1_500))
+
+        then:
+        published.size() == 1
+        with(published[0]) {
+            start() == T0.plusSeconds(1)
+            revision() == 0
+            close() == 99
+        }
+
+        and: "the open minute bar includes it"
+        aggregator.openBar("BTCUSDT", Resolution.M1).count() == 2
+    }
+
+    def "should seal quiet symbols when time is advanced"() {
+        given:
+        aggregator.onTick(tick("100", 0))
+
+        when:
+        aggregator.advanceTo(T0.plusSeconds(61))
+
+        then:
+        published*.resolution() == [Resolution.S1, Resolution.M1]
+        aggregator.sealed() == 2
+        aggregator.openBar("BTCUSDT", Resolution.S1) == null
+    }
+
+    def "should normalize prices and accumulate volume at fixed scales"() {
+        when:
+        aggregator.onTrade("BTCUSDT", 4200050, 2, 15, 1, T0.toEpochMilli())
+        aggregator.onTrade("BTCUSDT", 4200000, 2, 25, 2, T0.toEpochMilli())
+
+        then:
+        with(aggregator.openBar("BTCUSDT", Resolution.S1)) {
+            priceScale() == BarAggregator.PRICE_SCALE
+            open() == new BigDecimal("42000.50")
+            volume() == new BigDecimal("1.75")
+        }
+    }
+
+    def "should reject resolutions that do not nest"() {
+        when:
+        new BarAggregator([Resolution.M1, Resolution.S1], Duration.ZERO, {})
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
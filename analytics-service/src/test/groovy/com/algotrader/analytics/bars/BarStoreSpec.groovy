@@ -0,0 +1,58 @@
+package com.algotrader.analytics.bars
+
+import com.algotrader.shared.model.Resolution
+import org.jooq.SQLDialect
+import org.jooq.impl.DSL
+import org.jooq.tools.jdbc.MockConnection
+import org.jooq.tools.jdbc.MockResult
+import spock.lang.Specification
+
+import javax.sql.DataSource
+import java.time.Instant
+import java.time.OffsetDateTime
+import java.time.ZoneOffset
+
+import static org.jooq.impl.DSL.field
+import static org.jooq.impl.DSL.name
+
+class BarStoreSpec extends Specification {
+
+    def "should query the latest revision of each bar and return them oldest first"() {
+        given: "a stand-in database that returns two bars newest first"
+        def sql = []
+        def ctx = DSL.using(SQLDialect.POSTGRES)
+        def fields = ["symbol", "resolution", "start_ts", "open", "high", "low", "close", "volume", "trades",
+                      "revision"]
+        def types = [String, String, OffsetDateTime, BigDecimal, BigDecimal, BigDecimal, BigDecimal, BigDecimal,
+                     Long, Integer]
+        def columns = [fields, types].transpose().collect { n, t -> field(name(n as String), t as Class) }
+        def result = ctx.newResult(*columns)
+        [["10:01", "101.5"], ["10:00", "100.25"]].each { time, price ->
+            def record = ctx.newRecord(*columns)
+            record.fromArray("BTCUSDT", "1m", OffsetDateTime.parse("2026-01-15T${time}:00Z"),
+                    new BigDecimal(price), new BigDecimal(price), new BigDecimal(price), new BigDecimal(price),
+                    BigDecimal.ZERO, 3L, 1)
+            result.add(record)
+        }
+        def connection = new MockConnection({ context ->
+            sql << context.sql()
+            [new MockResult(result.size(), result)] as MockResult[]
+        })
+        def store = new BarStore(Mock(DataSource) { getConnection() >> connection })
+
+        when:
+        def bars = store.find("BTCUSDT", Resolution.M1, Instant.EPOCH, Instant.parse("2026-01-16T00:00:00Z"), 2)
+
+        then:
+        sql.size() == 1
+        sql[0].startsWith('select distinct on ("start_ts")')
+        sql[0].contains('order by "start_ts" desc, "revision" desc')
+        sql[0].contains('"resolution" = ?')
+
+        and:
+        bars*.start() == [Instant.parse("2026-01-15T10:00:00Z"), Instant.parse("2026-01-15T10:01:00Z")]
+        bars[0].close() == new BigDecimal("100.25")
+        bars[1].priceScale() == 1
+        bars.every { it.resolution() == Resolution.M1 && it.count() == 3 && it.revision() == 1 }
+    }
+}
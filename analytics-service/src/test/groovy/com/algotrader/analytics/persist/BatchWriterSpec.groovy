@@ -0,0 +1,125 @@
+package com.algotrader.analytics.persist
+
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.time.Duration
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class BatchWriterSpec extends Specification {
+
+    def batches = new CopyOnWriteArrayList<List<Integer>>()
+    def recordingSink = { List<Integer> batch -> batches << new ArrayList<>(batch) } as BatchSink<Integer>
+    def conditions = new PollingConditions(timeout: 5)
+
+    static BatchConfig config(int batchSize, long flushMillis, int capacity, long offerTimeoutMillis = 0) {
+        new BatchConfig(batchSize, Duration.ofMillis(flushMillis), capacity,
+                Duration.ofMillis(offerTimeoutMillis), Duration.ofMillis(10))
+    }
+
+    def "should write full batches as soon as they are available"() {
+        given: "a long flush interval so only the size trigger can fire"
+        def writer = new BatchWriter<Integer>("test", recordingSink, config(100, 60_000, 1000))
+
+        when:
+        (1..250).each { writer.offer(it) }
+
+        then:
+        conditions.eventually { assert batches.size() >= 2 }
+        batches[0] == (1..100).toList()
+        batches[1] == (101..200).toList()
+
+        cleanup:
+        writer.close()
+    }
+
+    def "should group-commit a partial batch once the flush interval elapses"() {
+        given:
+        def writer = new BatchWriter<Integer>("test", recordingSink, config(1000, 50, 1000))
+
+        when:
+        (1..10).each { writer.offer(it) }
+
+        then:
+        conditions.eventually { assert batches == [(1..10).toList()] }
+        writer.written() == 10
+        writer.batches() == 1
+
+        cleanup:
+        writer.close()
+    }
+
+    def "should retry a failed batch whole rather than row by row"() {
+        given: "a sink that fails twice"
+        def attempts = new AtomicInteger()
+        def flaky = { List<Integer> batch ->
+            if (attempts.incrementAndGet() <= 2) {
+                throw new IllegalStateException("db down")
+            }
+            batches << new ArrayList<>(batch)
+        } as BatchSink<Integer>
+        def writer = new BatchWriter<Integer>("test", flaky, config(5, 20, 100))
+
+        when:
+        (1..5).each { writer.offer(it) }
+
+        then:
+        conditions.eventually { assert batches == [[1, 2, 3, 4, 5]] }
+        writer.failures() == 2
+        writer.written() == 5
+
+        cleanup:
+        writer.close()
+    }
+
+    def "should apply backpressure and drop only once the bounded queue stays full"() {
+        given: "a sink that blocks until released"
+        def release = new CountDownLatch(1)
+        def slow = { List<Integer> batch -> release.await(5, TimeUnit.SECONDS); batches << batch } as BatchSink<Integer>
+        def writer = new BatchWriter<Integer>("test", slow, config(2, 10, 4, 20))
+
+        when: "the writer holds one batch and the queue fills"
+        writer.offer(1)
+        writer.offer(2)
+        conditions.eventually { assert writer.queueDepth() == 0 }
+        def accepted = (3..10).collect { writer.offer(it) }
+
+        then: "exactly the queue capacity is accepted; the rest time out and drop"
+        accepted.count(true) == 4
+        writer.dropped() == 4
+        writer.queueDepth() == 4
+
+        when:
+        release.countDown()
+
+        then:
+        conditions.eventually { assert writer.written() == 6 }
+
+        cleanup:
+        writer.close()
+    }
+
+    def "should drain buffered records on close"() {
+        given:
+        def writer = new BatchWriter<Integer>("test", recordingSink, config(1000, 60_000, 1000))
+        (1..7).each { writer.offer(it) }
+
+        when:
+        writer.close()
+
+        then:
+        batches.flatten() == (1..7).toList()
+        !writer.offer(8)
+    }
+
+    def "should validate its configuration"() {
+        when:
+        config(10, 50, 5)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
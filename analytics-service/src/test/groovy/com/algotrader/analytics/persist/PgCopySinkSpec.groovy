@@ -0,0 +1,96 @@
+package com.algotrader.analytics.persist
+
+import com.algotrader.shared.model.Bar
+import com.algotrader.shared.model.Resolution
+import com.algotrader.shared.model.Signal
+import com.algotrader.shared.model.Bar
+import com.algotrader.shared.model.Resolution
+import com.algotrader.shared.model.SignalType
+import com.algotrader.shared.model.Tick
+import org.postgresql.PGConnection
+import org.postgresql.copy.CopyManager
+import spock.lang.Specification
+
+import javax.sql.DataSource
+import java.nio.charset.StandardCharsets
+import java.sql.Connection
+import java.time.Instant
+
+class PgCopySinkSpec extends Specification {
+
+    def ts = Instant.parse("2026-01-15T10:00:00.123Z")
+
+    def "should render ticks as CSV rows"() {
+        given:
+        def sink = PgCopySink.ticks(Mock(DataSource))
+
+        when:
+        def csv = new String(sink.encode([
+                new Tick("BTCUSDT", new BigDecimal("42000.50"), ts),
+                new Tick("ETHUSDT", new BigDecimal("0.00000001"), ts)]), StandardCharsets.UTF_8)
+
+        then:
+        csv == '"BTCUSDT",42000.50,2026-01-15T10:00:00.123Z\n' +
+                '"ETHUSDT",1E-8,2026-01-15T10:00:00.123Z\n'
+        sink.copySql() == "COPY ticks (symbol, price, ts) FROM STDIN (FORMAT csv)"
+    }
+
+    def "should quote embedded quotes and leave nulls as empty fields"() {
+        given:
+        def sink = PgCopySink.signals(Mock(DataSource))
+
+        expect:
+        new String(sink.encode([new Signal(SignalType.BUY, "X", new BigDecimal("1.5"), 'SMA "fast"', null)]),
+                StandardCharsets.UTF_8) == '"BUY","X",1.5,"SMA ""fast""",\n'
+    }
+
+    def "should render bars with their revision"() {
+        given:
+        def sink = PgCopySink.bars(Mock(DataSource))
+        def bar = new Bar("BTCUSDT", Resolution.M1, Instant.parse("2026-01-15T10:00:00Z"),
+                4200050L, 4210000L, 4190025L, 4200000L, 2, 150L, 2, 42, 1)
+
+        expect:
+        new String(sink.encode([bar]), StandardCharsets.UTF_8) ==
+                '"BTCUSDT","1m",2026-01-15T10:00:00Z,42000.50,42100.00,41900.25,42000.00,1.50,42,1\n'
+        sink.copySql() == "COPY bars (symbol, resolution, start_ts, open, high, low, close, volume, trades, " +
+                "revision) FROM STDIN (FORMAT csv)"
+    }
+
+    def "should stream the whole batch through a single COPY"() {
+        given: "a stand-in pool whose connection exposes a CopyManager"
+        def copyManager = Mock(CopyManager)
+        def pgConnection = Mock(PGConnection) { getCopyAPI() >> copyManager }
+        def connection = Mock(Connection) { unwrap(PGConnection) >> pgConnection }
+        def dataSource = Mock(DataSource) { getConnection() >> connection }
+        def sink = PgCopySink.ticks(dataSource)
+        def batch = (1..1000).collect { new Tick("S$it".toString(), BigDecimal.valueOf(it), ts) }
+        String copied = null
+
+        when:
+        sink.write(batch)
+
+        then:
+        1 * copyManager.copyIn("COPY ticks (symbol, price, ts) FROM STDIN (FORMAT csv)", _ as InputStream) >> {
+            String sql, InputStream in -> copied = new String(in.readAllBytes(), StandardCharsets.UTF_8); 1000L
+        }
+        1 * connection.close()
+        copied.readLines().size() == 1000
+        copied.readLines()[999] == '"S1000",1000,2026-01-15T10:00:00.123Z'
+    }
+
+    def "should propagate COPY failures so the batch is retried"() {
+        given:
+        def copyManager = Mock(CopyManager) { copyIn(*_) >> { throw new java.sql.SQLException("boom") } }
+        def pgConnection = Mock(PGConnection) { getCopyAPI() >> copyManager }
+        def connection = Mock(Connection) { unwrap(PGConnection) >> pgConnection }
+        def sink = PgCopySink.ticks(Mock(DataSource) { getConnection() >> connection })
+
+        when:
+        sink.write([new Tick("X", BigDecimal.ONE, ts)])
+
+        then:
+        thrown(java.sql.SQLException)
+        1 * connection.close()
+    }
+}
@@ -0,0 +1,41 @@
+// benchmarks: JMH micro-benchmarks for the hot paths
+//
+//   TickJsonBenchmark  — tick JSON decode/encode, databind vs streaming
+//   StrategyBenchmark  — TradingStrategy.process by window size and symbol count
+//   PipelineBenchmark  — decode → strategy → encode/publish, Redis stubbed out
+//   JournalBenchmark   — mmap tick journal append, and replay into the strategies
+//   IndicatorBenchmark — streaming indicator update cost and allocation, by period
+//
+// Everything runs in-process, so the suites need no network or Redis (the journal
+// suite writes to a temp directory).
+//
+//   gradle :benchmarks:jmh                                  # all suites, with the gc profiler
+//   gradle :benchmarks:jmh -Pjmh.includes=TickJsonBenchmark # one suite
+//   gradle :benchmarks:jmh -Pjmh.args="-f 1 -wi 1 -i 1"     # extra JMH options
+
+dependencies {
+    implementation(project(":shared-lib"))
+    implementation(project(":strategy-engine"))
+
+    // ── JMH (benchmark harness + annotation processor) ──────────────
+    implementation("org.openjdk.jmh:jmh-core:1.37")
+    annotationProcessor("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+
+    // ── Lettuce (RedisCommands stub in the pipeline suite) ──────────
+    implementation("io.lettuce:lettuce-core:6.3.1.RELEASE")
+
+    // ── Jackson (baseline for the JSON comparisons) ─────────────────
+    implementation("com.fasterxml.jackson.core:jackson-databind:2.16.1")
+    implementation("com.fasterxml.jackson.datatype:jackson-datatype-jsr310:2.16.1")
+}
+
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks (throughput, average time and gc allocation rate)."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+
+    val includes = (project.findProperty("jmh.includes") as String?) ?: ".*"
+    val extra = (project.findProperty("jmh.args") as String?)?.split(" ")?.filter { it.isNotBlank() } ?: emptyList()
+    args = listOf(includes, "-prof", "gc", "-rf", "json", "-rff", "build/jmh-result.json") + extra
+}
@@ -0,0 +1,79 @@
+package com.algotrader.benchmarks;
+
+import com.algotrader.shared.model.Tick;
+import com.algotrader.strategy.indicator.AtrIndicator;
+import com.algotrader.strategy.indicator.BollingerBands;
+import com.algotrader.strategy.indicator.EmaIndicator;
+import com.algotrader.strategy.indicator.Indicator;
+import com.algotrader.strategy.indicator.Indicators;
+import com.algotrader.strategy.indicator.RsiIndicator;
+import com.algotrader.strategy.indicator.SmaIndicator;
+import com.algotrader.strategy.indicator.VwapIndicator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Indicator#update} plus a read of the value, per price, for every
+ * streaming indicator at a short and a long period. Each should cost the same
+ * at both periods and allocate nothing ({@code gc.alloc.rate.norm} ≈ 0).
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-bench.xml")
+@State(Scope.Thread)
+public class IndicatorBenchmark {
+
+    private static final int PRICES = 1 << 16;
+
+    @Param({"SMA", "EMA", "RSI", "BOLLINGER", "VWAP", "ATR"})
+    public String kind;
+
+    @Param({"14", "200"})
+    public int period;
+
+    private long[] prices;
+    private Indicator indicator;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Tick[] ticks = TickFixtures.randomWalk(PRICES, 1, 42);
+        prices = new long[PRICES];
+        for (int i = 0; i < PRICES; i++) {
+            prices[i] = Indicators.toFixedPoint(ticks[i].priceMantissa(), ticks[i].priceScale());
+        }
+        indicator = switch (kind) {
+            case "SMA" -> new SmaIndicator(period);
+            case "EMA" -> new EmaIndicator(period);
+            case "RSI" -> new RsiIndicator(period);
+            case "BOLLINGER" -> new BollingerBands(period, 2.0);
+            case "VWAP" -> new VwapIndicator(period);
+            case "ATR" -> new AtrIndicator(period);
+            default -> throw new IllegalArgumentException("Unknown indicator: " + kind);
+        };
+        // Warm every indicator up so the measurement sees the steady-state path
+        for (int i = 0; i <= period; i++) {
+            indicator.update(prices[i]);
+        }
+    }
+
+    @Benchmark
+    public double update() {
+        indicator.update(prices[next++ & (PRICES - 1)]);
+        return indicator.value();
+    }
+}
@@ -0,0 +1,111 @@
+package com.algotrader.benchmarks;
+
+import com.algotrader.shared.journal.JournalReader;
+import com.algotrader.shared.journal.TickJournal;
+import com.algotrader.shared.model.Tick;
+import com.algotrader.strategy.TradingStrategy;
+import com.algotrader.strategy.impl.SimpleMovingAverageStrategy;
+import com.algotrader.strategy.registry.StrategyRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * {@link TickJournal} append cost per tick (expected: no allocation), and
+ * replaying a captured journal — raw, and through the per-symbol SMA
+ * {@link StrategyRegistry} as a backtest would.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-bench.xml")
+@State(Scope.Thread)
+public class JournalBenchmark {
+
+    private static final int TICKS = 1 << 16;
+    private static final int REPLAY_TICKS = 1 << 20;
+    private static final int SYMBOLS = 100;
+
+    private Tick[] ticks;
+    private Path appendDir;
+    private Path replayDir;
+    private TickJournal journal;
+    private TradingStrategy registry;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ticks = TickFixtures.randomWalk(TICKS, SYMBOLS, 42);
+        appendDir = Files.createTempDirectory("journal-append");
+        journal = new TickJournal(appendDir);
+
+        replayDir = Files.createTempDirectory("journal-replay");
+        try (TickJournal capture = new TickJournal(replayDir)) {
+            for (int i = 0; i < REPLAY_TICKS; i++) {
+                capture.append(ticks[i & (TICKS - 1)]);
+            }
+        }
+        registry = new StrategyRegistry(() -> new SimpleMovingAverageStrategy(5), SYMBOLS, Duration.ofHours(1));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        delete(appendDir);
+        delete(replayDir);
+    }
+
+    /** One tick into the mapped segment; rolls to a new 64 MiB file every 1M calls. */
+    @Benchmark
+    public void append() {
+        journal.append(ticks[next++ & (TICKS - 1)]);
+    }
+
+    /** Sequential read of 1M records as primitives. */
+    @Benchmark
+    @OperationsPerInvocation(REPLAY_TICKS)
+    public void replayRaw(Blackhole bh) {
+        try (JournalReader reader = new JournalReader(replayDir)) {
+            while (reader.poll((symbol, mantissa, scale, nanos) -> bh.consume(mantissa), 4096) > 0) {
+                // drain
+            }
+        }
+    }
+
+    /** 1M journaled ticks decoded to {@link Tick}s and run through the strategies. */
+    @Benchmark
+    @OperationsPerInvocation(REPLAY_TICKS)
+    public void replayThroughStrategy(Blackhole bh) {
+        try (JournalReader reader = new JournalReader(replayDir)) {
+            reader.replay(tick -> bh.consume(registry.process(tick)));
+        }
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+}
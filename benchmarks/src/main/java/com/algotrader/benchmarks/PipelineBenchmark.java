@@ -0,0 +1,110 @@
+package com.algotrader.benchmarks;
+
+import com.algotrader.shared.codec.NegotiatingCodec;
+import com.algotrader.shared.codec.WireFormat;
+import com.algotrader.shared.model.Signal;
+import com.algotrader.shared.model.Tick;
+import com.algotrader.strategy.TradingStrategy;
+import com.algotrader.strategy.impl.SimpleMovingAverageStrategy;
+import com.algotrader.strategy.redis.SignalPublisher;
+import com.algotrader.strategy.redis.SyncSignalPublisher;
+import com.algotrader.strategy.registry.StrategyRegistry;
+import io.lettuce.core.api.sync.RedisCommands;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-process path a tick takes through the strategy engine, with Redis
+ * replaced by an in-memory stub: decode the pub/sub payload, run the
+ * per-symbol strategy, and encode and "publish" any resulting signal — the
+ * body of {@code RedisListener.onMessage}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-bench.xml")
+@State(Scope.Thread)
+public class PipelineBenchmark {
+
+    private static final int TICKS = 1 << 16;
+    private static final String CHANNEL = "trading_signals";
+
+    @Param({"JSON", "BINARY"})
+    public WireFormat format;
+
+    @Param({"20"})
+    public int window;
+
+    @Param({"1", "1000"})
+    public int symbols;
+
+    private byte[][] payloads;
+    private NegotiatingCodec<Tick> tickCodec;
+    private TradingStrategy strategy;
+    private SignalPublisher publisher;
+    private StubCommands published;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Tick[] ticks = TickFixtures.randomWalk(TICKS, symbols, 42);
+        NegotiatingCodec<Tick> encoder = NegotiatingCodec.ticks(format);
+        payloads = new byte[TICKS][];
+        for (int i = 0; i < TICKS; i++) {
+            payloads[i] = encoder.encode(ticks[i]);
+        }
+
+        tickCodec = NegotiatingCodec.ticks(WireFormat.JSON);
+        strategy = new StrategyRegistry(() -> new SimpleMovingAverageStrategy(window), symbols, Duration.ofHours(1));
+        published = new StubCommands();
+        NegotiatingCodec<Signal> signalCodec = NegotiatingCodec.signals(format);
+        publisher = new SyncSignalPublisher<>(published.proxy(), CHANNEL, signalCodec::encode);
+    }
+
+    @Benchmark
+    public Optional<Signal> decodeProcessPublish() {
+        Tick tick = tickCodec.decode(payloads[next++ & (TICKS - 1)]);
+        Optional<Signal> signal = strategy.process(tick);
+        signal.ifPresent(publisher::publish);
+        return signal;
+    }
+
+    /**
+     * {@link RedisCommands} stand-in whose {@code PUBLISH} only counts —
+     * the dynamic proxy keeps the benchmark free of a mocking library.
+     */
+    static final class StubCommands {
+
+        long publishes;
+
+        @SuppressWarnings("unchecked")
+        RedisCommands<String, byte[]> proxy() {
+            Long receivers = 1L;
+            return (RedisCommands<String, byte[]>) Proxy.newProxyInstance(
+                    RedisCommands.class.getClassLoader(), new Class<?>[]{RedisCommands.class},
+                    (self, method, args) -> {
+                        if (!"publish".equals(method.getName())) {
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                        publishes++;
+                        return receivers;
+                    });
+        }
+    }
+}
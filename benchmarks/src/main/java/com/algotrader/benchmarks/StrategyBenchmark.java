@@ -0,0 +1,74 @@
+package com.algotrader.benchmarks;
+
+import com.algotrader.shared.model.Signal;
+import com.algotrader.shared.model.Tick;
+import com.algotrader.strategy.TradingStrategy;
+import com.algotrader.strategy.impl.SimpleMovingAverageStrategy;
+import com.algotrader.strategy.registry.StrategyRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TradingStrategy#process} cost per tick: a single
+ * {@link SimpleMovingAverageStrategy} at several window sizes, and the
+ * per-symbol {@link StrategyRegistry} as the number of interleaved symbols grows.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-bench.xml")
+@State(Scope.Thread)
+public class StrategyBenchmark {
+
+    private static final int TICKS = 1 << 16;
+
+    @Param({"5", "50", "500"})
+    public int window;
+
+    @Param({"1", "100", "10000"})
+    public int symbols;
+
+    private Tick[] ticks;
+    private TradingStrategy single;
+    private TradingStrategy registry;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ticks = TickFixtures.randomWalk(TICKS, symbols, 42);
+        single = new SimpleMovingAverageStrategy(window);
+        registry = new StrategyRegistry(() -> new SimpleMovingAverageStrategy(window), symbols, Duration.ofHours(1));
+        // Fill every window so the measurement sees steady-state crossover checks
+        for (int i = 0; i < window * symbols; i++) {
+            single.process(ticks[i & (TICKS - 1)]);
+            registry.process(ticks[i & (TICKS - 1)]);
+        }
+    }
+
+    /** One strategy instance fed every tick, regardless of symbol — the window-size baseline. */
+    @Benchmark
+    public Optional<Signal> smaProcess() {
+        return single.process(ticks[next++ & (TICKS - 1)]);
+    }
+
+    /** Symbol lookup plus the per-symbol strategy, as the engine runs it. */
+    @Benchmark
+    public Optional<Signal> registryProcess() {
+        return registry.process(ticks[next++ & (TICKS - 1)]);
+    }
+}
@@ -0,0 +1,52 @@
+package com.algotrader.benchmarks;
+
+import com.algotrader.shared.model.Tick;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic market data shared by the benchmark suites.
+ */
+final class TickFixtures {
+
+    /** Decimal places of the generated prices (Binance quotes USDT pairs to 2). */
+    static final int PRICE_SCALE = 2;
+
+    private TickFixtures() {
+        // utility class
+    }
+
+    /**
+     * @return {@code count} ticks cycling round-robin over {@code symbols}
+     *         symbols, each following its own random walk around 42000.00 so
+     *         moving-average crossovers occur at a realistic rate
+     */
+    static Tick[] randomWalk(int count, int symbols, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        String[] names = symbols(symbols);
+        long[] prices = new long[symbols];
+        Arrays.fill(prices, 4_200_000L);
+        Instant start = Instant.parse("2026-01-15T10:00:00Z");
+
+        Tick[] ticks = new Tick[count];
+        for (int i = 0; i < count; i++) {
+            int s = i % symbols;
+            prices[s] = Math.max(1, prices[s] + random.nextInt(-500, 501));
+            ticks[i] = new Tick(names[s], prices[s], PRICE_SCALE, start.plusMillis(i));
+        }
+        return ticks;
+    }
+
+    /**
+     * @return {@code count} distinct exchange-style symbol names
+     */
+    static String[] symbols(int count) {
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = "SYM" + i + "USDT";
+        }
+        return names;
+    }
+}
@@ -0,0 +1,64 @@
+package com.algotrader.benchmarks;
+
+import com.algotrader.shared.model.Tick;
+import com.algotrader.shared.util.JsonUtil;
+import com.algotrader.shared.util.StreamingJson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tick JSON decode/encode: Jackson databind ({@link JsonUtil}) versus the
+ * streaming codec ({@link StreamingJson}).
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-bench.xml")
+@State(Scope.Thread)
+public class TickJsonBenchmark {
+
+    private Tick tick;
+    private String json;
+    private byte[] jsonBytes;
+
+    @Setup
+    public void setUp() {
+        tick = new Tick("BTCUSDT", new BigDecimal("42000.50"), Instant.parse("2026-01-15T10:00:00.123Z"));
+        json = JsonUtil.toJson(tick);
+        jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Tick decodeDatabind() {
+        return JsonUtil.fromJson(json, Tick.class);
+    }
+
+    @Benchmark
+    public Tick decodeStreaming() {
+        return StreamingJson.readTick(jsonBytes);
+    }
+
+    @Benchmark
+    public String encodeDatabind() {
+        return JsonUtil.toJson(tick);
+    }
+
+    @Benchmark
+    public byte[] encodeStreaming() {
+        return StreamingJson.toJsonBytes(tick);
+    }
+}
@@ -39,6 +39,10 @@ subprojects {
         testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.10.2")
         testRuntimeOnly("org.junit.platform:junit-platform-launcher:1.10.2")
 
+        // ── Byte Buddy + Objenesis (Spock class mocks, e.g. RedisClient) ─
+        testRuntimeOnly("net.bytebuddy:byte-buddy:1.14.11")
+        testRuntimeOnly("org.objenesis:objenesis:3.3")
+
         // ── Lombok (optional – prefer Records for DTOs) ────────────────
         compileOnly("org.projectlombok:lombok:1.18.30")
         annotationProcessor("org.projectlombok:lombok:1.18.30")
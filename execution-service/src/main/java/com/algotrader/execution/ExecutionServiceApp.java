@@ -0,0 +1,90 @@
+package com.algotrader.execution;
+
+import com.algotrader.execution.engine.ExecutionConfig;
+import com.algotrader.execution.engine.ExecutionEngine;
+import com.algotrader.execution.redis.ExecutionListener;
+import com.algotrader.shared.stream.TransportConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry point for the Execution Service (paper trading).
+ *
+ * <ul>
+ * <li>Subscribes to Redis channels {@code market_data} (ticks) and
+ * {@code trading_signals} (signals), in JSON or binary — or, with
+ * {@code TRANSPORT=STREAMS}, reads both as Redis streams through the
+ * {@code STREAM_GROUP} consumer group.</li>
+ * <li>Turns each BUY/SELL signal into a paper limit order of
+ * {@code ORDER_QUANTITY} and matches it in a per-symbol order book against
+ * the latest ticks, on {@code EXECUTION_SHARDS} single-threaded shards. An
+ * order still unfilled {@code ORDER_TTL_MINUTES} after its signal is dropped,
+ * and so is a book without ticks or signals for {@code BOOK_IDLE_MINUTES}.</li>
+ * <li>Publishes each fill to Redis channel {@code order_fills} as JSON.</li>
+ * <li>Logs throughput counters every {@value #STATS_INTERVAL_SECONDS} seconds.</li>
+ * </ul>
+ */
+public class ExecutionServiceApp {
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutionServiceApp.class);
+
+    private static final String TICK_CHANNEL = "market_data";
+    private static final String SIGNAL_CHANNEL = "trading_signals";
+    private static final String FILL_CHANNEL = "order_fills";
+    private static final int EXECUTION_SHARDS = 2;
+    private static final int EXECUTION_QUEUE_CAPACITY = 65536;
+    private static final int MAX_SYMBOLS = 4096;
+    private static final String ORDER_QUANTITY = "0.01";
+    private static final int ORDER_TTL_MINUTES = 60;
+    private static final int BOOK_IDLE_MINUTES = 60;
+    private static final int STATS_INTERVAL_SECONDS = 30;
+
+    public static void main(String[] args) {
+        String redisUri = System.getenv().getOrDefault("REDIS_URI", "redis://localhost:6379");
+        var config = new ExecutionConfig(
+                Integer.parseInt(System.getenv().getOrDefault("EXECUTION_SHARDS", String.valueOf(EXECUTION_SHARDS))),
+                Integer.parseInt(System.getenv().getOrDefault("EXECUTION_QUEUE_CAPACITY",
+                        String.valueOf(EXECUTION_QUEUE_CAPACITY))),
+                Integer.parseInt(System.getenv().getOrDefault("MAX_SYMBOLS", String.valueOf(MAX_SYMBOLS))),
+                new BigDecimal(System.getenv().getOrDefault("ORDER_QUANTITY", ORDER_QUANTITY)),
+                Duration.ofMinutes(Long.parseLong(System.getenv().getOrDefault("ORDER_TTL_MINUTES",
+                        String.valueOf(ORDER_TTL_MINUTES)))),
+                Duration.ofMinutes(Long.parseLong(System.getenv().getOrDefault("BOOK_IDLE_MINUTES",
+                        String.valueOf(BOOK_IDLE_MINUTES)))));
+        TransportConfig transport = TransportConfig.fromEnv("execution-service");
+
+        // ── Redis listener + matching engine ────────────────────────────
+        var listener = new ExecutionListener(redisUri, config, transport, TICK_CHANNEL, SIGNAL_CHANNEL, FILL_CHANNEL);
+
+        // ── Periodic stats ──────────────────────────────────────────────
+        ScheduledExecutorService stats = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "execution-stats");
+            t.setDaemon(true);
+            return t;
+        });
+        stats.scheduleAtFixedRate(() -> {
+            ExecutionEngine engine = listener.engine();
+            log.info("orders={} fills={} expired={} books={} published={} failed={} rejected={} backpressured={}"
+                            + " redis={}",
+                    engine.ordersPlaced(), engine.fills(), engine.expired(), engine.books(),
+                    listener.fillPublisher().published(), listener.fillPublisher().failed(), engine.rejected(),
+                    engine.backpressured(), listener.isConnected());
+        }, STATS_INTERVAL_SECONDS, STATS_INTERVAL_SECONDS, TimeUnit.SECONDS);
+
+        log.info("Execution Service started (shards={}, orderQuantity={})", config.shards(), config.orderQuantity());
+
+        // ── Graceful shutdown ───────────────────────────────────────────
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            log.info("Shutting down Execution Service...");
+            stats.shutdownNow();
+            listener.close();
+            log.info("Execution Service stopped.");
+        }));
+    }
+}
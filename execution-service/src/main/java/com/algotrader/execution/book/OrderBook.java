@@ -0,0 +1,311 @@
+package com.algotrader.execution.book;
+
+import com.algotrader.shared.model.Price;
+
+import java.util.Arrays;
+
+/**
+ * Single-symbol paper-trading order book on primitive arrays.
+ * <p>
+ * Prices and quantities are fixed-point longs at a scale chosen by the
+ * owner. Orders do not trade against each other; they trade against the
+ * market: an order that is marketable against the last trade price fills
+ * immediately at that price, anything else rests until a later
+ * {@link #onTrade trade} reaches it or it {@link #expire expires}. Resting
+ * orders fill at their limit price, level by level from the best, first-in
+ * first-out within a level.
+ * </p>
+ * Each side keeps its price levels in a sorted {@code long[]} with the best
+ * level at the end, so matching pops levels in O(1); orders live in a pooled
+ * set of parallel arrays, doubly linked per level so that an expired order
+ * is unlinked without walking its level. Not thread-safe — a book is owned
+ * by exactly one shard thread.
+ */
+public class OrderBook {
+
+    /**
+     * Receives executions as the book matches.
+     */
+    @FunctionalInterface
+    public interface FillListener {
+        void onFill(long orderId, boolean buy, long price, long quantity, String strategy);
+    }
+
+    private static final int NONE = -1;
+    private static final int INITIAL_ORDERS = 16;
+    private static final int INITIAL_LEVELS = 8;
+
+    private final Side bids = new Side(true);
+    private final Side asks = new Side(false);
+
+    // ── Order pool (parallel arrays, free slots chained through next) ──
+    private long[] orderIds = new long[INITIAL_ORDERS];
+    private long[] quantities = new long[INITIAL_ORDERS];
+    private String[] strategies = new String[INITIAL_ORDERS];
+    private long[] limits = new long[INITIAL_ORDERS];
+    private long[] expiries = new long[INITIAL_ORDERS];
+    private boolean[] buys = new boolean[INITIAL_ORDERS];
+    private boolean[] live = new boolean[INITIAL_ORDERS];
+    private int[] next = new int[INITIAL_ORDERS];
+    private int[] prev = new int[INITIAL_ORDERS];
+    private int freeHead = NONE;
+    private int poolSize;
+    private int resting;
+    /** No resting order expires before this. */
+    private long nextExpiry = Long.MAX_VALUE;
+
+    private long lastPrice = Price.NONE;
+
+    /**
+     * Submits a limit order that rests until it fills.
+     *
+     * @return {@code true} if the order filled immediately, {@code false} if it rests
+     */
+    public boolean submit(long orderId, boolean buy, long price, long quantity, String strategy,
+                          FillListener listener) {
+        return submit(orderId, buy, price, quantity, strategy, Long.MAX_VALUE, listener);
+    }
+
+    /**
+     * Submits a limit order.
+     *
+     * @param expiresAt when a resting order is dropped by {@link #expire}, in
+     *                  whatever time unit the owner passes there
+     * @return {@code true} if the order filled immediately, {@code false} if it rests
+     */
+    public boolean submit(long orderId, boolean buy, long price, long quantity, String strategy,
+                          long expiresAt, FillListener listener) {
+        if (price <= 0 || quantity <= 0) {
+            throw new IllegalArgumentException("Price and quantity must be positive: " + price + " x " + quantity);
+        }
+        if (lastPrice != Price.NONE && (buy ? price >= lastPrice : price <= lastPrice)) {
+            listener.onFill(orderId, buy, lastPrice, quantity, strategy);
+            return true;
+        }
+        int slot = allocate(orderId, buy, price, quantity, strategy, expiresAt);
+        (buy ? bids : asks).add(price, slot);
+        resting++;
+        nextExpiry = Math.min(nextExpiry, expiresAt);
+        return false;
+    }
+
+    /**
+     * Drops every resting order whose expiry is at or before {@code now}.
+     * Returns at once while no order can have expired, so it may be called on
+     * every trade; otherwise it scans the order pool.
+     *
+     * @return the number of orders dropped
+     */
+    public int expire(long now) {
+        if (now < nextExpiry) {
+            return 0;
+        }
+        int expired = 0;
+        long earliest = Long.MAX_VALUE;
+        for (int slot = 0; slot < poolSize; slot++) {
+            if (!live[slot]) {
+                continue;
+            }
+            if (expiries[slot] <= now) {
+                (buys[slot] ? bids : asks).remove(slot);
+                free(slot);
+                expired++;
+            } else {
+                earliest = Math.min(earliest, expiries[slot]);
+            }
+        }
+        resting -= expired;
+        nextExpiry = earliest;
+        return expired;
+    }
+
+    /**
+     * Records a market trade and fills every resting order it crosses at
+     * that price.
+     *
+     * @return the number of orders filled
+     */
+    public int onTrade(long price, FillListener listener) {
+        lastPrice = price;
+        if (resting == 0) {
+            return 0;
+        }
+        int filled = bids.match(price, listener) + asks.match(price, listener);
+        resting -= filled;
+        if (resting == 0) {
+            nextExpiry = Long.MAX_VALUE;
+        }
+        return filled;
+    }
+
+    /**
+     * @return the last trade price, or {@link Price#NONE} before the first trade
+     */
+    public long lastPrice() {
+        return lastPrice;
+    }
+
+    /**
+     * @return the highest resting bid, or {@link Price#NONE}
+     */
+    public long bestBid() {
+        return bids.best();
+    }
+
+    /**
+     * @return the lowest resting ask, or {@link Price#NONE}
+     */
+    public long bestAsk() {
+        return asks.best();
+    }
+
+    public int restingOrders() {
+        return resting;
+    }
+
+    public int bidLevels() {
+        return bids.levels;
+    }
+
+    public int askLevels() {
+        return asks.levels;
+    }
+
+    // ── Order pool ─────────────────────────────────────────────────────
+
+    private int allocate(long orderId, boolean buy, long price, long quantity, String strategy, long expiresAt) {
+        int slot;
+        if (freeHead != NONE) {
+            slot = freeHead;
+            freeHead = next[slot];
+        } else {
+            if (poolSize == orderIds.length) {
+                int capacity = poolSize * 2;
+                orderIds = Arrays.copyOf(orderIds, capacity);
+                quantities = Arrays.copyOf(quantities, capacity);
+                strategies = Arrays.copyOf(strategies, capacity);
+                limits = Arrays.copyOf(limits, capacity);
+                expiries = Arrays.copyOf(expiries, capacity);
+                buys = Arrays.copyOf(buys, capacity);
+                live = Arrays.copyOf(live, capacity);
+                next = Arrays.copyOf(next, capacity);
+                prev = Arrays.copyOf(prev, capacity);
+            }
+            slot = poolSize++;
+        }
+        orderIds[slot] = orderId;
+        quantities[slot] = quantity;
+        strategies[slot] = strategy;
+        limits[slot] = price;
+        expiries[slot] = expiresAt;
+        buys[slot] = buy;
+        live[slot] = true;
+        next[slot] = NONE;
+        prev[slot] = NONE;
+        return slot;
+    }
+
+    private void free(int slot) {
+        strategies[slot] = null;
+        live[slot] = false;
+        next[slot] = freeHead;
+        freeHead = slot;
+    }
+
+    /**
+     * One side of the book. Levels are sorted by {@code key} ascending with
+     * the best level last; bids use the price as key and asks its negation,
+     * so "best" is always the largest key on both sides.
+     */
+    private final class Side {
+
+        private final boolean buy;
+        private long[] keys = new long[INITIAL_LEVELS];
+        private int[] heads = new int[INITIAL_LEVELS];
+        private int[] tails = new int[INITIAL_LEVELS];
+        private int levels;
+
+        private Side(boolean buy) {
+            this.buy = buy;
+        }
+
+        private long best() {
+            return levels == 0 ? Price.NONE : price(keys[levels - 1]);
+        }
+
+        private long price(long key) {
+            return buy ? key : -key;
+        }
+
+        private void add(long price, int slot) {
+            long key = buy ? price : -price;
+            int index = Arrays.binarySearch(keys, 0, levels, key);
+            if (index >= 0) {
+                next[tails[index]] = slot;
+                prev[slot] = tails[index];
+                tails[index] = slot;
+                return;
+            }
+            index = -index - 1;
+            if (levels == keys.length) {
+                keys = Arrays.copyOf(keys, levels * 2);
+                heads = Arrays.copyOf(heads, levels * 2);
+                tails = Arrays.copyOf(tails, levels * 2);
+            }
+            System.arraycopy(keys, index, keys, index + 1, levels - index);
+            System.arraycopy(heads, index, heads, index + 1, levels - index);
+            System.arraycopy(tails, index, tails, index + 1, levels - index);
+            keys[index] = key;
+            heads[index] = slot;
+            tails[index] = slot;
+            levels++;
+        }
+
+        /**
+         * Unlinks a resting order from its level, dropping the level if it
+         * was the last one there.
+         */
+        private void remove(int slot) {
+            int index = Arrays.binarySearch(keys, 0, levels, buy ? limits[slot] : -limits[slot]);
+            int before = prev[slot];
+            int after = next[slot];
+            if (before == NONE) {
+                heads[index] = after;
+            } else {
+                next[before] = after;
+            }
+            if (after == NONE) {
+                tails[index] = before;
+            } else {
+                prev[after] = before;
+            }
+            if (heads[index] == NONE) {
+                levels--;
+                System.arraycopy(keys, index + 1, keys, index, levels - index);
+                System.arraycopy(heads, index + 1, heads, index, levels - index);
+                System.arraycopy(tails, index + 1, tails, index, levels - index);
+            }
+        }
+
+        /**
+         * Fills every level at or through {@code tradePrice}, best first, each
+         * at its own limit price.
+         */
+        private int match(long tradePrice, FillListener listener) {
+            long threshold = buy ? tradePrice : -tradePrice;
+            int filled = 0;
+            while (levels > 0 && keys[levels - 1] >= threshold) {
+                long levelPrice = price(keys[--levels]);
+                int slot = heads[levels];
+                while (slot != NONE) {
+                    int following = next[slot];
+                    listener.onFill(orderIds[slot], buy, levelPrice, quantities[slot], strategies[slot]);
+                    free(slot);
+                    filled++;
+                    slot = following;
+                }
+            }
+            return filled;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.algotrader.execution.engine;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+/**
+ * Sizing of the {@link ExecutionEngine}.
+ *
+ * @param shards          number of single-threaded matching shards (≥ 1)
+ * @param queueCapacity   per-shard event queue capacity (rounded up to a power of two)
+ * @param maxSymbols      maximum number of symbol order books per shard
+ * @param orderQuantity   quantity of the paper order placed for each signal
+ * @param orderTtl        how long, in market time from its signal, an order may rest unfilled
+ * @param bookIdleTimeout how long a symbol's book may go without ticks or signals before it
+ *                        is dropped, resting orders and all
+ */
+public record ExecutionConfig(int shards, int queueCapacity, int maxSymbols, BigDecimal orderQuantity,
+                              Duration orderTtl, Duration bookIdleTimeout) {
+
+    public static final Duration DEFAULT_ORDER_TTL = Duration.ofHours(1);
+    public static final Duration DEFAULT_BOOK_IDLE_TIMEOUT = Duration.ofHours(1);
+
+    public ExecutionConfig {
+        if (shards < 1) {
+            throw new IllegalArgumentException("shards must be >= 1, got: " + shards);
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be >= 1, got: " + queueCapacity);
+        }
+        if (maxSymbols < 1) {
+            throw new IllegalArgumentException("maxSymbols must be >= 1, got: " + maxSymbols);
+        }
+        if (orderQuantity.signum() <= 0) {
+            throw new IllegalArgumentException("orderQuantity must be > 0, got: " + orderQuantity);
+        }
+        if (orderTtl.isNegative() || orderTtl.isZero()) {
+            throw new IllegalArgumentException("orderTtl must be > 0, got: " + orderTtl);
+        }
+        if (bookIdleTimeout.isNegative() || bookIdleTimeout.isZero()) {
+            throw new IllegalArgumentException("bookIdleTimeout must be > 0, got: " + bookIdleTimeout);
+        }
+    }
+
+    /**
+     * With the default order TTL and book idle timeout.
+     */
+    public ExecutionConfig(int shards, int queueCapacity, int maxSymbols, BigDecimal orderQuantity) {
+        this(shards, queueCapacity, maxSymbols, orderQuantity, DEFAULT_ORDER_TTL, DEFAULT_BOOK_IDLE_TIMEOUT);
+    }
+}
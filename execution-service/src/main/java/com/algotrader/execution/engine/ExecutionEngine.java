@@ -0,0 +1,392 @@
+package com.algotrader.execution.engine;
+
+import com.algotrader.execution.book.OrderBook;
+import com.algotrader.shared.concurrent.MpscRingQueue;
+import com.algotrader.shared.model.Fill;
+import com.algotrader.shared.model.Price;
+import com.algotrader.shared.model.Signal;
+import com.algotrader.shared.model.SignalType;
+import com.algotrader.shared.model.Tick;
+import com.algotrader.shared.util.SymbolTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Paper-trading execution engine.
+ * <p>
+ * Every {@link Signal} becomes a limit order at the signal price for the
+ * configured quantity, matched in its symbol's {@link OrderBook} against the
+ * latest {@link Tick}s. Ticks and signals are routed by a hash of the symbol
+ * to one of N single-threaded shards, so each book is only ever touched by its
+ * shard thread and events for a symbol are applied in arrival order.
+ * </p>
+ * <p>
+ * Memory stays bounded: an order still resting {@code orderTtl} after its
+ * signal (in market time) is dropped on its book's next tick, and a book
+ * that sees no event for {@code bookIdleTimeout} is dropped with whatever
+ * still rests on it.
+ * </p>
+ * Book prices are fixed-point longs at {@value #PRICE_SCALE} decimals.
+ */
+public class ExecutionEngine implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutionEngine.class);
+
+    /** Number of decimal places of the prices held in the order books. */
+    static final int PRICE_SCALE = 8;
+
+    private static final int IDLE_SPINS = 100;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /** Fills a shard hands to the sink before it forces a {@link FillSink#flush()}. */
+    static final int FLUSH_BATCH = 256;
+    /** Longest a reported fill waits in the sink while the shard stays busy. */
+    static final long FLUSH_INTERVAL_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private final Shard[] shards;
+    private final FillSink fillSink;
+    private final long orderQuantity;
+    private final int quantityScale;
+    private final long orderTtlMillis;
+    private final long bookIdleNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicLong backpressured = new AtomicLong();
+    private volatile boolean running = true;
+
+    public ExecutionEngine(ExecutionConfig config, FillSink fillSink) {
+        this(config, fillSink, System::nanoTime);
+    }
+
+    /**
+     * Constructor with an injected monotonic clock for the book idle timeout — in tests.
+     */
+    ExecutionEngine(ExecutionConfig config, FillSink fillSink, LongSupplier nanoClock) {
+        this.fillSink = fillSink;
+        this.orderQuantity = Price.mantissa(config.orderQuantity());
+        this.quantityScale = Price.scale(config.orderQuantity());
+        this.orderTtlMillis = config.orderTtl().toMillis();
+        this.bookIdleNanos = config.bookIdleTimeout().toNanos();
+        this.nanoClock = nanoClock;
+        this.shards = new Shard[config.shards()];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard(i, config.queueCapacity(), config.maxSymbols());
+        }
+        for (Shard shard : shards) {
+            shard.thread.start();
+        }
+        log.info("Started {} execution shard(s), queue capacity {}, order quantity {}",
+                shards.length, shards[0].queue.capacity(), config.orderQuantity());
+    }
+
+    /**
+     * Queues a market tick for its symbol's book.
+     */
+    public void onTick(Tick tick) {
+        enqueue(tick.symbol(), tick);
+    }
+
+    /**
+     * Queues a signal; {@link SignalType#HOLD} signals are ignored.
+     */
+    public void onSignal(Signal signal) {
+        if (signal.type() == SignalType.HOLD) {
+            return;
+        }
+        enqueue(signal.symbol(), signal);
+    }
+
+    private void enqueue(String symbol, Object event) {
+        Shard shard = shards[shardOf(symbol, shards.length)];
+        if (shard.queue.offer(event)) {
+            return;
+        }
+        backpressured.incrementAndGet();
+        while (!shard.queue.offer(event)) {
+            if (!running) {
+                return;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * @return the shard index for a symbol
+     */
+    static int shardOf(String symbol, int shardCount) {
+        int h = symbol.hashCode();
+        return ((h ^ (h >>> 16)) & Integer.MAX_VALUE) % shardCount;
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    /**
+     * @return the approximate number of events waiting in the given shard
+     */
+    public int queueDepth(int shard) {
+        return shards[shard].queue.size();
+    }
+
+    /**
+     * @return orders placed since start-up, across all shards
+     */
+    public long ordersPlaced() {
+        long total = 0;
+        for (Shard shard : shards) {
+            total += shard.orders.get();
+        }
+        return total;
+    }
+
+    /**
+     * @return fills reported since start-up, across all shards
+     */
+    public long fills() {
+        long total = 0;
+        for (Shard shard : shards) {
+            total += shard.fills.get();
+        }
+        return total;
+    }
+
+    /**
+     * @return resting orders dropped unfilled, on expiry or with their idle book
+     */
+    public long expired() {
+        long total = 0;
+        for (Shard shard : shards) {
+            total += shard.expired.get();
+        }
+        return total;
+    }
+
+    /**
+     * @return the number of symbol order books currently held, across all shards
+     */
+    public int books() {
+        int total = 0;
+        for (Shard shard : shards) {
+            total += shard.liveBooks;
+        }
+        return total;
+    }
+
+    /**
+     * @return events discarded because their symbol could not be given a book
+     *         or their price could not be represented
+     */
+    public long rejected() {
+        long total = 0;
+        for (Shard shard : shards) {
+            total += shard.rejected.get();
+        }
+        return total;
+    }
+
+    /**
+     * @return how many times a producer had to wait for queue space
+     */
+    public long backpressured() {
+        return backpressured.get();
+    }
+
+    /**
+     * Stops the shards after they drain whatever is already queued.
+     */
+    @Override
+    public void close() {
+        running = false;
+        for (Shard shard : shards) {
+            LockSupport.unpark(shard.thread);
+        }
+        for (Shard shard : shards) {
+            try {
+                shard.thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        log.info("Stopped {} execution shard(s)", shards.length);
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return ((a ^ sum) & (b ^ sum)) < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private final class Shard implements Runnable, OrderBook.FillListener {
+
+        private final int index;
+        private final MpscRingQueue<Object> queue;
+        private final SymbolTable symbols;
+        private final OrderBook[] books;
+        private final long[] lastSeenNanos;
+        private final AtomicLong orders = new AtomicLong();
+        private final AtomicLong fills = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong expired = new AtomicLong();
+        private volatile int liveBooks;
+        private long lastSweepNanos = nanoClock.getAsLong();
+        private final Thread thread;
+        private long nextSequence = 1;
+        private int unflushed;
+        private long flushedAt = System.nanoTime();
+
+        // Context of the event being applied, read by onFill
+        private String symbol;
+        private Instant timestamp;
+
+        private Shard(int index, int capacity, int maxSymbols) {
+            this.index = index;
+            this.queue = new MpscRingQueue<>(capacity);
+            this.symbols = new SymbolTable(maxSymbols);
+            this.books = new OrderBook[maxSymbols];
+            this.lastSeenNanos = new long[maxSymbols];
+            this.thread = new Thread(this, "execution-shard-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            int idle = 0;
+            while (running || !queue.isEmpty()) {
+                Object event = queue.poll();
+                if (event == null) {
+                    if (idle++ == 0 && unflushed > 0) {
+                        flushFills();
+                    }
+                    if (idle < IDLE_SPINS) {
+                        Thread.onSpinWait();
+                    } else {
+                        LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    }
+                    continue;
+                }
+                idle = 0;
+                try {
+                    if (event instanceof Tick tick) {
+                        apply(tick);
+                    } else {
+                        apply((Signal) event);
+                    }
+                } catch (Exception e) {
+                    rejected.lazySet(rejected.get() + 1);
+                    log.error("Error applying {} on {}: {}", event, thread.getName(), e.getMessage(), e);
+                }
+                if (unflushed > 0 && System.nanoTime() - flushedAt >= FLUSH_INTERVAL_NANOS) {
+                    flushFills();
+                }
+            }
+            flushFills();
+        }
+
+        /**
+         * Pushes out what the sink has buffered. Called when the queue runs
+         * empty, and under sustained flow every {@link #FLUSH_BATCH} fills or
+         * {@link #FLUSH_INTERVAL_NANOS}, whichever comes first, so a queue
+         * that never drains cannot hold fills back indefinitely.
+         */
+        private void flushFills() {
+            unflushed = 0;
+            flushedAt = System.nanoTime();
+            fillSink.flush();
+        }
+
+        private void apply(Tick tick) {
+            if (tick.priceMantissa() == Price.NONE) {
+                return;
+            }
+            OrderBook book = book(tick.symbol());
+            if (book == null) {
+                return;
+            }
+            long price = Price.rescale(tick.priceMantissa(), tick.priceScale(), PRICE_SCALE, RoundingMode.HALF_UP);
+            symbol = tick.symbol();
+            timestamp = tick.timestamp();
+            int dropped = book.expire(timestamp.toEpochMilli());
+            if (dropped > 0) {
+                expired.lazySet(expired.get() + dropped);
+            }
+            book.onTrade(price, this);
+        }
+
+        private void apply(Signal signal) {
+            OrderBook book = book(signal.symbol());
+            if (book == null) {
+                return;
+            }
+            long price = Price.rescale(signal.priceMantissa(), signal.priceScale(), PRICE_SCALE,
+                    RoundingMode.HALF_UP);
+            long orderId = nextSequence++ * shards.length + index;
+            symbol = signal.symbol();
+            timestamp = signal.timestamp();
+            orders.lazySet(orders.get() + 1);
+            long expiresAt = saturatedAdd(signal.timestamp().toEpochMilli(), orderTtlMillis);
+            book.submit(orderId, signal.type() == SignalType.BUY, price, orderQuantity, signal.strategy(),
+                    expiresAt, this);
+        }
+
+        private OrderBook book(String sym) {
+            long now = nanoClock.getAsLong();
+            if (now - lastSweepNanos >= bookIdleNanos) {
+                evictIdle(now);
+            }
+            int id = symbols.idOf(sym);
+            if (id == SymbolTable.NO_ID) {
+                id = symbols.intern(sym);
+                if (id == SymbolTable.NO_ID) {
+                    rejected.lazySet(rejected.get() + 1);
+                    log.warn("No room for a '{}' order book on {} ({} symbols)", sym, thread.getName(),
+                            symbols.capacity());
+                    return null;
+                }
+                books[id] = new OrderBook();
+                liveBooks++;
+            }
+            lastSeenNanos[id] = now;
+            return books[id];
+        }
+
+        /**
+         * Drops every book that has seen no event for the idle timeout, with
+         * its resting orders.
+         */
+        private void evictIdle(long now) {
+            lastSweepNanos = now;
+            int evicted = 0;
+            for (int id = 0; id < books.length; id++) {
+                if (books[id] != null && now - lastSeenNanos[id] >= bookIdleNanos) {
+                    expired.lazySet(expired.get() + books[id].restingOrders());
+                    books[id] = null;
+                    symbols.release(id);
+                    evicted++;
+                }
+            }
+            if (evicted > 0) {
+                liveBooks -= evicted;
+                log.info("Evicted {} idle order book(s) on {}; {} remain", evicted, thread.getName(), liveBooks);
+            }
+        }
+
+        @Override
+        public void onFill(long orderId, boolean buy, long price, long quantity, String strategy) {
+            Fill fill = new Fill(orderId, buy ? SignalType.BUY : SignalType.SELL, symbol,
+                    price, PRICE_SCALE, quantity, quantityScale, strategy, timestamp);
+            fills.lazySet(fills.get() + 1);
+            log.debug("Fill: {}", fill);
+            fillSink.onFill(fill);
+            if (++unflushed >= FLUSH_BATCH) {
+                flushFills();
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.algotrader.execution.engine;
+
+import com.algotrader.shared.model.Fill;
+
+/**
+ * Destination for executions. Called concurrently from shard threads.
+ */
+public interface FillSink {
+
+    void onFill(Fill fill);
+
+    /**
+     * Called by a shard after it has reported fills — when its queue runs
+     * empty, and periodically while it stays busy — so batching sinks can
+     * push out what they have buffered.
+     */
+    default void flush() {
+    }
+}
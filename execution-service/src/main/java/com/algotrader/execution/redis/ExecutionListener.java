@@ -0,0 +1,98 @@
+package com.algotrader.execution.redis;
+
+import com.algotrader.execution.engine.ExecutionConfig;
+import com.algotrader.execution.engine.ExecutionEngine;
+import com.algotrader.shared.codec.MessageCodec;
+import com.algotrader.shared.codec.NegotiatingCodec;
+import com.algotrader.shared.codec.WireFormat;
+import com.algotrader.shared.model.Signal;
+import com.algotrader.shared.model.Tick;
+import com.algotrader.shared.stream.RedisStreamConsumer;
+import com.algotrader.shared.stream.RedisTransport;
+import com.algotrader.shared.stream.TransportConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Feeds the {@link ExecutionEngine} from Redis and publishes its fills.
+ * <p>
+ * A {@link RedisTransport} receives both the tick and the signal channel;
+ * payloads arrive as raw bytes and are decoded by a
+ * {@link NegotiatingCodec}, so JSON and binary producers are both accepted.
+ * Fills go out as JSON through a pipelined {@link RedisFillPublisher}.
+ * </p>
+ * With {@link com.algotrader.shared.stream.Transport#STREAMS} the tick and
+ * signal streams are each read by a {@link RedisStreamConsumer} in this
+ * service's consumer group instead.
+ */
+public class ExecutionListener implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutionListener.class);
+
+    private final RedisTransport redis;
+    private final RedisTransport.Receiver ticks;
+    private final RedisTransport.Receiver signals;
+    private final RedisFillPublisher fillPublisher;
+    private final ExecutionEngine engine;
+    private final MessageCodec<Tick> tickCodec = NegotiatingCodec.ticks(WireFormat.JSON);
+    private final MessageCodec<Signal> signalCodec = NegotiatingCodec.signals(WireFormat.JSON);
+    private final String tickChannel;
+    private final String signalChannel;
+
+    public ExecutionListener(String redisUri, ExecutionConfig config, TransportConfig transport,
+            String tickChannel, String signalChannel, String fillChannel) {
+        this.redis = new RedisTransport(redisUri, transport);
+        this.tickChannel = tickChannel;
+        this.signalChannel = signalChannel;
+
+        // ── Fill publisher ──────────────────────────────────────────
+        this.fillPublisher = new RedisFillPublisher(redis.client().connect(), fillChannel);
+
+        // ── Matching engine ─────────────────────────────────────────
+        this.engine = new ExecutionEngine(config, fillPublisher);
+
+        // ── Inputs (ticks, signals) ─────────────────────────────────
+        this.ticks = redis.receive(tickChannel, payload -> onMessage(tickChannel, payload));
+        this.signals = redis.receive(signalChannel, payload -> onMessage(signalChannel, payload));
+        log.info("{} '{}' and '{}' — fills will be published to '{}'",
+                transport.isStreams() ? "Consuming streams" : "Subscribed to",
+                tickChannel, signalChannel, fillChannel);
+    }
+
+    private void onMessage(String channel, byte[] message) {
+        try {
+            if (channel.equals(tickChannel)) {
+                engine.onTick(tickCodec.decode(message));
+            } else if (channel.equals(signalChannel)) {
+                engine.onSignal(signalCodec.decode(message));
+            }
+        } catch (Exception e) {
+            log.error("Error processing message from '{}': {}", channel, e.getMessage(), e);
+        }
+    }
+
+    public ExecutionEngine engine() {
+        return engine;
+    }
+
+    public RedisFillPublisher fillPublisher() {
+        return fillPublisher;
+    }
+
+    /**
+     * Pings Redis to verify connectivity.
+     */
+    public boolean isConnected() {
+        return redis.isConnected();
+    }
+
+    @Override
+    public void close() {
+        log.info("Closing execution listener...");
+        ticks.close();
+        signals.close();
+        engine.close();
+        fillPublisher.close();
+        redis.close();
+    }
+}
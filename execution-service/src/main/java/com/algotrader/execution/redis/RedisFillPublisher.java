@@ -0,0 +1,75 @@
+package com.algotrader.execution.redis;
+
+import com.algotrader.execution.engine.FillSink;
+import com.algotrader.shared.model.Fill;
+import com.algotrader.shared.util.StreamingJson;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes fills as JSON with pipelined {@code PUBLISH} commands.
+ * <p>
+ * Auto-flush is disabled on the connection: commands are buffered as the
+ * shards report fills and written out in one batch whenever a shard runs out
+ * of queued events or has reported a batch of fills ({@link #flush()}), so a
+ * burst of fills costs one network write rather than one round trip each.
+ * </p>
+ */
+public class RedisFillPublisher implements FillSink, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisFillPublisher.class);
+
+    private final StatefulRedisConnection<String, String> connection;
+    private final RedisAsyncCommands<String, String> commands;
+    private final String channel;
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public RedisFillPublisher(StatefulRedisConnection<String, String> connection, String channel) {
+        this.connection = connection;
+        this.commands = connection.async();
+        this.channel = channel;
+        connection.setAutoFlushCommands(false);
+    }
+
+    @Override
+    public void onFill(Fill fill) {
+        commands.publish(channel, StreamingJson.toJson(fill)).whenComplete((receivers, error) -> {
+            if (error == null) {
+                published.incrementAndGet();
+            } else {
+                failed.incrementAndGet();
+                log.error("Failed to publish fill {} to '{}': {}", fill.orderId(), channel, error.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void flush() {
+        connection.flushCommands();
+    }
+
+    /**
+     * @return fills acknowledged by Redis
+     */
+    public long published() {
+        return published.get();
+    }
+
+    /**
+     * @return fills whose {@code PUBLISH} failed
+     */
+    public long failed() {
+        return failed.get();
+    }
+
+    @Override
+    public void close() {
+        flush();
+        connection.close();
+    }
+}
@@ -0,0 +1,150 @@
+package com.algotrader.execution.book
+
+import com.algotrader.shared.model.Price
+import spock.lang.Specification
+
+class OrderBookSpec extends Specification {
+
+    def book = new OrderBook()
+    def fills = []
+    def listener = { long id, boolean buy, long price, long qty, String strategy ->
+        fills << [id, buy, price, qty, strategy]
+    } as OrderBook.FillListener
+
+    def "should rest orders until the first trade is known"() {
+        when:
+        def filled = book.submit(1, true, 100, 5, "SMA-5", listener)
+
+        then:
+        !filled
+        fills.isEmpty()
+        book.restingOrders() == 1
+        book.bestBid() == 100
+        book.bestAsk() == Price.NONE
+    }
+
+    def "should fill marketable orders immediately at the last trade price"() {
+        given:
+        book.onTrade(100, listener)
+
+        expect:
+        book.submit(1, true, 101, 5, "A", listener)
+        book.submit(2, false, 99, 7, "B", listener)
+        fills == [[1L, true, 100L, 5L, "A"], [2L, false, 100L, 7L, "B"]]
+        book.restingOrders() == 0
+    }
+
+    def "should keep price levels sorted with the best price first"() {
+        given:
+        book.onTrade(100, listener)
+
+        when:
+        [95, 98, 90, 98].eachWithIndex { price, i -> book.submit(i, true, price, 1, "S", listener) }
+        [105, 102, 110].eachWithIndex { price, i -> book.submit(10 + i, false, price, 1, "S", listener) }
+
+        then:
+        book.bestBid() == 98
+        book.bestAsk() == 102
+        book.bidLevels() == 3
+        book.askLevels() == 3
+        book.restingOrders() == 7
+    }
+
+    def "should fill crossed levels best first, FIFO within a level, at the limit price"() {
+        given:
+        book.onTrade(100, listener)
+        book.submit(1, true, 95, 1, "S", listener)
+        book.submit(2, true, 98, 2, "S", listener)
+        book.submit(3, true, 98, 3, "S", listener)
+        book.submit(4, true, 90, 4, "S", listener)
+        book.submit(5, false, 103, 5, "S", listener)
+
+        when: "the market trades down through two bid levels"
+        def filled = book.onTrade(94, listener)
+
+        then:
+        filled == 3
+        fills*.getAt(0) == [2L, 3L, 1L]
+        fills*.getAt(2) == [98L, 98L, 95L]
+        book.bestBid() == 90
+        book.restingOrders() == 2
+
+        when: "the market rallies through the ask"
+        fills.clear()
+        book.onTrade(104, listener)
+
+        then:
+        fills == [[5L, false, 103L, 5L, "S"]]
+        book.bestAsk() == Price.NONE
+        book.restingOrders() == 1
+    }
+
+    def "should grow its pools and reuse freed order slots"() {
+        given:
+        book.onTrade(1_000_000, listener)
+
+        when: "thousands of orders rest on distinct levels and then fill"
+        (1..5000).each { book.submit(it, true, it, 1, "S", listener) }
+        def filled = book.onTrade(1, listener)
+
+        then:
+        filled == 5000
+        fills*.getAt(2) == (5000..1)*.toLong()
+        book.restingOrders() == 0
+
+        when: "the book is reused"
+        fills.clear()
+        book.submit(9999, false, 10, 1, "S", listener)
+        book.onTrade(10, listener)
+
+        then:
+        fills == [[9999L, false, 10L, 1L, "S"]]
+    }
+
+    def "should drop resting orders once they expire, keeping the rest of their level in order"() {
+        given:
+        book.onTrade(100, listener)
+        book.submit(1, true, 95, 1, "S", 1_000, listener)
+        book.submit(2, true, 95, 2, "S", 500, listener)
+        book.submit(3, true, 95, 3, "S", 2_000, listener)
+        book.submit(4, true, 90, 4, "S", 500, listener)
+        book.submit(5, false, 105, 5, "S", listener)
+
+        expect: "nothing expires early"
+        book.expire(499) == 0
+        book.restingOrders() == 5
+
+        when:
+        def expired = book.expire(500)
+
+        then: "the middle of one level and the whole of another are gone"
+        expired == 2
+        book.restingOrders() == 3
+        book.bidLevels() == 1
+        book.bestBid() == 95
+
+        when: "the market trades through the remaining level"
+        book.onTrade(94, listener)
+
+        then: "it fills FIFO without the expired order"
+        fills*.getAt(0) == [1L, 3L]
+
+        and: "orders without an expiry never expire"
+        book.expire(Long.MAX_VALUE - 1) == 0
+        book.restingOrders() == 1
+        book.bestAsk() == 105
+    }
+
+    def "should reject non-positive prices and quantities"() {
+        when:
+        book.submit(1, true, price, qty, "S", listener)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        price | qty
+        0     | 1
+        100   | 0
+    }
+}
@@ -0,0 +1,197 @@
+package com.algotrader.execution.engine
+
+import com.algotrader.shared.model.Fill
+import com.algotrader.shared.model.Signal
+import com.algotrader.shared.model.SignalType
+import com.algotrader.shared.model.Tick
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.time.Instant
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CountDownLatch
+import java.time.Duration
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+class ExecutionEngineSpec extends Specification {
+
+    def fills = new ConcurrentLinkedQueue<Fill>()
+    def sink = { Fill fill -> fills << fill } as FillSink
+    def conditions = new PollingConditions(timeout: 5)
+
+    def t0 = Instant.parse("2026-01-15T10:00:00Z")
+
+    def "should fill a signal immediately against the latest tick"() {
+        given:
+        def engine = new ExecutionEngine(new ExecutionConfig(1, 1024, 16, new BigDecimal("0.01")), sink)
+
+        when:
+        engine.onTick(new Tick("BTCUSDT", new BigDecimal("42000.50"), t0))
+        engine.onSignal(new Signal(SignalType.BUY, "BTCUSDT", new BigDecimal("42000.50"), "SMA-5", t0.plusSeconds(1)))
+        engine.close()
+
+        then:
+        fills.size() == 1
+        with(fills.peek()) {
+            side() == SignalType.BUY
+            symbol() == "BTCUSDT"
+            price() == new BigDecimal("42000.50000000")
+            quantity() == new BigDecimal("0.01")
+            strategy() == "SMA-5"
+            timestamp() == t0.plusSeconds(1)
+        }
+        engine.ordersPlaced() == 1
+        engine.fills() == 1
+    }
+
+    def "should rest a non-marketable order until a later tick reaches it"() {
+        given:
+        def engine = new ExecutionEngine(new ExecutionConfig(1, 1024, 16, BigDecimal.ONE), sink)
+
+        when:
+        engine.onTick(new Tick("ETHUSDT", new BigDecimal("2500.00"), t0))
+        engine.onSignal(new Signal(SignalType.SELL, "ETHUSDT", new BigDecimal("2510.00"), "SMA-5", t0))
+        engine.onTick(new Tick("ETHUSDT", new BigDecimal("2505.00"), t0.plusSeconds(1)))
+
+        then: "nothing fills below the limit"
+        conditions.eventually { assert engine.queueDepth(0) == 0 }
+        fills.isEmpty()
+
+        when:
+        engine.onTick(new Tick("ETHUSDT", new BigDecimal("2511.00"), t0.plusSeconds(2)))
+        engine.close()
+
+        then: "the order fills at its limit, stamped with the crossing tick"
+        fills.size() == 1
+        fills.peek().price() == new BigDecimal("2510.00000000")
+        fills.peek().timestamp() == t0.plusSeconds(2)
+    }
+
+    def "should ignore HOLD signals"() {
+        given:
+        def engine = new ExecutionEngine(new ExecutionConfig(1, 1024, 16, BigDecimal.ONE), sink)
+
+        when:
+        engine.onTick(new Tick("X", BigDecimal.TEN, t0))
+        engine.onSignal(new Signal(SignalType.HOLD, "X", BigDecimal.TEN, "S", t0))
+        engine.close()
+
+        then:
+        fills.isEmpty()
+        engine.ordersPlaced() == 0
+    }
+
+    def "should keep books independent per symbol across shards with unique order ids"() {
+        given:
+        def engine = new ExecutionEngine(new ExecutionConfig(4, 1024, 64, BigDecimal.ONE), sink)
+        def symbols = (1..40).collect { "SYM${it}USDT".toString() }
+
+        when:
+        symbols.each { engine.onTick(new Tick(it, new BigDecimal("100"), t0)) }
+        symbols.each { engine.onSignal(new Signal(SignalType.BUY, it, new BigDecimal("100"), "S", t0)) }
+        symbols.each { engine.onSignal(new Signal(SignalType.SELL, it, new BigDecimal("100"), "S", t0)) }
+        engine.close()
+
+        then:
+        fills.size() == 80
+        fills*.orderId().toSet().size() == 80
+        fills.groupBy { it.symbol() }.values().every { it*.side() == [SignalType.BUY, SignalType.SELL] }
+    }
+
+    def "should reject symbols beyond the per-shard book capacity"() {
+        given:
+        def engine = new ExecutionEngine(new ExecutionConfig(1, 1024, 1, BigDecimal.ONE), sink)
+
+        when:
+        engine.onTick(new Tick("A", BigDecimal.TEN, t0))
+        engine.onTick(new Tick("B", BigDecimal.TEN, t0))
+        engine.close()
+
+        then:
+        engine.rejected() == 1
+    }
+
+    def "should flush the sink when a shard runs idle"() {
+        given:
+        def flushes = 0
+        def flushing = [onFill: { Fill f -> fills << f }, flush: { flushes++ }] as FillSink
+        def engine = new ExecutionEngine(new ExecutionConfig(1, 1024, 16, BigDecimal.ONE), flushing)
+
+        when:
+        engine.onTick(new Tick("X", BigDecimal.TEN, t0))
+        engine.onSignal(new Signal(SignalType.BUY, "X", BigDecimal.TEN, "S", t0))
+
+        then:
+        conditions.eventually { assert fills.size() == 1 && flushes > 0 }
+
+        cleanup:
+        engine.close()
+    }
+
+    def "should flush the sink while the queue never runs empty"() {
+        given: "a sink that stalls the shard on its first fill"
+        def release = new CountDownLatch(1)
+        def backlogAtFlush = new ConcurrentLinkedQueue<Integer>()
+        ExecutionEngine engine
+        def stalling = [
+                onFill: { Fill f ->
+                    if (fills.isEmpty()) {
+                        release.await(5, TimeUnit.SECONDS)
+                    }
+                    fills << f
+                },
+                flush : { backlogAtFlush << engine.queueDepth(0) }
+        ] as FillSink
+        engine = new ExecutionEngine(new ExecutionConfig(1, 4096, 16, BigDecimal.ONE), stalling)
+        def signals = ExecutionEngine.FLUSH_BATCH * 4
+
+        when: "a backlog builds up behind the stalled fill"
+        engine.onTick(new Tick("X", BigDecimal.TEN, t0))
+        signals.times { engine.onSignal(new Signal(SignalType.BUY, "X", BigDecimal.TEN, "S", t0)) }
+        release.countDown()
+
+        then: "fills are flushed before the shard ever drains its queue"
+        conditions.eventually { assert fills.size() == signals }
+        backlogAtFlush.any { it > 0 }
+
+        cleanup:
+        engine.close()
+    }
+
+    def "should drop a resting order its TTL after the signal"() {
+        given:
+        def config = new ExecutionConfig(1, 1024, 16, BigDecimal.ONE, Duration.ofMinutes(1), Duration.ofHours(1))
+        def engine = new ExecutionEngine(config, sink)
+
+        when: "a non-marketable order is still resting two minutes later"
+        engine.onTick(new Tick("ETHUSDT", new BigDecimal("2500.00"), t0))
+        engine.onSignal(new Signal(SignalType.SELL, "ETHUSDT", new BigDecimal("2510.00"), "SMA-5", t0))
+        engine.onTick(new Tick("ETHUSDT", new BigDecimal("2511.00"), t0.plusSeconds(120)))
+        engine.close()
+
+        then: "it expired instead of filling"
+        fills.isEmpty()
+        engine.expired() == 1
+    }
+
+    def "should drop books that have been idle past the timeout"() {
+        given: "room for a single book per shard"
+        def now = new AtomicLong()
+        def config = new ExecutionConfig(1, 1024, 1, BigDecimal.ONE, Duration.ofHours(1), Duration.ofMinutes(10))
+        def engine = new ExecutionEngine(config, sink, now::get)
+
+        when: "A rests an order, then goes quiet past the timeout"
+        engine.onTick(new Tick("A", BigDecimal.TEN, t0))
+        engine.onSignal(new Signal(SignalType.BUY, "A", BigDecimal.ONE, "S", t0))
+        conditions.eventually { assert engine.books() == 1 }
+        now.set(Duration.ofMinutes(10).toNanos())
+        engine.onTick(new Tick("B", BigDecimal.TEN, t0))
+        engine.close()
+
+        then: "B takes A's place and A's order went with it"
+        engine.rejected() == 0
+        engine.books() == 1
+        engine.expired() == 1
+    }
+}
@@ -0,0 +1,28 @@
+// launcher: Ingestor -> Strategy Engine -> Execution in one JVM, over an in-process or Redis bus
+
+dependencies {
+    implementation(project(":shared-lib"))
+    implementation(project(":market-ingestor"))
+    implementation(project(":strategy-engine"))
+    implementation(project(":execution-service"))
+
+    // ── SparkJava (Health endpoint) ─────────────────────────────────
+    implementation("com.sparkjava:spark-core:2.9.4")
+
+    // ── Lettuce (Redis client) ──────────────────────────────────────
+    implementation("io.lettuce:lettuce-core:6.3.1.RELEASE")
+
+    // ── Jackson (annotations on the shared DTOs) ────────────────────
+    implementation("com.fasterxml.jackson.core:jackson-databind:2.16.1")
+}
+
+// ── All services in one process (see LauncherApp for the environment variables) ─
+//
+//   TRADE_SYMBOLS=BTCUSDT,ETHUSDT INGEST_MODE=STREAM gradle :launcher:launch
+tasks.register<JavaExec>("launch") {
+    group = "application"
+    description = "Runs the ingestor, strategy engine and execution service in one JVM on an in-process bus."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.algotrader.launcher.LauncherApp")
+    systemProperty("logback.configurationFile", "logback-launcher.xml")
+}
@@ -0,0 +1,265 @@
+package com.algotrader.launcher;
+
+import com.algotrader.execution.engine.ExecutionConfig;
+import com.algotrader.execution.engine.ExecutionEngine;
+import com.algotrader.execution.engine.FillSink;
+import com.algotrader.execution.redis.RedisFillPublisher;
+import com.algotrader.ingestor.client.BinanceClient;
+import com.algotrader.ingestor.client.BinancePoller;
+import com.algotrader.ingestor.client.BinanceStreamClient;
+import com.algotrader.shared.bus.InProcessBus;
+import com.algotrader.shared.bus.MessageBus;
+import com.algotrader.shared.bus.RedisBus;
+import com.algotrader.shared.bus.Topic;
+import com.algotrader.shared.codec.WireFormat;
+import com.algotrader.shared.metrics.LatencyHistogram;
+import com.algotrader.shared.metrics.MetricsRegistry;
+import com.algotrader.shared.model.Tick;
+import com.algotrader.shared.stream.TransportConfig;
+import com.algotrader.strategy.TradingStrategy;
+import com.algotrader.strategy.bus.BusListener;
+import com.algotrader.strategy.dispatch.DispatchConfig;
+import com.algotrader.strategy.dispatch.OverflowPolicy;
+import com.algotrader.strategy.impl.SimpleMovingAverageStrategy;
+import com.algotrader.strategy.registry.StrategyRegistry;
+import com.algotrader.strategy.set.IndicatorStrategy;
+import com.algotrader.strategy.set.StrategySet;
+import io.lettuce.core.RedisClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static spark.Spark.*;
+
+/**
+ * Runs the Market Ingestor, Strategy Engine and Execution Service in one JVM.
+ *
+ * <ul>
+ * <li>With {@code BUS=IN_PROCESS} (the default) the services exchange
+ * {@link Tick} and {@link com.algotrader.shared.model.Signal} records over an
+ * {@link InProcessBus}: no serialization and no network hop between
+ * ingestion, strategy and execution. Each subscriber has a ring buffer of
+ * {@code BUS_QUEUE_CAPACITY} messages.</li>
+ * <li>With {@code BUS=REDIS} they talk over the usual {@code market_data}
+ * and {@code trading_signals} channels ({@code TRANSPORT}, {@code WIRE_FORMAT})
+ * instead, so other services — and other instances — still see the traffic,
+ * and fills go to {@code order_fills}. In-process fills are logged.</li>
+ * <li>Ingestion takes the ingestor's settings ({@code TRADE_SYMBOLS},
+ * {@code INGEST_MODE}, {@code POLL_BUDGET_MILLIS}, {@code STREAM_TYPE},
+ * {@code BINANCE_WS_URL}); the strategy the engine's ({@code SMA_WINDOW},
+ * {@code STRATEGY_SET}, {@code MAX_SYMBOLS}, {@code DISPATCH_*}); execution
+ * the execution service's ({@code EXECUTION_SHARDS}, {@code ORDER_QUANTITY},
+ * {@code ORDER_TTL_MINUTES}, {@code BOOK_IDLE_MINUTES}).</li>
+ * <li>Exposes SparkJava {@code /health} and {@code /metrics} endpoints on
+ * port 8090, covering all three services and the bus.</li>
+ * </ul>
+ */
+public class LauncherApp {
+
+    private static final Logger log = LoggerFactory.getLogger(LauncherApp.class);
+
+    private static final String FILL_CHANNEL = "order_fills";
+    private static final String DEFAULT_SYMBOL = "BTCUSDT";
+    private static final int POLL_INTERVAL_SECONDS = 5;
+    private static final int BUS_QUEUE_CAPACITY = 65536;
+    private static final int SMA_WINDOW = 5;
+    private static final int MAX_SYMBOLS = 4096;
+    private static final int SYMBOL_IDLE_MINUTES = 60;
+    private static final int DISPATCH_SHARDS = 0;
+    private static final int DISPATCH_QUEUE_CAPACITY = 8192;
+    private static final int EXECUTION_SHARDS = 2;
+    private static final int EXECUTION_QUEUE_CAPACITY = 65536;
+    private static final String ORDER_QUANTITY = "0.01";
+    private static final int ORDER_TTL_MINUTES = 60;
+    private static final int BOOK_IDLE_MINUTES = 60;
+    private static final int HTTP_PORT = 8090;
+
+    /** Where the services exchange messages. */
+    private enum BusKind { IN_PROCESS, REDIS }
+
+    /** How ticks are sourced from the exchange. */
+    private enum IngestMode { POLL, STREAM }
+
+    public static void main(String[] args) {
+        var env = System.getenv();
+        String redisUri = env.getOrDefault("REDIS_URI", "redis://localhost:6379");
+        BusKind busKind = BusKind.valueOf(env.getOrDefault("BUS", "IN_PROCESS"));
+        List<String> symbols = Arrays.stream(env.getOrDefault("TRADE_SYMBOLS", DEFAULT_SYMBOL).split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .toList();
+        IngestMode mode = IngestMode.valueOf(env.getOrDefault("INGEST_MODE", "POLL"));
+        int smaWindow = Integer.parseInt(env.getOrDefault("SMA_WINDOW", String.valueOf(SMA_WINDOW)));
+        String strategySet = env.getOrDefault("STRATEGY_SET", "");
+        int maxSymbols = Integer.parseInt(env.getOrDefault("MAX_SYMBOLS", String.valueOf(MAX_SYMBOLS)));
+        int idleMinutes = Integer.parseInt(
+                env.getOrDefault("SYMBOL_IDLE_MINUTES", String.valueOf(SYMBOL_IDLE_MINUTES)));
+        var dispatch = new DispatchConfig(
+                Integer.parseInt(env.getOrDefault("DISPATCH_SHARDS", String.valueOf(DISPATCH_SHARDS))),
+                Integer.parseInt(env.getOrDefault("DISPATCH_QUEUE_CAPACITY",
+                        String.valueOf(DISPATCH_QUEUE_CAPACITY))),
+                OverflowPolicy.valueOf(env.getOrDefault("DISPATCH_OVERFLOW", "BLOCK")),
+                Boolean.parseBoolean(env.getOrDefault("DISPATCH_CONFLATE", "false")));
+        var execution = new ExecutionConfig(
+                Integer.parseInt(env.getOrDefault("EXECUTION_SHARDS", String.valueOf(EXECUTION_SHARDS))),
+                Integer.parseInt(env.getOrDefault("EXECUTION_QUEUE_CAPACITY",
+                        String.valueOf(EXECUTION_QUEUE_CAPACITY))),
+                maxSymbols,
+                new BigDecimal(env.getOrDefault("ORDER_QUANTITY", ORDER_QUANTITY)),
+                Duration.ofMinutes(Long.parseLong(env.getOrDefault("ORDER_TTL_MINUTES",
+                        String.valueOf(ORDER_TTL_MINUTES)))),
+                Duration.ofMinutes(Long.parseLong(env.getOrDefault("BOOK_IDLE_MINUTES",
+                        String.valueOf(BOOK_IDLE_MINUTES)))));
+
+        // ── Message bus ─────────────────────────────────────────────────
+        MessageBus bus = busKind == BusKind.REDIS
+                ? new RedisBus(redisUri, TransportConfig.fromEnv("launcher"),
+                        WireFormat.valueOf(env.getOrDefault("WIRE_FORMAT", "JSON")))
+                : new InProcessBus(Integer.parseInt(env.getOrDefault("BUS_QUEUE_CAPACITY",
+                        String.valueOf(BUS_QUEUE_CAPACITY))));
+
+        // ── Execution (subscribed first, so it sees the first signal) ──
+        RedisClient fillClient = busKind == BusKind.REDIS ? RedisClient.create(redisUri) : null;
+        RedisFillPublisher fillPublisher = fillClient == null
+                ? null
+                : new RedisFillPublisher(fillClient.connect(), FILL_CHANNEL);
+        FillSink fills = fillPublisher != null ? fillPublisher : fill -> log.info("Fill: {}", fill);
+        ExecutionEngine engine = new ExecutionEngine(execution, fills);
+        var executionTicks = bus.subscribe(Topic.TICKS, "execution-service", engine::onTick);
+        var executionSignals = bus.subscribe(Topic.SIGNALS, "execution-service", engine::onSignal);
+
+        // ── Strategy engine (one independent instance per symbol) ───────
+        List<StrategyRegistry> registries = new CopyOnWriteArrayList<>();
+        Supplier<? extends TradingStrategy> strategyFactory;
+        if (strategySet.isBlank()) {
+            strategyFactory = () -> new SimpleMovingAverageStrategy(smaWindow);
+        } else {
+            List<IndicatorStrategy.Factory> members = StrategySet.parse(strategySet);
+            strategyFactory = () -> new StrategySet(members);
+        }
+        String strategyName = strategyFactory.get().name();
+        var strategy = new BusListener(bus, () -> {
+            var registry = new StrategyRegistry(strategyFactory, maxSymbols, Duration.ofMinutes(idleMinutes));
+            registries.add(registry);
+            return registry;
+        }, dispatch);
+
+        // ── Ingestion (POLL or STREAM) ──────────────────────────────────
+        LatencyHistogram tickAge = new LatencyHistogram();
+        Consumer<Tick> publishTick = tick -> {
+            bus.publish(Topic.TICKS, tick);
+            tickAge.recordAgeOf(tick.timestamp());
+        };
+        BinanceClient binanceClient = new BinanceClient();
+        BinancePoller poller = null;
+        BinanceStreamClient stream = null;
+        if (mode == IngestMode.STREAM) {
+            var streamType = BinanceStreamClient.StreamType.valueOf(env.getOrDefault("STREAM_TYPE", "TRADE"));
+            String wsUrl = env.get("BINANCE_WS_URL");
+            stream = wsUrl == null
+                    ? new BinanceStreamClient(symbols, streamType, publishTick)
+                    : new BinanceStreamClient(wsUrl, symbols, streamType, publishTick);
+            stream.start();
+        } else {
+            poller = new BinancePoller(binanceClient, symbols,
+                    Duration.ofMillis(Long.parseLong(env.getOrDefault("POLL_BUDGET_MILLIS", "2000"))), publishTick);
+            poller.start(Duration.ofSeconds(POLL_INTERVAL_SECONDS));
+        }
+        final BinanceStreamClient streamClient = stream;
+        final BinancePoller pollClient = poller;
+
+        // ── SparkJava HTTP server ───────────────────────────────────────
+        port(HTTP_PORT);
+
+        get("/health", (req, res) -> {
+            res.type("application/json");
+            boolean busOk = bus.isConnected();
+            boolean streamOk = streamClient == null || streamClient.isConnected();
+            res.status(busOk && streamOk ? 200 : 503);
+            return "{\"status\":\"" + (busOk && streamOk ? "UP" : "DOWN")
+                    + "\",\"service\":\"launcher\""
+                    + ",\"bus\":\"" + busKind + "\""
+                    + ",\"mode\":\"" + mode + "\""
+                    + ",\"strategy\":\"" + strategyName + "\""
+                    + ",\"symbols\":" + registries.stream().mapToInt(StrategyRegistry::size).sum()
+                    + ",\"ticks\":" + tickAge.count()
+                    + ",\"signals\":" + strategy.metrics().publish().count()
+                    + ",\"orders\":" + engine.ordersPlaced()
+                    + ",\"fills\":" + engine.fills()
+                    + ",\"expired\":" + engine.expired()
+                    + (bus instanceof InProcessBus local ? ",\"queued\":" + local.queued()
+                            + ",\"backpressured\":" + local.backpressured() : "")
+                    + (streamClient == null ? "" : ",\"stream\":{\"connected\":" + streamOk
+                            + ",\"reconnects\":" + streamClient.reconnects() + "}")
+                    + ",\"connected\":" + busOk + "}";
+        });
+
+        // ── Metrics ─────────────────────────────────────────────────────
+        var pipeline = strategy.metrics();
+        MetricsRegistry metrics = new MetricsRegistry("algotrader_launcher")
+                .histogram("binance_fetch_latency", "Binance REST round trip (POLL mode)",
+                        binanceClient.fetchLatency())
+                .histogram("tick_age_at_publish", "Tick timestamp to published on the bus", tickAge)
+                .histogram("strategy_latency", "TradingStrategy.process per tick", pipeline.strategy())
+                .histogram("signal_publish_latency", "Signal hand-off to the bus", pipeline.publish())
+                .histogram("tick_age_at_receive", "Tick timestamp to received by the strategy engine",
+                        pipeline.tickAgeAtReceive())
+                .histogram("tick_age_at_signal", "Tick timestamp to signal emitted", pipeline.tickAgeAtSignal())
+                .counter("ticks_published", "Ticks published to the bus", tickAge::count)
+                .counter("signals_emitted", "Signals published to the bus", pipeline.publish()::count)
+                .counter("strategy_errors", "Ticks the strategy engine failed to process", pipeline::errors)
+                .counter("execution_ticks", "Ticks delivered to the execution engine", executionTicks::delivered)
+                .counter("orders_placed", "Paper orders placed", engine::ordersPlaced)
+                .counter("fills", "Paper fills", engine::fills)
+                .counter("orders_expired", "Paper orders dropped unfilled", engine::expired)
+                .gauge("symbols", "Symbols holding strategy state",
+                        () -> registries.stream().mapToInt(StrategyRegistry::size).sum());
+        if (bus instanceof InProcessBus local) {
+            metrics.counter("bus_backpressured", "Publishes that waited for a subscriber's queue space",
+                            local::backpressured)
+                    .counter("bus_dropped", "Messages dropped after shutdown began", local::dropped)
+                    .gauge("bus_queued", "Messages waiting in subscriber queues", local::queued);
+        } else if (bus instanceof RedisBus redis) {
+            metrics.histogram("redis_publish_latency", "Redis PUBLISH/XADD round trip", redis.publishLatency())
+                    .counter("redis_publish_failed", "Messages Redis did not accept", redis::failed);
+        }
+
+        get("/metrics", (req, res) -> {
+            res.type(MetricsRegistry.CONTENT_TYPE);
+            return metrics.scrape();
+        });
+
+        log.info("Launcher started: {} bus, {} ingestion of {}, strategy {} (shards={}), {} execution shard(s)"
+                + " — HTTP on port {}", busKind, mode, symbols, strategyName, dispatch.shards(),
+                execution.shards(), HTTP_PORT);
+
+        // ── Graceful shutdown (upstream first, so queues drain downstream) ─
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            log.info("Shutting down Launcher...");
+            if (streamClient != null) {
+                streamClient.close();
+            }
+            if (pollClient != null) {
+                pollClient.close();
+            }
+            strategy.close();
+            executionSignals.close();
+            executionTicks.close();
+            engine.close();
+            if (fillPublisher != null) {
+                fillPublisher.close();
+                fillClient.shutdown();
+            }
+            bus.close();
+            stop();
+            log.info("Launcher stopped.");
+        }));
+    }
+}
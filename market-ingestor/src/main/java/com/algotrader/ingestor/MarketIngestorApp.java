@@ -1,14 +1,30 @@
 package com.algotrader.ingestor;
 
+import com.algotrader.ingestor.book.BookPublisher;
+import com.algotrader.ingestor.book.OrderBookFeed;
 import com.algotrader.ingestor.client.BinanceClient;
-import com.algotrader.ingestor.redis.RedisPublisher;
-import com.algotrader.shared.util.JsonUtil;
+import com.algotrader.ingestor.client.BinancePoller;
+import com.algotrader.ingestor.client.BinanceStreamClient;
+import com.algotrader.shared.cluster.Partitioning;
+import com.algotrader.shared.codec.NegotiatingCodec;
+import com.algotrader.shared.codec.WireFormat;
+import com.algotrader.shared.journal.TickJournal;
+import com.algotrader.shared.metrics.LatencyHistogram;
+import com.algotrader.shared.metrics.MetricsRegistry;
+import com.algotrader.shared.model.Tick;
+import com.algotrader.shared.stream.RedisTransport;
+import com.algotrader.shared.stream.TransportConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 import static spark.Spark.*;
 
@@ -16,10 +32,31 @@ import static spark.Spark.*;
  * Entry point for the Market Ingestor service.
  *
  * <ul>
- * <li>Exposes a SparkJava health endpoint on port 8080.</li>
- * <li>Polls Binance every 5 seconds for BTCUSDT price.</li>
- * <li>Publishes each {@link com.algotrader.shared.model.Tick} as JSON to Redis
- * channel {@code market_data}.</li>
+ * <li>Exposes SparkJava {@code /health} and {@code /metrics} endpoints on
+ * port 8080; {@code /metrics} reports Binance fetch, Redis publish and tick
+ * age latency histograms and throughput counters in Prometheus format.</li>
+ * <li>Polls Binance every 5 seconds for the {@code TRADE_SYMBOLS} prices
+ * (one batch request, bounded by {@code POLL_BUDGET_MILLIS}), or — with
+ * {@code INGEST_MODE=STREAM} — consumes a combined WebSocket trade/bookTicker
+ * stream for every symbol in {@code TRADE_SYMBOLS} over one connection.</li>
+ * <li>Publishes each {@link Tick} to Redis channel
+ * {@code market_data} as JSON, or in the compact binary format when
+ * {@code WIRE_FORMAT=BINARY} — or, with {@code TRANSPORT=STREAMS}, appends
+ * it to the Redis stream {@code market_data}, trimmed to about
+ * {@code STREAM_MAX_LEN} entries.</li>
+ * <li>With {@code PARTITIONS} set, also sends each tick to its symbol's
+ * partition channel or stream ({@code market_data:<n>}), from which clustered
+ * strategy engines take only the partitions they lease. {@code market_data}
+ * itself keeps every tick for the services that need them all.</li>
+ * <li>With {@code ORDER_BOOK=true}, also keeps a local L2 order book per
+ * symbol from a depth snapshot and the {@code depth@100ms} diff stream, and
+ * publishes each book's top on {@code book_top} every {@code BOOK_TOP_MILLIS}
+ * and its top {@code BOOK_DEPTH_LEVELS} levels on {@code book_depth} every
+ * {@code BOOK_DEPTH_MILLIS} — only for books that changed.</li>
+ * <li>When {@code JOURNAL_DIR} is set, also appends every tick to a local
+ * memory-mapped {@link TickJournal} for capture and replay. The journal is
+ * optional: a tick it cannot record is counted and skipped, and if it fails
+ * outright (e.g. a full disk) it is switched off while publishing goes on.</li>
  * </ul>
  */
 public class MarketIngestorApp {
@@ -27,68 +64,219 @@ public class MarketIngestorApp {
     private static final Logger log = LoggerFactory.getLogger(MarketIngestorApp.class);
 
     private static final String REDIS_CHANNEL = "market_data";
+    private static final String BOOK_TOP_CHANNEL = "book_top";
+    private static final String BOOK_DEPTH_CHANNEL = "book_depth";
     private static final String DEFAULT_SYMBOL = "BTCUSDT";
     private static final int POLL_INTERVAL_SECONDS = 5;
     private static final int HTTP_PORT = 8080;
 
+    /** How ticks are sourced from the exchange. */
+    private enum IngestMode { POLL, STREAM }
+
     public static void main(String[] args) {
         String redisUri = System.getenv().getOrDefault("REDIS_URI", "redis://localhost:6379");
         String symbol = System.getenv().getOrDefault("TRADE_SYMBOL", DEFAULT_SYMBOL);
+        List<String> symbols = Arrays.stream(System.getenv().getOrDefault("TRADE_SYMBOLS", symbol).split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .toList();
+        Duration pollBudget = Duration.ofMillis(
+                Long.parseLong(System.getenv().getOrDefault("POLL_BUDGET_MILLIS", "2000")));
+        IngestMode mode = IngestMode.valueOf(System.getenv().getOrDefault("INGEST_MODE", "POLL"));
+        WireFormat wireFormat = WireFormat.valueOf(System.getenv().getOrDefault("WIRE_FORMAT", "JSON"));
+        NegotiatingCodec<Tick> tickCodec = NegotiatingCodec.ticks(wireFormat);
+        TransportConfig transport = TransportConfig.fromEnv("market-ingestor");
 
         // ── Redis publisher ─────────────────────────────────────────────
-        RedisPublisher publisher = new RedisPublisher(redisUri);
+        RedisTransport redis = new RedisTransport(redisUri, transport);
+
+        // ── Local tick journal (optional) ───────────────────────────────
+        String journalDir = System.getenv("JOURNAL_DIR");
+        TickJournal journal = journalDir == null ? null : new TickJournal(Path.of(journalDir));
+        AtomicBoolean journaling = new AtomicBoolean(journal != null);
+        AtomicLong journalFailures = new AtomicLong();
+
+        // ── Symbol partitions for clustered strategy engines (optional) ─
+        int partitionCount = Integer.parseInt(System.getenv().getOrDefault("PARTITIONS", "0"));
+        Partitioning partitioning = partitionCount > 0 ? new Partitioning(partitionCount) : null;
+        String[] partitionChannels = partitioning == null ? null : partitioning.channels(REDIS_CHANNEL);
+
+        // ── Tick publishing (shared by both ingest modes) ───────────────
+        // Each mode delivers ticks from a single thread, as the journal requires
+        LatencyHistogram tickAge = new LatencyHistogram();
+        Consumer<Tick> publishTick = tick -> {
+            if (journaling.get()) {
+                journal(journal, tick, journaling, journalFailures);
+            }
+            String partitionChannel = partitionChannels == null
+                    ? null
+                    : partitionChannels[partitioning.partitionOf(tick.symbol())];
+            byte[] payload = tickCodec.encode(tick);
+            redis.send(REDIS_CHANNEL, payload);
+            if (partitionChannel != null) {
+                redis.send(partitionChannel, payload);
+            }
+            log.debug("Sent tick to '{}': {}", REDIS_CHANNEL, tick);
+            tickAge.recordAgeOf(tick.timestamp());
+        };
 
-        // ── Binance HTTP client ─────────────────────────────────────────
         BinanceClient binanceClient = new BinanceClient();
+        String wsUrl = System.getenv("BINANCE_WS_URL");
+
+        // ── Binance WebSocket stream (STREAM mode) ──────────────────────
+        BinanceStreamClient streamClient = null;
+        if (mode == IngestMode.STREAM) {
+            var streamType = BinanceStreamClient.StreamType.valueOf(
+                    System.getenv().getOrDefault("STREAM_TYPE", "TRADE"));
+            streamClient = wsUrl == null
+                    ? new BinanceStreamClient(symbols, streamType, publishTick)
+                    : new BinanceStreamClient(wsUrl, symbols, streamType, publishTick);
+            streamClient.start();
+        }
+        final BinanceStreamClient stream = streamClient;
+
+        // ── L2 order books (optional) ───────────────────────────────────
+        boolean orderBooks = Boolean.parseBoolean(System.getenv().getOrDefault("ORDER_BOOK", "false"));
+        OrderBookFeed bookFeed = null;
+        BookPublisher bookPublisher = null;
+        BinanceStreamClient depthClient = null;
+        if (orderBooks) {
+            int maxLevels = Integer.parseInt(System.getenv().getOrDefault("BOOK_MAX_LEVELS", "1000"));
+            int depthLevels = Integer.parseInt(System.getenv().getOrDefault("BOOK_DEPTH_LEVELS", "20"));
+            Duration topInterval = Duration.ofMillis(
+                    Long.parseLong(System.getenv().getOrDefault("BOOK_TOP_MILLIS", "100")));
+            Duration depthInterval = Duration.ofMillis(
+                    Long.parseLong(System.getenv().getOrDefault("BOOK_DEPTH_MILLIS", "1000")));
+            bookFeed = new OrderBookFeed(symbols, maxLevels, binanceClient::fetchDepth);
+            bookPublisher = new BookPublisher(bookFeed.books(), depthLevels, (channel, json) ->
+                    redis.send(channel, json.getBytes(StandardCharsets.UTF_8)), BOOK_TOP_CHANNEL, BOOK_DEPTH_CHANNEL);
+            depthClient = wsUrl == null
+                    ? new BinanceStreamClient(symbols, BinanceStreamClient.StreamType.DEPTH, bookFeed)
+                    : new BinanceStreamClient(wsUrl, symbols, BinanceStreamClient.StreamType.DEPTH, bookFeed);
+            depthClient.start();
+            bookPublisher.start(topInterval, depthInterval);
+        }
+        final OrderBookFeed books = bookFeed;
+        final BookPublisher bookOut = bookPublisher;
+        final BinanceStreamClient depth = depthClient;
 
         // ── SparkJava HTTP server ───────────────────────────────────────
         port(HTTP_PORT);
 
         get("/health", (req, res) -> {
             res.type("application/json");
-            boolean redisOk = publisher.isConnected();
-            int status = redisOk ? 200 : 503;
+            boolean redisOk = redis.isConnected();
+            boolean streamOk = (stream == null || stream.isConnected()) && (depth == null || depth.isConnected());
+            int status = redisOk && streamOk ? 200 : 503;
             res.status(status);
-            return "{\"status\":\"" + (redisOk ? "UP" : "DOWN")
+            return "{\"status\":\"" + (redisOk && streamOk ? "UP" : "DOWN")
                     + "\",\"service\":\"market-ingestor\""
+                    + ",\"mode\":\"" + mode + "\""
+                    + ",\"transport\":\"" + transport.transport() + "\""
+                    + (stream == null ? "" : ",\"stream\":{\"connected\":" + streamOk
+                            + ",\"ticks\":" + stream.ticksReceived()
+                            + ",\"reconnects\":" + stream.reconnects()
+                            + ",\"idleTimeouts\":" + stream.idleTimeouts() + "}")
+                    + (books == null ? "" : ",\"books\":{\"connected\":" + depth.isConnected()
+                            + ",\"live\":" + books.live()
+                            + ",\"symbols\":" + books.books().size()
+                            + ",\"updates\":" + books.updates()
+                            + ",\"gaps\":" + books.gaps()
+                            + ",\"resyncs\":" + books.resyncs() + "}")
+                    + (journal == null ? "" : ",\"journal\":{\"enabled\":" + journaling.get()
+                            + ",\"written\":" + journal.written()
+                            + ",\"failures\":" + journalFailures.get()
+                            + ",\"segment\":" + journal.segment() + "}")
                     + ",\"redis\":" + redisOk + "}";
         });
 
-        log.info("Market Ingestor HTTP server started on port {}", HTTP_PORT);
+        // ── Scheduled price polling (POLL mode) ─────────────────────────
+        BinancePoller poller = new BinancePoller(binanceClient, symbols, pollBudget, publishTick);
 
-        // ── Scheduled price polling ─────────────────────────────────────
-        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread t = new Thread(r, "binance-poller");
-            t.setDaemon(true);
-            return t;
+        // ── Metrics ─────────────────────────────────────────────────────
+        MetricsRegistry metrics = new MetricsRegistry("algotrader_ingestor")
+                .histogram("binance_fetch_latency", "Binance REST round trip (POLL mode)",
+                        binanceClient.fetchLatency())
+                .histogram("redis_publish_latency", "Redis PUBLISH/XADD round trip", redis.sendLatency())
+                .histogram("tick_age_at_publish", "Tick timestamp to published on Redis", tickAge)
+                .counter("ticks_published", "Ticks published to Redis", tickAge::count);
+        if (stream != null) {
+            metrics.counter("stream_ticks_received", "Ticks received from the Binance WebSocket",
+                            stream::ticksReceived)
+                    .counter("stream_reconnects", "Binance WebSocket reconnect attempts", stream::reconnects)
+                    .counter("stream_idle_timeouts", "Binance WebSocket connections dropped for going quiet",
+                            stream::idleTimeouts);
+        }
+        if (books != null) {
+            metrics.counter("book_updates", "Depth diff events applied to local order books", books::updates)
+                    .counter("book_gaps", "Depth diff sequence gaps detected", books::gaps)
+                    .counter("book_resyncs", "Order book resynchronizations from a new snapshot", books::resyncs)
+                    .counter("book_snapshot_failures", "Depth snapshot fetches that failed",
+                            books::snapshotFailures)
+                    .counter("book_snapshot_rate_limited", "Depth snapshot fetches refused with HTTP 429 or 418",
+                            books::rateLimited)
+                    .counter("book_malformed", "Depth messages that could not be parsed", books::malformed)
+                    .gauge("books_live", "Order books currently in sync", books::live)
+                    .counter("book_tops_published", "Top-of-book messages published", bookOut::topsPublished)
+                    .counter("book_depths_published", "Order book depth messages published",
+                            bookOut::depthsPublished);
+        }
+        if (journal != null) {
+            metrics.counter("journal_ticks_written", "Ticks appended to the local journal", journal::written)
+                    .counter("journal_failures", "Ticks the local journal could not record", journalFailures::get)
+                    .gauge("journal_enabled", "Whether the local journal is still recording",
+                            () -> journaling.get() ? 1 : 0);
+        }
+
+        get("/metrics", (req, res) -> {
+            res.type(MetricsRegistry.CONTENT_TYPE);
+            return metrics.scrape();
         });
 
-        scheduler.scheduleAtFixedRate(() -> {
-            try {
-                var tick = binanceClient.fetchTicker(symbol);
-                String json = JsonUtil.toJson(tick);
-                publisher.publish(REDIS_CHANNEL, json);
-                log.info("Published tick to '{}': {}", REDIS_CHANNEL, json);
-            } catch (Exception e) {
-                log.error("Error during tick fetch/publish cycle", e);
-            }
-        }, 0, POLL_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        log.info("Market Ingestor HTTP server started on port {}", HTTP_PORT);
+
+        if (mode == IngestMode.POLL) {
+            poller.start(Duration.ofSeconds(POLL_INTERVAL_SECONDS));
+        }
 
         // ── Graceful shutdown ───────────────────────────────────────────
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             log.info("Shutting down Market Ingestor...");
-            scheduler.shutdown();
-            try {
-                if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                    scheduler.shutdownNow();
-                }
-            } catch (InterruptedException e) {
-                scheduler.shutdownNow();
-                Thread.currentThread().interrupt();
+            if (stream != null) {
+                stream.close();
             }
-            publisher.close();
+            if (depth != null) {
+                depth.close();
+                bookOut.close();
+                books.close();
+            }
+            poller.close();
+            if (journal != null) {
+                journaling.set(false);
+                journal.close();
+            }
+            redis.close();
             stop();
             log.info("Market Ingestor stopped.");
         }));
     }
+
+    /**
+     * Records a tick in the journal without ever failing the live feed. A
+     * tick the journal rejects is skipped; an I/O failure — a segment that
+     * cannot be created, or a fault on the mapping, which the JVM reports as
+     * an {@link InternalError} — switches the journal off for good.
+     */
+    private static void journal(TickJournal journal, Tick tick, AtomicBoolean journaling, AtomicLong failures) {
+        try {
+            journal.append(tick);
+        } catch (IllegalArgumentException e) {
+            failures.incrementAndGet();
+            log.warn("Tick not journaled: {}", e.getMessage());
+        } catch (RuntimeException | InternalError e) {
+            failures.incrementAndGet();
+            journaling.set(false);
+            log.error("Tick journal failed, disabling it — ticks are still published: {}", e.getMessage(), e);
+        }
+    }
 }
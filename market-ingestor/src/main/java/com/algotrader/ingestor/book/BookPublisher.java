@@ -0,0 +1,267 @@
+package com.algotrader.ingestor.book;
+
+import com.algotrader.shared.model.Price;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the live {@link OrderBook}s at a fixed rate, however fast the
+ * exchange updates them: the top of book on one channel and the top N levels
+ * per side on another, each on its own interval.
+ * <p>
+ * A book is only published when it changed since its last publication — the
+ * best bid or ask for the top-of-book channel, anything for the depth one.
+ * Levels are copied out under the book's monitor into reused arrays and
+ * formatted afterwards, so the feed is held up for O(N) at most.
+ * </p>
+ * Messages are JSON, with prices and quantities as decimal strings as Binance
+ * sends them:
+ * <pre>
+ * {"symbol":"BTCUSDT","updateId":160,"time":1700000000000,
+ *  "bid":"42000.10000000","bidQty":"1.50000000","ask":"42000.20000000","askQty":"0.30000000"}
+ * {"symbol":"BTCUSDT","updateId":160,"time":1700000000000,
+ *  "bids":[["42000.10000000","1.50000000"],…],"asks":[["42000.20000000","0.30000000"],…]}
+ * </pre>
+ */
+public class BookPublisher implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(BookPublisher.class);
+
+    private static final long FRACTION = 100_000_000L; // 10^SCALE
+
+    /**
+     * Delivers one message to a channel.
+     */
+    @FunctionalInterface
+    public interface Sink {
+        void publish(String channel, String json);
+    }
+
+    private final List<OrderBook> books;
+    private final int depthLevels;
+    private final Sink sink;
+    private final String topChannel;
+    private final String depthChannel;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "book-publisher");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // ── Publisher-thread state ──
+    /** Best bid, bid qty, best ask, ask qty last published per book. */
+    private final long[] lastTop;
+    private final long[] lastDepthVersion;
+    private final long[] bidPrices;
+    private final long[] bidQtys;
+    private final long[] askPrices;
+    private final long[] askQtys;
+    private final StringBuilder json = new StringBuilder(256);
+
+    private final AtomicLong topsPublished = new AtomicLong();
+    private final AtomicLong depthsPublished = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    /**
+     * @param depthLevels the levels per side in each depth message
+     */
+    public BookPublisher(List<OrderBook> books, int depthLevels, Sink sink, String topChannel,
+            String depthChannel) {
+        if (depthLevels <= 0) {
+            throw new IllegalArgumentException("Depth levels must be > 0, got: " + depthLevels);
+        }
+        this.books = List.copyOf(books);
+        this.depthLevels = depthLevels;
+        this.sink = sink;
+        this.topChannel = topChannel;
+        this.depthChannel = depthChannel;
+        this.lastTop = new long[books.size() * 4];
+        this.lastDepthVersion = new long[books.size()];
+        Arrays.fill(lastDepthVersion, -1);
+        this.bidPrices = new long[depthLevels];
+        this.bidQtys = new long[depthLevels];
+        this.askPrices = new long[depthLevels];
+        this.askQtys = new long[depthLevels];
+    }
+
+    /**
+     * Publishes tops every {@code topInterval} and depth every {@code depthInterval}.
+     */
+    public void start(Duration topInterval, Duration depthInterval) {
+        scheduler.scheduleAtFixedRate(this::publishTops, topInterval.toMillis(), topInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        scheduler.scheduleAtFixedRate(this::publishDepth, depthInterval.toMillis(), depthInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        log.info("Publishing top of book to '{}' every {} ms and {} levels to '{}' every {} ms",
+                topChannel, topInterval.toMillis(), depthLevels, depthChannel, depthInterval.toMillis());
+    }
+
+    /**
+     * Publishes the top of every live book whose best bid or ask changed.
+     *
+     * @return the number of messages published
+     */
+    public int publishTops() {
+        int published = 0;
+        for (int i = 0; i < books.size(); i++) {
+            OrderBook book = books.get(i);
+            long updateId;
+            long time;
+            long bid;
+            long bidQty;
+            long ask;
+            long askQty;
+            synchronized (book) {
+                if (!book.isLive()) {
+                    continue;
+                }
+                updateId = book.lastUpdateId();
+                time = book.eventTimeMillis();
+                bid = book.bids().bestPrice();
+                bidQty = book.bids().bestQty();
+                ask = book.asks().bestPrice();
+                askQty = book.asks().bestQty();
+            }
+            int t = i * 4;
+            if (lastTop[t] == bid && lastTop[t + 1] == bidQty && lastTop[t + 2] == ask && lastTop[t + 3] == askQty) {
+                continue;
+            }
+            json.setLength(0);
+            header(book.symbol(), updateId, time);
+            decimal(json.append(",\"bid\":"), bid);
+            decimal(json.append(",\"bidQty\":"), bid == Price.NONE ? Price.NONE : bidQty);
+            decimal(json.append(",\"ask\":"), ask);
+            decimal(json.append(",\"askQty\":"), ask == Price.NONE ? Price.NONE : askQty);
+            if (send(topChannel, json.append('}'))) {
+                lastTop[t] = bid;
+                lastTop[t + 1] = bidQty;
+                lastTop[t + 2] = ask;
+                lastTop[t + 3] = askQty;
+                topsPublished.incrementAndGet();
+                published++;
+            }
+        }
+        return published;
+    }
+
+    /**
+     * Publishes the top levels of every live book that changed.
+     *
+     * @return the number of messages published
+     */
+    public int publishDepth() {
+        int published = 0;
+        for (int i = 0; i < books.size(); i++) {
+            OrderBook book = books.get(i);
+            long updateId;
+            long time;
+            long version;
+            int bids;
+            int asks;
+            synchronized (book) {
+                version = book.version();
+                if (!book.isLive() || version == lastDepthVersion[i]) {
+                    continue;
+                }
+                updateId = book.lastUpdateId();
+                time = book.eventTimeMillis();
+                bids = book.bids().copyTop(depthLevels, bidPrices, bidQtys);
+                asks = book.asks().copyTop(depthLevels, askPrices, askQtys);
+            }
+            json.setLength(0);
+            header(book.symbol(), updateId, time);
+            levels(json.append(",\"bids\":"), bidPrices, bidQtys, bids);
+            levels(json.append(",\"asks\":"), askPrices, askQtys, asks);
+            if (send(depthChannel, json.append('}'))) {
+                lastDepthVersion[i] = version;
+                depthsPublished.incrementAndGet();
+                published++;
+            }
+        }
+        return published;
+    }
+
+    private void header(String symbol, long updateId, long time) {
+        json.append("{\"symbol\":\"").append(symbol)
+                .append("\",\"updateId\":").append(updateId)
+                .append(",\"time\":").append(time);
+    }
+
+    private static void levels(StringBuilder out, long[] prices, long[] qtys, int count) {
+        out.append('[');
+        for (int i = 0; i < count; i++) {
+            decimal(out.append(i == 0 ? "[" : ",["), prices[i]);
+            decimal(out.append(','), qtys[i]).append(']');
+        }
+        out.append(']');
+    }
+
+    /**
+     * Appends a non-negative mantissa as a quoted plain decimal with all
+     * {@link OrderBook#SCALE} decimals — never in scientific notation, unlike
+     * {@link Price#appendTo}, which would render one satoshi as {@code 1E-8}.
+     */
+    private static StringBuilder decimal(StringBuilder out, long mantissa) {
+        if (mantissa == Price.NONE) {
+            return out.append("null");
+        }
+        out.append('"').append(mantissa / FRACTION).append('.');
+        long fraction = mantissa % FRACTION;
+        for (long digit = FRACTION / 10; digit > fraction && digit > 1; digit /= 10) {
+            out.append('0');
+        }
+        return out.append(fraction).append('"');
+    }
+
+    private boolean send(String channel, StringBuilder message) {
+        try {
+            sink.publish(channel, message.toString());
+            return true;
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            log.warn("Publishing to '{}' failed: {}", channel, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * @return top-of-book messages published
+     */
+    public long topsPublished() {
+        return topsPublished.get();
+    }
+
+    /**
+     * @return depth messages published
+     */
+    public long depthsPublished() {
+        return depthsPublished.get();
+    }
+
+    /**
+     * @return messages the sink rejected
+     */
+    public long failed() {
+        return failed.get();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Book publisher closed — {} top(s), {} depth snapshot(s) published, {} failed",
+                topsPublished.get(), depthsPublished.get(), failed.get());
+    }
+}
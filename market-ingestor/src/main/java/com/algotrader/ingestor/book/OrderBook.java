@@ -0,0 +1,166 @@
+package com.algotrader.ingestor.book;
+
+/**
+ * A local copy of one symbol's exchange order book, built from a depth
+ * snapshot and kept current by incremental diff events.
+ * <p>
+ * Binance numbers every book change; a snapshot carries the ID of the last
+ * change it includes, and each diff event the range {@code [first, final]}
+ * of the changes it carries. The book follows the exchange's rules:
+ * </p>
+ * <ul>
+ * <li>an event that ends at or before the book's last ID is stale and skipped;</li>
+ * <li>the first event applied after a snapshot must straddle the snapshot's
+ * ID — {@code first ≤ lastId + 1};</li>
+ * <li>every later event must start exactly where the previous one ended —
+ * {@code first == lastId + 1}.</li>
+ * </ul>
+ * Anything else is a gap: changes were missed, the book can no longer be
+ * trusted, and it must be {@linkplain #reset() reset} and reloaded from a new
+ * snapshot.
+ * <p>
+ * Prices and quantities are fixed-point mantissas at {@link #SCALE} decimals,
+ * the precision Binance quotes in. Not thread-safe — callers synchronize on
+ * the book.
+ * </p>
+ */
+public final class OrderBook {
+
+    /** Decimals of every price and quantity mantissa. */
+    public static final int SCALE = 8;
+
+    /**
+     * The outcome of checking a diff event against the book's sequence.
+     */
+    public enum Sequence {
+        /** The event continues the book: apply its levels, then {@link #endUpdate}. */
+        APPLY,
+        /** The event is already reflected in the book: skip it. */
+        STALE,
+        /** Changes were missed: the book must be resynchronized. */
+        GAP
+    }
+
+    private final String symbol;
+    private final PriceLevels bids;
+    private final PriceLevels asks;
+
+    private long lastUpdateId = -1;
+    private boolean bridged;
+    private long eventTimeMillis;
+    private long version;
+    private long updates;
+    private long gaps;
+
+    /**
+     * @param maxLevels the most levels tracked per side
+     */
+    public OrderBook(String symbol, int maxLevels) {
+        this.symbol = symbol;
+        this.bids = new PriceLevels(maxLevels, true);
+        this.asks = new PriceLevels(maxLevels, false);
+    }
+
+    /**
+     * Empties the book; it is not live until the next {@link #loadSnapshot}.
+     */
+    public void reset() {
+        bids.clear();
+        asks.clear();
+        lastUpdateId = -1;
+        bridged = false;
+    }
+
+    /**
+     * Marks the levels set since {@link #reset()} as the snapshot at {@code lastUpdateId}.
+     */
+    public void loadSnapshot(long lastUpdateId, long timeMillis) {
+        this.lastUpdateId = lastUpdateId;
+        this.bridged = false;
+        this.eventTimeMillis = timeMillis;
+        version++;
+    }
+
+    /**
+     * Checks a diff event against the book's sequence; call only while {@link #isLive()}.
+     *
+     * @param firstUpdateId the event's first change ID ({@code U})
+     * @param finalUpdateId the event's final change ID ({@code u})
+     */
+    public Sequence beginUpdate(long firstUpdateId, long finalUpdateId) {
+        if (finalUpdateId <= lastUpdateId) {
+            return Sequence.STALE;
+        }
+        boolean continues = bridged ? firstUpdateId == lastUpdateId + 1 : firstUpdateId <= lastUpdateId + 1;
+        if (!continues) {
+            gaps++;
+            return Sequence.GAP;
+        }
+        return Sequence.APPLY;
+    }
+
+    /**
+     * Completes an event whose levels have been applied.
+     */
+    public void endUpdate(long finalUpdateId, long eventTimeMillis) {
+        this.lastUpdateId = finalUpdateId;
+        this.bridged = true;
+        this.eventTimeMillis = eventTimeMillis;
+        version++;
+        updates++;
+    }
+
+    public String symbol() {
+        return symbol;
+    }
+
+    public PriceLevels bids() {
+        return bids;
+    }
+
+    public PriceLevels asks() {
+        return asks;
+    }
+
+    /**
+     * @return whether the book holds a snapshot and every change since
+     */
+    public boolean isLive() {
+        return lastUpdateId >= 0;
+    }
+
+    /**
+     * @return the ID of the last change reflected in the book, or {@code -1} while not live
+     */
+    public long lastUpdateId() {
+        return lastUpdateId;
+    }
+
+    /**
+     * @return the exchange time of the last event applied, in epoch milliseconds
+     */
+    public long eventTimeMillis() {
+        return eventTimeMillis;
+    }
+
+    /**
+     * @return a counter that changes whenever the book does
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * @return diff events applied
+     */
+    public long updates() {
+        return updates;
+    }
+
+    /**
+     * @return sequence gaps detected
+     */
+    public long gaps() {
+        return gaps;
+    }
+}
@@ -0,0 +1,502 @@
+package com.algotrader.ingestor.book;
+
+import com.algotrader.ingestor.client.BinanceStreamClient;
+import com.algotrader.ingestor.client.RateLimitedException;
+import com.algotrader.shared.util.JsonUtil;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Maintains an {@link OrderBook} per symbol from a Binance depth diff stream
+ * and REST depth snapshots.
+ * <p>
+ * On every (re)connection each book is reset and resynchronized: diff
+ * events are buffered while a snapshot is fetched on the
+ * {@code depth-snapshot} thread, then the snapshot is loaded and the buffer
+ * replayed through the book's sequence checks, after which events apply
+ * directly on the WebSocket thread. A sequence gap — or an event that cannot
+ * be read — starts the same resynchronization for that symbol alone.
+ * </p>
+ * <p>
+ * A failed snapshot is retried with exponential backoff per symbol, from 1 s
+ * up to a minute. Snapshots are heavy requests (weight 50 at the default
+ * limit) and Binance's weight limit is per IP, shared with ticker polling, so
+ * a 429 or 418 pauses every symbol's snapshots until its {@code Retry-After}
+ * has passed rather than hammering on towards an IP ban.
+ * </p>
+ * Events are decoded with a streaming parser straight into the book: each
+ * message is copied into a reused character buffer and levels go from there
+ * to fixed-point {@code long}s, so applying an event allocates nothing beyond
+ * the parser itself. Only events buffered during a resync are copied out. Each book
+ * is guarded by its own monitor, which readers such as {@link BookPublisher}
+ * hold while copying levels out.
+ */
+public class OrderBookFeed implements BinanceStreamClient.MessageListener, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderBookFeed.class);
+
+    private static final JsonFactory FACTORY = JsonUtil.mapper().getFactory();
+    /** Events buffered per symbol while its snapshot loads (100 s of 100 ms diffs). */
+    private static final int BUFFER_LIMIT = 1000;
+    private static final long RETRY_MILLIS = 1000;
+    private static final long MAX_RETRY_MILLIS = 60_000;
+    private static final long[] POW10 = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L,
+            100_000_000L};
+
+    /**
+     * Fetches a symbol's depth snapshot as raw JSON.
+     */
+    @FunctionalInterface
+    public interface SnapshotSource {
+        byte[] fetch(String symbol, int limit);
+    }
+
+    private final OrderBook[] books;
+    /** Events received while each book was not live; guarded by the book. */
+    private final ArrayDeque<char[]>[] buffers;
+    /** Whether a snapshot fetch is queued or running for each book; guarded by the book. */
+    private final boolean[] fetching;
+    /** Consecutive failed snapshot fetches per book; snapshot thread only. */
+    private final int[] failures;
+    /** No snapshot is fetched before this {@link System#nanoTime()}; snapshot thread only. */
+    private long pausedUntil = System.nanoTime();
+    /** Holds the message being handled; WebSocket thread only. */
+    private char[] message = new char[4096];
+    private final SnapshotSource snapshots;
+    private final int snapshotLimit;
+    private final ScheduledExecutorService snapshotter = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "depth-snapshot");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final AtomicLong resyncs = new AtomicLong();
+    private final AtomicLong snapshotFailures = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final AtomicLong malformed = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * @param symbols   upper-case trading pairs, as in {@code TRADE_SYMBOLS}
+     * @param maxLevels the levels tracked per side, and the snapshot depth requested
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"}) // generic array of buffers
+    public OrderBookFeed(List<String> symbols, int maxLevels, SnapshotSource snapshots) {
+        this.books = new OrderBook[symbols.size()];
+        this.buffers = new ArrayDeque[symbols.size()];
+        for (int i = 0; i < books.length; i++) {
+            books[i] = new OrderBook(symbols.get(i), maxLevels);
+            buffers[i] = new ArrayDeque<>();
+        }
+        this.fetching = new boolean[books.length];
+        this.failures = new int[books.length];
+        this.snapshots = snapshots;
+        this.snapshotLimit = maxLevels;
+    }
+
+    /**
+     * @return every book, in symbol order
+     */
+    public List<OrderBook> books() {
+        return List.of(books);
+    }
+
+    @Override
+    public void onConnected() {
+        for (int i = 0; i < books.length; i++) {
+            resync(i);
+        }
+    }
+
+    @Override
+    public void onMessage(CharSequence text) throws IOException {
+        int length = text.length();
+        if (length > message.length) {
+            message = new char[Math.max(length, message.length * 2)];
+        }
+        if (text instanceof StringBuilder sb) {
+            sb.getChars(0, length, message, 0);
+        } else {
+            for (int i = 0; i < length; i++) {
+                message[i] = text.charAt(i);
+            }
+        }
+        handle(message, length);
+    }
+
+    private void handle(char[] message, int length) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(message, 0, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                if (parser.nextToken() == JsonToken.START_OBJECT && "data".equals(field)) {
+                    handleEvent(parser, message, length);
+                    return;
+                }
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Reads a {@code depthUpdate} event — {@code E}, {@code s}, {@code U} and
+     * {@code u} precede the {@code b} and {@code a} level arrays, as Binance sends them.
+     */
+    private void handleEvent(JsonParser parser, char[] message, int length) throws IOException {
+        int index = -1;
+        long firstId = -1;
+        long finalId = -1;
+        long eventTime = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "E" -> eventTime = parser.getLongValue();
+                case "s" -> index = indexOf(parser.getTextCharacters(), parser.getTextOffset(),
+                        parser.getTextLength());
+                case "U" -> firstId = parser.getLongValue();
+                case "u" -> finalId = parser.getLongValue();
+                case "b", "a" -> {
+                    if (index >= 0) {
+                        apply(index, parser, field, firstId, finalId, eventTime, message, length);
+                    }
+                    return;
+                }
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    private void apply(int index, JsonParser parser, String firstSide, long firstId, long finalId,
+            long eventTime, char[] message, int length) throws IOException {
+        OrderBook book = books[index];
+        synchronized (book) {
+            if (!book.isLive()) {
+                buffer(index, Arrays.copyOf(message, length));
+                return;
+            }
+            if (firstId < 0 || finalId < 0) {
+                malformed.incrementAndGet();
+                throw new IOException("Depth update for " + book.symbol() + " has levels before its update IDs");
+            }
+            OrderBook.Sequence sequence = book.beginUpdate(firstId, finalId);
+            if (sequence == OrderBook.Sequence.STALE) {
+                return;
+            }
+            if (sequence == OrderBook.Sequence.GAP) {
+                log.warn("Depth gap for {}: book at {}, event covers {}..{} — resynchronizing",
+                        book.symbol(), book.lastUpdateId(), firstId, finalId);
+                resync(index);
+                return;
+            }
+            try {
+                String side = firstSide;
+                while (true) {
+                    if ("b".equals(side)) {
+                        readLevels(parser, book.bids());
+                    } else if ("a".equals(side)) {
+                        readLevels(parser, book.asks());
+                    } else {
+                        parser.skipChildren();
+                    }
+                    if (parser.nextToken() != JsonToken.FIELD_NAME) {
+                        break;
+                    }
+                    side = parser.currentName();
+                    parser.nextToken();
+                }
+            } catch (IOException | RuntimeException e) {
+                // Half an event is in the book: it can no longer be trusted
+                malformed.incrementAndGet();
+                resync(index);
+                throw e;
+            }
+            book.endUpdate(finalId, eventTime);
+        }
+    }
+
+    private void buffer(int index, char[] message) {
+        ArrayDeque<char[]> buffer = buffers[index];
+        if (buffer.size() == BUFFER_LIMIT) {
+            // The replay will find the gap and fetch a newer snapshot
+            buffer.poll();
+        }
+        buffer.add(message);
+    }
+
+    /**
+     * Resets a book and fetches a new snapshot, unless one is already on its way.
+     */
+    private void resync(int index) {
+        OrderBook book = books[index];
+        synchronized (book) {
+            book.reset();
+            buffers[index].clear();
+            if (fetching[index] || closed) {
+                return;
+            }
+            fetching[index] = true;
+            resyncs.incrementAndGet();
+        }
+        snapshotter.execute(() -> loadSnapshot(index));
+    }
+
+    private void loadSnapshot(int index) {
+        long paused = pausedUntil - System.nanoTime();
+        if (paused > 0) {
+            schedule(index, TimeUnit.NANOSECONDS.toMillis(paused) + 1);
+            return;
+        }
+        OrderBook book = books[index];
+        byte[] json;
+        try {
+            json = snapshots.fetch(book.symbol(), snapshotLimit);
+        } catch (RuntimeException e) {
+            retry(index, e);
+            return;
+        }
+        synchronized (book) {
+            try {
+                readSnapshot(json, book);
+            } catch (IOException | RuntimeException e) {
+                book.reset();
+                retry(index, e);
+                return;
+            }
+            fetching[index] = false;
+            failures[index] = 0;
+            log.info("Loaded {} depth snapshot at {} ({} bids, {} asks), replaying {} buffered event(s)",
+                    book.symbol(), book.lastUpdateId(), book.bids().size(), book.asks().size(),
+                    buffers[index].size());
+            ArrayDeque<char[]> buffered = buffers[index];
+            while (book.isLive() && !buffered.isEmpty()) {
+                try {
+                    char[] event = buffered.poll();
+                    handle(event, event.length);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Dropping buffered {} depth event: {}", book.symbol(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void retry(int index, Exception e) {
+        snapshotFailures.incrementAndGet();
+        long delay = backoffMillis(failures[index]++);
+        if (e instanceof RateLimitedException limited) {
+            rateLimited.incrementAndGet();
+            // The limit is per IP: hold back every symbol, not just this one
+            long wait = limited.retryAfter().map(Duration::toMillis).orElse(MAX_RETRY_MILLIS);
+            delay = Math.max(delay, wait);
+            pausedUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(wait);
+            log.warn("Depth snapshots rate limited (HTTP {}), pausing all symbols for {} ms",
+                    limited.statusCode(), wait);
+        }
+        log.warn("Depth snapshot for {} failed, retrying in {} ms: {}", books[index].symbol(), delay,
+                e.getMessage());
+        schedule(index, delay);
+    }
+
+    private void schedule(int index, long delayMillis) {
+        if (!closed) {
+            snapshotter.schedule(() -> loadSnapshot(index), delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * @return the delay before retry number {@code failures + 1}: 1 s, doubling up to a minute
+     */
+    static long backoffMillis(int failures) {
+        return Math.min(MAX_RETRY_MILLIS, RETRY_MILLIS << Math.min(failures, 16));
+    }
+
+    /**
+     * Loads {@code {"lastUpdateId":…,"bids":[[p,q],…],"asks":[[p,q],…]}} into a reset book.
+     */
+    static void readSnapshot(byte[] json, OrderBook book) throws IOException {
+        book.reset();
+        long lastUpdateId = -1;
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Depth snapshot is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "lastUpdateId" -> lastUpdateId = parser.getLongValue();
+                    case "bids" -> readLevels(parser, book.bids());
+                    case "asks" -> readLevels(parser, book.asks());
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        if (lastUpdateId < 0) {
+            book.reset();
+            throw new IOException("Depth snapshot without lastUpdateId");
+        }
+        book.loadSnapshot(lastUpdateId, System.currentTimeMillis());
+    }
+
+    /**
+     * Applies a {@code [["price","qty"],…]} array, positioned on its start.
+     */
+    private static void readLevels(JsonParser parser, PriceLevels side) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new IOException("Expected an array of levels, got " + parser.currentToken());
+        }
+        while (parser.nextToken() == JsonToken.START_ARRAY) {
+            parser.nextToken();
+            long price = fixed(parser);
+            parser.nextToken();
+            long qty = fixed(parser);
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                parser.skipChildren();
+            }
+            side.set(price, qty);
+        }
+    }
+
+    private static long fixed(JsonParser parser) throws IOException {
+        return parseFixed(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+    }
+
+    /**
+     * Parses a plain decimal such as {@code "42000.10"} into a mantissa at {@link OrderBook#SCALE}.
+     *
+     * @throws NumberFormatException if it is not a non-negative plain decimal of at most that many decimals
+     */
+    static long parseFixed(char[] chars, int offset, int length) {
+        long mantissa = 0;
+        int decimals = -1;
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            char c = chars[i];
+            if (c >= '0' && c <= '9') {
+                if (decimals >= 0 && ++decimals > OrderBook.SCALE) {
+                    throw new NumberFormatException("More than " + OrderBook.SCALE + " decimals: "
+                            + new String(chars, offset, length));
+                }
+                mantissa = Math.addExact(Math.multiplyExact(mantissa, 10), c - '0');
+            } else if (c == '.' && decimals < 0) {
+                decimals = 0;
+            } else {
+                throw new NumberFormatException("Not a plain decimal: " + new String(chars, offset, length));
+            }
+        }
+        if (length == 0) {
+            throw new NumberFormatException("Empty decimal");
+        }
+        return Math.multiplyExact(mantissa, POW10[OrderBook.SCALE - Math.max(decimals, 0)]);
+    }
+
+    /**
+     * @return the index of the book for the symbol in {@code chars}, or {@code -1} if it is not tracked
+     */
+    private int indexOf(char[] chars, int offset, int length) {
+        for (int i = 0; i < books.length; i++) {
+            String symbol = books[i].symbol();
+            if (symbol.length() != length) {
+                continue;
+            }
+            int c = 0;
+            while (c < length && symbol.charAt(c) == chars[offset + c]) {
+                c++;
+            }
+            if (c == length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return snapshot fetches started, one per resynchronization
+     */
+    public long resyncs() {
+        return resyncs.get();
+    }
+
+    /**
+     * @return snapshot fetches that failed and were retried
+     */
+    public long snapshotFailures() {
+        return snapshotFailures.get();
+    }
+
+    /**
+     * @return snapshot fetches refused with HTTP 429 or 418
+     */
+    public long rateLimited() {
+        return rateLimited.get();
+    }
+
+    /**
+     * @return events that could not be read
+     */
+    public long malformed() {
+        return malformed.get();
+    }
+
+    /**
+     * @return diff events applied across every book
+     */
+    public long updates() {
+        long total = 0;
+        for (OrderBook book : books) {
+            synchronized (book) {
+                total += book.updates();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @return sequence gaps detected across every book
+     */
+    public long gaps() {
+        long total = 0;
+        for (OrderBook book : books) {
+            synchronized (book) {
+                total += book.gaps();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @return the number of books currently live
+     */
+    public int live() {
+        int live = 0;
+        for (OrderBook book : books) {
+            synchronized (book) {
+                live += book.isLive() ? 1 : 0;
+            }
+        }
+        return live;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        snapshotter.shutdownNow();
+        log.info("Order book feed closed — {} resync(s), {} snapshot failure(s) ({} rate limited), "
+                + "{} malformed event(s)", resyncs.get(), snapshotFailures.get(), rateLimited.get(), malformed.get());
+    }
+}
@@ -0,0 +1,284 @@
+package com.algotrader.ingestor.book;
+
+import com.algotrader.shared.model.Price;
+
+/**
+ * One side of an order book: price levels kept in best-first order, in
+ * parallel primitive arrays.
+ * <p>
+ * The levels form an AVL tree whose nodes are slots in {@code long} price and
+ * quantity arrays, linked by {@code int} child indices. Setting, replacing or
+ * removing a level is O(log levels) and allocates nothing — freed slots are
+ * recycled through a free list. Reading the top N levels is an in-order walk
+ * from the best level, O(N + log levels).
+ * </p>
+ * A side holds at most {@code capacity} levels. When full, a level better
+ * than the worst one held replaces it, and a worse one is ignored — like the
+ * exchange's own depth snapshots, the book only tracks the levels nearest the
+ * top.
+ * <p>
+ * Prices and quantities are fixed-point mantissas at the book's scale.
+ * Not thread-safe.
+ * </p>
+ */
+public final class PriceLevels {
+
+    private static final int NIL = -1;
+
+    private final boolean descending;
+    private final int capacity;
+    private final long[] prices;
+    private final long[] qtys;
+    private final int[] left;
+    private final int[] right;
+    private final byte[] heights;
+    /** In-order walk stack; an AVL tree of 2^31 nodes is at most 45 high. */
+    private final int[] stack = new int[48];
+
+    private int root = NIL;
+    private int free;
+    private int size;
+
+    /**
+     * @param capacity   the most levels held at once (≥ 1)
+     * @param descending {@code true} for bids (best = highest), {@code false} for asks
+     */
+    public PriceLevels(int capacity, boolean descending) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Level capacity must be > 0, got: " + capacity);
+        }
+        this.descending = descending;
+        this.capacity = capacity;
+        this.prices = new long[capacity];
+        this.qtys = new long[capacity];
+        this.left = new int[capacity];
+        this.right = new int[capacity];
+        this.heights = new byte[capacity];
+        clear();
+    }
+
+    /**
+     * Sets the quantity at a price level; zero removes the level.
+     *
+     * @return {@code false} if the side is full and {@code price} is worse than every level held
+     */
+    public boolean set(long price, long qty) {
+        if (qty == 0) {
+            remove(price);
+            return true;
+        }
+        int node = find(price);
+        if (node != NIL) {
+            qtys[node] = qty;
+            return true;
+        }
+        if (size == capacity) {
+            int worst = edge(right);
+            if (compare(price, prices[worst]) >= 0) {
+                return false;
+            }
+            root = delete(root, prices[worst]);
+            size--;
+        }
+        root = insert(root, price, qty);
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes a price level, if present.
+     */
+    public void remove(long price) {
+        if (find(price) != NIL) {
+            root = delete(root, price);
+            size--;
+        }
+    }
+
+    /**
+     * @return the quantity at {@code price}, or {@code 0} if there is no such level
+     */
+    public long qty(long price) {
+        int node = find(price);
+        return node == NIL ? 0 : qtys[node];
+    }
+
+    /**
+     * @return the best price, or {@link Price#NONE} when the side is empty
+     */
+    public long bestPrice() {
+        return root == NIL ? Price.NONE : prices[edge(left)];
+    }
+
+    /**
+     * @return the quantity at the best price, or {@code 0} when the side is empty
+     */
+    public long bestQty() {
+        return root == NIL ? 0 : qtys[edge(left)];
+    }
+
+    /**
+     * Copies up to {@code n} levels, best first, into the arrays.
+     *
+     * @return the number of levels copied
+     */
+    public int copyTop(int n, long[] outPrices, long[] outQtys) {
+        int count = 0;
+        int depth = 0;
+        int node = root;
+        while ((node != NIL || depth > 0) && count < n) {
+            while (node != NIL) {
+                stack[depth++] = node;
+                node = left[node];
+            }
+            node = stack[--depth];
+            outPrices[count] = prices[node];
+            outQtys[count] = qtys[node];
+            count++;
+            node = right[node];
+        }
+        return count;
+    }
+
+    /**
+     * Removes every level.
+     */
+    public void clear() {
+        for (int i = 0; i < capacity; i++) {
+            left[i] = i + 1;
+        }
+        left[capacity - 1] = NIL;
+        free = 0;
+        root = NIL;
+        size = 0;
+    }
+
+    /**
+     * @return the number of levels held
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the most levels held at once
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    // ── AVL tree ───────────────────────────────────────────────────────
+
+    /** Orders prices best first. */
+    private int compare(long a, long b) {
+        return descending ? Long.compare(b, a) : Long.compare(a, b);
+    }
+
+    private int find(long price) {
+        int node = root;
+        while (node != NIL) {
+            int c = compare(price, prices[node]);
+            if (c == 0) {
+                return node;
+            }
+            node = c < 0 ? left[node] : right[node];
+        }
+        return NIL;
+    }
+
+    /** @return the leftmost (best) or rightmost (worst) node of a non-empty tree */
+    private int edge(int[] side) {
+        int node = root;
+        while (side[node] != NIL) {
+            node = side[node];
+        }
+        return node;
+    }
+
+    private int insert(int node, long price, long qty) {
+        if (node == NIL) {
+            int slot = free;
+            free = left[slot];
+            prices[slot] = price;
+            qtys[slot] = qty;
+            left[slot] = NIL;
+            right[slot] = NIL;
+            heights[slot] = 1;
+            return slot;
+        }
+        if (compare(price, prices[node]) < 0) {
+            left[node] = insert(left[node], price, qty);
+        } else {
+            right[node] = insert(right[node], price, qty);
+        }
+        return balance(node);
+    }
+
+    private int delete(int node, long price) {
+        int c = compare(price, prices[node]);
+        if (c < 0) {
+            left[node] = delete(left[node], price);
+        } else if (c > 0) {
+            right[node] = delete(right[node], price);
+        } else if (left[node] == NIL || right[node] == NIL) {
+            int child = left[node] != NIL ? left[node] : right[node];
+            left[node] = free;
+            free = node;
+            return child;
+        } else {
+            // Take over the in-order successor's level, then delete the successor
+            int successor = right[node];
+            while (left[successor] != NIL) {
+                successor = left[successor];
+            }
+            prices[node] = prices[successor];
+            qtys[node] = qtys[successor];
+            right[node] = delete(right[node], prices[successor]);
+        }
+        return balance(node);
+    }
+
+    private int height(int node) {
+        return node == NIL ? 0 : heights[node];
+    }
+
+    private void updateHeight(int node) {
+        heights[node] = (byte) (Math.max(height(left[node]), height(right[node])) + 1);
+    }
+
+    private int balance(int node) {
+        updateHeight(node);
+        int skew = height(left[node]) - height(right[node]);
+        if (skew > 1) {
+            if (height(left[left[node]]) < height(right[left[node]])) {
+                left[node] = rotateLeft(left[node]);
+            }
+            return rotateRight(node);
+        }
+        if (skew < -1) {
+            if (height(right[right[node]]) < height(left[right[node]])) {
+                right[node] = rotateRight(right[node]);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private int rotateRight(int node) {
+        int pivot = left[node];
+        left[node] = right[pivot];
+        right[pivot] = node;
+        updateHeight(node);
+        updateHeight(pivot);
+        return pivot;
+    }
+
+    private int rotateLeft(int node) {
+        int pivot = right[node];
+        right[node] = left[pivot];
+        left[pivot] = node;
+        updateHeight(node);
+        updateHeight(pivot);
+        return pivot;
+    }
+}
@@ -1,21 +1,39 @@
 package com.algotrader.ingestor.client;
 
+import com.algotrader.shared.metrics.LatencyHistogram;
 import com.algotrader.shared.model.Tick;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.algotrader.shared.util.JsonUtil;
+import com.algotrader.shared.util.StreamingJson;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.math.BigDecimal;
+import java.io.IOException;
 import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * HTTP client for the Binance REST API.
  * Uses {@link java.net.http.HttpClient} (no external HTTP libs).
+ * <p>
+ * Multi-symbol polling prefers the batch {@code /ticker/price} endpoint, which
+ * returns every requested symbol in one round trip. When per-symbol calls are
+ * needed they are issued concurrently with {@code sendAsync} under a shared
+ * latency budget, so one slow request cannot hold up the others.
+ * </p>
+ * Every request's round trip, successful or not, is recorded in {@link #fetchLatency()}.
+ * An HTTP 429 or 418 fails with a {@link RateLimitedException} that carries
+ * the server's {@code Retry-After}.
  */
 public class BinanceClient {
 
@@ -23,9 +41,12 @@ public class BinanceClient {
 
     private static final String BASE_URL = "https://api.binance.com/api/v3";
     private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int BANNED = 418;
 
     private final HttpClient httpClient;
     private final String baseUrl;
+    private final LatencyHistogram fetchLatency = new LatencyHistogram();
 
     public BinanceClient() {
         this(BASE_URL);
@@ -50,36 +71,152 @@ public class BinanceClient {
      *                          parsed
      */
     public Tick fetchTicker(String symbol) {
-        String url = baseUrl + "/ticker/price?symbol=" + symbol;
+        Tick tick = StreamingJson.readTick(send(baseUrl + "/ticker/price?symbol=" + symbol, TIMEOUT, symbol),
+                Instant.now());
+        log.info("Fetched ticker: {} @ {}", tick.symbol(), tick.price());
+        return tick;
+    }
+
+    /**
+     * Fetches the current prices for several trading pairs in a single request
+     * via {@code /ticker/price?symbols=[...]}.
+     *
+     * @param symbols the trading pairs (e.g. "BTCUSDT", "ETHUSDT")
+     * @param budget  request timeout for the whole batch
+     * @return one {@link Tick} per symbol, in the order Binance returns them
+     * @throws RuntimeException if the HTTP request fails (Binance rejects the
+     *                          whole batch if any symbol is invalid)
+     */
+    public List<Tick> fetchTickers(Collection<String> symbols, Duration budget) {
+        if (symbols.isEmpty()) {
+            return List.of();
+        }
+        StringBuilder json = new StringBuilder("[");
+        for (String symbol : symbols) {
+            json.append(json.length() == 1 ? "\"" : ",\"").append(symbol).append('"');
+        }
+        json.append(']');
+        String url = baseUrl + "/ticker/price?symbols=" + URLEncoder.encode(json.toString(), StandardCharsets.UTF_8);
+        List<Tick> ticks = StreamingJson.readTicks(send(url, budget, symbols.size() + " symbols"), Instant.now());
+        log.info("Fetched {} tickers in one batch", ticks.size());
+        return ticks;
+    }
+
+    /**
+     * Fetches the current price of every symbol listed on Binance in a single request.
+     *
+     * @return one {@link Tick} per listed symbol
+     * @throws RuntimeException if the HTTP request fails or response cannot be
+     *                          parsed
+     */
+    public List<Tick> fetchAllTickers() {
+        List<Tick> ticks = StreamingJson.readTicks(send(baseUrl + "/ticker/price", TIMEOUT, "all symbols"),
+                Instant.now());
+        log.info("Fetched {} tickers", ticks.size());
+        return ticks;
+    }
+
+    /**
+     * Fetches each symbol with its own request, all in flight at once.
+     * Requests that fail or do not complete within {@code budget} are left
+     * out of the result rather than failing the cycle.
+     *
+     * @param symbols the trading pairs to fetch
+     * @param budget  latency budget for the whole fan-out
+     * @return the ticks that arrived in time, in {@code symbols} order
+     */
+    public List<Tick> fetchTickersConcurrently(Collection<String> symbols, Duration budget) {
+        List<CompletableFuture<Tick>> pending = new ArrayList<>(symbols.size());
+        for (String symbol : symbols) {
+            long start = System.nanoTime();
+            pending.add(httpClient.sendAsync(request(baseUrl + "/ticker/price?symbol=" + symbol, budget),
+                            HttpResponse.BodyHandlers.ofByteArray())
+                    .whenComplete((response, error) -> fetchLatency.recordSince(start))
+                    .thenApply(response -> StreamingJson.readTick(checkStatus(response, symbol), Instant.now()))
+                    .exceptionally(e -> {
+                        log.warn("Failed to fetch ticker for {}: {}", symbol, e.getMessage());
+                        return null;
+                    })
+                    .completeOnTimeout(null, budget.toMillis(), TimeUnit.MILLISECONDS));
+        }
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+
+        List<Tick> ticks = pending.stream().map(CompletableFuture::join).filter(Objects::nonNull).toList();
+        if (ticks.size() < symbols.size()) {
+            log.warn("Fetched {}/{} tickers within {} ms", ticks.size(), symbols.size(), budget.toMillis());
+        } else {
+            log.info("Fetched {} tickers concurrently", ticks.size());
+        }
+        return ticks;
+    }
 
-        HttpRequest request = HttpRequest.newBuilder()
+    /**
+     * Fetches an order book snapshot via {@code /depth}: the best {@code limit}
+     * levels per side and the ID of the last change included.
+     *
+     * @return the raw JSON response
+     * @throws RateLimitedException if Binance is rate limiting or has banned this IP
+     */
+    public byte[] fetchDepth(String symbol, int limit) {
+        return send(baseUrl + "/depth?symbol=" + symbol + "&limit=" + limit, TIMEOUT, symbol + " depth");
+    }
+
+    /**
+     * @return round-trip times of every request to Binance
+     */
+    public LatencyHistogram fetchLatency() {
+        return fetchLatency;
+    }
+
+    private HttpRequest request(String url, Duration timeout) {
+        return HttpRequest.newBuilder()
                 .uri(URI.create(url))
-                .timeout(TIMEOUT)
+                .timeout(timeout)
                 .header("Accept", "application/json")
                 .GET()
                 .build();
+    }
 
+    private byte[] send(String url, Duration timeout, String what) {
+        long start = System.nanoTime();
         try {
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() != 200) {
-                throw new RuntimeException("Binance API returned HTTP " + response.statusCode()
-                        + ": " + response.body());
-            }
-
-            JsonNode json = JsonUtil.mapper().readTree(response.body());
-            String sym = json.get("symbol").asText();
-            BigDecimal price = new BigDecimal(json.get("price").asText());
-
-            Tick tick = Tick.of(sym, price);
-            log.info("Fetched ticker: {} @ {}", tick.symbol(), tick.price());
-            return tick;
-
+            HttpResponse<byte[]> response = httpClient.send(request(url, timeout), HttpResponse.BodyHandlers.ofByteArray());
+            fetchLatency.recordSince(start);
+            return checkStatus(response, what);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            throw new RuntimeException("Binance request interrupted for " + symbol, e);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to fetch ticker for " + symbol, e);
+            throw new RuntimeException("Binance request interrupted for " + what, e);
+        } catch (IOException e) {
+            fetchLatency.recordSince(start);
+            throw new RuntimeException("Failed to fetch " + what, e);
+        }
+    }
+
+    private static byte[] checkStatus(HttpResponse<byte[]> response, String what) {
+        int status = response.statusCode();
+        if (status == TOO_MANY_REQUESTS || status == BANNED) {
+            Duration retryAfter = response.headers().firstValue("Retry-After")
+                    .map(BinanceClient::parseRetryAfter)
+                    .orElse(null);
+            throw new RateLimitedException("Binance API returned HTTP " + status + " for " + what
+                    + (retryAfter != null ? ", retry after " + retryAfter.toSeconds() + " s" : ""),
+                    status, retryAfter);
+        }
+        if (status != 200) {
+            throw new RuntimeException("Binance API returned HTTP " + response.statusCode() + " for " + what
+                    + ": " + new String(response.body(), StandardCharsets.UTF_8));
+        }
+        return response.body();
+    }
+
+    /**
+     * @return the delay of a {@code Retry-After: <seconds>} header, or {@code null} if it is not a number
+     */
+    static Duration parseRetryAfter(String value) {
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            return null;
         }
     }
 }
@@ -0,0 +1,114 @@
+package com.algotrader.ingestor.client;
+
+import com.algotrader.shared.model.Tick;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Polls Binance for the latest prices of a fixed set of symbols at a fixed
+ * rate, handing every {@link Tick} to a sink — the ingestor's POLL mode,
+ * whatever the ticks are published to.
+ * <p>
+ * Each cycle is one batch request bounded by the budget; since one bad symbol
+ * fails the whole batch, a failed batch falls back to per-symbol requests
+ * bounded by what is left of the same budget — or, with nothing left, the
+ * cycle delivers nothing.
+ * Ticks are delivered from the single {@code binance-poller} thread.
+ * </p>
+ */
+public class BinancePoller implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(BinancePoller.class);
+
+    private final BinanceClient client;
+    private final List<String> symbols;
+    private final Duration budget;
+    private final Consumer<Tick> sink;
+    private final LongSupplier nanoClock;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "binance-poller");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * @param budget bounds each cycle's requests
+     * @param sink   receives every tick fetched
+     */
+    public BinancePoller(BinanceClient client, List<String> symbols, Duration budget, Consumer<Tick> sink) {
+        this(client, symbols, budget, sink, System::nanoTime);
+    }
+
+    /**
+     * Test-friendly constructor: inject the monotonic clock the budget is measured on.
+     */
+    BinancePoller(BinanceClient client, List<String> symbols, Duration budget, Consumer<Tick> sink,
+                  LongSupplier nanoClock) {
+        this.client = client;
+        this.symbols = List.copyOf(symbols);
+        this.budget = budget;
+        this.sink = sink;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Polls immediately, then every {@code interval}.
+     */
+    public void start(Duration interval) {
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                log.info("Delivered {} tick(s)", poll());
+            } catch (Exception e) {
+                log.error("Error during tick fetch/publish cycle", e);
+            }
+        }, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs one fetch cycle on the calling thread.
+     *
+     * @return the number of ticks handed to the sink
+     */
+    public int poll() {
+        long deadline = nanoClock.getAsLong() + budget.toNanos();
+        List<Tick> ticks;
+        try {
+            ticks = client.fetchTickers(symbols, budget);
+        } catch (RuntimeException e) {
+            long remaining = deadline - nanoClock.getAsLong();
+            if (remaining <= 0) {
+                log.warn("Batch ticker fetch failed with no budget left, skipping this cycle: {}", e.getMessage());
+                return 0;
+            }
+            log.warn("Batch ticker fetch failed, fetching per symbol within {} ms: {}",
+                    TimeUnit.NANOSECONDS.toMillis(remaining), e.getMessage());
+            ticks = client.fetchTickersConcurrently(symbols, Duration.ofNanos(remaining));
+        }
+        ticks.forEach(sink);
+        return ticks.size();
+    }
+
+    /**
+     * Stops polling, letting a cycle in progress finish for up to 5 seconds.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
+                scheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            scheduler.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,451 @@
+package com.algotrader.ingestor.client;
+
+import com.algotrader.shared.model.Tick;
+import com.algotrader.shared.util.JsonUtil;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Streaming client for Binance combined WebSocket market streams.
+ * Uses {@link java.net.http.WebSocket} (no external WebSocket libs).
+ * <p>
+ * One connection carries every configured symbol: after connecting to
+ * {@code <baseUrl>/stream} the client sends a {@code SUBSCRIBE} request for
+ * {@code <symbol>@trade} (or {@code @bookTicker}) streams and hands each
+ * decoded {@link Tick} to the consumer as soon as it arrives. If the
+ * connection drops it reconnects with exponential backoff and subscribes again.
+ * </p>
+ * A connection can also die without a close frame — a NAT or proxy dropping
+ * it, say — and then simply goes quiet. The client pings every
+ * {@code pingInterval}, and a connection that has delivered nothing, not even
+ * a pong, for {@code idleTimeout} is aborted and replaced.
+ * <p>
+ * Streams that do not map to ticks, such as {@link StreamType#DEPTH} diffs,
+ * go to a {@link MessageListener} as raw messages instead.
+ * </p>
+ */
+public class BinanceStreamClient implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(BinanceStreamClient.class);
+
+    private static final String BASE_URL = "wss://stream.binance.com:9443";
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration INITIAL_BACKOFF = Duration.ofMillis(500);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+    /** Binance pings every 20 s and drops a client that has not answered for a minute; mirror that. */
+    private static final Duration PING_INTERVAL = Duration.ofSeconds(20);
+    private static final Duration IDLE_TIMEOUT = Duration.ofSeconds(60);
+    private static final ByteBuffer PING = ByteBuffer.allocate(0);
+
+    private static final JsonFactory FACTORY = JsonUtil.mapper().getFactory();
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+
+    /**
+     * The Binance stream flavour to subscribe to.
+     */
+    public enum StreamType {
+        /** Individual trades — tick price is the trade price, timestamp the trade time. */
+        TRADE("trade"),
+        /** Best bid/ask updates — tick price is the mid price, timestamp the receive time. */
+        BOOK_TICKER("bookTicker"),
+        /** Order book diffs every 100 ms — raw messages only, see {@link MessageListener}. */
+        DEPTH("depth@100ms");
+
+        private final String suffix;
+
+        StreamType(String suffix) {
+            this.suffix = suffix;
+        }
+    }
+
+    /**
+     * Receives every message of the combined stream, on the WebSocket thread.
+     */
+    public interface MessageListener {
+
+        /** Handles one complete message; exceptions are logged and the stream continues. */
+        void onMessage(CharSequence message) throws IOException;
+
+        /**
+         * Called after every (re)connection has subscribed — anything sent
+         * while disconnected was missed.
+         */
+        void onConnected();
+    }
+
+    private final String baseUrl;
+    private final List<String> symbols;
+    private final StreamType streamType;
+    private final MessageListener listener;
+    private final Consumer<Tick> onTick;
+    private final Duration pingInterval;
+    private final Duration idleTimeout;
+    private final HttpClient httpClient;
+    private final ScheduledExecutorService reconnector;
+
+    private final AtomicLong ticksReceived = new AtomicLong();
+    private final AtomicLong reconnects = new AtomicLong();
+    private final AtomicLong idleTimeouts = new AtomicLong();
+    private final AtomicLong requestIds = new AtomicLong();
+
+    private volatile WebSocket webSocket;
+    /** Listener of the open connection, or {@code null} while disconnected. */
+    private volatile StreamListener current;
+    private volatile boolean closed;
+    private Duration backoff = INITIAL_BACKOFF;
+
+    public BinanceStreamClient(List<String> symbols, StreamType streamType, Consumer<Tick> onTick) {
+        this(BASE_URL, symbols, streamType, onTick);
+    }
+
+    /**
+     * Constructor allowing a custom base URL (useful for testing).
+     */
+    public BinanceStreamClient(String baseUrl, List<String> symbols, StreamType streamType, Consumer<Tick> onTick) {
+        this(baseUrl, symbols, streamType, null, onTick, PING_INTERVAL, IDLE_TIMEOUT);
+        if (streamType == StreamType.DEPTH) {
+            throw new IllegalArgumentException("Depth diffs are not ticks — use a MessageListener");
+        }
+    }
+
+    /**
+     * Constructor for raw messages, e.g. of {@link StreamType#DEPTH}.
+     */
+    public BinanceStreamClient(List<String> symbols, StreamType streamType, MessageListener listener) {
+        this(BASE_URL, symbols, streamType, listener);
+    }
+
+    /**
+     * Constructor for raw messages with a custom base URL (useful for testing).
+     */
+    public BinanceStreamClient(String baseUrl, List<String> symbols, StreamType streamType,
+            MessageListener listener) {
+        this(baseUrl, symbols, streamType, listener, null, PING_INTERVAL, IDLE_TIMEOUT);
+    }
+
+    /**
+     * Test-friendly constructor: short heartbeat timings.
+     */
+    BinanceStreamClient(String baseUrl, List<String> symbols, StreamType streamType, Consumer<Tick> onTick,
+            Duration pingInterval, Duration idleTimeout) {
+        this(baseUrl, symbols, streamType, null, onTick, pingInterval, idleTimeout);
+    }
+
+    /**
+     * @param listener     receives raw messages, or {@code null} to decode ticks for {@code onTick}
+     * @param pingInterval how often to ping the server
+     * @param idleTimeout  how long a connection may deliver nothing before it is replaced
+     */
+    private BinanceStreamClient(String baseUrl, List<String> symbols, StreamType streamType,
+            MessageListener listener, Consumer<Tick> onTick, Duration pingInterval, Duration idleTimeout) {
+        if (symbols.isEmpty()) {
+            throw new IllegalArgumentException("At least one symbol is required");
+        }
+        this.baseUrl = baseUrl;
+        this.symbols = List.copyOf(symbols);
+        this.streamType = streamType;
+        this.listener = listener;
+        this.onTick = onTick;
+        this.pingInterval = pingInterval;
+        this.idleTimeout = idleTimeout;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(CONNECT_TIMEOUT)
+                .build();
+        this.reconnector = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "binance-ws-reconnect");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Opens the connection and subscribes; returns immediately. Connection
+     * failures are retried in the background.
+     */
+    public void start() {
+        reconnector.execute(this::connect);
+        reconnector.scheduleAtFixedRate(this::heartbeat, pingInterval.toMillis(), pingInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return true while a WebSocket connection is open
+     */
+    public boolean isConnected() {
+        WebSocket ws = webSocket;
+        return ws != null && !ws.isOutputClosed() && !ws.isInputClosed();
+    }
+
+    public long ticksReceived() {
+        return ticksReceived.get();
+    }
+
+    public long reconnects() {
+        return reconnects.get();
+    }
+
+    /**
+     * @return connections aborted because they went quiet for the idle timeout
+     */
+    public long idleTimeouts() {
+        return idleTimeouts.get();
+    }
+
+    private void connect() {
+        if (closed) {
+            return;
+        }
+        URI uri = URI.create(baseUrl + "/stream");
+        log.info("Connecting to {} for {} {} stream(s)", uri, symbols.size(), streamType.suffix);
+        httpClient.newWebSocketBuilder()
+                .connectTimeout(CONNECT_TIMEOUT)
+                .buildAsync(uri, new StreamListener())
+                .whenComplete((ws, error) -> {
+                    if (error != null) {
+                        log.warn("WebSocket connect to {} failed: {}", uri, error.getMessage());
+                        scheduleReconnect();
+                    }
+                });
+    }
+
+    private void scheduleReconnect() {
+        if (closed) {
+            return;
+        }
+        Duration delay;
+        synchronized (this) {
+            delay = backoff;
+            backoff = backoff.multipliedBy(2).compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff.multipliedBy(2);
+        }
+        reconnects.incrementAndGet();
+        log.info("Reconnecting in {} ms", delay.toMillis());
+        reconnector.schedule(this::connect, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Pings the open connection, or replaces it if it has been quiet for
+     * longer than the idle timeout. Runs on the reconnect thread.
+     */
+    private void heartbeat() {
+        StreamListener connection = current;
+        if (connection == null || closed) {
+            return;
+        }
+        long idleNanos = System.nanoTime() - connection.lastReceived;
+        if (idleNanos > idleTimeout.toNanos()) {
+            idleTimeouts.incrementAndGet();
+            log.warn("Nothing received for {} ms — dropping the connection", idleNanos / 1_000_000);
+            connection.drop();
+            return;
+        }
+        try {
+            connection.ws.sendPing(PING);
+        } catch (IllegalStateException e) {
+            // the previous ping has not gone out yet; the idle timeout covers a stuck connection
+            log.debug("Skipping ping: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return the {@code SUBSCRIBE} request for every configured stream
+     */
+    String subscribeRequest() {
+        StringBuilder sb = new StringBuilder("{\"method\":\"SUBSCRIBE\",\"params\":[");
+        for (int i = 0; i < symbols.size(); i++) {
+            sb.append(i == 0 ? "\"" : ",\"")
+                    .append(symbols.get(i).toLowerCase(Locale.ROOT))
+                    .append('@').append(streamType.suffix).append('"');
+        }
+        return sb.append("],\"id\":").append(requestIds.incrementAndGet()).append('}').toString();
+    }
+
+    /**
+     * Decodes one combined-stream message.
+     *
+     * @return the tick, or {@code null} for non-market messages (e.g. subscription acks)
+     */
+    Tick parseMessage(CharSequence message) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(message.toString())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("data".equals(field)) {
+                    return parseData(parser);
+                }
+                parser.skipChildren();
+            }
+            return null;
+        }
+    }
+
+    private Tick parseData(JsonParser parser) throws IOException {
+        String symbol = null;
+        BigDecimal price = null;
+        BigDecimal bid = null;
+        BigDecimal ask = null;
+        long tradeTime = -1;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "s" -> symbol = parser.getText();
+                case "p" -> price = new BigDecimal(parser.getTextCharacters(), parser.getTextOffset(),
+                        parser.getTextLength());
+                case "b" -> bid = new BigDecimal(parser.getText());
+                case "a" -> ask = new BigDecimal(parser.getText());
+                case "T" -> tradeTime = parser.getLongValue();
+                default -> parser.skipChildren();
+            }
+        }
+        if (symbol == null) {
+            return null;
+        }
+        if (price == null && bid != null && ask != null) {
+            BigDecimal sum = bid.add(ask);
+            price = sum.divide(TWO, sum.scale() + 1, RoundingMode.UNNECESSARY);
+        }
+        if (price == null) {
+            return null;
+        }
+        Instant timestamp = tradeTime >= 0 ? Instant.ofEpochMilli(tradeTime) : Instant.now();
+        return new Tick(symbol, price, timestamp);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        reconnector.shutdownNow();
+        WebSocket ws = webSocket;
+        if (ws != null) {
+            ws.sendClose(WebSocket.NORMAL_CLOSURE, "shutdown");
+        }
+        log.info("Binance stream client closed");
+    }
+
+    private final class StreamListener implements WebSocket.Listener {
+
+        private final StringBuilder partial = new StringBuilder();
+        /** Set once this connection is gone, so it is replaced only once. */
+        private final AtomicBoolean ended = new AtomicBoolean();
+        private volatile WebSocket ws;
+        private volatile long lastReceived = System.nanoTime();
+
+        /**
+         * Forgets this connection and schedules its replacement, unless that
+         * has already happened.
+         */
+        private void end() {
+            if (ended.compareAndSet(false, true)) {
+                if (current == this) {
+                    current = null;
+                    webSocket = null;
+                }
+                scheduleReconnect();
+            }
+        }
+
+        /** Aborts a connection that has gone quiet and replaces it. */
+        private void drop() {
+            if (!ended.get()) {
+                ws.abort();
+                end();
+            }
+        }
+
+        @Override
+        public void onOpen(WebSocket ws) {
+            this.ws = ws;
+            lastReceived = System.nanoTime();
+            webSocket = ws;
+            current = this;
+            synchronized (BinanceStreamClient.this) {
+                backoff = INITIAL_BACKOFF;
+            }
+            String request = subscribeRequest();
+            ws.sendText(request, true);
+            log.info("WebSocket connected — sent {}", request);
+            if (listener != null) {
+                listener.onConnected();
+            }
+            ws.request(1);
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket ws, CharSequence data, boolean last) {
+            lastReceived = System.nanoTime();
+            partial.append(data);
+            if (last) {
+                try {
+                    if (listener != null) {
+                        listener.onMessage(partial);
+                    } else {
+                        Tick tick = parseMessage(partial);
+                        if (tick != null) {
+                            ticksReceived.incrementAndGet();
+                            onTick.accept(tick);
+                        }
+                    }
+                } catch (Exception e) {
+                    log.error("Error handling stream message: {}", e.getMessage(), e);
+                } finally {
+                    partial.setLength(0);
+                }
+            }
+            ws.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onPing(WebSocket ws, ByteBuffer message) {
+            // the WebSocket answers with a pong itself
+            lastReceived = System.nanoTime();
+            ws.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onPong(WebSocket ws, ByteBuffer message) {
+            lastReceived = System.nanoTime();
+            ws.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket ws, int statusCode, String reason) {
+            log.warn("WebSocket closed by server ({}: {})", statusCode, reason);
+            end();
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket ws, Throwable error) {
+            log.warn("WebSocket error: {}", error.getMessage());
+            end();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.algotrader.ingestor.client;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Thrown when Binance refuses a request for exceeding its request weight
+ * limit: HTTP 429, or 418 once the IP has been banned for ignoring 429s.
+ * Callers must stop sending requests until {@link #retryAfter()} has passed —
+ * the limit and the ban are per IP, so every request counts, not just the
+ * one that failed.
+ */
+public class RateLimitedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+    private final Duration retryAfter;
+
+    public RateLimitedException(String message, int statusCode, Duration retryAfter) {
+        super(message);
+        this.statusCode = statusCode;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return 429 (rate limited) or 418 (banned)
+     */
+    public int statusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return how long the server asked to wait, if it sent a {@code Retry-After} header
+     */
+    public Optional<Duration> retryAfter() {
+        return Optional.ofNullable(retryAfter);
+    }
+}
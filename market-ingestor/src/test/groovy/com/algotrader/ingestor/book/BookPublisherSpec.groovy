@@ -0,0 +1,168 @@
+package com.algotrader.ingestor.book
+
+import com.algotrader.shared.util.JsonUtil
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.time.Duration
+import java.util.concurrent.CopyOnWriteArrayList
+
+class BookPublisherSpec extends Specification {
+
+    def btc = new OrderBook("BTCUSDT", 100)
+    def eth = new OrderBook("ETHUSDT", 100)
+    def sent = new CopyOnWriteArrayList<List>()
+    def publisher = new BookPublisher([btc, eth], 2, { channel, json -> sent << [channel, json] },
+            "book_top", "book_depth")
+
+    def cleanup() {
+        publisher.close()
+    }
+
+    def "should publish the top of live books only"() {
+        given:
+        load(btc, 10, [[4_200_010_000_000L, 150_000_000L]], [[4_200_020_000_000L, 30_000_000L]])
+
+        when:
+        def count = publisher.publishTops()
+
+        then:
+        count == 1
+        sent.size() == 1
+        sent[0][0] == "book_top"
+        with(parse(sent[0][1])) {
+            symbol == "BTCUSDT"
+            updateId == 10
+            bid == "42000.10000000"
+            bidQty == "1.50000000"
+            ask == "42000.20000000"
+            askQty == "0.30000000"
+        }
+    }
+
+    def "should publish an empty side as null"() {
+        given:
+        load(btc, 10, [[100_000_000L, 100_000_000L]], [])
+
+        when:
+        publisher.publishTops()
+
+        then:
+        with(parse(sent[0][1])) {
+            bid == "1.00000000"
+            ask == null
+            askQty == null
+        }
+    }
+
+    def "should only republish a top that changed"() {
+        given:
+        load(btc, 10, [[100_000_000L, 100_000_000L]], [[200_000_000L, 100_000_000L]])
+        publisher.publishTops()
+
+        when: "a level below the top changes"
+        btc.bids().set(50_000_000L, 100_000_000L)
+
+        then:
+        publisher.publishTops() == 0
+
+        when: "the best bid's quantity changes"
+        btc.bids().set(100_000_000L, 300_000_000L)
+
+        then:
+        publisher.publishTops() == 1
+        publisher.topsPublished() == 2
+    }
+
+    def "should publish the top levels of books that changed"() {
+        given:
+        load(eth, 7, [[300L, 1L], [200L, 2L], [100L, 3L]], [[400L, 4L]])
+
+        when:
+        def count = publisher.publishDepth()
+
+        then:
+        count == 1
+        sent[0][0] == "book_depth"
+        with(parse(sent[0][1])) {
+            symbol == "ETHUSDT"
+            updateId == 7
+            bids == [["0.00000300", "0.00000001"], ["0.00000200", "0.00000002"]]
+            asks == [["0.00000400", "0.00000004"]]
+        }
+
+        and: "an unchanged book is not published again"
+        publisher.publishDepth() == 0
+
+        when:
+        eth.beginUpdate(8, 8)
+        eth.asks().set(400L, 0)
+        eth.endUpdate(8, 2_000)
+
+        then:
+        publisher.publishDepth() == 1
+        parse(sent[1][1]).asks == []
+    }
+
+    def "should count a message the sink rejects and retry it next time"() {
+        given:
+        def failing = true
+        def flaky = new BookPublisher([btc], 5, { channel, json ->
+            if (failing) {
+                throw new RuntimeException("connection reset")
+            }
+            sent << [channel, json]
+        }, "book_top", "book_depth")
+        load(btc, 10, [[100L, 1L]], [])
+
+        when:
+        flaky.publishTops()
+
+        then:
+        flaky.failed() == 1
+        sent.isEmpty()
+
+        when:
+        failing = false
+        flaky.publishTops()
+
+        then:
+        sent.size() == 1
+
+        cleanup:
+        flaky.close()
+    }
+
+    def "should publish on its schedule once started"() {
+        given:
+        load(btc, 10, [[100L, 1L]], [[200L, 1L]])
+
+        when:
+        publisher.start(Duration.ofMillis(10), Duration.ofMillis(10))
+
+        then:
+        new PollingConditions(timeout: 5).eventually {
+            assert publisher.topsPublished() == 1
+            assert publisher.depthsPublished() == 1
+        }
+    }
+
+    def "should reject a non-positive depth"() {
+        when:
+        new BookPublisher([btc], 0, { channel, json -> }, "book_top", "book_depth")
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    private static Map parse(String json) {
+        JsonUtil.mapper().readValue(json, Map)
+    }
+
+    private static void load(OrderBook book, long lastUpdateId, List bids, List asks) {
+        book.reset()
+        bids.each { book.bids().set(it[0], it[1]) }
+        asks.each { book.asks().set(it[0], it[1]) }
+        book.loadSnapshot(lastUpdateId, 1_000)
+    }
+}
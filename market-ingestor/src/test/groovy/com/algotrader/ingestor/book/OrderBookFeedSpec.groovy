@@ -0,0 +1,234 @@
+package com.algotrader.ingestor.book
+
+import com.algotrader.ingestor.client.RateLimitedException
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.nio.CharBuffer
+import java.nio.charset.StandardCharsets
+import java.time.Duration
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicInteger
+
+class OrderBookFeedSpec extends Specification {
+
+    def conditions = new PollingConditions(timeout: 5)
+    def fetches = new AtomicInteger()
+    def feed
+
+    def cleanup() {
+        feed?.close()
+    }
+
+    def "should load the snapshot and replay the events buffered meanwhile"() {
+        given:
+        def release = new CountDownLatch(1)
+        feed = new OrderBookFeed(["BTCUSDT"], 100, { symbol, limit ->
+            release.await()
+            snapshot(100, [["42000.00", "1.0"]], [["42001.00", "2.0"]])
+        })
+        def book = feed.books()[0]
+
+        when: "events arrive while the snapshot loads"
+        feed.onConnected()
+        feed.onMessage(event("BTCUSDT", 90, 99, [["41999.00", "5.0"]], []))
+        feed.onMessage(event("BTCUSDT", 95, 102, [["42000.00", "3.0"]], []))
+        feed.onMessage(event("BTCUSDT", 103, 104, [], [["42001.00", "0"], ["42002.00", "1.25"]]))
+        release.countDown()
+
+        then:
+        conditions.eventually {
+            assert book.lastUpdateId() == 104
+        }
+        synchronized (book) {
+            assert book.bids().bestPrice() == 4_200_000_000_000L
+            assert book.bids().bestQty() == 300_000_000L
+            assert book.bids().qty(4_199_900_000_000L) == 0
+            assert book.asks().bestPrice() == 4_200_200_000_000L
+            assert book.asks().bestQty() == 125_000_000L
+        }
+        feed.updates() == 2
+        feed.live() == 1
+    }
+
+    def "should resynchronize from a new snapshot on a sequence gap"() {
+        given:
+        feed = new OrderBookFeed(["BTCUSDT"], 100, { symbol, limit ->
+            fetches.incrementAndGet() == 1
+                    ? snapshot(100, [["1.0", "1.0"]], [])
+                    : snapshot(200, [["2.0", "1.0"]], [])
+        })
+        def book = feed.books()[0]
+        feed.onConnected()
+        conditions.eventually {
+            assert feed.live() == 1
+        }
+
+        when:
+        feed.onMessage(event("BTCUSDT", 101, 102, [], []))
+        feed.onMessage(event("BTCUSDT", 110, 111, [], []))
+
+        then:
+        conditions.eventually {
+            assert book.lastUpdateId() == 200
+        }
+        feed.gaps() == 1
+        feed.resyncs() == 2
+        synchronized (book) {
+            assert book.bids().bestPrice() == 200_000_000L
+        }
+    }
+
+    def "should skip events already in the snapshot and symbols it does not track"() {
+        given:
+        feed = new OrderBookFeed(["BTCUSDT"], 100, { symbol, limit -> snapshot(100, [["1.0", "1.0"]], []) })
+        def book = feed.books()[0]
+        feed.onConnected()
+        conditions.eventually {
+            assert feed.live() == 1
+        }
+        def version = book.version()
+
+        when:
+        feed.onMessage(event("BTCUSDT", 90, 100, [["1.0", "0"]], []))
+        feed.onMessage(event("ETHUSDT", 101, 102, [["1.0", "0"]], []))
+
+        then:
+        book.version() == version
+        book.bids().qty(100_000_000L) == 100_000_000L
+        feed.gaps() == 0
+    }
+
+    def "should retry a failed snapshot"() {
+        given:
+        feed = new OrderBookFeed(["BTCUSDT"], 100, { symbol, limit ->
+            if (fetches.incrementAndGet() == 1) {
+                throw new RuntimeException("HTTP 429")
+            }
+            snapshot(100, [], [])
+        })
+
+        when:
+        feed.onConnected()
+
+        then:
+        new PollingConditions(timeout: 5).eventually {
+            assert feed.live() == 1
+        }
+        feed.snapshotFailures() == 1
+        feed.resyncs() == 1
+    }
+
+    def "should back off exponentially up to a minute"() {
+        expect:
+        (0..8).collect { OrderBookFeed.backoffMillis(it) } ==
+                [1_000L, 2_000L, 4_000L, 8_000L, 16_000L, 32_000L, 60_000L, 60_000L, 60_000L]
+        OrderBookFeed.backoffMillis(Integer.MAX_VALUE) == 60_000L
+    }
+
+    def "should hold back every symbol's snapshot for the Retry-After of a 429"() {
+        given: "BTC's first snapshot is rate limited for half a second"
+        def fetchedAt = new ConcurrentHashMap<String, List<Long>>()
+        long start = System.nanoTime()
+        feed = new OrderBookFeed(["BTCUSDT", "ETHUSDT"], 100, { symbol, limit ->
+            fetchedAt.computeIfAbsent(symbol) { [].asSynchronized() } << System.nanoTime() - start
+            if (symbol == "BTCUSDT" && fetches.incrementAndGet() == 1) {
+                throw new RateLimitedException("HTTP 429", 429, Duration.ofMillis(500))
+            }
+            snapshot(100, [], [])
+        })
+
+        when:
+        feed.onConnected()
+
+        then:
+        conditions.eventually {
+            assert feed.live() == 2
+        }
+        feed.rateLimited() == 1
+        feed.snapshotFailures() == 1
+
+        and: "ETH waited out the pause even though its own fetch never failed"
+        fetchedAt.ETHUSDT.size() == 1
+        fetchedAt.ETHUSDT[0] >= Duration.ofMillis(500).toNanos()
+    }
+
+    def "should read messages from any CharSequence, however long"() {
+        given:
+        feed = new OrderBookFeed(["BTCUSDT"], 2_000, { symbol, limit -> snapshot(100, [], []) })
+        feed.onConnected()
+        conditions.eventually {
+            assert feed.live() == 1
+        }
+        def bids = (1..1_000).collect { ["${it}.0", "1.0"] }
+
+        when: "an event longer than the message buffer arrives as a CharBuffer"
+        feed.onMessage(CharBuffer.wrap(event("BTCUSDT", 101, 102, bids, [])))
+
+        then:
+        def book = feed.books()[0]
+        book.bids().size() == 1_000
+        book.lastUpdateId() == 102
+    }
+
+    def "should resynchronize after a malformed event"() {
+        given:
+        feed = new OrderBookFeed(["BTCUSDT"], 100, { symbol, limit ->
+            fetches.incrementAndGet()
+            snapshot(100, [], [])
+        })
+        feed.onConnected()
+        conditions.eventually {
+            assert feed.live() == 1
+        }
+
+        when:
+        feed.onMessage(event("BTCUSDT", 101, 102, [["1.5e3", "1"]], []))
+
+        then:
+        thrown(NumberFormatException)
+        feed.malformed() == 1
+        conditions.eventually {
+            assert fetches.get() == 2
+            assert feed.live() == 1
+        }
+    }
+
+    def "should parse plain decimals into mantissas"() {
+        expect:
+        OrderBookFeed.parseFixed(text.toCharArray(), 0, text.length()) == mantissa
+
+        where:
+        text               || mantissa
+        "42000.10"         || 4_200_010_000_000L
+        "0.00000001"       || 1L
+        "7"                || 700_000_000L
+        "0.00000000"       || 0L
+    }
+
+    def "should reject what is not a plain decimal"() {
+        when:
+        OrderBookFeed.parseFixed(text.toCharArray(), 0, text.length())
+
+        then:
+        thrown(NumberFormatException)
+
+        where:
+        text << ["", "-1.0", "1e5", "1.2.3", "0.000000001"]
+    }
+
+    private static byte[] snapshot(long lastUpdateId, List bids, List asks) {
+        """{"lastUpdateId":${lastUpdateId},"bids":${levels(bids)},"asks":${levels(asks)}}"""
+                .getBytes(StandardCharsets.UTF_8)
+    }
+
+    private static String event(String symbol, long first, long last, List bids, List asks) {
+        """{"stream":"${symbol.toLowerCase()}@depth@100ms","data":{"e":"depthUpdate","E":1700000000000,""" +
+                """"s":"${symbol}","U":${first},"u":${last},"b":${levels(bids)},"a":${levels(asks)}}}"""
+    }
+
+    private static String levels(List levels) {
+        "[" + levels.collect { "[\"${it[0]}\",\"${it[1]}\"]" }.join(",") + "]"
+    }
+}
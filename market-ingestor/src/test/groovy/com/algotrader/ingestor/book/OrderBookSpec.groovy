@@ -0,0 +1,89 @@
+package com.algotrader.ingestor.book
+
+import spock.lang.Specification
+
+import static com.algotrader.ingestor.book.OrderBook.Sequence.APPLY
+import static com.algotrader.ingestor.book.OrderBook.Sequence.GAP
+import static com.algotrader.ingestor.book.OrderBook.Sequence.STALE
+
+class OrderBookSpec extends Specification {
+
+    def book = new OrderBook("BTCUSDT", 100)
+
+    def "should not be live until a snapshot is loaded"() {
+        expect:
+        !book.isLive()
+        book.lastUpdateId() == -1
+
+        when:
+        book.loadSnapshot(100, 1_000)
+
+        then:
+        book.isLive()
+        book.lastUpdateId() == 100
+    }
+
+    def "should accept a first event that straddles the snapshot"() {
+        given:
+        book.loadSnapshot(100, 1_000)
+
+        expect:
+        book.beginUpdate(first, last) == expected
+
+        where:
+        first | last || expected
+        90    | 100  || STALE
+        95    | 105  || APPLY
+        101   | 105  || APPLY
+        102   | 105  || GAP
+    }
+
+    def "should require every later event to continue the last one"() {
+        given:
+        book.loadSnapshot(100, 1_000)
+        book.beginUpdate(95, 105)
+        book.endUpdate(105, 2_000)
+
+        expect:
+        book.beginUpdate(first, last) == expected
+
+        where:
+        first | last || expected
+        104   | 105  || STALE
+        106   | 110  || APPLY
+        104   | 110  || GAP
+        107   | 110  || GAP
+    }
+
+    def "should count updates, gaps and versions"() {
+        given:
+        book.loadSnapshot(100, 1_000)
+        def version = book.version()
+
+        when:
+        book.beginUpdate(101, 102)
+        book.endUpdate(102, 2_000)
+        book.beginUpdate(110, 111)
+
+        then:
+        book.updates() == 1
+        book.gaps() == 1
+        book.version() == version + 1
+        book.eventTimeMillis() == 2_000
+    }
+
+    def "should empty both sides on reset"() {
+        given:
+        book.bids().set(100, 1)
+        book.asks().set(101, 1)
+        book.loadSnapshot(100, 1_000)
+
+        when:
+        book.reset()
+
+        then:
+        !book.isLive()
+        book.bids().size() == 0
+        book.asks().size() == 0
+    }
+}
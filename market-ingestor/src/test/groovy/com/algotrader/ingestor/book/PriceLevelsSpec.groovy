@@ -0,0 +1,145 @@
+package com.algotrader.ingestor.book
+
+import com.algotrader.shared.model.Price
+import spock.lang.Specification
+
+class PriceLevelsSpec extends Specification {
+
+    def "should keep bids highest first and asks lowest first"() {
+        given:
+        def bids = new PriceLevels(8, true)
+        def asks = new PriceLevels(8, false)
+
+        when:
+        [105L, 101L, 103L].each { bids.set(it, 1); asks.set(it, 1) }
+
+        then:
+        top(bids, 8) == [105L, 103L, 101L]
+        top(asks, 8) == [101L, 103L, 105L]
+        bids.bestPrice() == 105L
+        asks.bestPrice() == 101L
+    }
+
+    def "should replace a level's quantity and remove it on zero"() {
+        given:
+        def side = new PriceLevels(8, false)
+        side.set(100, 5)
+        side.set(101, 7)
+
+        when:
+        side.set(100, 9)
+
+        then:
+        side.qty(100) == 9
+        side.bestQty() == 9
+        side.size() == 2
+
+        when:
+        side.set(100, 0)
+
+        then:
+        side.qty(100) == 0
+        side.bestPrice() == 101L
+        side.size() == 1
+    }
+
+    def "should report an empty side"() {
+        given:
+        def side = new PriceLevels(4, true)
+        side.set(100, 1)
+        side.remove(100)
+
+        expect:
+        side.size() == 0
+        side.bestPrice() == Price.NONE
+        side.bestQty() == 0
+        side.copyTop(4, new long[4], new long[4]) == 0
+    }
+
+    def "should evict the worst level for a better one when full"() {
+        given:
+        def bids = new PriceLevels(3, true)
+        [100L, 101L, 102L].each { bids.set(it, 1) }
+
+        when: "a worse price arrives"
+        def accepted = bids.set(99, 1)
+
+        then:
+        !accepted
+        top(bids, 3) == [102L, 101L, 100L]
+
+        when: "a better price arrives"
+        accepted = bids.set(103, 1)
+
+        then:
+        accepted
+        top(bids, 3) == [103L, 102L, 101L]
+        bids.size() == 3
+    }
+
+    def "should copy only the requested number of levels"() {
+        given:
+        def asks = new PriceLevels(16, false)
+        (1..10).each { asks.set(it * 10L, it) }
+        def prices = new long[3]
+        def qtys = new long[3]
+
+        when:
+        def count = asks.copyTop(3, prices, qtys)
+
+        then:
+        count == 3
+        prices as List == [10L, 20L, 30L]
+        qtys as List == [1L, 2L, 3L]
+    }
+
+    def "should reuse its slots after clear"() {
+        given:
+        def side = new PriceLevels(2, false)
+        side.set(1, 1)
+        side.set(2, 1)
+
+        when:
+        side.clear()
+        side.set(5, 1)
+        side.set(6, 1)
+
+        then:
+        top(side, 2) == [5L, 6L]
+    }
+
+    def "should match a sorted map over random updates"() {
+        given:
+        def random = new Random(42)
+        def side = new PriceLevels(4096, true)
+        def reference = new TreeMap<Long, Long>(Comparator.reverseOrder())
+
+        when:
+        20_000.times {
+            long price = random.nextInt(2000)
+            long qty = random.nextInt(4)
+            side.set(price, qty)
+            if (qty == 0) {
+                reference.remove(price)
+            } else {
+                reference.put(price, qty)
+            }
+        }
+        def prices = new long[reference.size()]
+        def qtys = new long[reference.size()]
+        def count = side.copyTop(reference.size(), prices, qtys)
+
+        then:
+        side.size() == reference.size()
+        count == reference.size()
+        prices as List == reference.keySet() as List
+        qtys as List == reference.values() as List
+        side.bestPrice() == reference.firstKey()
+    }
+
+    private static List<Long> top(PriceLevels side, int n) {
+        def prices = new long[n]
+        def count = side.copyTop(n, prices, new long[n])
+        (prices as List).take(count)
+    }
+}
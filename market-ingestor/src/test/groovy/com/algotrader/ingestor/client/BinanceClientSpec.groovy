@@ -6,6 +6,9 @@ import spock.lang.Specification
 import spock.lang.Shared
 import spock.lang.AutoCleanup
 
+import java.time.Duration
+import java.util.concurrent.Executors
+
 class BinanceClientSpec extends Specification {
 
     @Shared
@@ -20,26 +23,56 @@ class BinanceClientSpec extends Specification {
 
         mockServer.createContext("/api/v3/ticker/price") { exchange ->
             def query = exchange.requestURI.query ?: ""
-            def symbol = query.replace("symbol=", "")
 
             def responseBody
             def statusCode
 
-            if (symbol == "BTCUSDT") {
-                responseBody = '{"symbol":"BTCUSDT","price":"42000.50"}'
+            if (query.startsWith("symbols=")) {
+                def symbols = query.substring("symbols=".length()).findAll(/"([^"]+)"/) { it[1] }
+                if (symbols.contains("INVALID")) {
+                    responseBody = '{"code":-1121,"msg":"Invalid symbol."}'
+                    statusCode = 400
+                } else {
+                    responseBody = "[" + symbols.collect { '{"symbol":"' + it + '","price":"100.00"}' }.join(",") + "]"
+                    statusCode = 200
+                }
+            } else if (query.isEmpty()) {
+                responseBody = '[{"symbol":"BTCUSDT","price":"42000.50"},{"symbol":"ETHUSDT","price":"100.00"}]'
                 statusCode = 200
-            } else if (symbol == "INVALID") {
-                responseBody = '{"code":-1121,"msg":"Invalid symbol."}'
-                statusCode = 400
             } else {
-                responseBody = '{"symbol":"' + symbol + '","price":"100.00"}'
-                statusCode = 200
+                def symbol = query.replace("symbol=", "")
+                if (symbol == "BTCUSDT") {
+                    responseBody = '{"symbol":"BTCUSDT","price":"42000.50"}'
+                    statusCode = 200
+                } else if (symbol == "INVALID") {
+                    responseBody = '{"code":-1121,"msg":"Invalid symbol."}'
+                    statusCode = 400
+                } else {
+                    if (symbol == "SLOWUSDT") {
+                        Thread.sleep(2000)
+                    }
+                    responseBody = '{"symbol":"' + symbol + '","price":"100.00"}'
+                    statusCode = 200
+                }
             }
 
-            exchange.sendResponseHeaders(statusCode, responseBody.bytes.length)
-            exchange.responseBody.write(responseBody.bytes)
+            try {
+                exchange.sendResponseHeaders(statusCode, responseBody.bytes.length)
+                exchange.responseBody.write(responseBody.bytes)
+                exchange.responseBody.close()
+            } catch (IOException ignored) {
+                // client gave up (latency budget) before the response was written
+            }
+        }
+        mockServer.createContext("/api/v3/depth") { exchange ->
+            def banned = exchange.requestURI.query.contains("symbol=BANNED")
+            exchange.responseHeaders.add("Retry-After", banned ? "120" : "7")
+            def body = '{"code":-1003,"msg":"Too many requests."}'.bytes
+            exchange.sendResponseHeaders(banned ? 418 : 429, body.length)
+            exchange.responseBody.write(body)
             exchange.responseBody.close()
         }
+        mockServer.executor = Executors.newCachedThreadPool()
 
         mockServer.start()
     }
@@ -73,6 +106,30 @@ class BinanceClientSpec extends Specification {
         ex.message.contains("400")
     }
 
+    def "should report a 429 or 418 with the server's Retry-After"() {
+        given:
+        def client = new BinanceClient("http://localhost:${port}/api/v3")
+
+        when:
+        client.fetchDepth(symbol, 1000)
+
+        then:
+        def e = thrown(RateLimitedException)
+        e.statusCode() == status
+        e.retryAfter() == Optional.of(Duration.ofSeconds(seconds))
+
+        where:
+        symbol    || status | seconds
+        "BTCUSDT" || 429    | 7
+        "BANNED"  || 418    | 120
+    }
+
+    def "should ignore a Retry-After that is not a number of seconds"() {
+        expect:
+        BinanceClient.parseRetryAfter("Wed, 21 Oct 2026 07:28:00 GMT") == null
+        BinanceClient.parseRetryAfter(" 30 ") == Duration.ofSeconds(30)
+    }
+
     def "should fetch any valid symbol"() {
         given:
         def client = new BinanceClient("http://localhost:${port}/api/v3")
@@ -84,4 +141,74 @@ class BinanceClientSpec extends Specification {
         tick.symbol() == "ETHUSDT"
         tick.price() == new BigDecimal("100.00")
     }
+
+    def "should fetch several symbols in one batch request"() {
+        given:
+        def client = new BinanceClient("http://localhost:${port}/api/v3")
+
+        when:
+        List<Tick> ticks = client.fetchTickers(["BTCUSDT", "ETHUSDT", "BNBUSDT"], Duration.ofSeconds(1))
+
+        then:
+        ticks*.symbol() == ["BTCUSDT", "ETHUSDT", "BNBUSDT"]
+        ticks.every { it.price() == new BigDecimal("100.00") && it.timestamp() != null }
+    }
+
+    def "should fail the whole batch when one symbol is invalid"() {
+        given:
+        def client = new BinanceClient("http://localhost:${port}/api/v3")
+
+        when:
+        client.fetchTickers(["BTCUSDT", "INVALID"], Duration.ofSeconds(1))
+
+        then:
+        def ex = thrown(RuntimeException)
+        ex.message.contains("400")
+    }
+
+    def "should fetch every listed symbol"() {
+        given:
+        def client = new BinanceClient("http://localhost:${port}/api/v3")
+
+        when:
+        List<Tick> ticks = client.fetchAllTickers()
+
+        then:
+        ticks*.symbol() == ["BTCUSDT", "ETHUSDT"]
+        ticks[0].price() == new BigDecimal("42000.50")
+    }
+
+    def "should fan out per-symbol requests and drop those that fail or miss the budget"() {
+        given:
+        def client = new BinanceClient("http://localhost:${port}/api/v3")
+
+        when:
+        long start = System.nanoTime()
+        List<Tick> ticks = client.fetchTickersConcurrently(["BTCUSDT", "SLOWUSDT", "INVALID", "ETHUSDT"],
+                Duration.ofMillis(300))
+        long elapsedMillis = (System.nanoTime() - start).intdiv(1_000_000)
+
+        then: "the healthy symbols arrive in order"
+        ticks*.symbol() == ["BTCUSDT", "ETHUSDT"]
+
+        and: "the slow request did not hold up the cycle"
+        elapsedMillis < 1500
+    }
+
+    def "should time every request, including failed and concurrent ones"() {
+        given:
+        def client = new BinanceClient("http://localhost:${port}/api/v3")
+
+        when:
+        client.fetchTicker("BTCUSDT")
+        try {
+            client.fetchTicker("INVALID")
+        } catch (RuntimeException ignored) {
+        }
+        client.fetchTickersConcurrently(["BTCUSDT", "ETHUSDT"], Duration.ofSeconds(1))
+
+        then:
+        client.fetchLatency().count() == 4
+        client.fetchLatency().max() > 0
+    }
 }
@@ -0,0 +1,91 @@
+package com.algotrader.ingestor.client
+
+import com.algotrader.shared.model.Tick
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.time.Duration
+import java.util.concurrent.CopyOnWriteArrayList
+
+class BinancePollerSpec extends Specification {
+
+    def client = Mock(BinanceClient)
+    def budget = Duration.ofSeconds(2)
+    def received = new CopyOnWriteArrayList<Tick>()
+    def btc = Tick.of("BTCUSDT", new BigDecimal("42000.50"))
+    def eth = Tick.of("ETHUSDT", new BigDecimal("2500.00"))
+
+    def "should hand every tick of one batch request to the sink"() {
+        given:
+        def poller = new BinancePoller(client, ["BTCUSDT", "ETHUSDT"], budget, { received << it })
+
+        when:
+        def count = poller.poll()
+
+        then:
+        1 * client.fetchTickers(["BTCUSDT", "ETHUSDT"], budget) >> [btc, eth]
+        0 * client.fetchTickersConcurrently(*_)
+        count == 2
+        received == [btc, eth]
+    }
+
+    def "should fall back to per-symbol requests within what is left of the budget"() {
+        given: "a batch request that fails after half a second"
+        long now = 0
+        def poller = new BinancePoller(client, ["BTCUSDT", "INVALID"], budget, { received << it }, { now })
+
+        when:
+        def count = poller.poll()
+
+        then:
+        1 * client.fetchTickers(_, budget) >> {
+            now += Duration.ofMillis(500).toNanos()
+            throw new RuntimeException("Invalid symbol")
+        }
+        1 * client.fetchTickersConcurrently(["BTCUSDT", "INVALID"], Duration.ofMillis(1500)) >> [btc]
+        count == 1
+        received == [btc]
+    }
+
+    def "should skip the fallback when the failed batch used up the budget"() {
+        given:
+        long now = 0
+        def poller = new BinancePoller(client, ["BTCUSDT"], budget, { received << it }, { now })
+
+        when:
+        def count = poller.poll()
+
+        then:
+        1 * client.fetchTickers(_, budget) >> {
+            now += budget.toNanos()
+            throw new RuntimeException("timeout")
+        }
+        0 * client.fetchTickersConcurrently(*_)
+        count == 0
+        received.isEmpty()
+    }
+
+    def "should keep polling on schedule after a failed cycle"() {
+        given:
+        def calls = 0
+        client.fetchTickers(*_) >> {
+            if (calls++ == 0) {
+                throw new RuntimeException("timeout")
+            }
+            [btc]
+        }
+        client.fetchTickersConcurrently(*_) >> { throw new RuntimeException("still down") }
+        def poller = new BinancePoller(client, ["BTCUSDT"], budget, { received << it })
+
+        when:
+        poller.start(Duration.ofMillis(10))
+
+        then:
+        new PollingConditions(timeout: 5).eventually {
+            assert received.size() >= 2
+        }
+
+        cleanup:
+        poller.close()
+    }
+}
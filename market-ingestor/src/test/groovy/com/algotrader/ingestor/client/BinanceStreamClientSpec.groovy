@@ -0,0 +1,179 @@
+package com.algotrader.ingestor.client
+
+import com.algotrader.shared.model.Tick
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+import java.time.Duration
+import java.time.Instant
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.TimeUnit
+
+class BinanceStreamClientSpec extends Specification {
+
+    @AutoCleanup
+    LocalWebSocketServer server = new LocalWebSocketServer()
+
+    def ticks = new LinkedBlockingQueue<Tick>()
+
+    @AutoCleanup
+    BinanceStreamClient client
+
+    def "should subscribe to every symbol over one connection and publish trade ticks"() {
+        given: "a client for two symbols pointing at the local stand-in"
+        client = new BinanceStreamClient("ws://localhost:${server.port}", ["BTCUSDT", "ETHUSDT"],
+                BinanceStreamClient.StreamType.TRADE, { ticks << it })
+
+        when: "the client starts"
+        client.start()
+        def subscribe = server.received.poll(5, TimeUnit.SECONDS)
+
+        then: "it connects to /stream and subscribes to both trade streams"
+        server.paths == ["/stream"]
+        subscribe.contains('"method":"SUBSCRIBE"')
+        subscribe.contains('"btcusdt@trade"')
+        subscribe.contains('"ethusdt@trade"')
+
+        when: "the server acks and pushes a trade"
+        server.send('{"result":null,"id":1}')
+        server.send('{"stream":"btcusdt@trade","data":{"e":"trade","E":1700000000001,"s":"BTCUSDT",' +
+                '"t":12345,"p":"42000.50","q":"0.010","T":1700000000000,"m":true,"M":true}}')
+        def tick = ticks.poll(5, TimeUnit.SECONDS)
+
+        then: "the trade becomes a tick stamped with the trade time"
+        tick.symbol() == "BTCUSDT"
+        tick.price() == new BigDecimal("42000.50")
+        tick.timestamp() == Instant.ofEpochMilli(1700000000000)
+        client.ticksReceived() == 1
+    }
+
+    def "should publish the mid price for bookTicker updates"() {
+        given:
+        client = new BinanceStreamClient("ws://localhost:${server.port}", ["BNBUSDT"],
+                BinanceStreamClient.StreamType.BOOK_TICKER, { ticks << it })
+        client.start()
+        assert server.received.poll(5, TimeUnit.SECONDS).contains('"bnbusdt@bookTicker"')
+
+        when:
+        server.send('{"stream":"bnbusdt@bookTicker","data":{"u":400900217,"s":"BNBUSDT",' +
+                '"b":"25.35","B":"31.21","a":"25.36","A":"40.66"}}')
+        def tick = ticks.poll(5, TimeUnit.SECONDS)
+
+        then:
+        tick.symbol() == "BNBUSDT"
+        tick.price() == new BigDecimal("25.355")
+    }
+
+    def "should reconnect and resubscribe after the connection drops"() {
+        given: "a connected client"
+        client = new BinanceStreamClient("ws://localhost:${server.port}", ["BTCUSDT"],
+                BinanceStreamClient.StreamType.TRADE, { ticks << it })
+        client.start()
+        assert server.received.poll(5, TimeUnit.SECONDS) != null
+
+        when: "the server drops the connection"
+        server.dropConnections()
+        def resubscribe = server.received.poll(10, TimeUnit.SECONDS)
+
+        then: "the client reconnects and subscribes again"
+        resubscribe.contains('"btcusdt@trade"')
+        client.reconnects() >= 1
+
+        when: "ticks resume"
+        server.send('{"stream":"btcusdt@trade","data":{"s":"BTCUSDT","p":"43000.00","T":1700000001000}}')
+
+        then:
+        ticks.poll(5, TimeUnit.SECONDS).price() == new BigDecimal("43000.00")
+    }
+
+    def "should keep a connection that answers its pings"() {
+        given:
+        client = new BinanceStreamClient("ws://localhost:${server.port}", ["BTCUSDT"],
+                BinanceStreamClient.StreamType.TRADE, { ticks << it }, Duration.ofMillis(50), Duration.ofMillis(300))
+        client.start()
+        assert server.received.poll(5, TimeUnit.SECONDS) != null
+
+        when: "several idle timeouts pass without a single message"
+        Thread.sleep(1000)
+
+        then: "the pongs alone keep it open"
+        server.pings.get() >= 5
+        client.isConnected()
+        client.idleTimeouts() == 0
+        client.reconnects() == 0
+    }
+
+    def "should replace a connection that goes quiet without closing"() {
+        given: "a connected client whose pings go unanswered"
+        server.answerPings = false
+        client = new BinanceStreamClient("ws://localhost:${server.port}", ["BTCUSDT"],
+                BinanceStreamClient.StreamType.TRADE, { ticks << it }, Duration.ofMillis(50), Duration.ofMillis(300))
+        client.start()
+        assert server.received.poll(5, TimeUnit.SECONDS) != null
+
+        when:
+        def resubscribe = server.received.poll(5, TimeUnit.SECONDS)
+
+        then: "it is aborted after the idle timeout and a new one subscribes"
+        resubscribe.contains('"btcusdt@trade"')
+        client.idleTimeouts() >= 1
+        client.reconnects() >= 1
+    }
+
+    def "should hand raw depth messages to a listener and tell it of every connection"() {
+        given:
+        def messages = new LinkedBlockingQueue<String>()
+        def connections = new LinkedBlockingQueue<Boolean>()
+        client = new BinanceStreamClient("ws://localhost:${server.port}", ["BTCUSDT"],
+                BinanceStreamClient.StreamType.DEPTH, new BinanceStreamClient.MessageListener() {
+            @Override
+            void onMessage(CharSequence message) {
+                messages << message.toString()
+            }
+
+            @Override
+            void onConnected() {
+                connections << true
+            }
+        })
+
+        when:
+        client.start()
+        def subscribe = server.received.poll(5, TimeUnit.SECONDS)
+        def update = '{"stream":"btcusdt@depth@100ms","data":{"e":"depthUpdate","E":1,"s":"BTCUSDT",' +
+                '"U":1,"u":2,"b":[],"a":[]}}'
+        server.send(update)
+
+        then:
+        subscribe.contains('"btcusdt@depth@100ms"')
+        connections.poll(5, TimeUnit.SECONDS)
+        messages.poll(5, TimeUnit.SECONDS) == update
+        ticks.isEmpty()
+    }
+
+    def "should reject a depth stream without a listener"() {
+        when:
+        new BinanceStreamClient("ws://localhost:1", ["BTCUSDT"], BinanceStreamClient.StreamType.DEPTH, { })
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "should ignore non-market messages"() {
+        given:
+        client = new BinanceStreamClient("ws://localhost:1", ["BTCUSDT"],
+                BinanceStreamClient.StreamType.TRADE, { ticks << it })
+
+        expect:
+        client.parseMessage('{"result":null,"id":1}') == null
+        client.parseMessage('[]') == null
+    }
+
+    def "should reject an empty symbol list"() {
+        when:
+        new BinanceStreamClient("ws://localhost:1", [], BinanceStreamClient.StreamType.TRADE, { })
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
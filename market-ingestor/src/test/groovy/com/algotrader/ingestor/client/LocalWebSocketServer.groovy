@@ -0,0 +1,139 @@
+package com.algotrader.ingestor.client
+
+import java.nio.charset.StandardCharsets
+import java.security.MessageDigest
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Minimal single-purpose WebSocket server (RFC 6455 text frames only) used as
+ * a local stand-in for the Binance stream endpoint.
+ */
+class LocalWebSocketServer implements Closeable {
+
+    private static final String GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11"
+
+    final ServerSocket serverSocket = new ServerSocket(0)
+    final List<Socket> clients = new CopyOnWriteArrayList<>()
+    final LinkedBlockingQueue<String> received = new LinkedBlockingQueue<>()
+    final List<String> paths = new CopyOnWriteArrayList<>()
+    final AtomicInteger pings = new AtomicInteger()
+    /** Whether pings get a pong — turn off to play a connection that silently died. */
+    volatile boolean answerPings = true
+
+    LocalWebSocketServer() {
+        Thread.startDaemon("ws-stand-in-accept") {
+            while (!serverSocket.closed) {
+                try {
+                    def socket = serverSocket.accept()
+                    Thread.startDaemon("ws-stand-in-client") { handle(socket) }
+                } catch (IOException ignored) {
+                    return
+                }
+            }
+        }
+    }
+
+    int getPort() {
+        serverSocket.localPort
+    }
+
+    /** Sends a text frame to every connected client. */
+    void send(String text) {
+        byte[] payload = text.getBytes(StandardCharsets.UTF_8)
+        def frame = new ByteArrayOutputStream()
+        frame.write(0x81)
+        if (payload.length < 126) {
+            frame.write(payload.length)
+        } else {
+            frame.write(126)
+            frame.write((payload.length >> 8) & 0xFF)
+            frame.write(payload.length & 0xFF)
+        }
+        frame.write(payload)
+        clients.each { it.outputStream.write(frame.toByteArray()); it.outputStream.flush() }
+    }
+
+    /** Abruptly drops every open connection. */
+    void dropConnections() {
+        clients.each { it.close() }
+        clients.clear()
+    }
+
+    @Override
+    void close() {
+        dropConnections()
+        serverSocket.close()
+    }
+
+    private void handle(Socket socket) {
+        def input = new DataInputStream(socket.inputStream)
+        def headers = [:]
+        def requestLine = readLine(input)
+        paths << requestLine.split(" ")[1]
+        for (String line = readLine(input); line; line = readLine(input)) {
+            def idx = line.indexOf(':')
+            headers[line.substring(0, idx).trim().toLowerCase()] = line.substring(idx + 1).trim()
+        }
+        def accept = MessageDigest.getInstance("SHA-1")
+                .digest((headers["sec-websocket-key"] + GUID).getBytes(StandardCharsets.US_ASCII))
+                .encodeBase64().toString()
+        socket.outputStream.write(("HTTP/1.1 101 Switching Protocols\r\n" +
+                "Upgrade: websocket\r\nConnection: Upgrade\r\n" +
+                "Sec-WebSocket-Accept: ${accept}\r\n\r\n").getBytes(StandardCharsets.US_ASCII))
+        socket.outputStream.flush()
+        clients << socket
+
+        try {
+            while (true) {
+                int b0 = input.readUnsignedByte()
+                int b1 = input.readUnsignedByte()
+                long length = b1 & 0x7F
+                if (length == 126) {
+                    length = input.readUnsignedShort()
+                } else if (length == 127) {
+                    length = input.readLong()
+                }
+                byte[] mask = new byte[4]
+                if (b1 & 0x80) {
+                    input.readFully(mask)
+                }
+                byte[] payload = new byte[(int) length]
+                input.readFully(payload)
+                for (int i = 0; i < payload.length; i++) {
+                    payload[i] = (byte) (payload[i] ^ mask[i % 4])
+                }
+                int opcode = b0 & 0x0F
+                if (opcode == 0x1) {
+                    received << new String(payload, StandardCharsets.UTF_8)
+                } else if (opcode == 0x9) {
+                    pings.incrementAndGet()
+                    if (answerPings) {
+                        synchronized (socket) {
+                            socket.outputStream.write([0x8A, payload.length] as byte[])
+                            socket.outputStream.write(payload)
+                            socket.outputStream.flush()
+                        }
+                    }
+                } else if (opcode == 0x8) {
+                    socket.close()
+                    return
+                }
+            }
+        } catch (IOException ignored) {
+            // connection dropped
+        }
+    }
+
+    private static String readLine(DataInputStream input) {
+        def sb = new StringBuilder()
+        int c
+        while ((c = input.read()) != -1 && c != '\n') {
+            if (c != '\r') {
+                sb.append((char) c)
+            }
+        }
+        sb.toString()
+    }
+}
@@ -5,5 +5,7 @@ include(
     "market-ingestor",
     "strategy-engine",
     "execution-service",
-    "analytics-service"
+    "analytics-service",
+    "launcher",
+    "benchmarks"
 )
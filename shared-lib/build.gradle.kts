@@ -4,4 +4,7 @@ dependencies {
     // ── Jackson (JSON serialization for DTOs) ───────────────────────
     implementation("com.fasterxml.jackson.core:jackson-databind:2.16.1")
     implementation("com.fasterxml.jackson.datatype:jackson-datatype-jsr310:2.16.1")
+
+    // ── Lettuce (Redis Streams transport) ───────────────────────────
+    implementation("io.lettuce:lettuce-core:6.3.1.RELEASE")
 }
@@ -0,0 +1,266 @@
+package com.algotrader.shared.bus;
+
+import com.algotrader.shared.concurrent.MpscRingQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * {@link MessageBus} for services sharing one JVM.
+ * <p>
+ * Messages are immutable records, so they are handed over as they are: no
+ * encoding, no copy, no network hop. Every subscriber owns a bounded
+ * {@link MpscRingQueue} drained by its own thread, so a slow subscriber
+ * delays only itself and never the publisher's other subscribers. A full queue
+ * makes the publisher wait for space (counted as
+ * {@linkplain #backpressured() backpressured}) rather than drop market data;
+ * once the bus or the subscription is closed, messages are dropped and counted.
+ * </p>
+ * Idle subscriber threads spin briefly, then park for
+ * {@value #IDLE_PARK_MICROS} µs at a time, as the strategy shards do.
+ */
+public final class InProcessBus implements MessageBus {
+
+    private static final Logger log = LoggerFactory.getLogger(InProcessBus.class);
+
+    private static final int IDLE_SPINS = 100;
+    private static final long IDLE_PARK_MICROS = 50;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(IDLE_PARK_MICROS);
+
+    private final int capacity;
+    private final ConcurrentHashMap<Topic<?>, List<Subscriber<?>>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong backpressured = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean running = true;
+
+    /**
+     * @param capacity each subscriber's queue capacity, rounded up to a power of two
+     */
+    public InProcessBus(int capacity) {
+        // Fail on a bad capacity now rather than on the first subscribe
+        new MpscRingQueue<>(capacity);
+        this.capacity = capacity;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> void publish(Topic<T> topic, T message) {
+        if (message == null) {
+            throw new NullPointerException("message");
+        }
+        if (!running) {
+            dropped.incrementAndGet();
+            return;
+        }
+        published.incrementAndGet();
+        List<Subscriber<?>> targets = subscribers.get(topic);
+        if (targets == null) {
+            return;
+        }
+        for (Subscriber<?> subscriber : targets) {
+            ((Subscriber<T>) subscriber).offer(message);
+        }
+    }
+
+    @Override
+    public <T> Subscription subscribe(Topic<T> topic, String name, Consumer<? super T> handler) {
+        if (!running) {
+            throw new IllegalStateException("Bus is closed");
+        }
+        Subscriber<T> subscriber = new Subscriber<>(topic, name, handler);
+        subscribers.computeIfAbsent(topic, t -> new CopyOnWriteArrayList<>()).add(subscriber);
+        subscriber.thread.start();
+        log.info("'{}' subscribed to '{}' in process (queue capacity {})", name, topic.name(),
+                subscriber.queue.capacity());
+        return subscriber;
+    }
+
+    /**
+     * @return always {@code true} — there is no transport to lose
+     */
+    @Override
+    public boolean isConnected() {
+        return true;
+    }
+
+    /**
+     * @return messages accepted for delivery, each counted once however many subscribers it reached
+     */
+    public long published() {
+        return published.get();
+    }
+
+    /**
+     * @return how many times a publisher had to wait for a subscriber's queue space
+     */
+    public long backpressured() {
+        return backpressured.get();
+    }
+
+    /**
+     * @return deliveries abandoned because the bus or the subscription was closed
+     */
+    public long dropped() {
+        return dropped.get();
+    }
+
+    /**
+     * @return messages waiting across every subscriber's queue
+     */
+    public long queued() {
+        long queued = 0;
+        for (List<Subscriber<?>> topicSubscribers : subscribers.values()) {
+            for (Subscriber<?> subscriber : topicSubscribers) {
+                queued += subscriber.queue.size();
+            }
+        }
+        return queued;
+    }
+
+    /**
+     * Stops accepting messages, then stops every subscriber once it has
+     * drained whatever is already queued.
+     */
+    @Override
+    public void close() {
+        running = false;
+        for (List<Subscriber<?>> topicSubscribers : subscribers.values()) {
+            for (Subscriber<?> subscriber : topicSubscribers) {
+                subscriber.close();
+            }
+        }
+        log.info("In-process bus closed ({} published, {} dropped)", published.get(), dropped.get());
+    }
+
+    private final class Subscriber<T> implements Subscription, Runnable {
+
+        private final Topic<T> topic;
+        private final String name;
+        private final Consumer<? super T> handler;
+        private final MpscRingQueue<T> queue;
+        private final AtomicLong delivered = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final Thread thread;
+        private volatile boolean open = true;
+        /** Set once the drain loop has exited; guarded by {@code this}. */
+        private boolean finished;
+
+        private Subscriber(Topic<T> topic, String name, Consumer<? super T> handler) {
+            this.topic = topic;
+            this.name = name;
+            this.handler = handler;
+            this.queue = new MpscRingQueue<>(capacity);
+            this.thread = new Thread(this, "bus-" + topic.name() + "-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        private void offer(T message) {
+            if (!queue.offer(message)) {
+                backpressured.incrementAndGet();
+                while (!queue.offer(message)) {
+                    if (!open || !running) {
+                        dropped.incrementAndGet();
+                        return;
+                    }
+                    Thread.onSpinWait();
+                }
+            }
+            if (!open) {
+                // A publisher iterating a snapshot taken before close() can
+                // land here after the drain loop has exited: nobody else
+                // will ever take the message, so account for it now
+                synchronized (this) {
+                    if (finished) {
+                        discardQueued();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Counts whatever is left in the queue as dropped; only called under
+         * {@code this} once the drain loop has exited.
+         */
+        private void discardQueued() {
+            while (!queue.isEmpty()) {
+                if (queue.poll() != null) {
+                    dropped.incrementAndGet();
+                } else {
+                    // Claimed by a publisher still writing the element
+                    Thread.onSpinWait();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            int idle = 0;
+            while (open || !queue.isEmpty()) {
+                T message = queue.poll();
+                if (message == null) {
+                    if (++idle < IDLE_SPINS) {
+                        Thread.onSpinWait();
+                    } else {
+                        LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    }
+                    continue;
+                }
+                idle = 0;
+                try {
+                    handler.accept(message);
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                    log.error("'{}' failed to handle a message from '{}': {}", name, topic.name(),
+                            e.getMessage(), e);
+                }
+                delivered.lazySet(delivered.get() + 1);
+            }
+            synchronized (this) {
+                finished = true;
+                discardQueued();
+            }
+        }
+
+        @Override
+        public long delivered() {
+            return delivered.get();
+        }
+
+        @Override
+        public long failed() {
+            return failed.get();
+        }
+
+        /**
+         * Stops the subscriber after it drains whatever is already queued.
+         */
+        @Override
+        public void close() {
+            if (!open) {
+                return;
+            }
+            open = false;
+            List<Subscriber<?>> topicSubscribers = subscribers.get(topic);
+            if (topicSubscribers != null) {
+                topicSubscribers.remove(this);
+            }
+            LockSupport.unpark(thread);
+            if (Thread.currentThread() == thread) {
+                return;
+            }
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
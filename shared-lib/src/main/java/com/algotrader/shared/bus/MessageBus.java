@@ -0,0 +1,64 @@
+package com.algotrader.shared.bus;
+
+import java.util.function.Consumer;
+
+/**
+ * Publish/subscribe transport for {@link Topic}s, so services can exchange
+ * ticks and signals without knowing whether they share a process.
+ * <ul>
+ * <li>{@link RedisBus} — the services' Redis channels or streams, across processes.</li>
+ * <li>{@link InProcessBus} — record objects handed over through bounded ring
+ * buffers, with no serialization and no network hop, when every service runs
+ * in one JVM.</li>
+ * </ul>
+ * Each subscriber's handler is called from a single thread, in publish order
+ * per publisher; different subscribers run concurrently.
+ */
+public interface MessageBus extends AutoCloseable {
+
+    /**
+     * Sends a message to every subscriber of {@code topic}.
+     * Safe to call from any number of threads.
+     */
+    <T> void publish(Topic<T> topic, T message);
+
+    /**
+     * Registers a handler for every message published to {@code topic} from now on.
+     *
+     * @param name identifies the subscriber in logs and thread names
+     */
+    <T> Subscription subscribe(Topic<T> topic, String name, Consumer<? super T> handler);
+
+    /**
+     * @return whether the transport is reachable
+     */
+    boolean isConnected();
+
+    /**
+     * Stops delivery to every subscriber and releases the transport.
+     */
+    @Override
+    void close();
+
+    /**
+     * A registered handler.
+     */
+    interface Subscription extends AutoCloseable {
+
+        /**
+         * @return messages handed to the handler so far
+         */
+        long delivered();
+
+        /**
+         * @return messages whose handler threw; they are logged and skipped
+         */
+        long failed();
+
+        /**
+         * Stops delivery to this handler.
+         */
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,161 @@
+package com.algotrader.shared.bus;
+
+import com.algotrader.shared.codec.NegotiatingCodec;
+import com.algotrader.shared.codec.WireFormat;
+import com.algotrader.shared.metrics.LatencyHistogram;
+import com.algotrader.shared.model.Signal;
+import com.algotrader.shared.model.Tick;
+import com.algotrader.shared.stream.RedisTransport;
+import com.algotrader.shared.stream.TransportConfig;
+import io.lettuce.core.RedisClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * {@link MessageBus} over Redis, wire-compatible with the standalone services.
+ * <p>
+ * A topic's name is its Redis channel. Messages are encoded by a
+ * {@link NegotiatingCodec} — JSON, or binary with {@link WireFormat#BINARY} —
+ * and received in either format. Sending and receiving are left to a
+ * {@link RedisTransport}, the same one the services use: with pub/sub every
+ * subscription shares one subscriber connection, and with
+ * {@link com.algotrader.shared.stream.Transport#STREAMS} each subscription
+ * reads through a consumer group named after the subscriber, so subscribers
+ * sharing a process each see every entry.
+ * </p>
+ * Publishing is a synchronous round trip, timed into {@link #publishLatency()};
+ * a failed publish is logged and counted, never thrown.
+ */
+public final class RedisBus implements MessageBus {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisBus.class);
+
+    private final RedisTransport redis;
+    private final WireFormat format;
+    private final ConcurrentHashMap<Topic<?>, NegotiatingCodec<?>> codecs = new ConcurrentHashMap<>();
+    private final AtomicLong failed = new AtomicLong();
+
+    /**
+     * @param transport pub/sub channels or Redis streams
+     * @param format    the outbound wire format
+     */
+    public RedisBus(String redisUri, TransportConfig transport, WireFormat format) {
+        this(RedisClient.create(redisUri), transport, format);
+    }
+
+    /**
+     * Test-friendly constructor: inject the client.
+     */
+    RedisBus(RedisClient redisClient, TransportConfig transport, WireFormat format) {
+        this.redis = new RedisTransport(redisClient, transport);
+        this.format = format;
+        log.info("Redis bus ready ({}, {})", transport.transport(), format);
+    }
+
+    @Override
+    public <T> void publish(Topic<T> topic, T message) {
+        byte[] payload = codecFor(topic).encode(message);
+        try {
+            redis.send(topic.name(), payload);
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            log.warn("Publishing to '{}' failed: {}", topic.name(), e.getMessage());
+        }
+    }
+
+    @Override
+    public <T> Subscription subscribe(Topic<T> topic, String name, Consumer<? super T> handler) {
+        TransportConfig transport = redis.config();
+        TransportConfig group = new TransportConfig(transport.transport(), name, transport.consumer(),
+                transport.batchSize(), transport.block(), transport.maxLen(), transport.startId());
+        RedisSubscription<T> subscription = new RedisSubscription<>(topic, handler);
+        subscription.receiver = redis.receive(topic.name(), group, subscription::onPayload);
+        log.info("'{}' subscribed to '{}' on Redis", name, topic.name());
+        return subscription;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> NegotiatingCodec<T> codecFor(Topic<T> topic) {
+        return (NegotiatingCodec<T>) codecs.computeIfAbsent(topic, t -> {
+            if (t.type() == Tick.class) {
+                return NegotiatingCodec.ticks(format);
+            }
+            if (t.type() == Signal.class) {
+                return NegotiatingCodec.signals(format);
+            }
+            throw new IllegalArgumentException("No wire codec for " + t.type().getSimpleName()
+                    + " (topic '" + t.name() + "')");
+        });
+    }
+
+    /**
+     * @return Redis {@code PUBLISH}/{@code XADD} round trip
+     */
+    public LatencyHistogram publishLatency() {
+        return redis.sendLatency();
+    }
+
+    /**
+     * @return messages Redis did not accept
+     */
+    public long failed() {
+        return failed.get();
+    }
+
+    /**
+     * Pings Redis to verify connectivity.
+     */
+    @Override
+    public boolean isConnected() {
+        return redis.isConnected();
+    }
+
+    @Override
+    public void close() {
+        log.info("Closing Redis bus...");
+        redis.close();
+    }
+
+    private final class RedisSubscription<T> implements Subscription {
+
+        private final Topic<T> topic;
+        private final Consumer<? super T> handler;
+        private final AtomicLong delivered = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private RedisTransport.Receiver receiver;
+
+        private RedisSubscription(Topic<T> topic, Consumer<? super T> handler) {
+            this.topic = topic;
+            this.handler = handler;
+        }
+
+        private void onPayload(byte[] payload) {
+            try {
+                handler.accept(codecFor(topic).decode(payload));
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                log.error("Error processing message from '{}': {}", topic.name(), e.getMessage(), e);
+            }
+            delivered.incrementAndGet();
+        }
+
+        @Override
+        public long delivered() {
+            return delivered.get();
+        }
+
+        @Override
+        public long failed() {
+            return failed.get();
+        }
+
+        @Override
+        public void close() {
+            receiver.close();
+        }
+    }
+}
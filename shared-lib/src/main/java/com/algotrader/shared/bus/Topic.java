@@ -0,0 +1,33 @@
+package com.algotrader.shared.bus;
+
+import com.algotrader.shared.model.Signal;
+import com.algotrader.shared.model.Tick;
+
+/**
+ * A named, typed stream of messages on a {@link MessageBus}.
+ * <p>
+ * The name is the Redis channel or stream the topic maps to, so services on
+ * either transport agree on where messages go.
+ * </p>
+ *
+ * @param name the channel name, e.g. {@code "market_data"}
+ * @param type the message type carried
+ * @param <T>  the message type
+ */
+public record Topic<T>(String name, Class<T> type) {
+
+    /** Market ticks from the ingestor. */
+    public static final Topic<Tick> TICKS = new Topic<>("market_data", Tick.class);
+
+    /** Trading signals from the strategy engine. */
+    public static final Topic<Signal> SIGNALS = new Topic<>("trading_signals", Signal.class);
+
+    public Topic {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Topic name must not be blank");
+        }
+        if (type == null) {
+            throw new IllegalArgumentException("Topic type must not be null");
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.algotrader.shared.cluster;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Shared, expiring state through which the instances of a cluster find each
+ * other and divide partitions: a membership list refreshed by heartbeats, and
+ * one exclusive lease per partition.
+ * <p>
+ * Everything expires after its TTL unless refreshed, so a node that dies
+ * without leaving drops out of the membership and frees its leases on its own.
+ * </p>
+ */
+public interface LeaseStore {
+
+    /**
+     * Marks {@code node} alive for another {@code ttl}.
+     *
+     * @return every live node, this one included
+     */
+    List<String> heartbeat(String node, Duration ttl);
+
+    /**
+     * Removes {@code node} from the membership at once, instead of after its TTL.
+     */
+    void leave(String node);
+
+    /**
+     * @return whether {@code owner} now holds the lease — {@code false} while
+     *         another owner's lease has not expired or been released
+     */
+    boolean acquire(String lease, String owner, Duration ttl);
+
+    /**
+     * Extends a held lease by {@code ttl}.
+     *
+     * @return {@code false} if {@code owner} no longer holds it — it expired,
+     *         and possibly went to another owner
+     */
+    boolean renew(String lease, String owner, Duration ttl);
+
+    /**
+     * Gives the lease up, if {@code owner} still holds it.
+     */
+    void release(String lease, String owner);
+}
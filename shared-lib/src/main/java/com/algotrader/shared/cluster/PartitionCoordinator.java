@@ -0,0 +1,327 @@
+package com.algotrader.shared.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Divides the partitions of a {@link Partitioning} between the live nodes of
+ * a cluster, and keeps this node's share up to date as nodes join and die.
+ * <p>
+ * Every round — a third of the lease TTL apart — the node heartbeats its
+ * membership and works out which partitions are its own by rendezvous
+ * hashing: each partition goes to the live node with the highest hash of
+ * (node, partition). Every node computes the same answer from the same
+ * membership, and a join or a death only moves the partitions that node
+ * gains or held. The node then
+ * </p>
+ * <ol>
+ * <li>renews the leases it keeps, and drops any it lost;</li>
+ * <li>revokes, then releases, the partitions that now belong elsewhere;</li>
+ * <li>tries to acquire the partitions that now belong to it — which only
+ * succeeds once the previous owner has released them or died and let the
+ * lease expire, so two nodes never hold one partition.</li>
+ * </ol>
+ * The {@link Listener} is told of every change, on the coordinator's thread,
+ * and always hears of a revocation before the lease is given up.
+ * <p>
+ * A node that cannot renew a lease — the store is down, or slow — revokes
+ * the partition on its own once only one round period of the lease is left,
+ * counting from when the last successful renewal was sent, which is never
+ * later than when the store extended it. Every store call is preceded by that
+ * check, so as long as no call takes longer than {@link #storeTimeout} the
+ * node has stopped consuming before the lease can expire and go to another.
+ * </p>
+ */
+public class PartitionCoordinator implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionCoordinator.class);
+
+    /**
+     * Receives this node's partition changes.
+     */
+    public interface Listener {
+        /** Start consuming {@code partition}. */
+        void assigned(int partition);
+
+        /** Stop consuming {@code partition}; returns before the lease is released. */
+        void revoked(int partition);
+    }
+
+    private final String node;
+    private final int partitions;
+    private final LeaseStore store;
+    private final Duration ttl;
+    private final Listener listener;
+    private final LongSupplier nanoClock;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "partition-coordinator");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** Partitions held by this node; only changed under the monitor. */
+    private final Set<Integer> owned = new TreeSet<>();
+    private volatile List<Integer> ownedView = List.of();
+    /** When each held lease was last acquired or renewed, read before the call. */
+    private final long[] renewedNanos;
+    /** How long after a renewal the lease is surely still ours: the TTL less one round. */
+    private final long safeNanos;
+    private volatile int members;
+    private boolean closed;
+
+    private final AtomicLong assignments = new AtomicLong();
+    private final AtomicLong revocations = new AtomicLong();
+    private final AtomicLong leasesLost = new AtomicLong();
+
+    /**
+     * @param node       this node's name — unique in the cluster
+     * @param partitions the partition count producers use
+     * @param ttl        how long a silent node keeps its membership and leases
+     */
+    public PartitionCoordinator(String node, int partitions, LeaseStore store, Duration ttl, Listener listener) {
+        this(node, partitions, store, ttl, listener, System::nanoTime);
+    }
+
+    /**
+     * Test-friendly constructor: inject the clock that times out an unreachable store.
+     */
+    PartitionCoordinator(String node, int partitions, LeaseStore store, Duration ttl, Listener listener,
+            LongSupplier nanoClock) {
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("Partition count must be > 0, got: " + partitions);
+        }
+        this.node = node;
+        this.partitions = partitions;
+        this.store = store;
+        this.ttl = ttl;
+        this.listener = listener;
+        this.nanoClock = nanoClock;
+        this.renewedNanos = new long[partitions];
+        this.safeNanos = ttl.toNanos() - period(ttl).toNanos();
+    }
+
+    /**
+     * @return the time between rounds: a third of the lease TTL
+     */
+    static Duration period(Duration ttl) {
+        return Duration.ofMillis(Math.max(1, ttl.toMillis() / 3));
+    }
+
+    /**
+     * @return the longest a {@link LeaseStore} call may block for a lease to be
+     *         revoked before it expires — half a round period, within the
+     *         round of margin kept
+     */
+    public static Duration storeTimeout(Duration ttl) {
+        return period(ttl).dividedBy(2);
+    }
+
+    /**
+     * Runs a first round now, then one every third of the TTL.
+     */
+    public void start() {
+        long period = period(ttl).toMillis();
+        scheduler.scheduleWithFixedDelay(this::rebalance, 0, period, TimeUnit.MILLISECONDS);
+        log.info("Node {} coordinating {} partitions (lease TTL {} ms)", node, partitions, ttl.toMillis());
+    }
+
+    /**
+     * One coordination round: heartbeat, renew, hand over and take over.
+     * Store failures are logged, not thrown.
+     */
+    public synchronized void rebalance() {
+        if (closed) {
+            return;
+        }
+        try {
+            expireLeases();
+            List<String> live = new ArrayList<>(store.heartbeat(node, ttl));
+            if (!live.contains(node)) {
+                live.add(node);
+            }
+            members = live.size();
+
+            for (int p : List.copyOf(owned)) {
+                if (!owned.contains(p)) {
+                    continue;
+                }
+                if (!ownerOf(p, live).equals(node)) {
+                    revoke(p);
+                    store.release(lease(p), node);
+                    log.info("Handed partition {} over ({} node(s) live)", p, live.size());
+                    continue;
+                }
+                long sent = expireLeases();
+                if (!owned.contains(p)) {
+                    continue;
+                }
+                if (store.renew(lease(p), node, ttl)) {
+                    renewedNanos[p] = sent;
+                } else {
+                    revoke(p);
+                    leasesLost.incrementAndGet();
+                    log.warn("Lost the lease on partition {}", p);
+                }
+            }
+            for (int p = 0; p < partitions; p++) {
+                if (owned.contains(p) || !ownerOf(p, live).equals(node)) {
+                    continue;
+                }
+                long sent = expireLeases();
+                if (store.acquire(lease(p), node, ttl)) {
+                    renewedNanos[p] = sent;
+                    owned.add(p);
+                    ownedView = List.copyOf(owned);
+                    assignments.incrementAndGet();
+                    listener.assigned(p);
+                    log.info("Took over partition {}", p);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Partition round failed: {}", e.getMessage());
+            expireLeases();
+        }
+    }
+
+    /**
+     * Revokes every held partition whose lease may expire within a round.
+     *
+     * @return the time of the check
+     */
+    private long expireLeases() {
+        long now = nanoClock.getAsLong();
+        for (int p : List.copyOf(owned)) {
+            if (now - renewedNanos[p] >= safeNanos) {
+                log.warn("Lease on partition {} not renewed for {} ms — revoking it", p,
+                        (now - renewedNanos[p]) / 1_000_000);
+                revoke(p);
+                leasesLost.incrementAndGet();
+            }
+        }
+        return now;
+    }
+
+    private void revoke(int partition) {
+        owned.remove(partition);
+        ownedView = List.copyOf(owned);
+        revocations.incrementAndGet();
+        try {
+            listener.revoked(partition);
+        } catch (RuntimeException e) {
+            log.warn("Revoking partition {} failed: {}", partition, e.getMessage());
+        }
+    }
+
+    /**
+     * @return the live node with the highest weight for {@code partition}
+     */
+    static String ownerOf(int partition, List<String> nodes) {
+        String owner = null;
+        long best = Long.MIN_VALUE;
+        for (String candidate : nodes) {
+            long weight = mix(mix(candidate.hashCode()) + partition);
+            if (owner == null || weight > best || (weight == best && candidate.compareTo(owner) < 0)) {
+                owner = candidate;
+                best = weight;
+            }
+        }
+        return owner;
+    }
+
+    /** SplitMix64 finalizer: spreads nearby inputs across the whole range. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static String lease(int partition) {
+        return "partition:" + partition;
+    }
+
+    /**
+     * @return this node's name
+     */
+    public String node() {
+        return node;
+    }
+
+    /**
+     * @return the partitions this node holds, ascending
+     */
+    public List<Integer> owned() {
+        return ownedView;
+    }
+
+    /**
+     * @return live nodes seen in the last successful round
+     */
+    public int members() {
+        return members;
+    }
+
+    /**
+     * @return partitions taken over since start
+     */
+    public long assignments() {
+        return assignments.get();
+    }
+
+    /**
+     * @return partitions given up since start, handed over or lost
+     */
+    public long revocations() {
+        return revocations.get();
+    }
+
+    /**
+     * @return leases that expired before this node could renew them
+     */
+    public long leasesLost() {
+        return leasesLost.get();
+    }
+
+    /**
+     * Stops coordinating, revokes and releases every partition and leaves the
+     * cluster, so the other nodes take over on their next round rather than
+     * after the TTL.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            closed = true;
+            for (int p : List.copyOf(owned)) {
+                revoke(p);
+                try {
+                    store.release(lease(p), node);
+                } catch (RuntimeException e) {
+                    log.warn("Could not release partition {}: {}", p, e.getMessage());
+                }
+            }
+            try {
+                store.leave(node);
+            } catch (RuntimeException e) {
+                log.warn("Could not leave the cluster: {}", e.getMessage());
+            }
+        }
+        log.info("Node {} left the cluster — {} assignment(s), {} revocation(s), {} lease(s) lost",
+                node, assignments.get(), revocations.get(), leasesLost.get());
+    }
+}
@@ -0,0 +1,49 @@
+package com.algotrader.shared.cluster;
+
+/**
+ * Splits the symbol space into a fixed number of partitions, each carried on
+ * its own channel or stream key, so that engine instances can divide the
+ * symbols between them while every symbol stays on exactly one instance.
+ * <p>
+ * The mapping only depends on {@link String#hashCode()}, which the language
+ * specifies, so producers and consumers on different JVMs agree on it. They
+ * must also agree on the partition count — changing it moves symbols.
+ * </p>
+ *
+ * @param count the number of partitions (≥ 1)
+ */
+public record Partitioning(int count) {
+
+    public Partitioning {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Partition count must be > 0, got: " + count);
+        }
+    }
+
+    /**
+     * @return the partition in {@code [0, count)} that carries {@code symbol}
+     */
+    public int partitionOf(String symbol) {
+        int h = symbol.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), count);
+    }
+
+    /**
+     * @return the channel or stream key of one partition, e.g. {@code market_data:3}
+     */
+    public static String channel(String base, int partition) {
+        return base + ":" + partition;
+    }
+
+    /**
+     * @return every partition's channel, indexed by partition — so a producer
+     *         builds no strings per message
+     */
+    public String[] channels(String base) {
+        String[] channels = new String[count];
+        for (int p = 0; p < count; p++) {
+            channels[p] = channel(base, p);
+        }
+        return channels;
+    }
+}
@@ -0,0 +1,83 @@
+package com.algotrader.shared.cluster;
+
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.sync.RedisCommands;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * A {@link LeaseStore} in Redis.
+ * <p>
+ * Each lease is a key holding its owner's name, set with {@code SET NX PX}
+ * and renewed or deleted only by a script that first checks the owner, so a
+ * node whose lease already expired cannot extend or drop its successor's.
+ * Membership is a sorted set scored by expiry time; the heartbeat script
+ * takes the time from Redis itself, so node clocks do not have to agree.
+ * </p>
+ */
+public class RedisLeaseStore implements LeaseStore {
+
+    private static final String HEARTBEAT = """
+            local t = redis.call('TIME')
+            local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now)
+            redis.call('ZADD', KEYS[1], now + tonumber(ARGV[2]), ARGV[1])
+            return redis.call('ZRANGE', KEYS[1], 0, -1)
+            """;
+    private static final String RENEW = """
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            end
+            return 0
+            """;
+    private static final String RELEASE = """
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """;
+
+    private final RedisCommands<String, String> commands;
+    private final String membersKey;
+    private final String leasePrefix;
+
+    /**
+     * @param prefix namespaces the keys, e.g. {@code algotrader:strategy-engine}
+     *               — one cluster per prefix
+     */
+    public RedisLeaseStore(RedisCommands<String, String> commands, String prefix) {
+        this.commands = commands;
+        this.membersKey = prefix + ":members";
+        this.leasePrefix = prefix + ":lease:";
+    }
+
+    @Override
+    public List<String> heartbeat(String node, Duration ttl) {
+        return commands.eval(HEARTBEAT, ScriptOutputType.MULTI, new String[]{membersKey},
+                node, String.valueOf(ttl.toMillis()));
+    }
+
+    @Override
+    public void leave(String node) {
+        commands.zrem(membersKey, node);
+    }
+
+    @Override
+    public boolean acquire(String lease, String owner, Duration ttl) {
+        return "OK".equals(commands.set(leasePrefix + lease, owner, SetArgs.Builder.nx().px(ttl.toMillis())));
+    }
+
+    @Override
+    public boolean renew(String lease, String owner, Duration ttl) {
+        Long renewed = commands.eval(RENEW, ScriptOutputType.INTEGER, new String[]{leasePrefix + lease},
+                owner, String.valueOf(ttl.toMillis()));
+        return renewed != null && renewed == 1;
+    }
+
+    @Override
+    public void release(String lease, String owner) {
+        commands.eval(RELEASE, ScriptOutputType.INTEGER, new String[]{leasePrefix + lease}, owner);
+    }
+}
@@ -0,0 +1,196 @@
+package com.algotrader.shared.codec;
+
+import com.algotrader.shared.model.Signal;
+import com.algotrader.shared.model.SignalType;
+import com.algotrader.shared.model.Tick;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Compact binary encoding for {@link Tick} and {@link Signal}.
+ * <p>
+ * Prices travel as a fixed-point mantissa plus scale, timestamps as epoch
+ * nanoseconds and strings as length-prefixed ASCII. All multi-byte fields are
+ * big-endian. Layout (version 1):
+ * </p>
+ * <pre>
+ * Tick   : 0x01 'T' scale:i8 mantissa:i64 epochNanos:i64 symbolLen:u8 symbol
+ * Signal : 0x01 'S' type:u8 scale:i8 mantissa:i64 epochNanos:i64 symbolLen:u8 symbol strategyLen:u8 strategy
+ * </pre>
+ * A {@code null} timestamp is encoded as {@link Long#MIN_VALUE}; an absent
+ * price keeps its {@link com.algotrader.shared.model.Price#NONE} mantissa.
+ * <p>
+ * Decoding checks the version, type, signal-type ordinal and that the string
+ * lengths account for exactly the payload's bytes, so a truncated or foreign
+ * payload fails with a {@link MalformedPayloadException} naming the problem
+ * rather than an index error.
+ * </p>
+ */
+public final class BinaryCodec {
+
+    /** Header byte of version-1 binary payloads. */
+    public static final byte VERSION_1 = 0x01;
+
+    static final byte TYPE_TICK = 'T';
+    static final byte TYPE_SIGNAL = 'S';
+
+    /** Bytes of a tick before its symbol's characters. */
+    private static final int TICK_FIXED_LENGTH = 20;
+    /** Bytes of a signal before its symbol's and strategy's characters. */
+    private static final int SIGNAL_FIXED_LENGTH = 22;
+    private static final int MAX_STRING_LENGTH = 255;
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+    private static final SignalType[] SIGNAL_TYPES = SignalType.values();
+
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private BinaryCodec() {
+        // utility class
+    }
+
+    public static byte[] encodeTick(Tick tick) {
+        String symbol = tick.symbol();
+        byte[] out = new byte[TICK_FIXED_LENGTH + symbol.length()];
+        out[0] = VERSION_1;
+        out[1] = TYPE_TICK;
+        int pos = putPrice(out, 2, tick.priceMantissa(), tick.priceScale());
+        LONG.set(out, pos, toEpochNanos(tick.timestamp()));
+        putAscii(out, pos + 8, symbol);
+        return out;
+    }
+
+    /**
+     * @throws MalformedPayloadException if {@code in} is not a complete version-1 tick
+     */
+    public static Tick decodeTick(byte[] in) {
+        checkHeader(in, TYPE_TICK, TICK_FIXED_LENGTH);
+        checkLength(in, TYPE_TICK, TICK_FIXED_LENGTH + (in[19] & 0xFF));
+        Instant timestamp = fromEpochNanos((long) LONG.get(in, 11));
+        String symbol = getAscii(in, 19);
+        return new Tick(symbol, getMantissa(in, 2), in[2], timestamp);
+    }
+
+    public static byte[] encodeSignal(Signal signal) {
+        String symbol = signal.symbol();
+        String strategy = signal.strategy();
+        byte[] out = new byte[SIGNAL_FIXED_LENGTH + symbol.length() + strategy.length()];
+        out[0] = VERSION_1;
+        out[1] = TYPE_SIGNAL;
+        out[2] = (byte) signal.type().ordinal();
+        int pos = putPrice(out, 3, signal.priceMantissa(), signal.priceScale());
+        LONG.set(out, pos, toEpochNanos(signal.timestamp()));
+        pos = putAscii(out, pos + 8, symbol);
+        putAscii(out, pos, strategy);
+        return out;
+    }
+
+    /**
+     * @throws MalformedPayloadException if {@code in} is not a complete version-1 signal
+     */
+    public static Signal decodeSignal(byte[] in) {
+        checkHeader(in, TYPE_SIGNAL, SIGNAL_FIXED_LENGTH);
+        int ordinal = in[2] & 0xFF;
+        if (ordinal >= SIGNAL_TYPES.length) {
+            throw new MalformedPayloadException("Unknown signal type " + ordinal + " in binary 'S' payload");
+        }
+        int symbolLength = in[20] & 0xFF;
+        // The strategy's length byte must itself be in range before it is read
+        checkLength(in, TYPE_SIGNAL, SIGNAL_FIXED_LENGTH + symbolLength, false);
+        checkLength(in, TYPE_SIGNAL, SIGNAL_FIXED_LENGTH + symbolLength + (in[21 + symbolLength] & 0xFF));
+        SignalType type = SIGNAL_TYPES[ordinal];
+        Instant timestamp = fromEpochNanos((long) LONG.get(in, 12));
+        String symbol = getAscii(in, 20);
+        String strategy = getAscii(in, 21 + symbolLength);
+        return new Signal(type, symbol, getMantissa(in, 3), in[3], strategy, timestamp);
+    }
+
+    // ── Field helpers ──────────────────────────────────────────────────
+
+    private static void checkHeader(byte[] in, byte type, int minLength) {
+        if (in.length < 2) {
+            throw new MalformedPayloadException("Binary '" + (char) type + "' payload of " + in.length
+                    + " byte(s) has no header");
+        }
+        if (in[0] != VERSION_1) {
+            throw new MalformedPayloadException("Unsupported binary payload version 0x"
+                    + Integer.toHexString(in[0] & 0xFF) + ", expected 0x0" + VERSION_1);
+        }
+        if (in[1] != type) {
+            throw new MalformedPayloadException("Expected a binary '" + (char) type + "' payload, got type 0x"
+                    + Integer.toHexString(in[1] & 0xFF));
+        }
+        if (in.length < minLength) {
+            throw new MalformedPayloadException("Binary '" + (char) type + "' payload truncated: " + in.length
+                    + " byte(s), at least " + minLength + " expected");
+        }
+    }
+
+    private static void checkLength(byte[] in, byte type, int expected) {
+        checkLength(in, type, expected, true);
+    }
+
+    /**
+     * @param exact {@code false} to only require at least {@code expected} bytes
+     */
+    private static void checkLength(byte[] in, byte type, int expected, boolean exact) {
+        if (in.length < expected || (exact && in.length > expected)) {
+            throw new MalformedPayloadException("Binary '" + (char) type + "' payload of " + in.length
+                    + " byte(s), its fields need " + (exact ? "" : "at least ") + expected);
+        }
+    }
+
+    /**
+     * @throws ArithmeticException if the scale does not fit in a signed byte
+     */
+    private static int putPrice(byte[] out, int pos, long mantissa, int scale) {
+        if (scale < Byte.MIN_VALUE || scale > Byte.MAX_VALUE) {
+            throw new ArithmeticException("Price scale out of range: " + scale);
+        }
+        out[pos] = (byte) scale;
+        LONG.set(out, pos + 1, mantissa);
+        return pos + 9;
+    }
+
+    /** Reads the mantissa of the price whose scale byte is at {@code pos}. */
+    private static long getMantissa(byte[] in, int pos) {
+        return (long) LONG.get(in, pos + 1);
+    }
+
+    private static int putAscii(byte[] out, int pos, String value) {
+        int length = value.length();
+        if (length > MAX_STRING_LENGTH) {
+            throw new IllegalArgumentException("String too long for binary encoding: " + length);
+        }
+        out[pos++] = (byte) length;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c > 0x7F) {
+                throw new IllegalArgumentException("Non-ASCII character in '" + value + "'");
+            }
+            out[pos++] = (byte) c;
+        }
+        return pos;
+    }
+
+    private static String getAscii(byte[] in, int pos) {
+        return new String(in, pos + 1, in[pos] & 0xFF, StandardCharsets.US_ASCII);
+    }
+
+    private static long toEpochNanos(Instant instant) {
+        if (instant == null) {
+            return NO_TIMESTAMP;
+        }
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000_000L), instant.getNano());
+    }
+
+    private static Instant fromEpochNanos(long nanos) {
+        if (nanos == NO_TIMESTAMP) {
+            return null;
+        }
+        return Instant.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L), Math.floorMod(nanos, 1_000_000_000L));
+    }
+}
@@ -0,0 +1,16 @@
+package com.algotrader.shared.codec;
+
+/**
+ * Thrown when a payload is not a well-formed message in the format its
+ * header claims — truncated, padded, of a newer version, or carrying a value
+ * no field can hold. Consumers count and drop such payloads; retrying them
+ * cannot succeed.
+ */
+public class MalformedPayloadException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    public MalformedPayloadException(String message) {
+        super(message);
+    }
+}
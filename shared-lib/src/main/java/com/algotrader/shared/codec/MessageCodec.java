@@ -0,0 +1,13 @@
+package com.algotrader.shared.codec;
+
+/**
+ * Converts a message to and from its wire representation.
+ *
+ * @param <T> the message type
+ */
+public interface MessageCodec<T> {
+
+    byte[] encode(T message);
+
+    T decode(byte[] payload);
+}
@@ -0,0 +1,68 @@
+package com.algotrader.shared.codec;
+
+import com.algotrader.shared.model.Signal;
+import com.algotrader.shared.model.Tick;
+import com.algotrader.shared.util.StreamingJson;
+
+import java.util.function.Function;
+
+/**
+ * Encodes in one configured {@link WireFormat} and decodes either, based on
+ * the payload's header byte.
+ * <p>
+ * This is what lets producers move from JSON to binary one service at a time:
+ * upgraded consumers accept both formats, and a producer keeps emitting JSON
+ * until every consumer of its channel has been upgraded.
+ * </p>
+ *
+ * @param <T> the message type
+ */
+public final class NegotiatingCodec<T> implements MessageCodec<T> {
+
+    private final WireFormat outbound;
+    private final Function<T, byte[]> jsonEncoder;
+    private final Function<byte[], T> jsonDecoder;
+    private final Function<T, byte[]> binaryEncoder;
+    private final Function<byte[], T> binaryDecoder;
+
+    private NegotiatingCodec(WireFormat outbound,
+            Function<T, byte[]> jsonEncoder, Function<byte[], T> jsonDecoder,
+            Function<T, byte[]> binaryEncoder, Function<byte[], T> binaryDecoder) {
+        this.outbound = outbound;
+        this.jsonEncoder = jsonEncoder;
+        this.jsonDecoder = jsonDecoder;
+        this.binaryEncoder = binaryEncoder;
+        this.binaryDecoder = binaryDecoder;
+    }
+
+    public static NegotiatingCodec<Tick> ticks(WireFormat outbound) {
+        return new NegotiatingCodec<>(outbound, StreamingJson::toJsonBytes, StreamingJson::readTick,
+                BinaryCodec::encodeTick, BinaryCodec::decodeTick);
+    }
+
+    public static NegotiatingCodec<Signal> signals(WireFormat outbound) {
+        return new NegotiatingCodec<>(outbound, StreamingJson::toJsonBytes, StreamingJson::readSignal,
+                BinaryCodec::encodeSignal, BinaryCodec::decodeSignal);
+    }
+
+    /**
+     * @return the format used by {@link #encode(Object)}
+     */
+    public WireFormat outbound() {
+        return outbound;
+    }
+
+    @Override
+    public byte[] encode(T message) {
+        return outbound == WireFormat.BINARY
+                ? binaryEncoder.apply(message)
+                : jsonEncoder.apply(message);
+    }
+
+    @Override
+    public T decode(byte[] payload) {
+        return WireFormat.detect(payload) == WireFormat.BINARY
+                ? binaryDecoder.apply(payload)
+                : jsonDecoder.apply(payload);
+    }
+}
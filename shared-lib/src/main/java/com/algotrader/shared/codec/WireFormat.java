@@ -0,0 +1,36 @@
+package com.algotrader.shared.codec;
+
+/**
+ * The on-the-wire encodings for {@code Tick} and {@code Signal} messages.
+ * <p>
+ * The first byte of a payload identifies its format: JSON objects always start
+ * with <code>'{'</code>, while binary payloads start with a version byte below
+ * {@code 0x20}. Consumers can therefore accept both during a rollout while
+ * producers switch over one at a time.
+ * </p>
+ */
+public enum WireFormat {
+    /** Jackson JSON text — the original format. */
+    JSON,
+    /** Compact fixed-layout binary, see {@link BinaryCodec}. */
+    BINARY;
+
+    /**
+     * @return the format of a payload, judged by its first byte
+     * @throws MalformedPayloadException if the payload is empty or in no known format
+     */
+    public static WireFormat detect(byte[] payload) {
+        if (payload.length == 0) {
+            throw new MalformedPayloadException("Empty payload");
+        }
+        byte header = payload[0];
+        if (header == BinaryCodec.VERSION_1) {
+            return BINARY;
+        }
+        if (header == '{' || header == ' ' || header == '\n' || header == '\r' || header == '\t') {
+            return JSON;
+        }
+        throw new MalformedPayloadException("Unknown wire format header byte: 0x"
+                + Integer.toHexString(header & 0xFF));
+    }
+}
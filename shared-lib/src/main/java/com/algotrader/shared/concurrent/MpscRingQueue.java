@@ -0,0 +1,102 @@
+package com.algotrader.shared.concurrent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, lock-free multi-producer / single-consumer ring queue.
+ * <p>
+ * Each slot carries a sequence number (Vyukov's bounded-queue scheme): a
+ * producer claims a position with one CAS, writes the element and then
+ * publishes the slot by advancing its sequence; the consumer reads a slot only
+ * once its sequence says it is full. There are no locks and no per-element
+ * allocation, and a full queue fails fast instead of growing.
+ * </p>
+ *
+ * @param <E> the element type
+ */
+public final class MpscRingQueue<E> {
+
+    private final int mask;
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong producerIndex = new AtomicLong();
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    /**
+     * @param capacity the requested capacity, rounded up to a power of two
+     */
+    public MpscRingQueue(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Queue capacity must be in (0, 2^30], got: " + capacity);
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.elements = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Enqueues an element; safe to call from any number of threads.
+     *
+     * @return {@code false} if the queue is full
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException("element");
+        }
+        while (true) {
+            long position = producerIndex.get();
+            int slot = (int) position & mask;
+            long sequence = sequences.get(slot);
+            if (sequence == position) {
+                if (producerIndex.compareAndSet(position, position + 1)) {
+                    elements[slot] = element;
+                    sequences.lazySet(slot, position + 1);
+                    return true;
+                }
+            } else if (sequence < position) {
+                return false;
+            }
+            // else: another producer claimed this position — reload and retry
+        }
+    }
+
+    /**
+     * Dequeues the oldest element; must only be called from the consumer thread.
+     *
+     * @return the element, or {@code null} if the queue is empty
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long position = consumerIndex.get();
+        int slot = (int) position & mask;
+        if (sequences.get(slot) != position + 1) {
+            return null;
+        }
+        E element = (E) elements[slot];
+        elements[slot] = null;
+        sequences.lazySet(slot, position + elements.length);
+        consumerIndex.lazySet(position + 1);
+        return element;
+    }
+
+    /**
+     * @return an approximate number of queued elements — exact only when quiescent
+     */
+    public int size() {
+        long size = producerIndex.get() - consumerIndex.get();
+        return (int) Math.max(0, Math.min(size, elements.length));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+}
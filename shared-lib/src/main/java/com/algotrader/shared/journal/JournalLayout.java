@@ -0,0 +1,107 @@
+package com.algotrader.shared.journal;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * On-disk layout shared by {@link TickJournal} and {@link JournalReader}.
+ * <p>
+ * A journal is a directory of segment files {@code ticks-00000000.journal},
+ * {@code ticks-00000001.journal}, … Each segment is a fixed-size file: a
+ * header page followed by {@code capacity} fixed-length records.
+ * </p>
+ * <pre>
+ * header   0  long  magic
+ *          8  int   version
+ *         12  int   record size
+ *         16  int   capacity (records)
+ *         20  int   index interval (records per index entry)
+ *         24  long  highest timestamp written so far (epoch nanos)
+ *         64  long[capacity / interval]  time index: highest timestamp up to
+ *                                        and including record i × interval
+ * record   0  int   commit word: 0 = not yet written, else COMMITTED | symbol length
+ *          4  int   price scale
+ *          8  long  timestamp (epoch nanos)
+ *         16  long  price mantissa
+ *         24  byte[40] symbol (ASCII)
+ * </pre>
+ * The commit word is written last with release semantics, so a reader that
+ * sees it non-zero (acquire) sees the whole record.
+ */
+final class JournalLayout {
+
+    static final long MAGIC = 0x414C_474F_4A52_4E4CL; // "ALGOJRNL"
+    static final int VERSION = 1;
+
+    static final int RECORD_SIZE = 64;
+    static final int MAX_SYMBOL_LENGTH = 40;
+    static final int COMMITTED = 0x4000_0000;
+
+    static final int MAGIC_OFFSET = 0;
+    static final int VERSION_OFFSET = 8;
+    static final int RECORD_SIZE_OFFSET = 12;
+    static final int CAPACITY_OFFSET = 16;
+    static final int INDEX_INTERVAL_OFFSET = 20;
+    static final int MAX_TIMESTAMP_OFFSET = 24;
+    static final int INDEX_OFFSET = 64;
+
+    static final int COMMIT_OFFSET = 0;
+    static final int SCALE_OFFSET = 4;
+    static final int TIMESTAMP_OFFSET = 8;
+    static final int MANTISSA_OFFSET = 16;
+    static final int SYMBOL_OFFSET = 24;
+
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+    static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ORDER);
+    static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ORDER);
+
+    private static final int PAGE = 4096;
+    private static final String PREFIX = "ticks-";
+    private static final String SUFFIX = ".journal";
+
+    private JournalLayout() {
+        // constants only
+    }
+
+    /**
+     * @return the header size: the fixed fields plus the time index, page-aligned
+     */
+    static int headerSize(int capacity, int indexInterval) {
+        long raw = INDEX_OFFSET + 8L * indexEntries(capacity, indexInterval);
+        return (int) ((raw + PAGE - 1) / PAGE * PAGE);
+    }
+
+    static int indexEntries(int capacity, int indexInterval) {
+        return (capacity + indexInterval - 1) / indexInterval;
+    }
+
+    static long fileSize(int capacity, int indexInterval) {
+        return headerSize(capacity, indexInterval) + (long) capacity * RECORD_SIZE;
+    }
+
+    static Path segmentPath(Path dir, long segment) {
+        return dir.resolve(String.format("%s%08d%s", PREFIX, segment, SUFFIX));
+    }
+
+    /**
+     * @return the numbers of the complete segment files in {@code dir}, ascending
+     */
+    static List<Long> segments(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(p -> p.getFileName().toString())
+                    .filter(n -> n.startsWith(PREFIX) && n.endsWith(SUFFIX))
+                    .map(n -> Long.parseLong(n.substring(PREFIX.length(), n.length() - SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.algotrader.shared.journal;
+
+import com.algotrader.shared.model.Tick;
+import com.algotrader.shared.util.SymbolCache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.algotrader.shared.journal.JournalLayout.*;
+
+/**
+ * Sequential reader over a {@link TickJournal} directory — for replay, and
+ * for tailing a journal that is still being written.
+ * <p>
+ * Segments are mapped read-only and records are decoded straight from the
+ * mapping. {@link #poll} hands out primitives and allocates nothing but the
+ * first {@code String} per symbol; {@link #replay} builds {@link Tick}s for
+ * code that consumes them, e.g. {@code TradingStrategy.process}. When the
+ * reader reaches the last committed record both return, and a later call
+ * picks up whatever the writer has appended since.
+ * </p>
+ * Not thread-safe — each reader is owned by one thread; open one per consumer.
+ */
+public class JournalReader implements AutoCloseable {
+
+    /**
+     * Receives one journal record.
+     */
+    @FunctionalInterface
+    public interface RecordHandler {
+        void onTick(String symbol, long priceMantissa, int priceScale, long epochNanos);
+    }
+
+    private final Path dir;
+    private final SymbolCache symbols = new SymbolCache();
+    private final byte[] symbolBytes = new byte[MAX_SYMBOL_LENGTH];
+
+    private long segment = -1;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int indexInterval;
+    private int headerSize;
+    private int position;
+    private long read;
+
+    /**
+     * Positions the reader at the first record of the oldest segment.
+     */
+    public JournalReader(Path dir) {
+        this.dir = dir;
+        try {
+            List<Long> existing = segments(dir);
+            if (!existing.isEmpty()) {
+                open(existing.get(0));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open tick journal in " + dir, e);
+        }
+    }
+
+    /**
+     * Moves to the first record at or after {@code from}: whole segments are
+     * skipped by their highest timestamp, then the segment's time index is
+     * binary-searched, then at most one index interval is scanned.
+     */
+    public void seek(Instant from) {
+        long target = Math.addExact(Math.multiplyExact(from.getEpochSecond(), 1_000_000_000L), from.getNano());
+        try {
+            List<Long> existing = segments(dir);
+            if (existing.isEmpty()) {
+                return;
+            }
+            int s = 0;
+            while (s < existing.size() - 1) {
+                open(existing.get(s));
+                if ((long) LONG.getAcquire(buffer, MAX_TIMESTAMP_OFFSET) >= target) {
+                    break;
+                }
+                s++;
+            }
+            open(existing.get(s));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to seek tick journal in " + dir, e);
+        }
+
+        // Last index entry still below the target: everything up to it is older
+        int committed = committedRecords();
+        int lo = 0;
+        int hi = (committed + indexInterval - 1) / indexInterval - 1;
+        int start = 0;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if ((long) LONG.getAcquire(buffer, INDEX_OFFSET + 8 * mid) < target) {
+                start = mid * indexInterval + 1;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        position = start;
+        while (position < committed && timestampAt(position) < target) {
+            position++;
+        }
+    }
+
+    /**
+     * Reads up to {@code limit} committed records.
+     *
+     * @return the number of records handed to {@code handler}; 0 once caught up with the writer
+     */
+    public int poll(RecordHandler handler, int limit) {
+        int n = 0;
+        while (n < limit && advance()) {
+            int offset = headerSize + position * RECORD_SIZE;
+            handler.onTick(symbolAt(offset), (long) LONG.get(buffer, offset + MANTISSA_OFFSET),
+                    (int) INT.get(buffer, offset + SCALE_OFFSET), (long) LONG.get(buffer, offset + TIMESTAMP_OFFSET));
+            position++;
+            n++;
+        }
+        read += n;
+        return n;
+    }
+
+    /**
+     * Feeds every remaining committed record to {@code sink} as a {@link Tick}.
+     *
+     * @return the number of ticks replayed
+     */
+    public long replay(Consumer<? super Tick> sink) {
+        long total = 0;
+        RecordHandler toTick = (symbol, mantissa, scale, nanos) -> sink.accept(new Tick(symbol, mantissa, scale,
+                Instant.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L), Math.floorMod(nanos, 1_000_000_000L))));
+        int n;
+        while ((n = poll(toTick, 4096)) > 0) {
+            total += n;
+        }
+        return total;
+    }
+
+    /**
+     * @return records read so far
+     */
+    public long read() {
+        return read;
+    }
+
+    /**
+     * @return the segment being read, or -1 before the first segment exists
+     */
+    public long segment() {
+        return segment;
+    }
+
+    @Override
+    public void close() {
+        // Mappings are released when the buffers become unreachable
+        buffer = null;
+    }
+
+    // ── Internals ──────────────────────────────────────────────────────
+
+    /**
+     * @return true if a committed record is available at {@code position},
+     *         moving on to the next segment when this one is exhausted
+     */
+    private boolean advance() {
+        if (buffer == null && !openNext(0)) {
+            return false;
+        }
+        if (position == capacity && !openNext(segment + 1)) {
+            return false;
+        }
+        return (int) INT.getAcquire(buffer, headerSize + position * RECORD_SIZE + COMMIT_OFFSET) != 0;
+    }
+
+    private boolean openNext(long next) {
+        try {
+            if (buffer == null) {
+                List<Long> existing = segments(dir);
+                if (existing.isEmpty()) {
+                    return false;
+                }
+                next = existing.get(0);
+            } else if (!Files.exists(segmentPath(dir, next))) {
+                return false;
+            }
+            open(next);
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open journal segment " + next + " in " + dir, e);
+        }
+    }
+
+    private void open(long number) throws IOException {
+        if (number == segment && buffer != null) {
+            position = 0;
+            return;
+        }
+        Path path = segmentPath(dir, number);
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            if ((long) LONG.get(buf, MAGIC_OFFSET) != MAGIC || (int) INT.get(buf, VERSION_OFFSET) != VERSION
+                    || (int) INT.get(buf, RECORD_SIZE_OFFSET) != RECORD_SIZE) {
+                throw new IOException("Not a version " + VERSION + " tick journal segment: " + path);
+            }
+            buffer = buf;
+        }
+        segment = number;
+        capacity = (int) INT.get(buffer, CAPACITY_OFFSET);
+        indexInterval = (int) INT.get(buffer, INDEX_INTERVAL_OFFSET);
+        headerSize = JournalLayout.headerSize(capacity, indexInterval);
+        position = 0;
+    }
+
+    private int committedRecords() {
+        int lo = 0;
+        int hi = capacity;
+        // Records are committed in order, so the commit words form a prefix
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if ((int) INT.getAcquire(buffer, headerSize + mid * RECORD_SIZE + COMMIT_OFFSET) != 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private long timestampAt(int record) {
+        return (long) LONG.get(buffer, headerSize + record * RECORD_SIZE + TIMESTAMP_OFFSET);
+    }
+
+    private String symbolAt(int offset) {
+        int length = (int) INT.get(buffer, offset + COMMIT_OFFSET) & ~COMMITTED;
+        buffer.get(offset + SYMBOL_OFFSET, symbolBytes, 0, length);
+        return symbols.symbol(symbolBytes, 0, length);
+    }
+}
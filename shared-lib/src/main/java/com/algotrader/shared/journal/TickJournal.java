@@ -0,0 +1,245 @@
+package com.algotrader.shared.journal;
+
+import com.algotrader.shared.model.Tick;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+
+import static com.algotrader.shared.journal.JournalLayout.*;
+
+/**
+ * Append-only, memory-mapped journal of ticks in fixed-length records.
+ * <p>
+ * Each segment file is mapped once with {@link FileChannel#map}; appending a
+ * tick is a handful of stores into the mapping — no system call and no
+ * allocation. The OS writes dirty pages back in the background, so a JVM
+ * crash loses nothing and a machine crash loses at most what the page cache
+ * had not flushed. When a segment fills up the journal rolls to the next
+ * file, which is written out in full — so a full disk fails the roll rather
+ * than a later page fault — and given its header before it becomes visible
+ * under its final name.
+ * </p>
+ * <p>
+ * Reopening a journal continues after the last committed record. A
+ * {@link JournalReader} may tail the same directory concurrently, from this
+ * or another process.
+ * </p>
+ * Single writer: {@link #append} must not be called from several threads at once.
+ */
+public class TickJournal implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(TickJournal.class);
+
+    /** 1M records × 64 bytes: 64 MiB segments. */
+    public static final int DEFAULT_SEGMENT_CAPACITY = 1 << 20;
+    /** One time-index entry per 1024 records. */
+    public static final int DEFAULT_INDEX_INTERVAL = 1 << 10;
+
+    private static final int PREALLOCATE_CHUNK = 1 << 20;
+
+    private final Path dir;
+    private final int capacity;
+    private final int indexInterval;
+    private final int headerSize;
+
+    private long segment;
+    private MappedByteBuffer buffer;
+    private int position;
+    private long maxTimestamp = Long.MIN_VALUE;
+    private long written;
+
+    public TickJournal(Path dir) {
+        this(dir, DEFAULT_SEGMENT_CAPACITY, DEFAULT_INDEX_INTERVAL);
+    }
+
+    /**
+     * Opens the journal in {@code dir}, creating it if needed.
+     *
+     * @param capacity      records per segment file
+     * @param indexInterval records per time-index entry
+     * @throws UncheckedIOException if the directory or a segment cannot be opened
+     */
+    public TickJournal(Path dir, int capacity, int indexInterval) {
+        if (capacity <= 0 || indexInterval <= 0) {
+            throw new IllegalArgumentException("Capacity and index interval must be > 0, got: "
+                    + capacity + ", " + indexInterval);
+        }
+        this.dir = dir;
+        this.capacity = capacity;
+        this.indexInterval = indexInterval;
+        this.headerSize = headerSize(capacity, indexInterval);
+        try {
+            Files.createDirectories(dir);
+            List<Long> existing = segments(dir);
+            if (existing.isEmpty()) {
+                roll(0);
+            } else {
+                resume(existing.get(existing.size() - 1));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open tick journal in " + dir, e);
+        }
+    }
+
+    /**
+     * Appends a tick.
+     *
+     * @throws IllegalArgumentException if the symbol is longer than 40 characters or not ASCII
+     */
+    public void append(Tick tick) {
+        Instant ts = tick.timestamp();
+        append(tick.symbol(), tick.priceMantissa(), tick.priceScale(),
+                Math.addExact(Math.multiplyExact(ts.getEpochSecond(), 1_000_000_000L), ts.getNano()));
+    }
+
+    /**
+     * Appends a tick given as primitives.
+     *
+     * @param epochNanos the tick time in nanoseconds since the epoch
+     * @throws IllegalArgumentException if the symbol does not fit a record; the journal stays usable
+     * @throws UncheckedIOException     if the next segment cannot be created, e.g. on a full disk;
+     *                                  every later append fails the same way
+     */
+    public void append(String symbol, long priceMantissa, int priceScale, long epochNanos) {
+        int length = symbol.length();
+        if (length > MAX_SYMBOL_LENGTH) {
+            throw new IllegalArgumentException("Symbol longer than " + MAX_SYMBOL_LENGTH + " characters: " + symbol);
+        }
+        for (int i = 0; i < length; i++) {
+            if (symbol.charAt(i) > 0x7F) {
+                throw new IllegalArgumentException("Non-ASCII symbol: " + symbol);
+            }
+        }
+        if (position == capacity) {
+            roll(segment + 1);
+        }
+        MappedByteBuffer buf = buffer;
+        int offset = headerSize + position * RECORD_SIZE;
+        for (int i = 0; i < length; i++) {
+            buf.put(offset + SYMBOL_OFFSET + i, (byte) symbol.charAt(i));
+        }
+        INT.set(buf, offset + SCALE_OFFSET, priceScale);
+        LONG.set(buf, offset + TIMESTAMP_OFFSET, epochNanos);
+        LONG.set(buf, offset + MANTISSA_OFFSET, priceMantissa);
+
+        if (epochNanos > maxTimestamp) {
+            maxTimestamp = epochNanos;
+            LONG.setRelease(buf, MAX_TIMESTAMP_OFFSET, epochNanos);
+        }
+        if (position % indexInterval == 0) {
+            LONG.setRelease(buf, INDEX_OFFSET + 8 * (position / indexInterval), maxTimestamp);
+        }
+        // Publish: readers that see the commit word see the whole record
+        INT.setRelease(buf, offset + COMMIT_OFFSET, COMMITTED | length);
+        position++;
+        written++;
+    }
+
+    /**
+     * @return ticks appended since this journal was opened
+     */
+    public long written() {
+        return written;
+    }
+
+    /**
+     * @return the number of the segment being written
+     */
+    public long segment() {
+        return segment;
+    }
+
+    /**
+     * Asks the OS to write the current segment's dirty pages to disk — not
+     * needed for readers, only for durability against a machine crash.
+     */
+    public void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() {
+        force();
+        log.info("Tick journal closed — {} ticks appended, at segment {} record {}", written, segment, position);
+    }
+
+    // ── Segments ───────────────────────────────────────────────────────
+
+    private void roll(long next) {
+        if (buffer != null) {
+            buffer.force();
+        }
+        Path path = segmentPath(dir, next);
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long size = fileSize(capacity, indexInterval);
+                preallocate(ch, size);
+                MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                LONG.set(buf, MAGIC_OFFSET, MAGIC);
+                INT.set(buf, VERSION_OFFSET, VERSION);
+                INT.set(buf, RECORD_SIZE_OFFSET, RECORD_SIZE);
+                INT.set(buf, CAPACITY_OFFSET, capacity);
+                INT.set(buf, INDEX_INTERVAL_OFFSET, indexInterval);
+                LONG.set(buf, MAX_TIMESTAMP_OFFSET, Long.MIN_VALUE);
+                buf.force();
+                buffer = buf;
+            }
+            // The mapping outlives the channel and follows the file across the rename
+            Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create journal segment " + path, e);
+        }
+        segment = next;
+        position = 0;
+        maxTimestamp = Long.MIN_VALUE;
+        log.info("Journal segment {} started", path);
+    }
+
+    /**
+     * Writes zeros over the whole file, so its blocks are allocated before it
+     * is mapped: a write to a sparse mapping that finds the disk full faults
+     * (SIGBUS, surfacing as an {@link InternalError}) instead of failing here
+     * with an {@link IOException}.
+     */
+    private static void preallocate(FileChannel ch, long size) throws IOException {
+        ByteBuffer zeros = ByteBuffer.allocateDirect((int) Math.min(PREALLOCATE_CHUNK, size));
+        long written = 0;
+        while (written < size) {
+            zeros.clear().limit((int) Math.min(zeros.capacity(), size - written));
+            written += ch.write(zeros, written);
+        }
+    }
+
+    private void resume(long last) throws IOException {
+        Path path = segmentPath(dir, last);
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, ch.size());
+            if ((long) LONG.get(buf, MAGIC_OFFSET) != MAGIC
+                    || (int) INT.get(buf, CAPACITY_OFFSET) != capacity
+                    || (int) INT.get(buf, INDEX_INTERVAL_OFFSET) != indexInterval) {
+                throw new IOException("Segment " + path + " has a different format or geometry");
+            }
+            buffer = buf;
+        }
+        segment = last;
+        position = 0;
+        while (position < capacity && (int) INT.getAcquire(buffer, headerSize + position * RECORD_SIZE) != 0) {
+            position++;
+        }
+        maxTimestamp = (long) LONG.get(buffer, MAX_TIMESTAMP_OFFSET);
+        log.info("Resuming journal segment {} at record {}", path, position);
+    }
+}
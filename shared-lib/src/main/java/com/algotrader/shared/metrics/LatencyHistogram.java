@@ -0,0 +1,150 @@
+package com.algotrader.shared.metrics;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-memory latency histogram with HdrHistogram-style log-linear buckets.
+ * <p>
+ * Values below {@value #LINEAR_BUCKETS} ns get one bucket each; above that
+ * every power of two is split into {@value #LINEAR_BUCKETS}/2 equal buckets,
+ * so any recorded value is reported within 1/64 (≈1.6 %) of the truth, from
+ * nanoseconds up to {@link #MAX_TRACKABLE_NANOS} (≈18 minutes; larger values
+ * land in the last bucket, while {@link #max()} stays exact). The whole
+ * histogram is one {@code long} array of {@value #BUCKETS} counters.
+ * </p>
+ * Recording is a handful of atomic adds with no locks and no allocation, and
+ * may happen on any number of threads. Reads are not atomic with respect to
+ * concurrent writes, which is fine for monitoring.
+ */
+public final class LatencyHistogram {
+
+    /** Bucket precision: values are kept to {@code SUB_BUCKET_BITS - 1} significant bits. */
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int LINEAR_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF = LINEAR_BUCKETS >>> 1;
+    private static final int MAX_BITS = 40;
+
+    /** Largest value with a bucket of its own. */
+    public static final long MAX_TRACKABLE_NANOS = (1L << MAX_BITS) - 1;
+
+    private static final int BUCKETS = (MAX_BITS - SUB_BUCKET_BITS + 1) * HALF + HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records one latency; negative values (e.g. from clock skew) count as zero.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(Math.min(value, MAX_TRACKABLE_NANOS)));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // another thread raised the max — retry against the new value
+        }
+    }
+
+    /**
+     * Records the time elapsed since {@code startNanos}, a {@link System#nanoTime()} reading.
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Records how long ago {@code timestamp} was by the wall clock — the age of
+     * a tick, end to end across processes. Millisecond resolution.
+     */
+    public void recordAgeOf(Instant timestamp) {
+        record((System.currentTimeMillis() - timestamp.toEpochMilli()) * 1_000_000L);
+    }
+
+    /**
+     * @return the number of values recorded
+     */
+    public long count() {
+        return count.get();
+    }
+
+    /**
+     * @return the sum of all values recorded, in nanoseconds
+     */
+    public long sum() {
+        return sum.get();
+    }
+
+    /**
+     * @return the largest value recorded, in nanoseconds
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * @return the mean of all values recorded, or 0 if there are none
+     */
+    public double mean() {
+        long n = count.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    /**
+     * @param percentile in {@code [0, 100]}
+     * @return the smallest bucket bound below which {@code percentile} % of the
+     *         values fall (never above {@link #max()}), or 0 if there are none
+     */
+    public long valueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be in [0, 100], got: " + percentile);
+        }
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    // ── Bucket arithmetic ──────────────────────────────────────────────
+
+    /**
+     * Values below {@code 2^S} map to themselves; a value in {@code [2^e, 2^(e+1))}
+     * keeps its top {@code S} bits {@code m ∈ [2^(S-1), 2^S)} and maps to
+     * {@code (e - S + 1) · 2^(S-1) + m}, which continues the linear range.
+     */
+    static int bucketOf(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * HALF + (int) (value >>> shift);
+    }
+
+    /**
+     * @return the largest value that maps to {@code bucket}
+     */
+    static long highestValueOf(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / HALF - 1;
+        long mantissa = bucket - (long) shift * HALF;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,102 @@
+package com.algotrader.shared.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * The metrics a service exposes on {@code /metrics}, rendered in the
+ * Prometheus text exposition format.
+ * <p>
+ * Components own their histograms and counters, as they already own their
+ * health counters; the service entry point registers them here once at
+ * startup under a name. Counters and gauges are read through a
+ * {@link LongSupplier}, so existing {@code AtomicLong}s can be exposed as they
+ * are. Latency histograms are rendered as summaries in seconds, with
+ * {@link #QUANTILES}, {@code _sum}, {@code _count} and a {@code _max} gauge.
+ * </p>
+ * Registration happens before the endpoint starts; {@link #scrape()} may be
+ * called from any thread.
+ */
+public final class MetricsRegistry {
+
+    /** The {@code Content-Type} of {@link #scrape()}. */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    /** Quantiles reported for every histogram. */
+    static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private record Metric(String name, String help, String type, LatencyHistogram histogram, LongSupplier value) {
+    }
+
+    private final String prefix;
+    private final List<Metric> metrics = new ArrayList<>();
+
+    /**
+     * @param prefix prepended to every metric name, e.g. {@code "algotrader"}
+     */
+    public MetricsRegistry(String prefix) {
+        this.prefix = prefix.isEmpty() ? "" : prefix + "_";
+    }
+
+    /**
+     * Registers a latency histogram as {@code <prefix>_<name>_seconds}.
+     */
+    public synchronized MetricsRegistry histogram(String name, String help, LatencyHistogram histogram) {
+        metrics.add(new Metric(prefix + name + "_seconds", help, "summary", histogram, null));
+        return this;
+    }
+
+    /**
+     * Registers a monotonically increasing count as {@code <prefix>_<name>_total}.
+     */
+    public synchronized MetricsRegistry counter(String name, String help, LongSupplier value) {
+        metrics.add(new Metric(prefix + name + "_total", help, "counter", null, value));
+        return this;
+    }
+
+    /**
+     * Registers a value that may go up and down as {@code <prefix>_<name>}.
+     */
+    public synchronized MetricsRegistry gauge(String name, String help, LongSupplier value) {
+        metrics.add(new Metric(prefix + name, help, "gauge", null, value));
+        return this;
+    }
+
+    /**
+     * @return every registered metric, in registration order
+     */
+    public synchronized String scrape() {
+        StringBuilder out = new StringBuilder(256 * metrics.size());
+        for (Metric metric : metrics) {
+            out.append("# HELP ").append(metric.name()).append(' ').append(metric.help()).append('\n');
+            out.append("# TYPE ").append(metric.name()).append(' ').append(metric.type()).append('\n');
+            LatencyHistogram histogram = metric.histogram();
+            if (histogram == null) {
+                out.append(metric.name()).append(' ').append(metric.value().getAsLong()).append('\n');
+                continue;
+            }
+            for (double quantile : QUANTILES) {
+                out.append(metric.name()).append("{quantile=\"").append(quantile).append("\"} ");
+                appendSeconds(out, histogram.valueAtPercentile(quantile * 100)).append('\n');
+            }
+            appendSeconds(out.append(metric.name()).append("_sum "), histogram.sum()).append('\n');
+            out.append(metric.name()).append("_count ").append(histogram.count()).append('\n');
+            out.append("# TYPE ").append(metric.name()).append("_max gauge\n");
+            appendSeconds(out.append(metric.name()).append("_max "), histogram.max()).append('\n');
+        }
+        return out.toString();
+    }
+
+    /**
+     * Appends non-negative nanoseconds as seconds with all nine decimals.
+     */
+    private static StringBuilder appendSeconds(StringBuilder out, long nanos) {
+        long fraction = nanos % 1_000_000_000L;
+        out.append(nanos / 1_000_000_000L).append('.');
+        for (long digit = 100_000_000L; digit > fraction && digit > 1; digit /= 10) {
+            out.append('0');
+        }
+        return out.append(fraction);
+    }
+}
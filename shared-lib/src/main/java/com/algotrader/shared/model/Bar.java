@@ -0,0 +1,118 @@
+package com.algotrader.shared.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Immutable OHLCV candle for one symbol over one {@link Resolution}.
+ * <p>
+ * Prices share one scale and volume has its own, both as fixed-point
+ * {@link Price} mantissas like {@link Tick}; the JSON form carries them as
+ * decimal numbers. A bar corrected by late ticks is re-published with a
+ * higher {@code revision}; the highest revision supersedes earlier ones.
+ * </p>
+ *
+ * @param symbol         the trading pair (e.g. "BTCUSDT")
+ * @param resolution     the time span of the bar
+ * @param start          the inclusive start of the bar
+ * @param openMantissa   the unscaled first price
+ * @param highMantissa   the unscaled highest price
+ * @param lowMantissa    the unscaled lowest price
+ * @param closeMantissa  the unscaled last price
+ * @param priceScale     the number of decimal places in the price mantissas
+ * @param volumeMantissa the unscaled traded quantity
+ * @param volumeScale    the number of decimal places in {@code volumeMantissa}
+ * @param count          the number of ticks aggregated
+ * @param revision       0 when first sealed, incremented by each correction
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonPropertyOrder({"symbol", "resolution", "start", "open", "high", "low", "close", "volume", "count", "revision"})
+public record Bar(
+        String symbol,
+        Resolution resolution,
+        Instant start,
+        @JsonIgnore long openMantissa,
+        @JsonIgnore long highMantissa,
+        @JsonIgnore long lowMantissa,
+        @JsonIgnore long closeMantissa,
+        @JsonIgnore int priceScale,
+        @JsonIgnore long volumeMantissa,
+        @JsonIgnore int volumeScale,
+        long count,
+        int revision) {
+
+    /**
+     * @throws ArithmeticException if an unscaled value does not fit in a {@code long}
+     */
+    @JsonCreator
+    public static Bar of(@JsonProperty("symbol") String symbol,
+                         @JsonProperty("resolution") Resolution resolution,
+                         @JsonProperty("start") Instant start,
+                         @JsonProperty("open") BigDecimal open,
+                         @JsonProperty("high") BigDecimal high,
+                         @JsonProperty("low") BigDecimal low,
+                         @JsonProperty("close") BigDecimal close,
+                         @JsonProperty("volume") BigDecimal volume,
+                         @JsonProperty("count") long count,
+                         @JsonProperty("revision") int revision) {
+        int scale = Math.max(Math.max(Price.scale(open), Price.scale(high)),
+                Math.max(Price.scale(low), Price.scale(close)));
+        return new Bar(symbol, resolution, start,
+                rescale(open, scale), rescale(high, scale), rescale(low, scale), rescale(close, scale), scale,
+                Price.mantissa(volume), Price.scale(volume), count, revision);
+    }
+
+    private static long rescale(BigDecimal price, int scale) {
+        return price == null ? Price.NONE : Price.rescale(Price.mantissa(price), price.scale(), scale);
+    }
+
+    /**
+     * @return the exclusive end of the bar
+     */
+    @JsonIgnore
+    public Instant end() {
+        return start.plusMillis(resolution.millis());
+    }
+
+    @JsonProperty("open")
+    public BigDecimal open() {
+        return Price.toBigDecimal(openMantissa, priceScale);
+    }
+
+    @JsonProperty("high")
+    public BigDecimal high() {
+        return Price.toBigDecimal(highMantissa, priceScale);
+    }
+
+    @JsonProperty("low")
+    public BigDecimal low() {
+        return Price.toBigDecimal(lowMantissa, priceScale);
+    }
+
+    @JsonProperty("close")
+    public BigDecimal close() {
+        return Price.toBigDecimal(closeMantissa, priceScale);
+    }
+
+    @JsonProperty("volume")
+    public BigDecimal volume() {
+        return Price.toBigDecimal(volumeMantissa, volumeScale);
+    }
+
+    @Override
+    public String toString() {
+        return "Bar[symbol=" + symbol + ", resolution=" + resolution.label() + ", start=" + start
+                + ", open=" + Price.toString(openMantissa, priceScale)
+                + ", high=" + Price.toString(highMantissa, priceScale)
+                + ", low=" + Price.toString(lowMantissa, priceScale)
+                + ", close=" + Price.toString(closeMantissa, priceScale)
+                + ", volume=" + Price.toString(volumeMantissa, volumeScale)
+                + ", count=" + count + ", revision=" + revision + "]";
+    }
+}
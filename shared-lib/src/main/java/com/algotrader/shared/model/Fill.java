@@ -0,0 +1,80 @@
+package com.algotrader.shared.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Immutable execution report: (part of) a paper order that traded.
+ * <p>
+ * Price and quantity are fixed-point {@link Price} mantissas with their
+ * scales, like {@link Tick}; the JSON form carries them as decimal numbers.
+ * </p>
+ *
+ * @param orderId          the id of the order that was filled
+ * @param side             {@link SignalType#BUY} or {@link SignalType#SELL}
+ * @param symbol           the trading pair (e.g. "BTCUSDT")
+ * @param priceMantissa    the unscaled execution price
+ * @param priceScale       the number of decimal places in {@code priceMantissa}
+ * @param quantityMantissa the unscaled filled quantity
+ * @param quantityScale    the number of decimal places in {@code quantityMantissa}
+ * @param strategy         the strategy whose signal created the order
+ * @param timestamp        the market time of the execution
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonPropertyOrder({"orderId", "side", "symbol", "price", "quantity", "strategy", "timestamp"})
+public record Fill(
+        long orderId,
+        SignalType side,
+        String symbol,
+        @JsonIgnore long priceMantissa,
+        @JsonIgnore int priceScale,
+        @JsonIgnore long quantityMantissa,
+        @JsonIgnore int quantityScale,
+        String strategy,
+        Instant timestamp) {
+
+    /**
+     * @throws ArithmeticException if an unscaled value does not fit in a {@code long}
+     */
+    @JsonCreator
+    public Fill(@JsonProperty("orderId") long orderId,
+                @JsonProperty("side") SignalType side,
+                @JsonProperty("symbol") String symbol,
+                @JsonProperty("price") BigDecimal price,
+                @JsonProperty("quantity") BigDecimal quantity,
+                @JsonProperty("strategy") String strategy,
+                @JsonProperty("timestamp") Instant timestamp) {
+        this(orderId, side, symbol, Price.mantissa(price), Price.scale(price),
+                Price.mantissa(quantity), Price.scale(quantity), strategy, timestamp);
+    }
+
+    /**
+     * @return the execution price as a {@link BigDecimal} (allocates)
+     */
+    @JsonProperty("price")
+    public BigDecimal price() {
+        return Price.toBigDecimal(priceMantissa, priceScale);
+    }
+
+    /**
+     * @return the filled quantity as a {@link BigDecimal} (allocates)
+     */
+    @JsonProperty("quantity")
+    public BigDecimal quantity() {
+        return Price.toBigDecimal(quantityMantissa, quantityScale);
+    }
+
+    @Override
+    public String toString() {
+        return "Fill[orderId=" + orderId + ", side=" + side + ", symbol=" + symbol
+                + ", price=" + Price.toString(priceMantissa, priceScale)
+                + ", quantity=" + Price.toString(quantityMantissa, quantityScale)
+                + ", strategy=" + strategy + ", timestamp=" + timestamp + "]";
+    }
+}
@@ -0,0 +1,220 @@
+package com.algotrader.shared.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point price arithmetic on a {@code long} mantissa and an {@code int}
+ * scale, i.e. {@code value = mantissa × 10^-scale}, the same model as
+ * {@link BigDecimal} restricted to 63-bit mantissas.
+ * <p>
+ * Prices are passed around as the two primitives rather than as an object, so
+ * hot paths never allocate; {@link Tick} and {@link Signal} carry them as
+ * record components. Every operation is exact: anything that would overflow
+ * or silently drop digits throws {@link ArithmeticException}.
+ * {@link BigDecimal} only appears at the edges ({@link #mantissa(BigDecimal)},
+ * {@link #toBigDecimal(long, int)}).
+ * </p>
+ * An absent price is represented by the {@link #NONE} mantissa.
+ */
+public final class Price {
+
+    /** Mantissa of an absent ({@code null}) price. */
+    public static final long NONE = Long.MIN_VALUE;
+
+    private static final long[] POW10 = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L,
+            10_000_000_000_000L, 100_000_000_000_000L, 1_000_000_000_000_000L,
+            10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
+
+    private Price() {
+        // utility class
+    }
+
+    // ── BigDecimal boundary ────────────────────────────────────────────
+
+    /**
+     * @return the unscaled value of {@code price}, or {@link #NONE} for {@code null}
+     * @throws ArithmeticException if the unscaled value does not fit in a {@code long}
+     */
+    public static long mantissa(BigDecimal price) {
+        if (price == null) {
+            return NONE;
+        }
+        long mantissa = price.unscaledValue().longValueExact();
+        if (mantissa == NONE) {
+            throw new ArithmeticException("Price mantissa out of range: " + price);
+        }
+        return mantissa;
+    }
+
+    /**
+     * @return the scale of {@code price}, or {@code 0} for {@code null}
+     */
+    public static int scale(BigDecimal price) {
+        return price == null ? 0 : price.scale();
+    }
+
+    /**
+     * @return the price as a {@link BigDecimal}, or {@code null} for {@link #NONE}
+     */
+    public static BigDecimal toBigDecimal(long mantissa, int scale) {
+        return mantissa == NONE ? null : BigDecimal.valueOf(mantissa, scale);
+    }
+
+    // ── Arithmetic ─────────────────────────────────────────────────────
+
+    /**
+     * Re-expresses a price at another scale without losing digits.
+     *
+     * @throws ArithmeticException if the result overflows or digits would be dropped
+     */
+    public static long rescale(long mantissa, int fromScale, int toScale) {
+        return rescale(mantissa, fromScale, toScale, RoundingMode.UNNECESSARY);
+    }
+
+    /**
+     * Re-expresses a price at another scale, rounding with {@code mode} when
+     * digits are dropped — the primitive equivalent of
+     * {@link BigDecimal#setScale(int, RoundingMode)}.
+     *
+     * @throws ArithmeticException if the result overflows, or {@code mode} is
+     *                             {@link RoundingMode#UNNECESSARY} and digits would be dropped
+     */
+    public static long rescale(long mantissa, int fromScale, int toScale, RoundingMode mode) {
+        if (toScale == fromScale || mantissa == 0) {
+            return mantissa;
+        }
+        if (toScale > fromScale) {
+            return Math.multiplyExact(mantissa, pow10(toScale - fromScale));
+        }
+        int drop = fromScale - toScale;
+        if (drop >= POW10.length) {
+            // |mantissa| < 10^19 ≤ divisor: the quotient is 0 and the whole mantissa is the remainder
+            int halfCmp = drop == POW10.length ? Long.compare(Math.abs(mantissa), 5 * POW10[POW10.length - 1]) : -1;
+            return round(0, mantissa, halfCmp, mode);
+        }
+        long divisor = POW10[drop];
+        long remainder = mantissa % divisor;
+        return round(mantissa / divisor, remainder, Long.compare(Math.abs(remainder), divisor / 2), mode);
+    }
+
+    /**
+     * @return a negative number, zero or a positive number as the first price
+     *         is less than, equal to or greater than the second
+     */
+    public static int compare(long mantissa1, int scale1, long mantissa2, int scale2) {
+        if (scale1 == scale2) {
+            return Long.compare(mantissa1, mantissa2);
+        }
+        int signum1 = Long.signum(mantissa1);
+        int signum2 = Long.signum(mantissa2);
+        if (signum1 != signum2) {
+            return Integer.compare(signum1, signum2);
+        }
+        int scale = Math.max(scale1, scale2);
+        int diff1 = scale - scale1;
+        int diff2 = scale - scale2;
+        if (diff1 < POW10.length && diff2 < POW10.length) {
+            long hi1 = Math.multiplyHigh(mantissa1, POW10[diff1]);
+            long hi2 = Math.multiplyHigh(mantissa2, POW10[diff2]);
+            long lo1 = mantissa1 * POW10[diff1];
+            long lo2 = mantissa2 * POW10[diff2];
+            if (hi1 == (lo1 >> 63) && hi2 == (lo2 >> 63)) {
+                return Long.compare(lo1, lo2);
+            }
+        }
+        return BigDecimal.valueOf(mantissa1, scale1).compareTo(BigDecimal.valueOf(mantissa2, scale2));
+    }
+
+    /**
+     * @return the sum at {@code max(scale1, scale2)}
+     * @throws ArithmeticException on overflow
+     */
+    public static long add(long mantissa1, int scale1, long mantissa2, int scale2) {
+        int scale = Math.max(scale1, scale2);
+        return Math.addExact(rescale(mantissa1, scale1, scale), rescale(mantissa2, scale2, scale));
+    }
+
+    /**
+     * @return the difference at {@code max(scale1, scale2)}
+     * @throws ArithmeticException on overflow
+     */
+    public static long subtract(long mantissa1, int scale1, long mantissa2, int scale2) {
+        int scale = Math.max(scale1, scale2);
+        return Math.subtractExact(rescale(mantissa1, scale1, scale), rescale(mantissa2, scale2, scale));
+    }
+
+    /**
+     * @return {@code 10^exponent} for {@code 0 ≤ exponent ≤ 18}
+     * @throws ArithmeticException if the power does not fit in a {@code long}
+     */
+    public static long pow10(int exponent) {
+        if (exponent < 0 || exponent >= POW10.length) {
+            throw new ArithmeticException("10^" + exponent + " out of long range");
+        }
+        return POW10[exponent];
+    }
+
+    // ── Formatting ─────────────────────────────────────────────────────
+
+    /**
+     * Appends the price exactly as {@link BigDecimal#toString()} renders it.
+     */
+    public static StringBuilder appendTo(StringBuilder out, long mantissa, int scale) {
+        if (mantissa == NONE) {
+            return out.append("null");
+        }
+        int start = out.length();
+        out.append(mantissa);
+        int digitsStart = mantissa < 0 ? start + 1 : start;
+        int digits = out.length() - digitsStart;
+        long adjusted = (long) digits - 1 - scale;
+        if (scale < 0 || adjusted < -6) {
+            // Scientific notation — rare enough to leave to BigDecimal
+            out.setLength(start);
+            return out.append(BigDecimal.valueOf(mantissa, scale));
+        }
+        if (scale == 0) {
+            return out;
+        }
+        if (digits > scale) {
+            return out.insert(out.length() - scale, '.');
+        }
+        out.insert(digitsStart, "0.");
+        for (int i = digits; i < scale; i++) {
+            out.insert(digitsStart + 2, '0');
+        }
+        return out;
+    }
+
+    /**
+     * @return the price exactly as {@link BigDecimal#toString()} renders it
+     */
+    public static String toString(long mantissa, int scale) {
+        return appendTo(new StringBuilder(24), mantissa, scale).toString();
+    }
+
+    /**
+     * @param halfCmp sign of {@code |remainder| - divisor / 2}
+     */
+    private static long round(long quotient, long remainder, int halfCmp, RoundingMode mode) {
+        if (remainder == 0) {
+            return quotient;
+        }
+        int sign = remainder < 0 ? -1 : 1;
+        boolean awayFromZero = switch (mode) {
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+            case DOWN -> false;
+            case UP -> true;
+            case FLOOR -> sign < 0;
+            case CEILING -> sign > 0;
+            case HALF_UP -> halfCmp >= 0;
+            case HALF_DOWN -> halfCmp > 0;
+            case HALF_EVEN -> halfCmp > 0 || (halfCmp == 0 && (quotient & 1) != 0);
+        };
+        return awayFromZero ? Math.addExact(quotient, sign) : quotient;
+    }
+}
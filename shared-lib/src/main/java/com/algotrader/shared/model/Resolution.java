@@ -0,0 +1,55 @@
+package com.algotrader.shared.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * The time span covered by one {@link Bar}. Bars are aligned to the epoch,
+ * so every coarser resolution is an exact multiple of the finer ones.
+ */
+public enum Resolution {
+    S1("1s", 1_000L),
+    M1("1m", 60_000L),
+    M5("5m", 300_000L),
+    H1("1h", 3_600_000L);
+
+    private final String label;
+    private final long millis;
+
+    Resolution(String label, long millis) {
+        this.label = label;
+        this.millis = millis;
+    }
+
+    /**
+     * @return the short form used in JSON, SQL and query strings (e.g. "1m")
+     */
+    @JsonValue
+    public String label() {
+        return label;
+    }
+
+    public long millis() {
+        return millis;
+    }
+
+    /**
+     * @return the start of the bar containing {@code epochMillis}
+     */
+    public long startOf(long epochMillis) {
+        return Math.floorDiv(epochMillis, millis) * millis;
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code label} names no resolution
+     */
+    @JsonCreator
+    public static Resolution fromLabel(String label) {
+        for (Resolution resolution : values()) {
+            if (resolution.label.equals(label)) {
+                return resolution;
+            }
+        }
+        throw new IllegalArgumentException("Unknown resolution: " + label);
+    }
+}
@@ -1,31 +1,86 @@
 package com.algotrader.shared.model;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
 import java.math.BigDecimal;
+import java.time.Clock;
 import java.time.Instant;
 
 /**
  * Immutable trading signal emitted by a strategy.
+ * <p>
+ * Like {@link Tick}, the price is carried as a fixed-point {@link Price}
+ * mantissa and scale, with {@link BigDecimal} adapters for existing callers.
+ * </p>
  *
- * @param type      the signal direction (BUY / SELL / HOLD)
- * @param symbol    the trading pair (e.g. "BTCUSDT")
- * @param price     the price at which the signal was generated
- * @param strategy  the name of the strategy that produced this signal
- * @param timestamp the time the signal was generated
+ * @param type          the signal direction (BUY / SELL / HOLD)
+ * @param symbol        the trading pair (e.g. "BTCUSDT")
+ * @param priceMantissa the unscaled price at which the signal was generated,
+ *                      or {@link Price#NONE} if absent
+ * @param priceScale    the number of decimal places in {@code priceMantissa}
+ * @param strategy      the name of the strategy that produced this signal
+ * @param timestamp     the time the signal was generated
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
+@JsonPropertyOrder({"type", "symbol", "price", "strategy", "timestamp"})
 public record Signal(
         SignalType type,
         String symbol,
-        BigDecimal price,
+        @JsonIgnore long priceMantissa,
+        @JsonIgnore int priceScale,
         String strategy,
         Instant timestamp) {
 
+    /**
+     * @throws ArithmeticException if the unscaled price does not fit in a {@code long}
+     */
+    @JsonCreator
+    public Signal(@JsonProperty("type") SignalType type,
+                  @JsonProperty("symbol") String symbol,
+                  @JsonProperty("price") BigDecimal price,
+                  @JsonProperty("strategy") String strategy,
+                  @JsonProperty("timestamp") Instant timestamp) {
+        this(type, symbol, Price.mantissa(price), Price.scale(price), strategy, timestamp);
+    }
+
     /**
      * Factory: create a Signal stamped at the current instant.
      */
     public static Signal of(SignalType type, String symbol, BigDecimal price, String strategy) {
         return new Signal(type, symbol, price, strategy, Instant.now());
     }
+
+    /**
+     * Factory: create a Signal from a fixed-point price, stamped at the current instant.
+     */
+    public static Signal of(SignalType type, String symbol, long priceMantissa, int priceScale, String strategy) {
+        return new Signal(type, symbol, priceMantissa, priceScale, strategy, Instant.now());
+    }
+
+    /**
+     * Factory: create a Signal from a fixed-point price, stamped by {@code clock}
+     * — a simulated clock when backtesting.
+     */
+    public static Signal of(SignalType type, String symbol, long priceMantissa, int priceScale, String strategy,
+                            Clock clock) {
+        return new Signal(type, symbol, priceMantissa, priceScale, strategy, clock.instant());
+    }
+
+    /**
+     * @return the price as a {@link BigDecimal} (allocates), or {@code null} if absent
+     */
+    @JsonProperty("price")
+    public BigDecimal price() {
+        return Price.toBigDecimal(priceMantissa, priceScale);
+    }
+
+    @Override
+    public String toString() {
+        return "Signal[type=" + type + ", symbol=" + symbol + ", price=" + Price.toString(priceMantissa, priceScale)
+                + ", strategy=" + strategy + ", timestamp=" + timestamp + "]";
+    }
 }
@@ -1,26 +1,64 @@
 package com.algotrader.shared.model;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
 import java.math.BigDecimal;
 import java.time.Instant;
 
 /**
  * Immutable market tick representing a single price snapshot.
+ * <p>
+ * The price is held as a fixed-point {@link Price} mantissa and scale so hot
+ * paths never touch {@link BigDecimal}; {@link #price()} and the
+ * {@code BigDecimal} constructor adapt at the edges, and the JSON form is
+ * unchanged ({@code "price"} as a decimal number).
+ * </p>
  *
- * @param symbol    the trading pair symbol (e.g. "BTCUSDT")
- * @param price     the current price
- * @param timestamp the time the tick was captured
+ * @param symbol        the trading pair symbol (e.g. "BTCUSDT")
+ * @param priceMantissa the unscaled price, or {@link Price#NONE} if absent
+ * @param priceScale    the number of decimal places in {@code priceMantissa}
+ * @param timestamp     the time the tick was captured
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
+@JsonPropertyOrder({"symbol", "price", "timestamp"})
 public record Tick(
         String symbol,
-        BigDecimal price,
+        @JsonIgnore long priceMantissa,
+        @JsonIgnore int priceScale,
         Instant timestamp) {
 
+    /**
+     * @throws ArithmeticException if the unscaled price does not fit in a {@code long}
+     */
+    @JsonCreator
+    public Tick(@JsonProperty("symbol") String symbol,
+                @JsonProperty("price") BigDecimal price,
+                @JsonProperty("timestamp") Instant timestamp) {
+        this(symbol, Price.mantissa(price), Price.scale(price), timestamp);
+    }
+
     /**
      * Factory: create a Tick stamped at the current instant.
      */
     public static Tick of(String symbol, BigDecimal price) {
         return new Tick(symbol, price, Instant.now());
     }
+
+    /**
+     * @return the price as a {@link BigDecimal} (allocates), or {@code null} if absent
+     */
+    @JsonProperty("price")
+    public BigDecimal price() {
+        return Price.toBigDecimal(priceMantissa, priceScale);
+    }
+
+    @Override
+    public String toString() {
+        return "Tick[symbol=" + symbol + ", price=" + Price.toString(priceMantissa, priceScale)
+                + ", timestamp=" + timestamp + "]";
+    }
 }
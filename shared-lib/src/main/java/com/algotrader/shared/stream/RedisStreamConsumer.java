@@ -0,0 +1,191 @@
+package com.algotrader.shared.stream;
+
+import io.lettuce.core.Consumer;
+import io.lettuce.core.RedisBusyException;
+import io.lettuce.core.StreamMessage;
+import io.lettuce.core.XGroupCreateArgs;
+import io.lettuce.core.XReadArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reads one Redis stream through a consumer group on a dedicated thread and
+ * hands each entry's payload to a handler.
+ * <p>
+ * Entries are fetched with a blocking {@code XREADGROUP} of up to
+ * {@code batchSize} entries and acknowledged with one {@code XACK} per batch
+ * once the handler has seen them. On start the consumer first replays its
+ * own pending entries — delivered before a restart but never acknowledged —
+ * and then continues from the group's last delivered ID, so nothing
+ * published while it was down is lost.
+ * </p>
+ * Delivery is at-least-once: a crash between handling and {@code XACK}
+ * re-delivers that batch. Handler exceptions are logged and counted and the
+ * entry is still acknowledged, as pub/sub would have dropped it.
+ */
+public class RedisStreamConsumer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisStreamConsumer.class);
+
+    private static final long RETRY_MILLIS = 1000;
+
+    /**
+     * Receives the payload of each stream entry.
+     */
+    @FunctionalInterface
+    public interface Handler {
+        void onMessage(byte[] payload) throws Exception;
+    }
+
+    private final StatefulRedisConnection<String, byte[]> connection;
+    private final RedisCommands<String, byte[]> commands;
+    private final String stream;
+    private final TransportConfig config;
+    private final Handler handler;
+    private final Consumer<String> consumer;
+    private final XReadArgs readArgs;
+    private final Thread thread;
+
+    private final AtomicLong consumed = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile boolean running = true;
+
+    /**
+     * Creates the group if needed and starts reading.
+     *
+     * @param connection a dedicated connection — blocking reads tie it up, and
+     *                   the consumer takes ownership of it
+     */
+    public RedisStreamConsumer(StatefulRedisConnection<String, byte[]> connection, String stream,
+            TransportConfig config, Handler handler) {
+        this.connection = connection;
+        this.commands = connection.sync();
+        this.stream = stream;
+        this.config = config;
+        this.handler = handler;
+        this.consumer = Consumer.from(config.group(), config.consumer());
+        this.readArgs = XReadArgs.Builder.count(config.batchSize()).block(config.block());
+        createGroup();
+        this.thread = new Thread(this::run, "stream-" + stream);
+        this.thread.setDaemon(true);
+        this.thread.start();
+        log.info("Reading stream '{}' as {}/{} (batch={}, block={} ms)",
+                stream, config.group(), config.consumer(), config.batchSize(), config.block().toMillis());
+    }
+
+    private void createGroup() {
+        try {
+            commands.xgroupCreate(XReadArgs.StreamOffset.from(stream, config.startId()), config.group(),
+                    XGroupCreateArgs.Builder.mkstream());
+            log.info("Created consumer group '{}' on '{}' at {}", config.group(), stream, config.startId());
+        } catch (RedisBusyException e) {
+            // BUSYGROUP: the group exists and keeps its position
+        }
+    }
+
+    private void run() {
+        // "0" reads this consumer's pending entries; ">" reads never-delivered ones
+        String cursor = "0";
+        while (running) {
+            try {
+                List<StreamMessage<String, byte[]>> batch = read(cursor);
+                if (batch == null || batch.isEmpty()) {
+                    if (!">".equals(cursor)) {
+                        log.info("Replayed {} pending entr(ies) from '{}'", replayed.get(), stream);
+                        cursor = ">";
+                    }
+                    continue;
+                }
+                String[] ids = new String[batch.size()];
+                for (int i = 0; i < ids.length; i++) {
+                    StreamMessage<String, byte[]> message = batch.get(i);
+                    ids[i] = message.getId();
+                    handle(message);
+                }
+                commands.xack(stream, config.group(), ids);
+                consumed.addAndGet(ids.length);
+                if (!">".equals(cursor)) {
+                    replayed.addAndGet(ids.length);
+                    cursor = ids[ids.length - 1];
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Reading '{}' failed, retrying in {} ms: {}", stream, RETRY_MILLIS, e.getMessage());
+                if (e.getMessage() != null && e.getMessage().startsWith("NOGROUP")) {
+                    // the stream or group was deleted (e.g. Redis restarted without persistence)
+                    createGroup();
+                }
+                try {
+                    Thread.sleep(RETRY_MILLIS);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked") // single-element varargs of a generic type
+    private List<StreamMessage<String, byte[]>> read(String cursor) {
+        return commands.xreadgroup(consumer, readArgs, XReadArgs.StreamOffset.from(stream, cursor));
+    }
+
+    private void handle(StreamMessage<String, byte[]> message) {
+        byte[] payload = message.getBody().get(TransportConfig.PAYLOAD_FIELD);
+        try {
+            if (payload == null) {
+                throw new IllegalArgumentException("No '" + TransportConfig.PAYLOAD_FIELD + "' field");
+            }
+            handler.onMessage(payload);
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            log.error("Error processing entry {} from '{}': {}", message.getId(), stream, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return entries handled and acknowledged
+     */
+    public long consumed() {
+        return consumed.get();
+    }
+
+    /**
+     * @return pending entries re-delivered after a restart
+     */
+    public long replayed() {
+        return replayed.get();
+    }
+
+    /**
+     * @return entries the handler threw on
+     */
+    public long failed() {
+        return failed.get();
+    }
+
+    /**
+     * Stops after the current read returns (at most one block timeout), then
+     * closes the connection.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            thread.join(config.block().toMillis() + TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        connection.close();
+        log.info("Stream consumer for '{}' closed — {} consumed, {} replayed, {} failed",
+                stream, consumed.get(), replayed.get(), failed.get());
+    }
+}
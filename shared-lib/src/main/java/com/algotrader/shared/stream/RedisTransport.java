@@ -0,0 +1,253 @@
+package com.algotrader.shared.stream;
+
+import com.algotrader.shared.metrics.LatencyHistogram;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.XAddArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Moves raw payloads between a service and Redis over the configured
+ * {@link Transport} — the one place that knows how a message is sent and
+ * received, shared by every service and by the launcher's
+ * {@link com.algotrader.shared.bus.RedisBus}.
+ * <p>
+ * With pub/sub, {@link #send} is a {@code PUBLISH}, and every
+ * {@linkplain #receive receiver} shares one subscriber connection: a channel
+ * is subscribed when its first receiver arrives and unsubscribed when its last
+ * one leaves, and handlers run on that connection's event loop. With
+ * {@link Transport#STREAMS}, {@link #send} is an {@code XADD} with the
+ * config's trimming options, and each receiver reads its stream through a
+ * {@link RedisStreamConsumer} on a connection of its own.
+ * </p>
+ * Sends are synchronous round trips, timed into {@link #sendLatency()}; a
+ * failed send is thrown to the caller, which decides whether to count, retry
+ * or drop it. Components with connection needs of their own — pipelined
+ * publishers, say — open them from {@link #client()}.
+ */
+public class RedisTransport implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisTransport.class);
+
+    /** String channel names, raw byte payloads. */
+    public static final RedisCodec<String, byte[]> BYTES_CODEC =
+            RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE);
+
+    private final RedisClient redisClient;
+    private final TransportConfig config;
+    private final XAddArgs xaddArgs;
+    private final StatefulRedisConnection<String, byte[]> connection;
+    private final RedisCommands<String, byte[]> commands;
+    private final ConcurrentHashMap<String, List<Receiver>> channels = new ConcurrentHashMap<>();
+    private final List<Receiver> receivers = new CopyOnWriteArrayList<>();
+    private final LatencyHistogram sendLatency = new LatencyHistogram();
+    private StatefulRedisPubSubConnection<String, byte[]> subConnection;
+
+    public RedisTransport(String redisUri, TransportConfig config) {
+        this(RedisClient.create(redisUri), config);
+    }
+
+    /**
+     * @param redisClient the client to open connections from; the transport
+     *                    takes ownership of it and shuts it down on close
+     */
+    public RedisTransport(RedisClient redisClient, TransportConfig config) {
+        this.redisClient = redisClient;
+        this.config = config;
+        this.xaddArgs = config.isStreams() ? config.xaddArgs() : null;
+        this.connection = redisClient.connect(BYTES_CODEC);
+        this.commands = connection.sync();
+        log.info("Redis transport ready ({})", config.transport());
+    }
+
+    /**
+     * @return pub/sub or streams, and the consumer group receivers join
+     */
+    public TransportConfig config() {
+        return config;
+    }
+
+    /**
+     * @return the underlying client, for connections the transport does not manage
+     */
+    public RedisClient client() {
+        return redisClient;
+    }
+
+    // ── Sending ────────────────────────────────────────────────────────
+
+    /**
+     * Publishes {@code payload} on {@code channel}, or appends it to the
+     * stream of that name.
+     *
+     * @throws RuntimeException if Redis did not accept it
+     */
+    public void send(String channel, byte[] payload) {
+        long start = System.nanoTime();
+        if (xaddArgs != null) {
+            commands.xadd(channel, xaddArgs, TransportConfig.PAYLOAD_FIELD, payload);
+        } else {
+            commands.publish(channel, payload);
+        }
+        sendLatency.recordSince(start);
+    }
+
+    /**
+     * @return round-trip times of every {@code PUBLISH} and {@code XADD}
+     */
+    public LatencyHistogram sendLatency() {
+        return sendLatency;
+    }
+
+    // ── Receiving ──────────────────────────────────────────────────────
+
+    /**
+     * Receives {@code channel} as the configured consumer.
+     */
+    public Receiver receive(String channel, RedisStreamConsumer.Handler handler) {
+        return receive(channel, config, handler);
+    }
+
+    /**
+     * Hands every payload on {@code channel} to {@code handler} until the
+     * returned receiver is closed.
+     *
+     * @param group the consumer group and name to read a stream as; ignored with pub/sub
+     */
+    public Receiver receive(String channel, TransportConfig group, RedisStreamConsumer.Handler handler) {
+        Receiver receiver = new Receiver(channel, handler);
+        if (config.isStreams()) {
+            receiver.consumer = new RedisStreamConsumer(redisClient.connect(BYTES_CODEC), channel, group, handler);
+        } else {
+            subscribe(receiver);
+        }
+        receivers.add(receiver);
+        return receiver;
+    }
+
+    private synchronized void subscribe(Receiver receiver) {
+        if (subConnection == null) {
+            subConnection = redisClient.connectPubSub(BYTES_CODEC);
+            subConnection.addListener(new RedisPubSubAdapter<>() {
+                @Override
+                public void message(String channel, byte[] message) {
+                    List<Receiver> targets = channels.get(channel);
+                    if (targets != null) {
+                        for (Receiver target : targets) {
+                            target.deliver(message);
+                        }
+                    }
+                }
+            });
+        }
+        List<Receiver> targets = channels.computeIfAbsent(receiver.channel, c -> new CopyOnWriteArrayList<>());
+        targets.add(receiver);
+        if (targets.size() == 1) {
+            subConnection.sync().subscribe(receiver.channel);
+        }
+    }
+
+    private synchronized void unsubscribe(Receiver receiver) {
+        List<Receiver> targets = channels.get(receiver.channel);
+        if (targets != null && targets.remove(receiver) && targets.isEmpty()) {
+            channels.remove(receiver.channel);
+            subConnection.sync().unsubscribe(receiver.channel);
+        }
+    }
+
+    /**
+     * Pings Redis to verify connectivity.
+     */
+    public boolean isConnected() {
+        try {
+            return "PONG".equals(commands.ping());
+        } catch (Exception e) {
+            log.warn("Redis ping failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Closes every receiver still open, then the connections and the client.
+     */
+    @Override
+    public void close() {
+        log.info("Closing Redis transport...");
+        for (Receiver receiver : receivers) {
+            receiver.close();
+        }
+        synchronized (this) {
+            if (subConnection != null) {
+                subConnection.close();
+            }
+        }
+        connection.close();
+        redisClient.shutdown();
+    }
+
+    /**
+     * One channel's or stream's deliveries to one handler.
+     */
+    public final class Receiver implements AutoCloseable {
+
+        private final String channel;
+        private final RedisStreamConsumer.Handler handler;
+        /** Reads the stream; {@code null} with pub/sub. */
+        private RedisStreamConsumer consumer;
+        private volatile boolean open = true;
+
+        private Receiver(String channel, RedisStreamConsumer.Handler handler) {
+            this.channel = channel;
+            this.handler = handler;
+        }
+
+        private void deliver(byte[] payload) {
+            try {
+                handler.onMessage(payload);
+            } catch (Exception e) {
+                log.error("Error processing message from '{}': {}", channel, e.getMessage(), e);
+            }
+        }
+
+        public String channel() {
+            return channel;
+        }
+
+        /**
+         * @return the stream consumer, or empty with pub/sub
+         */
+        public Optional<RedisStreamConsumer> streamConsumer() {
+            return Optional.ofNullable(consumer);
+        }
+
+        /**
+         * Stops delivery. For a stream, returns once the batch in hand has
+         * been handled and acknowledged.
+         */
+        @Override
+        public void close() {
+            if (!open) {
+                return;
+            }
+            open = false;
+            receivers.remove(this);
+            if (consumer != null) {
+                consumer.close();
+            } else {
+                unsubscribe(this);
+            }
+        }
+    }
+}
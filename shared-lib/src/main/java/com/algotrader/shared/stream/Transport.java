@@ -0,0 +1,11 @@
+package com.algotrader.shared.stream;
+
+/**
+ * How services exchange ticks and signals over Redis.
+ */
+public enum Transport {
+    /** Fire-and-forget {@code PUBLISH}/{@code SUBSCRIBE}: lowest latency, nothing survives a restart. */
+    PUBSUB,
+    /** Redis Streams with consumer groups: retained, acknowledged, shared across instances. */
+    STREAMS
+}
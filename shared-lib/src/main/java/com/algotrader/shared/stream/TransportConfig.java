@@ -0,0 +1,100 @@
+package com.algotrader.shared.stream;
+
+import io.lettuce.core.XAddArgs;
+
+import java.time.Duration;
+
+/**
+ * Transport settings shared by producers and consumers.
+ * <p>
+ * With {@link Transport#STREAMS} the channel names ({@code market_data},
+ * {@code trading_signals}) become stream keys. Every service reads through
+ * its own consumer group, so each service sees every entry while instances
+ * of the same service split the entries between them.
+ * </p>
+ *
+ * @param transport pub/sub or streams; the remaining fields only apply to streams
+ * @param group     the consumer group, normally the service name
+ * @param consumer  this instance's name in the group — keep it stable across
+ *                  restarts so unacknowledged entries are re-delivered to it
+ * @param batchSize the maximum number of entries per {@code XREADGROUP} (and per {@code XACK})
+ * @param block     how long an {@code XREADGROUP} waits for new entries
+ * @param maxLen    producers trim each stream to roughly this many entries ({@code MAXLEN ~})
+ * @param startId   where a newly created group starts: {@code $} for new entries
+ *                  only, {@code 0} to replay everything still retained
+ */
+public record TransportConfig(
+        Transport transport,
+        String group,
+        String consumer,
+        int batchSize,
+        Duration block,
+        long maxLen,
+        String startId) {
+
+    /** The single field each stream entry carries: the encoded message. */
+    public static final String PAYLOAD_FIELD = "d";
+
+    private static final int BATCH_SIZE = 256;
+    private static final int BLOCK_MILLIS = 1000;
+    private static final long MAX_LEN = 1_000_000;
+
+    public TransportConfig {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be > 0, got: " + batchSize);
+        }
+        if (maxLen <= 0) {
+            throw new IllegalArgumentException("Max length must be > 0, got: " + maxLen);
+        }
+        if (block.isNegative() || block.isZero()) {
+            throw new IllegalArgumentException("Block timeout must be positive, got: " + block);
+        }
+    }
+
+    /**
+     * @return the original behaviour: Redis pub/sub
+     */
+    public static TransportConfig pubSub() {
+        return new TransportConfig(Transport.PUBSUB, "", "", 1, Duration.ofMillis(1), 1, "$");
+    }
+
+    /**
+     * Reads {@code TRANSPORT} (PUBSUB or STREAMS), {@code STREAM_GROUP},
+     * {@code STREAM_CONSUMER} (default: {@code HOSTNAME}),
+     * {@code STREAM_BATCH_SIZE}, {@code STREAM_BLOCK_MILLIS},
+     * {@code STREAM_MAX_LEN} and {@code STREAM_GROUP_START} from the environment.
+     *
+     * @param defaultGroup the consumer group when {@code STREAM_GROUP} is unset
+     */
+    public static TransportConfig fromEnv(String defaultGroup) {
+        var env = System.getenv();
+        return new TransportConfig(
+                Transport.valueOf(env.getOrDefault("TRANSPORT", "PUBSUB")),
+                env.getOrDefault("STREAM_GROUP", defaultGroup),
+                env.getOrDefault("STREAM_CONSUMER", env.getOrDefault("HOSTNAME", defaultGroup + "-1")),
+                Integer.parseInt(env.getOrDefault("STREAM_BATCH_SIZE", String.valueOf(BATCH_SIZE))),
+                Duration.ofMillis(Long.parseLong(env.getOrDefault("STREAM_BLOCK_MILLIS",
+                        String.valueOf(BLOCK_MILLIS)))),
+                Long.parseLong(env.getOrDefault("STREAM_MAX_LEN", String.valueOf(MAX_LEN))),
+                env.getOrDefault("STREAM_GROUP_START", "$"));
+    }
+
+    /**
+     * @return the same settings under another consumer name
+     */
+    public TransportConfig withConsumer(String consumer) {
+        return new TransportConfig(transport, group, consumer, batchSize, block, maxLen, startId);
+    }
+
+    public boolean isStreams() {
+        return transport == Transport.STREAMS;
+    }
+
+    /**
+     * @return {@code XADD} arguments that trim the stream to about {@link #maxLen()}
+     *         entries — approximate trimming only drops whole radix-tree nodes, so it is cheap
+     */
+    public XAddArgs xaddArgs() {
+        return XAddArgs.Builder.maxlen(maxLen).approximateTrimming();
+    }
+}
@@ -30,6 +30,14 @@ public final class JsonUtil {
         }
     }
 
+    public static byte[] toJsonBytes(Object obj) {
+        try {
+            return MAPPER.writeValueAsBytes(obj);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to serialize object to JSON", e);
+        }
+    }
+
     public static <T> T fromJson(String json, Class<T> clazz) {
         try {
             return MAPPER.readValue(json, clazz);
@@ -37,4 +45,12 @@ public final class JsonUtil {
             throw new RuntimeException("Failed to deserialize JSON to " + clazz.getSimpleName(), e);
         }
     }
+
+    public static <T> T fromJson(byte[] json, Class<T> clazz) {
+        try {
+            return MAPPER.readValue(json, clazz);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to deserialize JSON to " + clazz.getSimpleName(), e);
+        }
+    }
 }
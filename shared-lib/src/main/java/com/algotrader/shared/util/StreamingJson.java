@@ -0,0 +1,405 @@
+package com.algotrader.shared.util;
+
+import com.algotrader.shared.model.Fill;
+import com.algotrader.shared.model.Price;
+import com.algotrader.shared.model.Signal;
+import com.algotrader.shared.model.SignalType;
+import com.algotrader.shared.model.Tick;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand-rolled {@link Tick} / {@link Signal} JSON reader and writer, and
+ * {@link Fill} writer, on Jackson's streaming {@link JsonParser} /
+ * {@link JsonGenerator}.
+ * <p>
+ * Produces and accepts exactly the JSON that {@link JsonUtil} does for these
+ * records, but skips databind: prices are parsed from the parser's character
+ * buffer straight into a fixed-point mantissa and scale, ISO-8601 timestamps
+ * are parsed (both with {@link TextParser}) and formatted without
+ * intermediate strings, and each thread
+ * reuses its output buffers. Anything outside the fast paths (exotic
+ * timestamps, prices beyond 18 digits) falls back to the JDK parsers.
+ * </p>
+ */
+public final class StreamingJson {
+
+    private static final JsonFactory FACTORY = JsonUtil.mapper().getFactory();
+
+    private static final String SYMBOL = "symbol";
+    private static final String PRICE = "price";
+    private static final String TIMESTAMP = "timestamp";
+    private static final String TYPE = "type";
+    private static final String STRATEGY = "strategy";
+    private static final String ORDER_ID = "orderId";
+    private static final String SIDE = "side";
+    private static final String QUANTITY = "quantity";
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private StreamingJson() {
+        // utility class
+    }
+
+    /** Per-thread reusable buffers and multi-value parse results. */
+    private static final class Scratch {
+        final ByteArrayBuilder bytes = new ByteArrayBuilder(256);
+        final char[] isoChars = new char[32];
+        final StringBuilder priceText = new StringBuilder(32);
+        final char[] priceChars = new char[32];
+        final TextParser text = new TextParser();
+        int scale;
+    }
+
+    // ── Readers ────────────────────────────────────────────────────────
+
+    public static Tick readTick(byte[] json) {
+        return readTick(json, null);
+    }
+
+    public static Tick readTick(String json) {
+        return readTick(json.getBytes(StandardCharsets.UTF_8), null);
+    }
+
+    /**
+     * @param fallbackTimestamp used when the payload has no {@code timestamp}
+     *                          field (e.g. exchange ticker responses)
+     */
+    public static Tick readTick(byte[] json, Instant fallbackTimestamp) {
+        Scratch scratch = SCRATCH.get();
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            expectStartObject(parser);
+            return readTickFields(parser, scratch, fallbackTimestamp);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to deserialize JSON to Tick", e);
+        }
+    }
+
+    /**
+     * Reads a JSON array of tick objects, e.g. the Binance batch
+     * {@code /ticker/price} response.
+     *
+     * @param fallbackTimestamp used for elements without a {@code timestamp} field
+     */
+    public static List<Tick> readTicks(byte[] json, Instant fallbackTimestamp) {
+        Scratch scratch = SCRATCH.get();
+        List<Tick> ticks = new ArrayList<>();
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                ticks.add(readTickFields(parser, scratch, fallbackTimestamp));
+            }
+            if (token != JsonToken.END_ARRAY) {
+                throw new IOException("Expected a JSON object or end of array");
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to deserialize JSON to Tick list", e);
+        }
+        return ticks;
+    }
+
+    public static Signal readSignal(byte[] json) {
+        Scratch scratch = SCRATCH.get();
+        SignalType type = null;
+        String symbol = null;
+        long price = Price.NONE;
+        int scale = 0;
+        String strategy = null;
+        Instant timestamp = null;
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            expectStartObject(parser);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case TYPE -> type = value == JsonToken.VALUE_NULL ? null : SignalType.valueOf(parser.getText());
+                    case SYMBOL -> symbol = textOrNull(parser, value);
+                    case PRICE -> {
+                        price = readPrice(parser, value, scratch);
+                        scale = scratch.scale;
+                    }
+                    case STRATEGY -> strategy = textOrNull(parser, value);
+                    case TIMESTAMP -> timestamp = readInstant(parser, value, scratch);
+                    default -> parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to deserialize JSON to Signal", e);
+        }
+        return new Signal(type, symbol, price, scale, strategy, timestamp);
+    }
+
+    // ── Writers ────────────────────────────────────────────────────────
+
+    public static byte[] toJsonBytes(Tick tick) {
+        Scratch scratch = SCRATCH.get();
+        try (JsonGenerator gen = FACTORY.createGenerator(scratch.bytes)) {
+            gen.writeStartObject();
+            writeString(gen, SYMBOL, tick.symbol());
+            writePrice(gen, tick.priceMantissa(), tick.priceScale(), scratch);
+            writeInstant(gen, tick.timestamp(), scratch);
+            gen.writeEndObject();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to serialize Tick to JSON", e);
+        }
+        return drain(scratch.bytes);
+    }
+
+    public static String toJson(Tick tick) {
+        return new String(toJsonBytes(tick), StandardCharsets.UTF_8);
+    }
+
+    public static byte[] toJsonBytes(Signal signal) {
+        Scratch scratch = SCRATCH.get();
+        try (JsonGenerator gen = FACTORY.createGenerator(scratch.bytes)) {
+            gen.writeStartObject();
+            writeString(gen, TYPE, signal.type() == null ? null : signal.type().name());
+            writeString(gen, SYMBOL, signal.symbol());
+            writePrice(gen, signal.priceMantissa(), signal.priceScale(), scratch);
+            writeString(gen, STRATEGY, signal.strategy());
+            writeInstant(gen, signal.timestamp(), scratch);
+            gen.writeEndObject();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to serialize Signal to JSON", e);
+        }
+        return drain(scratch.bytes);
+    }
+
+    public static String toJson(Signal signal) {
+        return new String(toJsonBytes(signal), StandardCharsets.UTF_8);
+    }
+
+    public static byte[] toJsonBytes(Fill fill) {
+        Scratch scratch = SCRATCH.get();
+        try (JsonGenerator gen = FACTORY.createGenerator(scratch.bytes)) {
+            gen.writeStartObject();
+            gen.writeNumberField(ORDER_ID, fill.orderId());
+            writeString(gen, SIDE, fill.side() == null ? null : fill.side().name());
+            writeString(gen, SYMBOL, fill.symbol());
+            writeDecimal(gen, PRICE, fill.priceMantissa(), fill.priceScale(), scratch);
+            writeDecimal(gen, QUANTITY, fill.quantityMantissa(), fill.quantityScale(), scratch);
+            writeString(gen, STRATEGY, fill.strategy());
+            writeInstant(gen, fill.timestamp(), scratch);
+            gen.writeEndObject();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to serialize Fill to JSON", e);
+        }
+        return drain(scratch.bytes);
+    }
+
+    public static String toJson(Fill fill) {
+        return new String(toJsonBytes(fill), StandardCharsets.UTF_8);
+    }
+
+    // ── Field helpers ──────────────────────────────────────────────────
+
+    private static void expectStartObject(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a JSON object");
+        }
+    }
+
+    /** Reads the fields of a tick object whose {@code START_OBJECT} was just consumed. */
+    private static Tick readTickFields(JsonParser parser, Scratch scratch, Instant fallbackTimestamp)
+            throws IOException {
+        String symbol = null;
+        long price = Price.NONE;
+        int scale = 0;
+        Instant timestamp = fallbackTimestamp;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case SYMBOL -> symbol = textOrNull(parser, value);
+                case PRICE -> {
+                    price = readPrice(parser, value, scratch);
+                    scale = scratch.scale;
+                }
+                case TIMESTAMP -> timestamp = readInstant(parser, value, scratch);
+                default -> parser.skipChildren();
+            }
+        }
+        return new Tick(symbol, price, scale, timestamp);
+    }
+
+    private static String textOrNull(JsonParser parser, JsonToken value) throws IOException {
+        return value == JsonToken.VALUE_NULL ? null : parser.getText();
+    }
+
+    private static byte[] drain(ByteArrayBuilder bytes) {
+        byte[] out = bytes.toByteArray();
+        bytes.reset();
+        return out;
+    }
+
+    private static void writeString(JsonGenerator gen, String field, String value) throws IOException {
+        gen.writeFieldName(field);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(value);
+        }
+    }
+
+    private static void writePrice(JsonGenerator gen, long mantissa, int scale, Scratch scratch) throws IOException {
+        writeDecimal(gen, PRICE, mantissa, scale, scratch);
+    }
+
+    private static void writeDecimal(JsonGenerator gen, String field, long mantissa, int scale, Scratch scratch)
+            throws IOException {
+        gen.writeFieldName(field);
+        if (mantissa == Price.NONE) {
+            gen.writeNull();
+            return;
+        }
+        StringBuilder text = scratch.priceText;
+        text.setLength(0);
+        Price.appendTo(text, mantissa, scale);
+        int length = text.length();
+        text.getChars(0, length, scratch.priceChars, 0);
+        gen.writeNumber(scratch.priceChars, 0, length);
+    }
+
+    private static void writeInstant(JsonGenerator gen, Instant instant, Scratch scratch) throws IOException {
+        gen.writeFieldName(TIMESTAMP);
+        if (instant == null) {
+            gen.writeNull();
+            return;
+        }
+        int length = formatIsoInstant(instant, scratch.isoChars);
+        if (length < 0) {
+            gen.writeString(instant.toString());
+        } else {
+            gen.writeString(scratch.isoChars, 0, length);
+        }
+    }
+
+    // ── Prices ─────────────────────────────────────────────────────────
+
+    /**
+     * Reads a price given either as a JSON string (exchange style) or number
+     * (databind style).
+     *
+     * @return the mantissa ({@link Price#NONE} for {@code null}), with the scale left in {@code scratch.scale}
+     * @throws ArithmeticException if the unscaled price does not fit in a {@code long}
+     */
+    private static long readPrice(JsonParser parser, JsonToken value, Scratch scratch) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            scratch.scale = 0;
+            return Price.NONE;
+        }
+        char[] chars = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        int length = parser.getTextLength();
+        TextParser text = scratch.text;
+        if (text.parseDecimal(chars, offset, length)) {
+            scratch.scale = text.scale();
+            return text.mantissa();
+        }
+        BigDecimal price = new BigDecimal(chars, offset, length);
+        scratch.scale = price.scale();
+        return Price.mantissa(price);
+    }
+
+    // ── Timestamps ─────────────────────────────────────────────────────
+
+    /**
+     * Reads an ISO-8601 string, or a number of epoch seconds (as
+     * JavaTimeModule does).
+     */
+    private static Instant readInstant(JsonParser parser, JsonToken value, Scratch scratch) throws IOException {
+        switch (value) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_NUMBER_INT:
+                return Instant.ofEpochSecond(parser.getLongValue());
+            case VALUE_NUMBER_FLOAT: {
+                BigDecimal seconds = parser.getDecimalValue();
+                long whole = seconds.longValue();
+                int nanos = seconds.subtract(BigDecimal.valueOf(whole)).movePointRight(9).intValue();
+                return Instant.ofEpochSecond(whole, nanos);
+            }
+            default: {
+                char[] chars = parser.getTextCharacters();
+                int offset = parser.getTextOffset();
+                int length = parser.getTextLength();
+                Instant fast = TextParser.parseIsoInstant(chars, offset, length);
+                return fast != null ? fast : Instant.parse(new String(chars, offset, length));
+            }
+        }
+    }
+
+    /**
+     * Formats an instant exactly like {@link java.time.format.DateTimeFormatter#ISO_INSTANT}.
+     *
+     * @return the number of chars written, or {@code -1} if the year is outside 0000-9999
+     */
+    static int formatIsoInstant(Instant instant, char[] out) {
+        long epochSecond = instant.getEpochSecond();
+        long epochDay = Math.floorDiv(epochSecond, 86_400L);
+        int secondOfDay = (int) Math.floorMod(epochSecond, 86_400L);
+
+        // civil_from_days (H. Hinnant)
+        long z = epochDay + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long doe = z - era * 146_097;
+        long yoe = (doe - doe / 1_460 + doe / 36_524 - doe / 146_096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        int day = (int) (doy - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        long year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 0 || year > 9999) {
+            return -1;
+        }
+
+        putDigits(out, 0, (int) year, 4);
+        out[4] = '-';
+        putDigits(out, 5, month, 2);
+        out[7] = '-';
+        putDigits(out, 8, day, 2);
+        out[10] = 'T';
+        putDigits(out, 11, secondOfDay / 3_600, 2);
+        out[13] = ':';
+        putDigits(out, 14, (secondOfDay / 60) % 60, 2);
+        out[16] = ':';
+        putDigits(out, 17, secondOfDay % 60, 2);
+        int pos = 19;
+        int nanos = instant.getNano();
+        if (nanos != 0) {
+            out[pos++] = '.';
+            if (nanos % 1_000_000 == 0) {
+                putDigits(out, pos, nanos / 1_000_000, 3);
+                pos += 3;
+            } else if (nanos % 1_000 == 0) {
+                putDigits(out, pos, nanos / 1_000, 6);
+                pos += 6;
+            } else {
+                putDigits(out, pos, nanos, 9);
+                pos += 9;
+            }
+        }
+        out[pos++] = 'Z';
+        return pos;
+    }
+
+    private static void putDigits(char[] out, int off, int value, int count) {
+        for (int i = off + count - 1; i >= off; i--) {
+            out[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
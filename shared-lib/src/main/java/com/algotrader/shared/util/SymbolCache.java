@@ -0,0 +1,71 @@
+package com.algotrader.shared.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Turns symbol bytes read from a buffer into {@code String}s, handing back
+ * the same instance for a symbol seen before.
+ * <p>
+ * A direct-mapped cache over the bytes' hash: a hit costs a hash and a
+ * compare and allocates nothing, a miss (or a collision) allocates the
+ * {@code String} and takes the slot. Non-ASCII symbols are decoded as UTF-8
+ * and never cached.
+ * </p>
+ * Not thread-safe — each cache is owned by one reader.
+ */
+public final class SymbolCache {
+
+    /** Slots in a cache built with the no-argument constructor. */
+    public static final int DEFAULT_SIZE = 1024;
+
+    private final String[] slots;
+    private final int mask;
+
+    public SymbolCache() {
+        this(DEFAULT_SIZE);
+    }
+
+    /**
+     * @param size number of slots, a power of two
+     */
+    public SymbolCache(int size) {
+        if (size <= 0 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("Symbol cache size must be a power of two, got: " + size);
+        }
+        this.slots = new String[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * @return the symbol in {@code buf[from, from + length)}
+     */
+    public String symbol(byte[] buf, int from, int length) {
+        int hash = length;
+        for (int i = from; i < from + length; i++) {
+            if (buf[i] < 0) {
+                return new String(buf, from, length, StandardCharsets.UTF_8);
+            }
+            hash = 31 * hash + buf[i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        String cached = slots[slot];
+        if (cached != null && matches(cached, buf, from, length)) {
+            return cached;
+        }
+        String symbol = new String(buf, from, length, StandardCharsets.US_ASCII);
+        slots[slot] = symbol;
+        return symbol;
+    }
+
+    private static boolean matches(String cached, byte[] buf, int from, int length) {
+        if (cached.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (cached.charAt(i) != buf[from + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
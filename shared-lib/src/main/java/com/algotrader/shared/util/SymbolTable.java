@@ -0,0 +1,143 @@
+package com.algotrader.shared.util;
+
+/**
+ * Interns trading-pair symbols to dense {@code int} IDs in {@code [0, capacity)}.
+ * <p>
+ * IDs are meant to index primitive arrays of per-symbol state, so a lookup is
+ * a single open-addressing probe over {@link String#hashCode()} (cached by the
+ * JVM) instead of a boxed {@code HashMap} entry. Released IDs are recycled,
+ * which keeps the ID space — and every array sized by it — bounded.
+ * </p>
+ * Not thread-safe — each table is owned by a single consumer thread.
+ */
+public final class SymbolTable {
+
+    /** Returned by lookups when the symbol is not interned. */
+    public static final int NO_ID = -1;
+
+    private final int capacity;
+    private final int mask;
+    private final String[] slotKeys;
+    private final int[] slotIds;
+
+    private final String[] symbols;
+    private final int[] freeIds;
+    private int freeCount;
+    private int nextId;
+    private int size;
+
+    /**
+     * @param capacity the maximum number of symbols interned at once (must be ≥ 1)
+     */
+    public SymbolTable(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Symbol table capacity must be > 0, got: " + capacity);
+        }
+        this.capacity = capacity;
+        // Keep the load factor ≤ 0.5 so linear probes stay short
+        int slots = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1) << 1;
+        this.mask = slots - 1;
+        this.slotKeys = new String[slots];
+        this.slotIds = new int[slots];
+        this.symbols = new String[capacity];
+        this.freeIds = new int[capacity];
+    }
+
+    /**
+     * @return the ID of {@code symbol}, or {@link #NO_ID} if it is not interned
+     */
+    public int idOf(String symbol) {
+        for (int slot = slotOf(symbol); ; slot = (slot + 1) & mask) {
+            String key = slotKeys[slot];
+            if (key == null) {
+                return NO_ID;
+            }
+            if (key.equals(symbol)) {
+                return slotIds[slot];
+            }
+        }
+    }
+
+    /**
+     * Returns the ID of {@code symbol}, assigning a new one if necessary.
+     *
+     * @return the symbol's ID, or {@link #NO_ID} if the table is full
+     */
+    public int intern(String symbol) {
+        int slot = slotOf(symbol);
+        for (; ; slot = (slot + 1) & mask) {
+            String key = slotKeys[slot];
+            if (key == null) {
+                break;
+            }
+            if (key.equals(symbol)) {
+                return slotIds[slot];
+            }
+        }
+        if (size == capacity) {
+            return NO_ID;
+        }
+        int id = freeCount > 0 ? freeIds[--freeCount] : nextId++;
+        slotKeys[slot] = symbol;
+        slotIds[slot] = id;
+        symbols[id] = symbol;
+        size++;
+        return id;
+    }
+
+    /**
+     * Removes the symbol with the given ID; the ID may be handed out again.
+     */
+    public void release(int id) {
+        String symbol = symbol(id);
+        if (symbol == null) {
+            return;
+        }
+        int slot = slotOf(symbol);
+        while (!symbol.equals(slotKeys[slot])) {
+            slot = (slot + 1) & mask;
+        }
+        removeSlot(slot);
+        symbols[id] = null;
+        freeIds[freeCount++] = id;
+        size--;
+    }
+
+    /**
+     * @return the symbol interned under {@code id}, or {@code null} if the ID is free
+     */
+    public String symbol(int id) {
+        return (id >= 0 && id < capacity) ? symbols[id] : null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private int slotOf(String symbol) {
+        int h = symbol.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Backward-shift deletion for linear probing — keeps every probe chain
+     * contiguous without tombstones.
+     */
+    private void removeSlot(int slot) {
+        int hole = slot;
+        for (int next = (hole + 1) & mask; slotKeys[next] != null; next = (next + 1) & mask) {
+            int home = slotOf(slotKeys[next]);
+            // Move the entry back if its home slot is not within (hole, next]
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                slotKeys[hole] = slotKeys[next];
+                slotIds[hole] = slotIds[next];
+                hole = next;
+            }
+        }
+        slotKeys[hole] = null;
+    }
+}
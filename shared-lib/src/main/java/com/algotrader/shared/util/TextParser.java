@@ -0,0 +1,276 @@
+package com.algotrader.shared.util;
+
+import com.algotrader.shared.model.Price;
+
+import java.time.Instant;
+
+/**
+ * Allocation-free parsers for the decimals and ISO-8601 timestamps found in
+ * market data text — JSON payloads ({@link StreamingJson}) and CSV exports.
+ * <p>
+ * Text is read from a {@code char[]} range; byte input is widened into a
+ * buffer the parser reuses. Each parser recognises a common shape and
+ * reports anything else as not parsed ({@code false}, {@code null} or
+ * {@code -1}), leaving the caller to fall back to {@link java.math.BigDecimal}
+ * or {@link Instant#parse}, which either handle the input or reject it.
+ * </p>
+ * Not thread-safe — the decimal result and byte buffer belong to one thread.
+ */
+public final class TextParser {
+
+    private static final int MAX_MANTISSA_DIGITS = 18;
+    private static final int MAX_BYTES = 64;
+
+    private static final long[] POW10 = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L
+    };
+
+    private final char[] chars = new char[MAX_BYTES];
+    private long mantissa;
+    private int scale;
+
+    // ── Decimals ───────────────────────────────────────────────────────
+
+    /**
+     * Parses {@code [+|-]digits[.digits][(e|E)[+|-]digits]} into a
+     * {@link Price} mantissa and scale, read back with {@link #mantissa()} and
+     * {@link #scale()}.
+     *
+     * @return {@code false} if the text is malformed or the mantissa needs more than 18 digits
+     */
+    public boolean parseDecimal(char[] c, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        boolean negative = i < end && c[i] == '-';
+        if (negative || (i < end && c[i] == '+')) {
+            i++;
+        }
+        long value = 0;
+        int digits = 0;
+        int fraction = 0;
+        boolean seenDot = false;
+        boolean any = false;
+        for (; i < end; i++) {
+            char ch = c[i];
+            if (ch >= '0' && ch <= '9') {
+                any = true;
+                if (value != 0 || ch != '0') {
+                    if (++digits > MAX_MANTISSA_DIGITS) {
+                        return false;
+                    }
+                }
+                value = value * 10 + (ch - '0');
+                if (seenDot) {
+                    fraction++;
+                }
+            } else if (ch == '.' && !seenDot) {
+                seenDot = true;
+            } else if (ch == 'e' || ch == 'E') {
+                break;
+            } else {
+                return false;
+            }
+        }
+        if (!any) {
+            return false;
+        }
+        if (i < end) {
+            // exponent
+            i++;
+            boolean expNegative = i < end && c[i] == '-';
+            if (expNegative || (i < end && c[i] == '+')) {
+                i++;
+            }
+            if (i == end) {
+                return false;
+            }
+            int exponent = 0;
+            for (; i < end; i++) {
+                char ch = c[i];
+                if (ch < '0' || ch > '9' || exponent > 1000) {
+                    return false;
+                }
+                exponent = exponent * 10 + (ch - '0');
+            }
+            fraction -= expNegative ? -exponent : exponent;
+        }
+        mantissa = negative ? -value : value;
+        scale = fraction;
+        return true;
+    }
+
+    /**
+     * {@link #parseDecimal(char[], int, int)} over ASCII bytes.
+     */
+    public boolean parseDecimal(byte[] b, int offset, int length) {
+        return widen(b, offset, length) && parseDecimal(chars, 0, length);
+    }
+
+    /**
+     * @return the mantissa of the last decimal parsed
+     */
+    public long mantissa() {
+        return mantissa;
+    }
+
+    /**
+     * @return the scale of the last decimal parsed
+     */
+    public int scale() {
+        return scale;
+    }
+
+    // ── Timestamps ─────────────────────────────────────────────────────
+
+    /**
+     * Parses {@code yyyy-MM-dd(T| )HH:mm:ss[.f{1,9}](Z|±HH[[:]mm])} — ISO-8601
+     * as {@link Instant#toString()} writes it, and as PostgreSQL writes a
+     * {@code timestamptz} ({@code 2026-01-15 10:00:00.123+00}). The day is
+     * checked against the length of the month.
+     *
+     * @return the instant, or {@code null} if the text has any other shape or is not a valid date
+     */
+    public static Instant parseIsoInstant(char[] c, int off, int len) {
+        if (len < 20 || c[off + 4] != '-' || c[off + 7] != '-' || (c[off + 10] != 'T' && c[off + 10] != ' ')
+                || c[off + 13] != ':' || c[off + 16] != ':') {
+            return null;
+        }
+        int year = digits(c, off, 4);
+        int month = digits(c, off + 5, 2);
+        int day = digits(c, off + 8, 2);
+        int hour = digits(c, off + 11, 2);
+        int minute = digits(c, off + 14, 2);
+        int second = digits(c, off + 17, 2);
+        if ((year | month | day | hour | minute | second) < 0
+                || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour > 23 || minute > 59 || second > 59) {
+            return null;
+        }
+        int end = off + len;
+        int pos = off + 19;
+        int nanos = 0;
+        if (c[pos] == '.') {
+            int start = ++pos;
+            while (pos < end && c[pos] >= '0' && c[pos] <= '9') {
+                pos++;
+            }
+            int fractionDigits = pos - start;
+            if (fractionDigits < 1 || fractionDigits > 9) {
+                return null;
+            }
+            nanos = digits(c, start, fractionDigits) * (int) POW10[9 - fractionDigits];
+        }
+        int offsetSeconds;
+        if (pos == end - 1 && c[pos] == 'Z') {
+            offsetSeconds = 0;
+        } else if (pos < end && (c[pos] == '+' || c[pos] == '-')) {
+            int rest = end - pos - 1;
+            int hh = rest >= 2 ? digits(c, pos + 1, 2) : -1;
+            int mm = switch (rest) {
+                case 2 -> 0;
+                case 4 -> digits(c, pos + 3, 2);
+                case 5 -> c[pos + 3] == ':' ? digits(c, pos + 4, 2) : -1;
+                default -> -1;
+            };
+            if (hh < 0 || hh > 18 || mm < 0 || mm > 59) {
+                return null;
+            }
+            offsetSeconds = (c[pos] == '-' ? -1 : 1) * (hh * 3_600 + mm * 60);
+        } else {
+            return null;
+        }
+        long epochDay = daysFromCivil(year, month, day);
+        return Instant.ofEpochSecond(epochDay * 86_400L + hour * 3_600L + minute * 60L + second - offsetSeconds,
+                nanos);
+    }
+
+    /**
+     * {@link #parseIsoInstant(char[], int, int)} over ASCII bytes.
+     */
+    public Instant parseIsoInstant(byte[] b, int off, int len) {
+        return widen(b, off, len) ? parseIsoInstant(chars, 0, len) : null;
+    }
+
+    /**
+     * @return the number of days in {@code month} (1-12) of the proleptic Gregorian {@code year}
+     */
+    public static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /** days_from_civil (H. Hinnant): days since 1970-01-01 of a proleptic Gregorian date. */
+    static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yoe = y - era * 400;
+        long doy = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146_097 + doe - 719_468;
+    }
+
+    // ── Digits ─────────────────────────────────────────────────────────
+
+    /**
+     * @return the value of an unsigned run of at most 18 decimal digits, or
+     *         {@code -1} if the text is empty, longer, or not all digits
+     */
+    public static long parseUnsigned(char[] c, int off, int len) {
+        if (len < 1 || len > MAX_MANTISSA_DIGITS) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = off; i < off + len; i++) {
+            int d = c[i] - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    /**
+     * {@link #parseUnsigned(char[], int, int)} over ASCII bytes.
+     */
+    public long parseUnsigned(byte[] b, int off, int len) {
+        return widen(b, off, len) ? parseUnsigned(chars, 0, len) : -1;
+    }
+
+    /**
+     * @return the value of {@code count} decimal digits, or {@code -1} if any is not a digit
+     */
+    private static int digits(char[] c, int off, int count) {
+        int value = 0;
+        for (int i = off; i < off + count; i++) {
+            int d = c[i] - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    /**
+     * Copies ASCII bytes into {@link #chars}.
+     *
+     * @return {@code false} if they do not fit or are not all ASCII
+     */
+    private boolean widen(byte[] b, int off, int len) {
+        if (len > MAX_BYTES) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            byte x = b[off + i];
+            if (x < 0) {
+                return false;
+            }
+            chars[i] = (char) x;
+        }
+        return true;
+    }
+}
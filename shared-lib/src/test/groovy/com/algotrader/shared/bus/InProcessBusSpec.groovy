@@ -0,0 +1,170 @@
+package com.algotrader.shared.bus
+
+import com.algotrader.shared.model.Signal
+import com.algotrader.shared.model.SignalType
+import com.algotrader.shared.model.Tick
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class InProcessBusSpec extends Specification {
+
+    def conditions = new PollingConditions(timeout: 5)
+    def bus = new InProcessBus(16)
+
+    def cleanup() {
+        bus.close()
+    }
+
+    def "should hand the published record itself to every subscriber of its topic, in order"() {
+        given:
+        def engine = new CopyOnWriteArrayList<Tick>()
+        def execution = new CopyOnWriteArrayList<Tick>()
+        def signals = new CopyOnWriteArrayList<Signal>()
+        bus.subscribe(Topic.TICKS, "engine", { engine << it })
+        bus.subscribe(Topic.TICKS, "execution", { execution << it })
+        bus.subscribe(Topic.SIGNALS, "execution", { signals << it })
+        def ticks = (1..10).collect { Tick.of("BTCUSDT", new BigDecimal(it)) }
+
+        when:
+        ticks.each { bus.publish(Topic.TICKS, it) }
+
+        then: "both tick subscribers received the very same instances — nothing was copied or encoded"
+        conditions.eventually {
+            assert engine.size() == 10
+            assert execution.size() == 10
+        }
+        (0..<10).every { engine[it].is(ticks[it]) && execution[it].is(ticks[it]) }
+
+        and: "the signal subscriber saw nothing"
+        signals.isEmpty()
+        bus.published() == 10
+    }
+
+    def "should accept a publish with no subscribers"() {
+        when:
+        bus.publish(Topic.SIGNALS, Signal.of(SignalType.BUY, "BTCUSDT", 1L, 0, "SMA-5"))
+
+        then:
+        bus.published() == 1
+        bus.queued() == 0
+    }
+
+    def "should make the publisher wait when a subscriber's queue is full instead of dropping"() {
+        given: "a subscriber blocked on its first message"
+        def release = new CountDownLatch(1)
+        def received = new CopyOnWriteArrayList<Tick>()
+        def subscription = bus.subscribe(Topic.TICKS, "slow", {
+            release.await(5, TimeUnit.SECONDS)
+            received << it
+        })
+
+        when: "far more ticks than the queue holds are published from another thread"
+        def publisher = Thread.start {
+            (1..50).each { bus.publish(Topic.TICKS, Tick.of("ETHUSDT", new BigDecimal(it))) }
+        }
+
+        then: "the publisher ends up waiting"
+        conditions.eventually {
+            assert bus.backpressured() > 0
+        }
+        publisher.alive
+
+        when:
+        release.countDown()
+        publisher.join(5000)
+
+        then: "every tick arrives, in order"
+        conditions.eventually {
+            assert received*.price() == (1..50).collect { new BigDecimal(it) }
+        }
+        subscription.delivered() == 50
+        bus.dropped() == 0
+    }
+
+    def "should log and count a failing handler and keep delivering"() {
+        given:
+        def received = new CopyOnWriteArrayList<String>()
+        def subscription = bus.subscribe(Topic.TICKS, "flaky", { Tick tick ->
+            if (tick.symbol() == "BAD") {
+                throw new IllegalStateException("boom")
+            }
+            received << tick.symbol()
+        })
+
+        when:
+        ["BTCUSDT", "BAD", "ETHUSDT"].each { bus.publish(Topic.TICKS, Tick.of(it, BigDecimal.ONE)) }
+
+        then:
+        conditions.eventually {
+            assert received == ["BTCUSDT", "ETHUSDT"]
+        }
+        subscription.failed() == 1
+        subscription.delivered() == 3
+    }
+
+    def "should stop delivering to a closed subscription"() {
+        given:
+        def received = new CopyOnWriteArrayList<Tick>()
+        def subscription = bus.subscribe(Topic.TICKS, "gone", { received << it })
+        bus.publish(Topic.TICKS, Tick.of("BTCUSDT", BigDecimal.ONE))
+        conditions.eventually {
+            assert received.size() == 1
+        }
+
+        when:
+        subscription.close()
+        bus.publish(Topic.TICKS, Tick.of("BTCUSDT", BigDecimal.TEN))
+
+        then:
+        received.size() == 1
+        bus.published() == 2
+    }
+
+    def "should count a delivery that lands after its subscriber stopped draining as dropped"() {
+        given: "a publisher holding a snapshot of the subscribers taken before the close"
+        def subscription = bus.subscribe(Topic.TICKS, "late", {})
+        def snapshot = bus.subscribers.get(Topic.TICKS).toList()
+        subscription.close()
+
+        when:
+        snapshot.each { it.offer(Tick.of("BTCUSDT", BigDecimal.ONE)) }
+
+        then: "the message is not stranded in the queue, uncounted"
+        bus.dropped() == 1
+        snapshot.every { it.queue.isEmpty() }
+        subscription.delivered() == 0
+    }
+
+    def "should drain queued messages on close, then drop anything published afterwards"() {
+        given:
+        def received = new CopyOnWriteArrayList<Tick>()
+        bus.subscribe(Topic.TICKS, "drain", { received << it })
+        (1..5).each { bus.publish(Topic.TICKS, Tick.of("BTCUSDT", new BigDecimal(it))) }
+
+        when:
+        bus.close()
+        bus.publish(Topic.TICKS, Tick.of("BTCUSDT", BigDecimal.ZERO))
+
+        then:
+        received.size() == 5
+        bus.dropped() == 1
+
+        when:
+        bus.subscribe(Topic.TICKS, "late", {})
+
+        then:
+        thrown(IllegalStateException)
+    }
+
+    def "should reject a bad queue capacity up front"() {
+        when:
+        new InProcessBus(0)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
@@ -0,0 +1,150 @@
+package com.algotrader.shared.bus
+
+import com.algotrader.shared.codec.BinaryCodec
+import com.algotrader.shared.codec.WireFormat
+import com.algotrader.shared.model.Fill
+import com.algotrader.shared.model.Signal
+import com.algotrader.shared.model.SignalType
+import com.algotrader.shared.model.Tick
+import com.algotrader.shared.stream.Transport
+import com.algotrader.shared.stream.TransportConfig
+import com.algotrader.shared.util.StreamingJson
+import io.lettuce.core.RedisClient
+import io.lettuce.core.api.StatefulRedisConnection
+import io.lettuce.core.api.sync.RedisCommands
+import io.lettuce.core.pubsub.RedisPubSubListener
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection
+import io.lettuce.core.pubsub.api.sync.RedisPubSubCommands
+import spock.lang.Specification
+
+import java.time.Duration
+
+class RedisBusSpec extends Specification {
+
+    def commands = Mock(RedisCommands)
+    def connection = Mock(StatefulRedisConnection) { sync() >> commands }
+    def subCommands = Mock(RedisPubSubCommands)
+    def subConnection = Mock(StatefulRedisPubSubConnection) { sync() >> subCommands }
+    def client = Mock(RedisClient) {
+        connect(_) >> connection
+        connectPubSub(_) >> subConnection
+    }
+
+    def tick = Tick.of("BTCUSDT", new BigDecimal("42000.50"))
+
+    def "should publish ticks to the topic's channel in the configured wire format"() {
+        given:
+        def bus = new RedisBus(client, TransportConfig.pubSub(), format)
+
+        when:
+        bus.publish(Topic.TICKS, tick)
+
+        then:
+        1 * commands.publish("market_data", { byte[] payload -> payload == expected(tick) })
+        bus.publishLatency().count() == 1
+
+        where:
+        format            | expected
+        WireFormat.JSON   | { StreamingJson.toJsonBytes(it) }
+        WireFormat.BINARY | { BinaryCodec.encodeTick(it) }
+    }
+
+    def "should append to the topic's stream with the payload field when transport is streams"() {
+        given:
+        def transport = new TransportConfig(Transport.STREAMS, "group", "c-1", 16, Duration.ofMillis(10), 1000, '$')
+        def bus = new RedisBus(client, transport, WireFormat.BINARY)
+        def signal = Signal.of(SignalType.BUY, "BTCUSDT", 4200050L, 2, "SMA-5")
+
+        when:
+        bus.publish(Topic.SIGNALS, signal)
+
+        then:
+        1 * commands.xadd("trading_signals", _, TransportConfig.PAYLOAD_FIELD,
+                { byte[] payload -> payload == BinaryCodec.encodeSignal(signal) })
+        0 * commands.publish(*_)
+    }
+
+    def "should count a failed publish instead of throwing"() {
+        given:
+        def bus = new RedisBus(client, TransportConfig.pubSub(), WireFormat.JSON)
+        commands.publish(*_) >> { throw new RuntimeException("connection lost") }
+
+        when:
+        bus.publish(Topic.TICKS, tick)
+
+        then:
+        noExceptionThrown()
+        bus.failed() == 1
+    }
+
+    def "should reject a topic it has no wire codec for"() {
+        given:
+        def bus = new RedisBus(client, TransportConfig.pubSub(), WireFormat.JSON)
+
+        when:
+        bus.publish(new Topic<>("order_fills", Fill), null)
+
+        then:
+        def e = thrown(IllegalArgumentException)
+        e.message.contains("order_fills")
+    }
+
+    def "should decode either format and fan a channel's messages out to each of its subscribers"() {
+        given:
+        RedisPubSubListener<String, byte[]> listener = null
+        subConnection.addListener(_) >> { args -> listener = args[0] }
+        def bus = new RedisBus(client, TransportConfig.pubSub(), WireFormat.JSON)
+        def first = []
+        def second = []
+        def signals = []
+
+        when:
+        def a = bus.subscribe(Topic.TICKS, "engine", { first << it })
+        def b = bus.subscribe(Topic.TICKS, "execution", { second << it })
+        bus.subscribe(Topic.SIGNALS, "execution", { signals << it })
+
+        then: "each channel is subscribed once"
+        1 * subCommands.subscribe("market_data")
+        1 * subCommands.subscribe("trading_signals")
+
+        when:
+        listener.message("market_data", StreamingJson.toJsonBytes(tick))
+        listener.message("market_data", BinaryCodec.encodeTick(tick))
+
+        then:
+        first == [tick, tick]
+        second == [tick, tick]
+        signals.isEmpty()
+        a.delivered() == 2
+
+        when: "one subscriber leaves, then the other"
+        a.close()
+        b.close()
+
+        then: "the channel is unsubscribed only when nobody is left"
+        1 * subCommands.unsubscribe("market_data")
+    }
+
+    def "should count a message its handler cannot decode"() {
+        given:
+        RedisPubSubListener<String, byte[]> listener = null
+        subConnection.addListener(_) >> { args -> listener = args[0] }
+        def bus = new RedisBus(client, TransportConfig.pubSub(), WireFormat.JSON)
+        def subscription = bus.subscribe(Topic.TICKS, "engine", {})
+
+        when:
+        listener.message("market_data", "not json".bytes)
+
+        then:
+        subscription.failed() == 1
+    }
+
+    def "should report connectivity through PING"() {
+        given:
+        commands.ping() >> "PONG"
+        def bus = new RedisBus(client, TransportConfig.pubSub(), WireFormat.JSON)
+
+        expect:
+        bus.isConnected()
+    }
+}
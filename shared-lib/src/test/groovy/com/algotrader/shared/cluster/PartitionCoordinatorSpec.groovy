@@ -0,0 +1,210 @@
+package com.algotrader.shared.cluster
+
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.function.LongSupplier
+
+class PartitionCoordinatorSpec extends Specification {
+
+    static final Duration TTL = Duration.ofSeconds(9)
+    static final int PARTITIONS = 16
+
+    long now = 0L
+    LongSupplier clock = { now } as LongSupplier
+    def store = new InMemoryLeaseStore(clock: clock)
+    Map<String, Set<Integer>> consuming = [:].withDefault { new TreeSet<Integer>() }
+
+    def "should give a lone node every partition"() {
+        given:
+        def a = node("a")
+
+        when:
+        a.rebalance()
+
+        then:
+        a.owned() == (0..<PARTITIONS).toList()
+        consuming.a == (0..<PARTITIONS).toSet()
+        a.members() == 1
+    }
+
+    def "should hand partitions to a joining node without ever sharing one"() {
+        given:
+        def a = node("a")
+        def b = node("b")
+        a.rebalance()
+
+        when: "b joins: it registers, but a still holds every lease"
+        b.rebalance()
+
+        then:
+        b.owned().isEmpty()
+
+        when: "a sees b and hands its share over, and b picks it up"
+        a.rebalance()
+        b.rebalance()
+
+        then: "the partitions are split, each consumed exactly once"
+        !a.owned().isEmpty()
+        !b.owned().isEmpty()
+        (a.owned() + b.owned()).sort() == (0..<PARTITIONS).toList()
+        consuming.a.intersect(consuming.b).isEmpty()
+        a.revocations() == b.owned().size()
+    }
+
+    def "should only move the dead node's partitions once its leases expire"() {
+        given: "three nodes sharing the partitions"
+        def nodes = ["a", "b", "c"].collect { node(it) }
+        3.times { nodes*.rebalance() }
+        def before = nodes.collectEntries { [it.node(), it.owned()] }
+
+        when: "c dies, and a and b keep heartbeating past its TTL"
+        consuming.remove("c")
+        4.times {
+            now += TTL.toNanos().intdiv(3) + 1
+            nodes[0..1]*.rebalance()
+        }
+
+        then: "they take over c's partitions and keep their own"
+        nodes[0].owned().containsAll(before.a)
+        nodes[1].owned().containsAll(before.b)
+        (nodes[0].owned() + nodes[1].owned()).sort() == (0..<PARTITIONS).toList()
+        nodes[0].members() == 2
+    }
+
+    def "should release everything and leave on close"() {
+        given:
+        def a = node("a")
+        def b = node("b")
+        a.rebalance()
+        b.rebalance()
+
+        when:
+        a.close()
+        b.rebalance()
+
+        then: "b takes over straight away instead of after the TTL"
+        consuming.a.isEmpty()
+        b.owned() == (0..<PARTITIONS).toList()
+    }
+
+    def "should drop its partitions a round before their leases expire when it cannot renew"() {
+        given:
+        def a = node("a")
+        a.rebalance()
+        store.down = true
+        def safe = TTL.toNanos() - PartitionCoordinator.period(TTL).toNanos()
+
+        when: "the store is unreachable for less than the TTL less a round"
+        now += safe - 1
+        a.rebalance()
+
+        then:
+        a.owned().size() == PARTITIONS
+
+        when: "and then for longer"
+        now += 1
+        a.rebalance()
+
+        then:
+        a.owned().isEmpty()
+        consuming.a.isEmpty()
+        a.leasesLost() == PARTITIONS
+    }
+
+    def "should never still own a partition whose lease has expired"() {
+        given: "a node whose store starts answering slowly, then not at all"
+        def a = node("a")
+        a.rebalance()
+        def period = PartitionCoordinator.period(TTL).toNanos()
+        def timeout = PartitionCoordinator.storeTimeout(TTL).toNanos()
+        store.onCall = { now += timeout - 1 }
+
+        expect: "at every step, each partition still owned has a lease in the store that has not expired"
+        (1..40).every {
+            if (it == 10) {
+                store.down = true
+            }
+            now += period
+            a.rebalance()
+            a.owned().every { p -> store.leases["partition:$p"][0] == "a" && store.leases["partition:$p"][1] > now }
+        }
+        a.owned().isEmpty()
+        consuming.a.isEmpty()
+    }
+
+    def "should drop a lease it lost to another node"() {
+        given:
+        def a = node("a")
+        a.rebalance()
+
+        when: "a's lease on partition 0 expires and another node grabs it"
+        store.leases["partition:0"] = ["x", now + TTL.toNanos()]
+        a.rebalance()
+
+        then:
+        !(0 in a.owned())
+        a.leasesLost() == 1
+    }
+
+    private PartitionCoordinator node(String name) {
+        new PartitionCoordinator(name, PARTITIONS, store, TTL, new PartitionCoordinator.Listener() {
+            void assigned(int p) { assert consuming.values().every { !(p in it) }; consuming[name] << p }
+
+            void revoked(int p) { consuming[name].remove(p) }
+        }, clock)
+    }
+
+    /** A LeaseStore over maps, expiring entries by the spec's clock. */
+    static class InMemoryLeaseStore implements LeaseStore {
+        LongSupplier clock
+        boolean down
+        /** Runs before every call, e.g. to let time pass while it is in flight. */
+        Closure onCall = {}
+        Map<String, Long> members = [:]
+        Map<String, List> leases = [:]
+
+        List<String> heartbeat(String node, Duration ttl) {
+            check()
+            members.removeAll { it.value <= clock.asLong }
+            members[node] = clock.asLong + ttl.toNanos()
+            members.keySet().toList()
+        }
+
+        void leave(String node) { check(); members.remove(node) }
+
+        boolean acquire(String lease, String owner, Duration ttl) {
+            check()
+            def held = leases[lease]
+            if (held && held[1] > clock.asLong) {
+                return false
+            }
+            leases[lease] = [owner, clock.asLong + ttl.toNanos()]
+            true
+        }
+
+        boolean renew(String lease, String owner, Duration ttl) {
+            check()
+            def held = leases[lease]
+            if (!held || held[0] != owner || held[1] <= clock.asLong) {
+                return false
+            }
+            held[1] = clock.asLong + ttl.toNanos()
+            true
+        }
+
+        void release(String lease, String owner) {
+            check()
+            if (leases[lease]?.getAt(0) == owner) {
+                leases.remove(lease)
+            }
+        }
+
+        private void check() {
+            onCall()
+            if (down) {
+                throw new RuntimeException("connection refused")
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.algotrader.shared.cluster
+
+import spock.lang.Specification
+
+class PartitioningSpec extends Specification {
+
+    def "should map every symbol to one stable partition in range"() {
+        given:
+        def partitioning = new Partitioning(8)
+        def symbols = (0..<500).collect { "SYM${it}USDT".toString() }
+
+        expect:
+        symbols.every { partitioning.partitionOf(it) in 0..<8 }
+        symbols.every { partitioning.partitionOf(it) == new Partitioning(8).partitionOf(it) }
+
+        and: "symbols spread over all partitions"
+        symbols.collect { partitioning.partitionOf(it) }.toSet().size() == 8
+    }
+
+    def "should name each partition's channel after the base channel"() {
+        expect:
+        Partitioning.channel("market_data", 3) == "market_data:3"
+        new Partitioning(3).channels("market_data") as List == ["market_data:0", "market_data:1", "market_data:2"]
+    }
+
+    def "should reject a non-positive partition count"() {
+        when:
+        new Partitioning(0)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
@@ -0,0 +1,60 @@
+package com.algotrader.shared.cluster
+
+import io.lettuce.core.ScriptOutputType
+import io.lettuce.core.SetArgs
+import io.lettuce.core.api.sync.RedisCommands
+import spock.lang.Specification
+
+import java.time.Duration
+
+class RedisLeaseStoreSpec extends Specification {
+
+    def commands = Mock(RedisCommands)
+    def store = new RedisLeaseStore(commands, "algotrader:test")
+    def ttl = Duration.ofSeconds(10)
+
+    def "should acquire a lease only if nobody holds it"() {
+        when:
+        def acquired = store.acquire("partition:1", "node-a", ttl)
+
+        then:
+        1 * commands.set("algotrader:test:lease:partition:1", "node-a", _ as SetArgs) >> reply
+
+        and:
+        acquired == expected
+
+        where:
+        reply || expected
+        "OK"  || true
+        null  || false
+    }
+
+    def "should renew and release through owner-checking scripts"() {
+        when:
+        def renewed = store.renew("partition:1", "node-a", ttl)
+        store.release("partition:1", "node-a")
+
+        then:
+        1 * commands.eval({ it.contains("PEXPIRE") }, ScriptOutputType.INTEGER,
+                ["algotrader:test:lease:partition:1"] as String[], "node-a", "10000") >> 0L
+        1 * commands.eval({ it.contains("DEL") }, ScriptOutputType.INTEGER,
+                ["algotrader:test:lease:partition:1"] as String[], "node-a")
+
+        and: "a lease that moved on is not renewed"
+        !renewed
+    }
+
+    def "should heartbeat into the membership set and return the live nodes"() {
+        when:
+        def live = store.heartbeat("node-a", ttl)
+        store.leave("node-a")
+
+        then:
+        1 * commands.eval({ it.contains("ZADD") }, ScriptOutputType.MULTI,
+                ["algotrader:test:members"] as String[], "node-a", "10000") >> ["node-a", "node-b"]
+        1 * commands.zrem("algotrader:test:members", "node-a")
+
+        and:
+        live == ["node-a", "node-b"]
+    }
+}
@@ -0,0 +1,143 @@
+package com.algotrader.shared.codec
+
+import com.algotrader.shared.model.Signal
+import com.algotrader.shared.model.SignalType
+import com.algotrader.shared.model.Tick
+import com.algotrader.shared.util.JsonUtil
+import spock.lang.Specification
+
+import java.time.Instant
+
+class NegotiatingCodecSpec extends Specification {
+
+    def tick = new Tick("BTCUSDT", new BigDecimal("42000.50"), Instant.parse("2026-01-15T10:00:00.123456789Z"))
+    def signal = new Signal(SignalType.SELL, "ETHUSDT", new BigDecimal("2500.125"), "SMA-5",
+            Instant.parse("2026-01-15T10:00:01Z"))
+
+    def "should round-trip a Tick through the binary encoding"() {
+        when:
+        def bytes = BinaryCodec.encodeTick(tick)
+
+        then: "the payload is compact and decodes to an equal Tick"
+        bytes[0] == BinaryCodec.VERSION_1
+        bytes.length == 20 + "BTCUSDT".length()
+        BinaryCodec.decodeTick(bytes) == tick
+    }
+
+    def "should round-trip a Signal through the binary encoding"() {
+        expect:
+        BinaryCodec.decodeSignal(BinaryCodec.encodeSignal(signal)) == signal
+    }
+
+    def "should keep a null timestamp and negative scales"() {
+        given:
+        def odd = new Tick("X", new BigDecimal("1E+3"), null)
+
+        expect:
+        BinaryCodec.decodeTick(BinaryCodec.encodeTick(odd)) == odd
+    }
+
+    def "should encode in the configured format"() {
+        expect:
+        WireFormat.detect(NegotiatingCodec.ticks(format).encode(tick)) == format
+
+        where:
+        format << WireFormat.values()
+    }
+
+    def "should decode either format regardless of the outbound setting"() {
+        given: "a codec that emits binary"
+        def codec = NegotiatingCodec.ticks(WireFormat.BINARY)
+
+        expect: "legacy JSON and binary payloads both decode"
+        codec.decode(JsonUtil.toJson(tick).bytes) == tick
+        codec.decode(BinaryCodec.encodeTick(tick)) == tick
+    }
+
+    def "should decode signals in either format"() {
+        given:
+        def codec = NegotiatingCodec.signals(WireFormat.JSON)
+
+        expect:
+        codec.decode(codec.encode(signal)) == signal
+        codec.decode(BinaryCodec.encodeSignal(signal)) == signal
+    }
+
+    def "should reject payloads in an unknown format"() {
+        when:
+        WireFormat.detect([0x7F] as byte[])
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "should reject a Tick payload decoded as a Signal"() {
+        when:
+        BinaryCodec.decodeSignal(BinaryCodec.encodeTick(tick))
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "should reject every truncation of a binary Tick and Signal with a descriptive error"() {
+        given:
+        def tickBytes = BinaryCodec.encodeTick(tick)
+        def signalBytes = BinaryCodec.encodeSignal(signal)
+
+        expect:
+        (0..<tickBytes.length).every { n ->
+            rejects { BinaryCodec.decodeTick(Arrays.copyOf(tickBytes, n)) }
+        }
+        (0..<signalBytes.length).every { n ->
+            rejects { BinaryCodec.decodeSignal(Arrays.copyOf(signalBytes, n)) }
+        }
+    }
+
+    def "should reject trailing bytes, another version and unknown signal types"() {
+        given:
+        def padded = Arrays.copyOf(BinaryCodec.encodeTick(tick), 40)
+        def version2 = BinaryCodec.encodeTick(tick).tap { it[0] = 0x02 }
+        def unknownType = BinaryCodec.encodeSignal(signal).tap { it[2] = (byte) SignalType.values().length }
+
+        when:
+        BinaryCodec.decodeTick(padded)
+
+        then:
+        def e = thrown(MalformedPayloadException)
+        e.message.contains("40 byte(s)")
+
+        when:
+        BinaryCodec.decodeTick(version2)
+
+        then:
+        e = thrown(MalformedPayloadException)
+        e.message.contains("version 0x2")
+
+        when:
+        BinaryCodec.decodeSignal(unknownType)
+
+        then:
+        e = thrown(MalformedPayloadException)
+        e.message.contains("Unknown signal type")
+    }
+
+    def "should report a symbol length that overruns the payload"() {
+        given: "a signal whose symbol length byte claims more than is there"
+        def bytes = BinaryCodec.encodeSignal(signal).tap { it[20] = (byte) 200 }
+
+        when:
+        BinaryCodec.decodeSignal(bytes)
+
+        then:
+        thrown(MalformedPayloadException)
+    }
+
+    private static boolean rejects(Closure decode) {
+        try {
+            decode()
+            return false
+        } catch (MalformedPayloadException ignored) {
+            return true
+        }
+    }
+}
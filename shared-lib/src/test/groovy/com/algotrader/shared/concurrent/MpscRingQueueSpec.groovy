@@ -0,0 +1,93 @@
+package com.algotrader.shared.concurrent
+
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+
+class MpscRingQueueSpec extends Specification {
+
+    def "should round capacity up to a power of two"() {
+        expect:
+        new MpscRingQueue(requested).capacity() == actual
+
+        where:
+        requested || actual
+        1         || 1
+        3         || 4
+        1000      || 1024
+        1024      || 1024
+    }
+
+    def "should dequeue in FIFO order"() {
+        given:
+        def queue = new MpscRingQueue<Integer>(4)
+
+        when:
+        [1, 2, 3].each { queue.offer(it) }
+
+        then:
+        queue.size() == 3
+        queue.poll() == 1
+        queue.poll() == 2
+        queue.poll() == 3
+        queue.poll() == null
+        queue.isEmpty()
+    }
+
+    def "should reject offers when full and accept again after a poll"() {
+        given: "a full queue"
+        def queue = new MpscRingQueue<String>(2)
+        queue.offer("a")
+        queue.offer("b")
+
+        expect: "a further offer fails until space is freed"
+        !queue.offer("c")
+        queue.poll() == "a"
+        queue.offer("c")
+        queue.poll() == "b"
+        queue.poll() == "c"
+    }
+
+    def "should deliver every element exactly once with concurrent producers"() {
+        given: "four producers writing disjoint ranges into a small queue"
+        def queue = new MpscRingQueue<Integer>(64)
+        int producers = 4
+        int perProducer = 20_000
+        def start = new CountDownLatch(1)
+        def threads = (0..<producers).collect { p ->
+            Thread.start {
+                start.await()
+                for (int i = 0; i < perProducer; i++) {
+                    while (!queue.offer(p * perProducer + i)) {
+                        Thread.onSpinWait()
+                    }
+                }
+            }
+        }
+
+        when: "a single consumer drains the queue"
+        start.countDown()
+        def seen = new BitSet()
+        def lastPerProducer = new int[producers]
+        Arrays.fill(lastPerProducer, -1)
+        boolean ordered = true
+        int received = 0
+        while (received < producers * perProducer) {
+            Integer v = queue.poll()
+            if (v == null) {
+                continue
+            }
+            int p = v.intdiv(perProducer)
+            ordered &= v > lastPerProducer[p]
+            lastPerProducer[p] = v
+            seen.set(v)
+            received++
+        }
+        threads*.join()
+
+        then: "nothing was lost or duplicated and each producer's order was kept"
+        seen.cardinality() == producers * perProducer
+        ordered
+        queue.poll() == null
+    }
+}
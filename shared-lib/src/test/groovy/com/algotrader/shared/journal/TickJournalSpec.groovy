@@ -0,0 +1,167 @@
+package com.algotrader.shared.journal
+
+import com.algotrader.shared.model.Tick
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.time.Instant
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+
+class TickJournalSpec extends Specification {
+
+    @TempDir
+    Path dir
+
+    static final Instant T0 = Instant.parse("2026-01-15T10:00:00.123456789Z")
+
+    static Tick tick(String symbol, String price, long offsetMillis) {
+        new Tick(symbol, new BigDecimal(price), T0.plusMillis(offsetMillis))
+    }
+
+    def "should replay exactly what was appended"() {
+        given:
+        def ticks = [tick("BTCUSDT", "42000.50", 0), tick("ETHUSDT", "0.00000001", 1), tick("BTCUSDT", "-1.5", 2)]
+        def journal = new TickJournal(dir, 16, 4)
+        ticks.each { journal.append(it) }
+
+        when:
+        def replayed = []
+        def count = new JournalReader(dir).replay { replayed << it }
+
+        then:
+        count == 3
+        replayed == ticks
+        replayed[0].timestamp().nano == 123_456_789
+
+        and: "repeated symbols come back as the same String"
+        replayed[0].symbol().is(replayed[2].symbol())
+    }
+
+    def "should roll to a new segment file when one fills up"() {
+        given:
+        def journal = new TickJournal(dir, 4, 2)
+
+        when:
+        10.times { journal.append(tick("BTCUSDT", "$it", it)) }
+
+        then:
+        journal.segment() == 2
+        Files.list(dir).count() == 3
+
+        and:
+        def prices = []
+        new JournalReader(dir).replay { prices << it.price() }
+        prices == (0..9).collect { new BigDecimal(it) }
+    }
+
+    def "should continue after the last committed record when reopened"() {
+        given:
+        def first = new TickJournal(dir, 8, 2)
+        3.times { first.append(tick("BTCUSDT", "$it", it)) }
+        first.close()
+
+        when:
+        def second = new TickJournal(dir, 8, 2)
+        second.append(tick("BTCUSDT", "3", 3))
+
+        then:
+        def prices = []
+        new JournalReader(dir).replay { prices << it.price().intValue() }
+        prices == [0, 1, 2, 3]
+    }
+
+    def "should let a tailer pick up records as they are committed"() {
+        given:
+        def journal = new TickJournal(dir, 64, 8)
+        def reader = new JournalReader(dir)
+        def symbols = []
+
+        expect:
+        reader.poll({ s, m, sc, ts -> symbols << s }, 100) == 0
+
+        when:
+        journal.append("BTCUSDT", 100, 0, 1)
+        journal.append("ETHUSDT", 200, 0, 2)
+
+        then:
+        reader.poll({ s, m, sc, ts -> symbols << s }, 100) == 2
+        symbols == ["BTCUSDT", "ETHUSDT"]
+        reader.poll({ s, m, sc, ts -> symbols << s }, 100) == 0
+    }
+
+    def "should tail a concurrent writer across segment boundaries without losing records"() {
+        given:
+        def journal = new TickJournal(dir, 1000, 100)
+        def reader = new JournalReader(dir)
+        def seen = new CopyOnWriteArrayList<Long>()
+        def started = new CountDownLatch(1)
+        def writer = Thread.start {
+            started.countDown()
+            for (long i = 0; i < 25_000; i++) {
+                journal.append("BTCUSDT", i, 0, i)
+            }
+        }
+
+        when:
+        started.await()
+        long deadline = System.currentTimeMillis() + 10_000
+        while (seen.size() < 25_000 && System.currentTimeMillis() < deadline) {
+            reader.poll({ s, m, sc, ts -> seen << m }, 1000)
+        }
+        writer.join()
+
+        then:
+        seen.size() == 25_000
+        seen == (0L..<25_000L).toList()
+    }
+
+    def "should seek to the first tick at or after a time using the segment time index"() {
+        given: "ticks one second apart spread over several segments"
+        def journal = new TickJournal(dir, 50, 8)
+        200.times { journal.append(tick("BTCUSDT", "$it", it * 1000L)) }
+        def reader = new JournalReader(dir)
+
+        when:
+        reader.seek(T0.plusMillis(123_500))
+        def first = null
+        reader.poll({ s, m, sc, ts -> first = m }, 1)
+
+        then:
+        first == 124
+        reader.segment() == 2
+    }
+
+    def "should reject symbols that do not fit a record"() {
+        given:
+        def journal = new TickJournal(dir, 4, 2)
+
+        when:
+        journal.append("X" * 41, 1, 0, 0)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "should stay usable after rejecting a non-ASCII symbol"() {
+        given:
+        def journal = new TickJournal(dir, 4, 2)
+
+        when:
+        journal.append(tick("BTCÜSDT", "1", 0))
+
+        then:
+        thrown(IllegalArgumentException)
+
+        when:
+        journal.append(tick("BTCUSDT", "2", 1))
+
+        then:
+        def replayed = []
+        new JournalReader(dir).replay { replayed << it }
+        replayed*.symbol() == ["BTCUSDT"]
+        journal.written() == 1
+    }
+}
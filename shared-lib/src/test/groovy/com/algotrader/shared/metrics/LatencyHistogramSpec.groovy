@@ -0,0 +1,112 @@
+package com.algotrader.shared.metrics
+
+import spock.lang.Specification
+
+import java.time.Instant
+import java.util.concurrent.CountDownLatch
+
+class LatencyHistogramSpec extends Specification {
+
+    def "should map values to contiguous buckets within 1/64 of the value"() {
+        given:
+        def values = (0L..5_000L) + (1..39).collectMany { int bits ->
+            long p = 1L << bits
+            [p - 1, p, p + 1, p + (p >> 1), (long) (p * 1.9)]
+        } + [LatencyHistogram.MAX_TRACKABLE_NANOS]
+
+        expect: "every value lies inside its bucket, which is at most 1/64 of it wide"
+        values.every { long v ->
+            int b = LatencyHistogram.bucketOf(v)
+            long high = LatencyHistogram.highestValueOf(b)
+            long low = b == 0 ? 0 : LatencyHistogram.highestValueOf(b - 1) + 1
+            low <= v && v <= high && (high - low) <= Math.max(0L, v.intdiv(64))
+        }
+
+        and: "bucket indexes never skip"
+        (1..<4_096).every { LatencyHistogram.bucketOf(it) - LatencyHistogram.bucketOf(it - 1) <= 1 }
+    }
+
+    def "should report percentiles (as bucket bounds), mean and max of what was recorded"() {
+        given:
+        def histogram = new LatencyHistogram()
+
+        when: "1..10_000 µs"
+        (1..10_000).each { histogram.record(it * 1_000L) }
+
+        then:
+        histogram.count() == 10_000
+        histogram.max() == 10_000_000
+        histogram.mean() == 5_000_500d
+        within(histogram.valueAtPercentile(50), 5_000_000)
+        within(histogram.valueAtPercentile(99), 9_900_000)
+        within(histogram.valueAtPercentile(99.9), 9_990_000)
+        histogram.valueAtPercentile(100) == 10_000_000
+        within(histogram.valueAtPercentile(0), 1_000)
+    }
+
+    static boolean within(long actual, long expected) {
+        Math.abs(actual - expected) <= expected / 64
+    }
+
+    def "should clamp negative values to zero and keep outliers in the last bucket"() {
+        given:
+        def histogram = new LatencyHistogram()
+
+        when:
+        histogram.record(-5)
+        histogram.record(Long.MAX_VALUE)
+
+        then:
+        histogram.valueAtPercentile(50) == 0
+        histogram.max() == Long.MAX_VALUE
+        histogram.valueAtPercentile(100) >= LatencyHistogram.MAX_TRACKABLE_NANOS - LatencyHistogram.MAX_TRACKABLE_NANOS / 64
+    }
+
+    def "should report zero when empty and reject out-of-range percentiles"() {
+        given:
+        def histogram = new LatencyHistogram()
+
+        expect:
+        histogram.valueAtPercentile(99) == 0
+        histogram.mean() == 0
+
+        when:
+        histogram.valueAtPercentile(101)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "should measure the age of a wall-clock timestamp"() {
+        given:
+        def histogram = new LatencyHistogram()
+
+        when:
+        histogram.recordAgeOf(Instant.now().minusMillis(250))
+
+        then:
+        histogram.max() >= 250_000_000
+        histogram.max() < 10_000_000_000
+    }
+
+    def "should count every value recorded concurrently"() {
+        given:
+        def histogram = new LatencyHistogram()
+        def start = new CountDownLatch(1)
+        def threads = (1..4).collect { t ->
+            Thread.start {
+                start.await()
+                100_000.times { histogram.record(t * 1_000L + it % 100) }
+            }
+        }
+
+        when:
+        start.countDown()
+        threads*.join()
+
+        then:
+        histogram.count() == 400_000
+        histogram.max() == 4_099
+        histogram.valueAtPercentile(100) == 4_099
+    }
+}
@@ -0,0 +1,48 @@
+package com.algotrader.shared.metrics
+
+import spock.lang.Specification
+
+import java.util.concurrent.atomic.AtomicLong
+
+class MetricsRegistrySpec extends Specification {
+
+    def "should render counters, gauges and histograms in the Prometheus text format"() {
+        given:
+        def latency = new LatencyHistogram()
+        [1_000L, 2_000L, 1_500_000_000L].each { latency.record(it) }
+        def ticks = new AtomicLong(42)
+        def registry = new MetricsRegistry("algotrader_test")
+                .counter("ticks", "Ticks seen", ticks::get)
+                .gauge("depth", "Queue depth", { -> 7L })
+                .histogram("fetch_latency", "Fetch round trip", latency)
+
+        when:
+        ticks.incrementAndGet()
+        def lines = registry.scrape().readLines()
+
+        then:
+        lines[0..5] == [
+                "# HELP algotrader_test_ticks_total Ticks seen",
+                "# TYPE algotrader_test_ticks_total counter",
+                "algotrader_test_ticks_total 43",
+                "# HELP algotrader_test_depth Queue depth",
+                "# TYPE algotrader_test_depth gauge",
+                "algotrader_test_depth 7"]
+        lines.contains("# TYPE algotrader_test_fetch_latency_seconds summary")
+        lines.contains('algotrader_test_fetch_latency_seconds{quantile="0.5"} 0.000002015') // bucket bound
+        lines.find { it.startsWith('algotrader_test_fetch_latency_seconds{quantile="0.999"}') }
+                .endsWith(" 1.500000000")
+        lines.contains("algotrader_test_fetch_latency_seconds_sum 1.500003000")
+        lines.contains("algotrader_test_fetch_latency_seconds_count 3")
+        lines.contains("algotrader_test_fetch_latency_seconds_max 1.500000000")
+    }
+
+    def "should render an empty histogram as zeros"() {
+        when:
+        def text = new MetricsRegistry("").histogram("idle", "Nothing yet", new LatencyHistogram()).scrape()
+
+        then:
+        text.contains('idle_seconds{quantile="0.99"} 0.000000000')
+        text.contains("idle_seconds_count 0")
+    }
+}
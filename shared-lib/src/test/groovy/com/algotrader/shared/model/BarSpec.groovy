@@ -0,0 +1,47 @@
+package com.algotrader.shared.model
+
+import com.algotrader.shared.util.JsonUtil
+import spock.lang.Specification
+
+import java.time.Instant
+
+class BarSpec extends Specification {
+
+    def "should align bar starts to the epoch"() {
+        expect:
+        resolution.startOf(Instant.parse(time).toEpochMilli()) == Instant.parse(start).toEpochMilli()
+
+        where:
+        resolution    | time                       || start
+        Resolution.S1 | "2026-01-15T10:07:42.999Z" || "2026-01-15T10:07:42Z"
+        Resolution.M1 | "2026-01-15T10:07:42.999Z" || "2026-01-15T10:07:00Z"
+        Resolution.M5 | "2026-01-15T10:07:42.999Z" || "2026-01-15T10:05:00Z"
+        Resolution.H1 | "2026-01-15T10:07:42.999Z" || "2026-01-15T10:00:00Z"
+    }
+
+    def "should parse resolution labels and reject unknown ones"() {
+        expect:
+        Resolution.fromLabel("5m") == Resolution.M5
+
+        when:
+        Resolution.fromLabel("2m")
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "should serialize prices and volume as decimal JSON fields and read them back"() {
+        given:
+        def bar = new Bar("BTCUSDT", Resolution.M1, Instant.parse("2026-01-15T10:07:00Z"),
+                4200050L, 4210000L, 4190025L, 4200000L, 2, 150L, 2, 42, 1)
+
+        when:
+        def json = JsonUtil.toJson(bar)
+
+        then:
+        json == '{"symbol":"BTCUSDT","resolution":"1m","start":"2026-01-15T10:07:00Z","open":42000.50,' +
+                '"high":42100.00,"low":41900.25,"close":42000.00,"volume":1.50,"count":42,"revision":1}'
+        JsonUtil.fromJson(json, Bar) == bar
+        bar.end() == Instant.parse("2026-01-15T10:08:00Z")
+    }
+}
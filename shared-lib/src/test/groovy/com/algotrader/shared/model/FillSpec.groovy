@@ -0,0 +1,33 @@
+package com.algotrader.shared.model
+
+import com.algotrader.shared.util.JsonUtil
+import spock.lang.Specification
+
+import java.time.Instant
+
+class FillSpec extends Specification {
+
+    def "should expose fixed-point price and quantity as BigDecimals"() {
+        given:
+        def fill = new Fill(7, SignalType.BUY, "BTCUSDT", 4200050L, 2, 1L, 2, "SMA-5",
+                Instant.parse("2026-01-15T10:00:00Z"))
+
+        expect:
+        fill.price() == new BigDecimal("42000.50")
+        fill.quantity() == new BigDecimal("0.01")
+    }
+
+    def "should serialize price and quantity as decimal JSON fields and read them back"() {
+        given:
+        def fill = new Fill(7, SignalType.SELL, "BTCUSDT", new BigDecimal("42000.50"), new BigDecimal("0.01"),
+                "SMA-5", Instant.parse("2026-01-15T10:00:00Z"))
+
+        when:
+        def json = JsonUtil.toJson(fill)
+
+        then:
+        json == '{"orderId":7,"side":"SELL","symbol":"BTCUSDT","price":42000.50,"quantity":0.01,' +
+                '"strategy":"SMA-5","timestamp":"2026-01-15T10:00:00Z"}'
+        JsonUtil.fromJson(json, Fill) == fill
+    }
+}
@@ -0,0 +1,103 @@
+package com.algotrader.shared.model
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.math.RoundingMode
+
+class PriceSpec extends Specification {
+
+    @Unroll
+    def "should round-trip #text through mantissa and scale"() {
+        given:
+        def decimal = new BigDecimal(text)
+
+        when:
+        long mantissa = Price.mantissa(decimal)
+        int scale = Price.scale(decimal)
+
+        then:
+        Price.toBigDecimal(mantissa, scale) == decimal
+        Price.toString(mantissa, scale) == decimal.toString()
+
+        where:
+        text << ["42000.50", "0", "-0.001", "0.00000001", "0.0000001", "1E+3", "-123456789012345678",
+                 "9223372036854775807", "0.000000000000000001", "-3.5"]
+    }
+
+    def "should map null to the NONE mantissa and back"() {
+        expect:
+        Price.mantissa(null) == Price.NONE
+        Price.scale(null) == 0
+        Price.toBigDecimal(Price.NONE, 0) == null
+    }
+
+    def "should reject BigDecimals whose unscaled value exceeds a long"() {
+        when:
+        Price.mantissa(new BigDecimal("12345678901234567890.123"))
+
+        then:
+        thrown(ArithmeticException)
+    }
+
+    @Unroll
+    def "should rescale #text to #toScale with #mode exactly as setScale does"() {
+        given:
+        def decimal = new BigDecimal(text)
+
+        expect:
+        Price.rescale(decimal.unscaledValue().longValueExact(), decimal.scale(), toScale, mode) ==
+                decimal.setScale(toScale, mode).unscaledValue().longValueExact()
+
+        where:
+        [text, toScale, mode] << [
+                ["42000.125", "-42000.125", "0.5", "-0.5", "1.5", "2.5", "-2.5", "0.49", "123.456", "9.99999999"],
+                [0, 2, 8],
+                [RoundingMode.HALF_UP, RoundingMode.HALF_DOWN, RoundingMode.HALF_EVEN, RoundingMode.UP,
+                 RoundingMode.DOWN, RoundingMode.FLOOR, RoundingMode.CEILING]
+        ].combinations()
+    }
+
+    def "should round when every digit is dropped"() {
+        expect:
+        Price.rescale(9_000_000_000_000_000_000L, 19, 0, RoundingMode.HALF_UP) == 1
+        Price.rescale(4_000_000_000_000_000_000L, 19, 0, RoundingMode.HALF_UP) == 0
+        Price.rescale(-9_000_000_000_000_000_000L, 25, 0, RoundingMode.FLOOR) == -1
+        Price.rescale(9_000_000_000_000_000_000L, 25, 0, RoundingMode.HALF_UP) == 0
+    }
+
+    def "should refuse to drop digits or overflow without a rounding mode"() {
+        when:
+        Price.rescale(12345, 3, 2)
+
+        then:
+        thrown(ArithmeticException)
+
+        when:
+        Price.rescale(Long.MAX_VALUE, 0, 1)
+
+        then:
+        thrown(ArithmeticException)
+    }
+
+    def "should compare prices of different scales"() {
+        expect:
+        Math.signum(Price.compare(m1, s1, m2, s2)) ==
+                Math.signum(BigDecimal.valueOf(m1, s1).compareTo(BigDecimal.valueOf(m2, s2)))
+
+        where:
+        m1             | s1 | m2             | s2
+        4200050        | 2  | 42000500       | 3
+        4200050        | 2  | 42000499       | 3
+        -1             | 0  | 1              | 8
+        Long.MAX_VALUE | 0  | Long.MAX_VALUE | 18
+        Long.MAX_VALUE | 18 | 1              | 0
+        -5             | 1  | -49            | 2
+    }
+
+    def "should add and subtract at the larger scale"() {
+        expect:
+        Price.add(150, 2, 25, 1) == 400
+        Price.subtract(150, 2, 25, 1) == -100
+    }
+}
@@ -0,0 +1,122 @@
+package com.algotrader.shared.stream
+
+import io.lettuce.core.RedisBusyException
+import io.lettuce.core.StreamMessage
+import io.lettuce.core.XReadArgs
+import io.lettuce.core.api.StatefulRedisConnection
+import io.lettuce.core.api.sync.RedisCommands
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.time.Duration
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CopyOnWriteArrayList
+
+class RedisStreamConsumerSpec extends Specification {
+
+    def config = new TransportConfig(Transport.STREAMS, "strategy-engine", "engine-1", 2,
+            Duration.ofMillis(10), 1000, '$')
+    def conditions = new PollingConditions(timeout: 5)
+
+    def commands = Mock(RedisCommands)
+    def connection = Mock(StatefulRedisConnection) { sync() >> commands }
+
+    def received = new CopyOnWriteArrayList<String>()
+    def acks = new CopyOnWriteArrayList<List<String>>()
+    def offsets = new CopyOnWriteArrayList<String>()
+
+    static StreamMessage<String, byte[]> entry(String id, String payload) {
+        new StreamMessage<>("market_data", id, [(TransportConfig.PAYLOAD_FIELD): payload.bytes])
+    }
+
+    /** Serves scripted batches per offset, then empty reads. */
+    def serve(Map<String, List<List<StreamMessage>>> script) {
+        def queues = script.collectEntries { k, v -> [k, new ConcurrentLinkedQueue(v)] }
+        commands.xreadgroup(*_) >> { args ->
+            String offset = (args[2] as XReadArgs.StreamOffset[])[0].offset
+            offsets << offset
+            def next = queues[offset]?.poll()
+            if (next == null) {
+                Thread.sleep(5)
+                return []
+            }
+            next
+        }
+        commands.xack(*_) >> { args -> acks << (args[2] as String[]).toList(); (args[2] as String[]).length }
+    }
+
+    def "should replay its pending entries before reading new ones, acknowledging each batch at once"() {
+        given: "two entries left unacknowledged by a previous run and one new entry"
+        serve(["0"  : [[entry("1-0", "a"), entry("2-0", "b")]],
+               ">"  : [[entry("3-0", "c")]]])
+
+        when:
+        def consumer = new RedisStreamConsumer(connection, "market_data", config, { received << new String(it) })
+
+        then:
+        conditions.eventually {
+            assert received == ["a", "b", "c"]
+            assert consumer.consumed() == 3
+        }
+        acks[0] == ["1-0", "2-0"]
+        acks[1] == ["3-0"]
+        consumer.replayed() == 2
+
+        and: "the pending scan continued after the last replayed ID before switching to new entries"
+        offsets.take(3) == ["0", "2-0", ">"]
+
+        cleanup:
+        consumer?.close()
+    }
+
+    def "should create the group with MKSTREAM and tolerate one that already exists"() {
+        given:
+        serve([:])
+
+        when:
+        def consumer = new RedisStreamConsumer(connection, "market_data", config, {})
+
+        then:
+        1 * commands.xgroupCreate({ it.name == "market_data" && it.offset == '$' }, "strategy-engine", _) >> {
+            throw new RedisBusyException("BUSYGROUP Consumer Group name already exists")
+        }
+        noExceptionThrown()
+
+        cleanup:
+        consumer?.close()
+    }
+
+    def "should count handler failures and still acknowledge the entry"() {
+        given:
+        serve([">": [[entry("5-0", "bad"), entry("6-0", "good")]]])
+
+        when:
+        def consumer = new RedisStreamConsumer(connection, "market_data", config, { byte[] payload ->
+            if (new String(payload) == "bad") {
+                throw new IllegalStateException("boom")
+            }
+            received << new String(payload)
+        })
+
+        then:
+        conditions.eventually { assert consumer.consumed() == 2 }
+        consumer.failed() == 1
+        received == ["good"]
+        acks == [["5-0", "6-0"]]
+
+        cleanup:
+        consumer?.close()
+    }
+
+    def "should close its dedicated connection"() {
+        given:
+        serve([:])
+        def consumer = new RedisStreamConsumer(connection, "market_data", config, {})
+
+        when:
+        consumer.close()
+
+        then:
+        1 * connection.close()
+    }
+}
@@ -0,0 +1,130 @@
+package com.algotrader.shared.stream
+
+import io.lettuce.core.RedisClient
+import io.lettuce.core.api.StatefulRedisConnection
+import io.lettuce.core.api.sync.RedisCommands
+import io.lettuce.core.pubsub.RedisPubSubListener
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection
+import io.lettuce.core.pubsub.api.sync.RedisPubSubCommands
+import spock.lang.Specification
+
+import java.time.Duration
+
+class RedisTransportSpec extends Specification {
+
+    def commands = Mock(RedisCommands)
+    def connection = Mock(StatefulRedisConnection) { sync() >> commands }
+    def subCommands = Mock(RedisPubSubCommands)
+    def subConnection = Mock(StatefulRedisPubSubConnection) { sync() >> subCommands }
+    def client = Mock(RedisClient) {
+        connect(_) >> connection
+        connectPubSub(_) >> subConnection
+    }
+
+    def payload = '{"symbol":"BTCUSDT","price":"42000"}'.bytes
+
+    def "should publish a payload and time the round trip"() {
+        given:
+        def redis = new RedisTransport(client, TransportConfig.pubSub())
+
+        when:
+        redis.send("market_data", payload)
+
+        then:
+        1 * commands.publish("market_data", payload) >> 2L
+        0 * commands.xadd(*_)
+        redis.sendLatency().count() == 1
+    }
+
+    def "should append to the stream with the payload field when transport is streams"() {
+        given:
+        def config = new TransportConfig(Transport.STREAMS, "group", "c-1", 16, Duration.ofMillis(10), 1000, '$')
+        def redis = new RedisTransport(client, config)
+
+        when:
+        redis.send("market_data", payload)
+
+        then:
+        1 * commands.xadd("market_data", _, TransportConfig.PAYLOAD_FIELD, payload) >> "1-0"
+        0 * commands.publish(*_)
+    }
+
+    def "should throw a failed send to the caller"() {
+        given:
+        def redis = new RedisTransport(client, TransportConfig.pubSub())
+        commands.publish(*_) >> { throw new RuntimeException("connection lost") }
+
+        when:
+        redis.send("market_data", payload)
+
+        then:
+        thrown(RuntimeException)
+        redis.sendLatency().count() == 0
+    }
+
+    def "should share one subscription per channel between its receivers"() {
+        given:
+        RedisPubSubListener<String, byte[]> listener = null
+        subConnection.addListener(_) >> { args -> listener = args[0] }
+        def redis = new RedisTransport(client, TransportConfig.pubSub())
+        def first = []
+        def second = []
+
+        when:
+        def a = redis.receive("market_data", { first << it })
+        def b = redis.receive("market_data", { second << it })
+        redis.receive("trading_signals", { throw new IllegalStateException("boom") })
+
+        then: "each channel is subscribed once, on one subscriber connection"
+        1 * subCommands.subscribe("market_data")
+        1 * subCommands.subscribe("trading_signals")
+        !a.streamConsumer().isPresent()
+
+        when: "a failing handler does not stop delivery to the others"
+        listener.message("trading_signals", payload)
+        listener.message("market_data", payload)
+
+        then:
+        first == [payload]
+        second == [payload]
+
+        when: "one receiver leaves, then the other"
+        a.close()
+        b.close()
+        b.close()
+
+        then: "the channel is unsubscribed only when nobody is left"
+        1 * subCommands.unsubscribe("market_data")
+    }
+
+    def "should close the receivers still open when closed"() {
+        given:
+        def redis = new RedisTransport(client, TransportConfig.pubSub())
+        redis.receive("market_data", {})
+
+        when:
+        redis.close()
+
+        then:
+        1 * subCommands.unsubscribe("market_data")
+        1 * subConnection.close()
+        1 * connection.close()
+        1 * client.shutdown()
+    }
+
+    def "isConnected should return true when Redis responds with PONG"() {
+        given:
+        commands.ping() >> "PONG"
+
+        expect:
+        new RedisTransport(client, TransportConfig.pubSub()).isConnected()
+    }
+
+    def "isConnected should return false when Redis is unreachable"() {
+        given:
+        commands.ping() >> { throw new RuntimeException("Connection refused") }
+
+        expect:
+        !new RedisTransport(client, TransportConfig.pubSub()).isConnected()
+    }
+}
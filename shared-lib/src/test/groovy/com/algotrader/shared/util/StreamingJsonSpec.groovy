@@ -0,0 +1,179 @@
+package com.algotrader.shared.util
+
+import com.algotrader.shared.model.Fill
+import com.algotrader.shared.model.Signal
+import com.algotrader.shared.model.SignalType
+import com.algotrader.shared.model.Tick
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.time.DateTimeException
+import java.time.Instant
+import java.time.YearMonth
+
+class StreamingJsonSpec extends Specification {
+
+    @Unroll
+    def "should write the same Tick JSON as databind for price #price at #ts"() {
+        given:
+        def tick = new Tick("BTCUSDT", new BigDecimal(price), ts == null ? null : Instant.parse(ts))
+
+        expect: "byte-for-byte identical output"
+        StreamingJson.toJson(tick) == JsonUtil.toJson(tick)
+
+        where:
+        price          | ts
+        "42000.50"     | "2026-01-15T10:00:00Z"
+        "0.00000001"   | "2026-01-15T10:00:00.120Z"
+        "-3.5"         | "1999-12-31T23:59:59.123456Z"
+        "1E+3"         | "2026-02-28T00:00:00.000000001Z"
+        "123456789012" | null
+    }
+
+    def "should write the same Signal JSON as databind"() {
+        given:
+        def signal = new Signal(SignalType.BUY, "ETHUSDT", new BigDecimal("2500.25"), "SMA-5",
+                Instant.parse("2026-03-01T12:34:56.789Z"))
+
+        expect:
+        StreamingJson.toJson(signal) == JsonUtil.toJson(signal)
+    }
+
+    def "should write the same Fill JSON as databind"() {
+        given:
+        def fill = new Fill(42, SignalType.SELL, "ETHUSDT", new BigDecimal("2510.00000000"), new BigDecimal("0.01"),
+                "SMA-5", Instant.parse("2026-01-15T10:00:02.5Z"))
+
+        expect:
+        StreamingJson.toJson(fill) == JsonUtil.toJson(fill)
+    }
+
+    def "should read what databind writes"() {
+        given:
+        def tick = Tick.of("BTCUSDT", new BigDecimal("42000.50"))
+        def signal = Signal.of(SignalType.SELL, "BTCUSDT", new BigDecimal("41999.99"), "SMA-3")
+
+        expect:
+        StreamingJson.readTick(JsonUtil.toJson(tick)) == tick
+        StreamingJson.readSignal(JsonUtil.toJson(signal).bytes) == signal
+    }
+
+    @Unroll
+    def "should parse price #text exactly as BigDecimal does"() {
+        given:
+        def json = '{"symbol":"X","price":' + text + ',"timestamp":"2026-01-01T00:00:00Z"}'
+
+        expect:
+        def price = StreamingJson.readTick(json).price()
+        price == new BigDecimal(text.replace('"', ''))
+        price.scale() == new BigDecimal(text.replace('"', '')).scale()
+
+        where:
+        text << ['"42000.50"', '42000.50', '0', '-0.001', '1.5e2', '2E-3', '"0.00000001"',
+                 '922337203685477580.7', '-9.223372036854775807']
+    }
+
+    def "should reject prices whose unscaled value does not fit the fixed-point mantissa"() {
+        when:
+        StreamingJson.readTick('{"symbol":"X","price":12345678901234567890.123,"timestamp":"2026-01-01T00:00:00Z"}')
+
+        then:
+        thrown(ArithmeticException)
+    }
+
+    def "should accept exchange-style payloads with a fallback timestamp and unknown fields"() {
+        given:
+        def now = Instant.parse("2026-01-15T10:00:00Z")
+        def json = '{"symbol":"BTCUSDT","price":"42000.50","extra":{"nested":[1,2]}}'
+
+        when:
+        def tick = StreamingJson.readTick(json.bytes, now)
+
+        then:
+        tick == new Tick("BTCUSDT", new BigDecimal("42000.50"), now)
+    }
+
+    def "should accept numeric epoch-second timestamps like JavaTimeModule"() {
+        expect:
+        StreamingJson.readTick('{"symbol":"X","price":1,"timestamp":1700000000}').timestamp() ==
+                Instant.ofEpochSecond(1700000000)
+        StreamingJson.readTick('{"symbol":"X","price":1,"timestamp":1700000000.5}').timestamp() ==
+                Instant.ofEpochSecond(1700000000, 500_000_000)
+    }
+
+    def "should fall back to the JDK parser for offset timestamps"() {
+        expect:
+        StreamingJson.readTick('{"symbol":"X","price":1,"timestamp":"+12026-01-01T00:00:00Z"}').timestamp() ==
+                Instant.parse("+12026-01-01T00:00:00Z")
+    }
+
+    def "ISO formatting and parsing should agree with java.time for random instants"() {
+        given:
+        def random = new Random(11)
+        def chars = new char[32]
+
+        expect:
+        (1..2000).every {
+            def instant = Instant.ofEpochSecond(random.nextInt(Integer.MAX_VALUE) * (random.nextBoolean() ? 1L : 4L),
+                    [0, 120_000_000, 123_456_000, 123_456_789][random.nextInt(4)])
+            int n = StreamingJson.formatIsoInstant(instant, chars)
+            new String(chars, 0, n) == instant.toString() && TextParser.parseIsoInstant(chars, 0, n) == instant
+        }
+    }
+
+    def "should reject dates that do not exist instead of rolling them into the next month"() {
+        when:
+        StreamingJson.readTick('{"symbol":"X","price":1,"timestamp":"' + timestamp + '"}')
+
+        then:
+        thrown(DateTimeException)
+
+        where:
+        timestamp << ["2024-02-30T00:00:00Z", "2023-02-29T00:00:00Z", "2100-02-29T00:00:00Z", "2026-04-31T00:00:00Z"]
+    }
+
+    def "should accept the last day of every month"() {
+        expect:
+        (1..12).every { month ->
+            def last = YearMonth.of(year, month).atEndOfMonth()
+            def text = last.toString() + "T00:00:00Z"
+            TextParser.parseIsoInstant(text.toCharArray(), 0, text.length()) == Instant.parse(text)
+        }
+
+        where:
+        year << [2023, 2024, 2000, 2100]
+    }
+
+    def "should reject non-object payloads"() {
+        when:
+        StreamingJson.readTick("[]")
+
+        then:
+        thrown(RuntimeException)
+    }
+
+    def "should read a batch ticker array"() {
+        given:
+        def now = Instant.parse("2026-01-01T00:00:00Z")
+        def json = '[{"symbol":"BTCUSDT","price":"42000.50"},{"symbol":"ETHUSDT","price":"2500.10"}]'
+
+        when:
+        def ticks = StreamingJson.readTicks(json.bytes, now)
+
+        then:
+        ticks == [new Tick("BTCUSDT", new BigDecimal("42000.50"), now),
+                  new Tick("ETHUSDT", new BigDecimal("2500.10"), now)]
+        StreamingJson.readTicks("[]".bytes, now).isEmpty()
+    }
+
+    def "should reject batch payloads that are not arrays of objects"() {
+        when:
+        StreamingJson.readTicks(payload.bytes, Instant.now())
+
+        then:
+        thrown(RuntimeException)
+
+        where:
+        payload << ['{"symbol":"X","price":"1"}', '[1,2]']
+    }
+}
@@ -0,0 +1,50 @@
+package com.algotrader.shared.util
+
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+
+class SymbolCacheSpec extends Specification {
+
+    def "should hand back the same String for the same bytes"() {
+        given:
+        def cache = new SymbolCache()
+        def bytes = "xxBTCUSDTyyBTCUSDT".bytes
+
+        when:
+        def first = cache.symbol(bytes, 2, 7)
+        def second = cache.symbol(bytes, 11, 7)
+
+        then:
+        first == "BTCUSDT"
+        first.is(second)
+    }
+
+    def "should decode non-ASCII symbols without caching them"() {
+        given:
+        def cache = new SymbolCache()
+        def bytes = "币安USDT".getBytes(StandardCharsets.UTF_8)
+
+        expect:
+        cache.symbol(bytes, 0, bytes.length) == "币安USDT"
+        !cache.symbol(bytes, 0, bytes.length).is(cache.symbol(bytes, 0, bytes.length))
+    }
+
+    def "should replace a colliding symbol rather than return it"() {
+        given: "a single-slot cache"
+        def cache = new SymbolCache(1)
+
+        expect:
+        cache.symbol("A".bytes, 0, 1) == "A"
+        cache.symbol("B".bytes, 0, 1) == "B"
+        cache.symbol("A".bytes, 0, 1) == "A"
+    }
+
+    def "should only accept power-of-two sizes"() {
+        when:
+        new SymbolCache(1000)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
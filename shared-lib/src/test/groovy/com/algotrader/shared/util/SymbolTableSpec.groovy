@@ -0,0 +1,73 @@
+package com.algotrader.shared.util
+
+import spock.lang.Specification
+
+class SymbolTableSpec extends Specification {
+
+    def "should assign dense, stable IDs to new symbols"() {
+        given: "an empty table"
+        def table = new SymbolTable(4)
+
+        expect: "IDs are handed out from zero and are stable"
+        table.intern("BTCUSDT") == 0
+        table.intern("ETHUSDT") == 1
+        table.intern("BTCUSDT") == 0
+        table.idOf("ETHUSDT") == 1
+        table.symbol(1) == "ETHUSDT"
+        table.size() == 2
+    }
+
+    def "should report unknown symbols as NO_ID"() {
+        expect:
+        new SymbolTable(4).idOf("XRPUSDT") == SymbolTable.NO_ID
+    }
+
+    def "should refuse new symbols once full"() {
+        given: "a table with capacity 2 holding two symbols"
+        def table = new SymbolTable(2)
+        table.intern("A")
+        table.intern("B")
+
+        expect: "a third symbol is refused but existing ones still resolve"
+        table.intern("C") == SymbolTable.NO_ID
+        table.intern("A") == 0
+    }
+
+    def "should recycle released IDs"() {
+        given: "a full table"
+        def table = new SymbolTable(2)
+        table.intern("A")
+        table.intern("B")
+
+        when: "a symbol is released and another interned"
+        table.release(0)
+        def id = table.intern("C")
+
+        then: "the released ID is reused and the released symbol is gone"
+        id == 0
+        table.idOf("A") == SymbolTable.NO_ID
+        table.idOf("B") == 1
+        table.symbol(0) == "C"
+    }
+
+    def "should stay consistent with a reference map under random churn"() {
+        given: "a small table and a reference map"
+        def table = new SymbolTable(64)
+        def reference = [:]
+        def random = new Random(7)
+
+        when: "symbols are interned and released at random"
+        5000.times {
+            def symbol = "SYM" + random.nextInt(200)
+            if (reference.containsKey(symbol) && random.nextBoolean()) {
+                table.release(reference.remove(symbol))
+            } else if (reference.containsKey(symbol) || reference.size() < 64) {
+                reference[symbol] = table.intern(symbol)
+            }
+        }
+
+        then: "every live symbol resolves to its ID and back"
+        table.size() == reference.size()
+        reference.every { symbol, id -> table.idOf(symbol) == id && table.symbol(id) == symbol }
+    }
+}
@@ -0,0 +1,87 @@
+package com.algotrader.shared.util
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.time.Instant
+import java.time.LocalDate
+
+class TextParserSpec extends Specification {
+
+    def parser = new TextParser()
+
+    @Unroll
+    def "should parse decimal #text like BigDecimal, from chars and from bytes"() {
+        given:
+        def expected = new BigDecimal(text)
+
+        expect:
+        parser.parseDecimal(text.toCharArray(), 0, text.length())
+        parser.mantissa() == expected.unscaledValue().longValueExact()
+        parser.scale() == expected.scale()
+
+        and:
+        parser.parseDecimal(text.bytes, 0, text.length())
+        parser.mantissa() == expected.unscaledValue().longValueExact()
+        parser.scale() == expected.scale()
+
+        where:
+        text << ['42000.50', '0', '-0.001', '+7', '1.5e2', '2E-3', '1E+3', '92233720368547758.7']
+    }
+
+    def "should leave what is not a short decimal to the caller"() {
+        expect:
+        [' ', '', '-', '.', 'abc', '1.2.3', '1e', '1234567890123456789'].every {
+            !parser.parseDecimal(it.toCharArray(), 0, it.length())
+        }
+    }
+
+    @Unroll
+    def "should parse #text"() {
+        expect:
+        TextParser.parseIsoInstant(text.toCharArray(), 0, text.length()) == Instant.parse(expected)
+        parser.parseIsoInstant(text.bytes, 0, text.length()) == Instant.parse(expected)
+
+        where:
+        text                               | expected
+        "2026-01-15T10:00:00Z"             | "2026-01-15T10:00:00Z"
+        "2026-01-15T10:00:00.123456789Z"   | "2026-01-15T10:00:00.123456789Z"
+        "2026-01-15 10:00:01.5+00"         | "2026-01-15T10:00:01.500Z"
+        "2026-01-15T12:00:03+02:00"        | "2026-01-15T10:00:03Z"
+        "2026-01-15T05:30:00.25-0430"      | "2026-01-15T10:00:00.250Z"
+        "2024-02-29T00:00:00Z"             | "2024-02-29T00:00:00Z"
+    }
+
+    def "should not parse impossible dates or other shapes"() {
+        expect:
+        ["2024-02-30T00:00:00Z", "2023-02-29T00:00:00Z", "1900-02-29T00:00:00Z", "2026-04-31T00:00:00Z",
+         "2026-13-01T00:00:00Z", "2026-01-15T24:00:00Z", "2026-01-15T10:00:00", "2026-01-15T10:00:00.Z",
+         "2026-01-15T10:00:00.1234567890Z", "2026-01-15T10:00:00+1", "+12026-01-01T00:00:00Z"].every {
+            TextParser.parseIsoInstant(it.toCharArray(), 0, it.length()) == null
+        }
+    }
+
+    def "should know the length of every month"() {
+        expect:
+        [1600, 1900, 2000, 2023, 2024, 2100].every { year ->
+            (1..12).every { TextParser.lengthOfMonth(year, it) == LocalDate.of(year, it, 1).lengthOfMonth() }
+        }
+    }
+
+    def "should compute epoch days like LocalDate"() {
+        expect:
+        [LocalDate.of(1970, 1, 1), LocalDate.of(1969, 12, 31), LocalDate.of(2000, 2, 29),
+         LocalDate.of(2024, 3, 1), LocalDate.of(2100, 12, 31), LocalDate.of(1600, 1, 1)].every {
+            TextParser.daysFromCivil(it.year, it.monthValue, it.dayOfMonth) == it.toEpochDay()
+        }
+    }
+
+    def "should parse at most 18 unsigned digits"() {
+        expect:
+        TextParser.parseUnsigned("1768471202000".toCharArray(), 0, 13) == 1_768_471_202_000L
+        parser.parseUnsigned("007".bytes, 0, 3) == 7
+        ["", "-1", "12a", "1234567890123456789"].every {
+            TextParser.parseUnsigned(it.toCharArray(), 0, it.length()) == -1
+        }
+    }
+}
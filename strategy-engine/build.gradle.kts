@@ -13,3 +13,25 @@ dependencies {
     implementation("com.fasterxml.jackson.core:jackson-databind:2.16.1")
     implementation("com.fasterxml.jackson.datatype:jackson-datatype-jsr310:2.16.1")
 }
+
+// ── Offline backtest (see BacktestApp for the environment variables) ─
+//
+//   BACKTEST_SOURCE=ticks.csv.gz gradle :strategy-engine:backtest
+tasks.register<JavaExec>("backtest") {
+    group = "application"
+    description = "Replays historical ticks through the SMA strategy and reports PnL and drawdown."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.algotrader.strategy.backtest.BacktestApp")
+    systemProperty("logback.configurationFile", "logback-backtest.xml")
+}
+
+// ── Parallel parameter sweep (see SweepApp) ─────────────────────────
+//
+//   BACKTEST_SOURCE=ticks.csv.gz SWEEP_WINDOWS=2..500 gradle :strategy-engine:sweep
+tasks.register<JavaExec>("sweep") {
+    group = "application"
+    description = "Backtests a grid or random sample of SMA windows in parallel and ranks them by PnL."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.algotrader.strategy.backtest.SweepApp")
+    systemProperty("logback.configurationFile", "logback-backtest.xml")
+}
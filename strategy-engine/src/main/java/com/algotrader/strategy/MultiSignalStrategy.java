@@ -0,0 +1,55 @@
+package com.algotrader.strategy;
+
+import com.algotrader.shared.model.Signal;
+import com.algotrader.shared.model.Tick;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A {@link TradingStrategy} that may emit several signals for one tick — e.g. a
+ * {@link com.algotrader.strategy.set.StrategySet} running many strategies on
+ * the same feed.
+ * <p>
+ * Signals are appended to a list owned by the caller, which the pipeline
+ * reuses from tick to tick, so emitting costs nothing when there is no signal.
+ * Callers that accept any strategy go through {@link #collect}.
+ * </p>
+ */
+public interface MultiSignalStrategy extends TradingStrategy {
+
+    /**
+     * Processes a market tick, appending every signal it triggers to {@code out}.
+     *
+     * @return the number of signals appended
+     */
+    int process(Tick tick, List<? super Signal> out);
+
+    /**
+     * @return the first signal the tick triggers; any others are discarded,
+     *         so callers that can handle several use {@link #process(Tick, List)}
+     */
+    @Override
+    default Optional<Signal> process(Tick tick) {
+        List<Signal> out = new ArrayList<>(2);
+        return process(tick, out) == 0 ? Optional.empty() : Optional.of(out.get(0));
+    }
+
+    /**
+     * Runs {@code tick} through any strategy, appending its signals to {@code out}.
+     *
+     * @return the number of signals appended
+     */
+    static int collect(TradingStrategy strategy, Tick tick, List<? super Signal> out) {
+        if (strategy instanceof MultiSignalStrategy multi) {
+            return multi.process(tick, out);
+        }
+        Optional<Signal> signal = strategy.process(tick);
+        if (signal.isEmpty()) {
+            return 0;
+        }
+        out.add(signal.get());
+        return 1;
+    }
+}
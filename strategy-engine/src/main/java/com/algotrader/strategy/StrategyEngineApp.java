@@ -1,10 +1,45 @@
 package com.algotrader.strategy;
 
+import com.algotrader.shared.cluster.PartitionCoordinator;
+import com.algotrader.shared.cluster.Partitioning;
+import com.algotrader.shared.cluster.RedisLeaseStore;
+import com.algotrader.shared.codec.WireFormat;
+import com.algotrader.shared.metrics.MetricsRegistry;
+import com.algotrader.shared.stream.RedisStreamConsumer;
+import com.algotrader.shared.stream.TransportConfig;
+import com.algotrader.strategy.backtest.TickSource;
+import com.algotrader.strategy.checkpoint.CheckpointStore;
+import com.algotrader.strategy.checkpoint.Checkpointer;
+import com.algotrader.strategy.checkpoint.FileCheckpointStore;
+import com.algotrader.strategy.checkpoint.RedisCheckpointStore;
+import com.algotrader.strategy.checkpoint.RedisStreamTickSource;
+import com.algotrader.strategy.checkpoint.StrategySnapshot;
+import com.algotrader.strategy.dispatch.DispatchConfig;
+import com.algotrader.strategy.dispatch.OverflowPolicy;
+import com.algotrader.strategy.dispatch.ShardedDispatcher;
 import com.algotrader.strategy.impl.SimpleMovingAverageStrategy;
+import com.algotrader.strategy.redis.AsyncSignalPublisher;
+import com.algotrader.strategy.redis.PublishConfig;
+import com.algotrader.strategy.redis.PublishMode;
 import com.algotrader.strategy.redis.RedisListener;
+import com.algotrader.strategy.registry.StrategyRegistry;
+import com.algotrader.strategy.set.IndicatorStrategy;
+import com.algotrader.strategy.set.StrategySet;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
 import static spark.Spark.*;
 
 /**
@@ -12,10 +47,40 @@ import static spark.Spark.*;
  *
  * <ul>
  * <li>Subscribes to Redis channel {@code market_data} for incoming ticks.</li>
- * <li>Applies the SMA crossover strategy.</li>
+ * <li>Applies the SMA crossover strategy, with independent state per symbol —
+ * inline, or across {@code DISPATCH_SHARDS} worker threads keyed by symbol.
+ * With {@code STRATEGY_SET} (e.g. {@code sma:20,ema:12/26,rsi:14:30/70}) it runs a
+ * {@link StrategySet} instead: every listed strategy on the same feed, each
+ * distinct indicator computed once per tick per symbol, and each signal
+ * published under its strategy's name.</li>
+ * <li>With {@code DISPATCH_CONFLATE=true}, a shard that falls behind keeps
+ * only the latest unprocessed tick per symbol, so strategies act on current
+ * prices after a burst instead of working through a backlog.</li>
  * <li>Publishes resulting signals to Redis channel
- * {@code trading_signals}.</li>
- * <li>Exposes a SparkJava health endpoint on port 8081.</li>
+ * {@code trading_signals} — synchronously, or pipelined in batches when
+ * {@code SIGNAL_PUBLISH_MODE=ASYNC}; JSON by default, binary with
+ * {@code WIRE_FORMAT=BINARY}. Incoming ticks may be in either format.</li>
+ * <li>With {@code TRANSPORT=STREAMS}, both channels are Redis streams: ticks
+ * are read in batches through the {@code STREAM_GROUP} consumer group (so
+ * instances split the load and resume where they stopped) and signals are
+ * appended with {@code XADD}.</li>
+ * <li>With {@code CHECKPOINT_FILE} or {@code CHECKPOINT_REDIS_KEY}, writes
+ * every symbol's strategy state every {@code CHECKPOINT_INTERVAL_SECONDS} and
+ * on shutdown. A restart restores it, replays the ticks since — from the
+ * {@code JOURNAL_DIR} tick journal, or the retained stream with
+ * {@code TRANSPORT=STREAMS} — without re-emitting their signals, and then goes
+ * live, instead of waiting out every window again.</li>
+ * <li>With {@code PARTITIONS} set (matching the ingestor's), runs as one node
+ * of a cluster: it registers in Redis as {@code CLUSTER_NODE_ID}, holds
+ * leases on its share of the symbol partitions, renewed every third of
+ * {@code CLUSTER_LEASE_TTL_SECONDS}, and takes ticks only from those
+ * partitions' channels or streams ({@code market_data:<n>}). Partitions move
+ * when a node joins, leaves or stops renewing. Several nodes can share one
+ * host with distinct {@code HTTP_PORT}s.</li>
+ * <li>Exposes SparkJava {@code /health} and {@code /metrics} endpoints on
+ * port 8081 (or {@code HTTP_PORT}); {@code /metrics} reports decode, strategy and publish latency,
+ * tick age on receipt and at signal emission, and throughput counters in
+ * Prometheus format.</li>
  * </ul>
  */
 public class StrategyEngineApp {
@@ -25,22 +90,148 @@ public class StrategyEngineApp {
     private static final String INPUT_CHANNEL = "market_data";
     private static final String OUTPUT_CHANNEL = "trading_signals";
     private static final int SMA_WINDOW = 5;
+    private static final int MAX_SYMBOLS = 4096;
+    private static final int SYMBOL_IDLE_MINUTES = 60;
+    private static final int DISPATCH_SHARDS = 0;
+    private static final int DISPATCH_QUEUE_CAPACITY = 8192;
+    private static final int PUBLISH_BATCH_SIZE = 64;
+    private static final int PUBLISH_FLUSH_MILLIS = 2;
+    private static final int PUBLISH_MAX_IN_FLIGHT = 4096;
+    private static final int CHECKPOINT_INTERVAL_SECONDS = 30;
+    private static final int CLUSTER_LEASE_TTL_SECONDS = 10;
+    private static final String CLUSTER_PREFIX = "algotrader:strategy-engine";
     private static final int HTTP_PORT = 8081;
+    private static final RedisCodec<String, byte[]> BYTES_CODEC =
+            RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE);
 
     public static void main(String[] args) {
         String redisUri = System.getenv().getOrDefault("REDIS_URI", "redis://localhost:6379");
         int smaWindow = Integer.parseInt(
                 System.getenv().getOrDefault("SMA_WINDOW", String.valueOf(SMA_WINDOW)));
+        String strategySet = System.getenv().getOrDefault("STRATEGY_SET", "");
+        int maxSymbols = Integer.parseInt(
+                System.getenv().getOrDefault("MAX_SYMBOLS", String.valueOf(MAX_SYMBOLS)));
+        int idleMinutes = Integer.parseInt(
+                System.getenv().getOrDefault("SYMBOL_IDLE_MINUTES", String.valueOf(SYMBOL_IDLE_MINUTES)));
+        var dispatch = new DispatchConfig(
+                Integer.parseInt(System.getenv().getOrDefault("DISPATCH_SHARDS", String.valueOf(DISPATCH_SHARDS))),
+                Integer.parseInt(System.getenv().getOrDefault("DISPATCH_QUEUE_CAPACITY",
+                        String.valueOf(DISPATCH_QUEUE_CAPACITY))),
+                OverflowPolicy.valueOf(System.getenv().getOrDefault("DISPATCH_OVERFLOW", "BLOCK")),
+                Boolean.parseBoolean(System.getenv().getOrDefault("DISPATCH_CONFLATE", "false")));
+        var publish = new PublishConfig(
+                PublishMode.valueOf(System.getenv().getOrDefault("SIGNAL_PUBLISH_MODE", "SYNC")),
+                WireFormat.valueOf(System.getenv().getOrDefault("WIRE_FORMAT", "JSON")),
+                Integer.parseInt(System.getenv().getOrDefault("PUBLISH_BATCH_SIZE",
+                        String.valueOf(PUBLISH_BATCH_SIZE))),
+                Duration.ofMillis(Long.parseLong(System.getenv().getOrDefault("PUBLISH_FLUSH_MILLIS",
+                        String.valueOf(PUBLISH_FLUSH_MILLIS)))),
+                Integer.parseInt(System.getenv().getOrDefault("PUBLISH_MAX_IN_FLIGHT",
+                        String.valueOf(PUBLISH_MAX_IN_FLIGHT))),
+                Duration.ofMillis(100));
+        TransportConfig transport = TransportConfig.fromEnv("strategy-engine");
+        String checkpointFile = System.getenv("CHECKPOINT_FILE");
+        String checkpointKey = System.getenv("CHECKPOINT_REDIS_KEY");
+        Duration checkpointInterval = Duration.ofSeconds(Long.parseLong(System.getenv().getOrDefault(
+                "CHECKPOINT_INTERVAL_SECONDS", String.valueOf(CHECKPOINT_INTERVAL_SECONDS))));
+        String journalDir = System.getenv("JOURNAL_DIR");
+        int partitions = Integer.parseInt(System.getenv().getOrDefault("PARTITIONS", "0"));
+        String nodeId = System.getenv().getOrDefault("CLUSTER_NODE_ID",
+                System.getenv().getOrDefault("HOSTNAME", "strategy-engine") + "-" + ProcessHandle.current().pid());
+        Duration leaseTtl = Duration.ofSeconds(Long.parseLong(System.getenv().getOrDefault(
+                "CLUSTER_LEASE_TTL_SECONDS", String.valueOf(CLUSTER_LEASE_TTL_SECONDS))));
+        int httpPort = Integer.parseInt(System.getenv().getOrDefault("HTTP_PORT", String.valueOf(HTTP_PORT)));
+
+        // ── Strategy (one independent instance per symbol, per shard) ───
+        List<StrategyRegistry> registries = new CopyOnWriteArrayList<>();
+        Supplier<? extends TradingStrategy> strategyFactory;
+        if (strategySet.isBlank()) {
+            strategyFactory = () -> new SimpleMovingAverageStrategy(smaWindow);
+        } else {
+            List<IndicatorStrategy.Factory> members = StrategySet.parse(strategySet);
+            strategyFactory = () -> new StrategySet(members);
+        }
+        TradingStrategy prototype = strategyFactory.get();
+        var strategyName = prototype.name();
+        if (prototype instanceof StrategySet set) {
+            log.info("Initialized strategy set: {} ({} indicators, maxSymbols={}, shards={})",
+                    strategyName, set.indicatorCount(), maxSymbols, dispatch.shards());
+        } else {
+            log.info("Initialized strategy: {} (window={}, maxSymbols={}, shards={})",
+                    strategyName, smaWindow, maxSymbols, dispatch.shards());
+        }
 
-        // ── Strategy ────────────────────────────────────────────────────
-        var strategy = new SimpleMovingAverageStrategy(smaWindow);
-        log.info("Initialized strategy: {} (window={})", strategy.name(), smaWindow);
+        // ── Checkpoints (optional) ──────────────────────────────────────
+        RedisClient checkpointClient = null;
+        Checkpointer checkpointer = null;
+        TickSource warmUp = null;
+        if (checkpointFile != null || checkpointKey != null) {
+            if (checkpointKey != null || (journalDir == null && transport.isStreams())) {
+                checkpointClient = RedisClient.create(redisUri);
+            }
+            CheckpointStore store = checkpointFile != null
+                    ? new FileCheckpointStore(Path.of(checkpointFile))
+                    : new RedisCheckpointStore(checkpointClient.connect(BYTES_CODEC).sync(), checkpointKey);
+            checkpointer = new Checkpointer(strategyName, store);
+            Optional<StrategySnapshot> snapshot = checkpointer.restore();
+            if (snapshot.isPresent()) {
+                Instant from = snapshot.get().replayFrom();
+                if (journalDir != null) {
+                    warmUp = TickSource.journal(Path.of(journalDir), from);
+                } else if (transport.isStreams()) {
+                    warmUp = new RedisStreamTickSource(checkpointClient.connect(BYTES_CODEC).sync(),
+                            INPUT_CHANNEL, from);
+                } else {
+                    log.info("No tick history to replay since {} — pub/sub keeps none; set JOURNAL_DIR", from);
+                }
+            }
+        }
 
         // ── Redis Listener (subscribe + publish) ────────────────────────
-        var listener = new RedisListener(redisUri, strategy, INPUT_CHANNEL, OUTPUT_CHANNEL);
+        Checkpointer tracker = checkpointer;
+        var listener = new RedisListener(redisUri, () -> {
+            var registry = new StrategyRegistry(strategyFactory, maxSymbols, Duration.ofMinutes(idleMinutes));
+            registries.add(registry);
+            if (tracker != null) {
+                tracker.track(registry);
+            }
+            return registry;
+        }, dispatch, publish, transport, warmUp, partitions > 0 ? null : INPUT_CHANNEL, OUTPUT_CHANNEL);
+        if (checkpointer != null) {
+            checkpointer.start(checkpointInterval);
+        }
+
+        // ── Cluster mode (optional): consume only the partitions leased ─
+        RedisClient clusterClient = null;
+        PartitionCoordinator coordinator = null;
+        if (partitions > 0) {
+            clusterClient = RedisClient.create(redisUri);
+            Partitioning partitioning = new Partitioning(partitions);
+            var clusterConnection = clusterClient.connect();
+            // A lease call that hangs must fail before the lease can expire under us
+            clusterConnection.setTimeout(PartitionCoordinator.storeTimeout(leaseTtl));
+            coordinator = new PartitionCoordinator(nodeId, partitions,
+                    new RedisLeaseStore(clusterConnection.sync(), CLUSTER_PREFIX), leaseTtl,
+                    new PartitionCoordinator.Listener() {
+                        @Override
+                        public void assigned(int partition) {
+                            listener.addInput(Partitioning.channel(INPUT_CHANNEL, partition));
+                        }
+
+                        @Override
+                        public void revoked(int partition) {
+                            listener.removeInput(Partitioning.channel(INPUT_CHANNEL, partition));
+                            // Drop its state now: if it comes back, old windows must not meet new ticks
+                            registries.forEach(registry ->
+                                    registry.evictIf(symbol -> partitioning.partitionOf(symbol) == partition));
+                        }
+                    });
+            coordinator.start();
+        }
+        PartitionCoordinator cluster = coordinator;
 
         // ── SparkJava HTTP server ───────────────────────────────────────
-        port(HTTP_PORT);
+        port(httpPort);
 
         get("/health", (req, res) -> {
             res.type("application/json");
@@ -49,18 +240,138 @@ public class StrategyEngineApp {
             res.status(status);
             return "{\"status\":\"" + (redisOk ? "UP" : "DOWN")
                     + "\",\"service\":\"strategy-engine\""
-                    + ",\"strategy\":\"" + strategy.name() + "\""
+                    + ",\"strategy\":\"" + strategyName + "\""
+                    + ",\"symbols\":" + registries.stream().mapToInt(StrategyRegistry::size).sum()
+                    + listener.dispatcher().map(StrategyEngineApp::dispatchJson).orElse("")
+                    + publishJson(listener)
+                    + (transport.isStreams() ? streamJson(listener.streamConsumers()) : "")
+                    + (tracker != null ? checkpointJson(tracker) : "")
+                    + (cluster != null ? clusterJson(cluster) : "")
                     + ",\"redis\":" + redisOk + "}";
         });
 
-        log.info("Strategy Engine HTTP server started on port {}", HTTP_PORT);
+        // ── Metrics ─────────────────────────────────────────────────────
+        var pipeline = listener.metrics();
+        MetricsRegistry metrics = new MetricsRegistry("algotrader_strategy")
+                .histogram("tick_decode_latency", "Incoming tick decode", pipeline.decode())
+                .histogram("strategy_latency", "TradingStrategy.process per tick", pipeline.strategy())
+                .histogram("signal_publish_latency", "Signal hand-off to the publisher", pipeline.publish())
+                .histogram("tick_age_at_receive", "Tick timestamp to decoded here", pipeline.tickAgeAtReceive())
+                .histogram("tick_age_at_signal", "Tick timestamp to signal emitted", pipeline.tickAgeAtSignal())
+                .counter("ticks_received", "Ticks decoded", pipeline.decode()::count)
+                .counter("signals_emitted", "Signals handed to the publisher", pipeline.publish()::count)
+                .counter("errors", "Messages that failed to decode or process", pipeline::errors)
+                .counter("malformed", "Messages dropped as malformed payloads", pipeline::malformed)
+                .gauge("symbols", "Symbols holding strategy state",
+                        () -> registries.stream().mapToInt(StrategyRegistry::size).sum());
+        listener.dispatcher().ifPresent(dispatcher -> metrics
+                .counter("dispatch_dropped", "Ticks dropped on a full shard queue", dispatcher::dropped)
+                .counter("dispatch_backpressured", "Ticks that waited for shard queue space",
+                        dispatcher::backpressured)
+                .counter("dispatch_conflated", "Ticks superseded by a newer tick before processing",
+                        dispatcher::conflated)
+                .gauge("dispatch_conflation_slots", "Symbols holding a conflation slot",
+                        dispatcher::conflationSlots));
+        if (listener.signalPublisher() instanceof AsyncSignalPublisher<?> async) {
+            metrics.counter("signals_published", "Signals acknowledged by Redis", async::published)
+                    .counter("signals_failed", "Signals Redis rejected", async::failed)
+                    .counter("signals_dropped", "Signals dropped over the in-flight limit", async::dropped)
+                    .gauge("signals_in_flight", "Signals awaiting a Redis reply", async::inFlight);
+        }
+        if (transport.isStreams()) {
+            metrics.counter("stream_consumed", "Stream entries consumed",
+                            () -> listener.streamConsumers().stream().mapToLong(RedisStreamConsumer::consumed).sum())
+                    .counter("stream_replayed", "Pending stream entries replayed",
+                            () -> listener.streamConsumers().stream().mapToLong(RedisStreamConsumer::replayed).sum())
+                    .counter("stream_failed", "Stream entries whose handler failed",
+                            () -> listener.streamConsumers().stream().mapToLong(RedisStreamConsumer::failed).sum());
+        }
+        if (cluster != null) {
+            metrics.gauge("cluster_members", "Live strategy-engine nodes", cluster::members)
+                    .gauge("cluster_partitions", "Partitions leased by this node", () -> cluster.owned().size())
+                    .counter("cluster_assignments", "Partitions taken over", cluster::assignments)
+                    .counter("cluster_revocations", "Partitions given up", cluster::revocations)
+                    .counter("cluster_leases_lost", "Partition leases that expired before renewal",
+                            cluster::leasesLost);
+        }
+        if (checkpointer != null) {
+            metrics.counter("checkpoint_written", "Strategy snapshots written", checkpointer::written)
+                    .counter("checkpoint_failed", "Strategy snapshots that could not be written",
+                            checkpointer::failed)
+                    .gauge("checkpoint_symbols", "Symbols in the last strategy snapshot",
+                            checkpointer::lastSymbols);
+        }
+
+        get("/metrics", (req, res) -> {
+            res.type(MetricsRegistry.CONTENT_TYPE);
+            return metrics.scrape();
+        });
+
+        log.info("Strategy Engine HTTP server started on port {}", httpPort);
 
         // ── Graceful shutdown ───────────────────────────────────────────
+        RedisClient shutdownClient = checkpointClient;
+        RedisClient shutdownClusterClient = clusterClient;
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             log.info("Shutting down Strategy Engine...");
+            if (cluster != null) {
+                // Hand the partitions over first, so the other nodes take them now rather than after the TTL
+                cluster.close();
+                shutdownClusterClient.shutdown();
+            }
             listener.close();
+            if (tracker != null) {
+                tracker.close();
+            }
+            if (shutdownClient != null) {
+                shutdownClient.shutdown();
+            }
             stop();
             log.info("Strategy Engine stopped.");
         }));
     }
+
+    private static String dispatchJson(ShardedDispatcher dispatcher) {
+        var depths = new StringBuilder();
+        for (int i = 0; i < dispatcher.shardCount(); i++) {
+            depths.append(i == 0 ? "" : ",").append(dispatcher.queueDepth(i));
+        }
+        return ",\"dispatch\":{\"shards\":" + dispatcher.shardCount()
+                + ",\"queueDepth\":[" + depths + "]"
+                + ",\"dropped\":" + dispatcher.dropped()
+                + ",\"backpressured\":" + dispatcher.backpressured()
+                + ",\"conflating\":" + dispatcher.isConflating()
+                + ",\"conflated\":" + dispatcher.conflated() + "}";
+    }
+
+    private static String streamJson(List<RedisStreamConsumer> consumers) {
+        return ",\"stream\":{\"streams\":" + consumers.size()
+                + ",\"consumed\":" + consumers.stream().mapToLong(RedisStreamConsumer::consumed).sum()
+                + ",\"replayed\":" + consumers.stream().mapToLong(RedisStreamConsumer::replayed).sum()
+                + ",\"failed\":" + consumers.stream().mapToLong(RedisStreamConsumer::failed).sum() + "}";
+    }
+
+    private static String checkpointJson(Checkpointer checkpointer) {
+        return ",\"checkpoint\":{\"written\":" + checkpointer.written()
+                + ",\"failed\":" + checkpointer.failed()
+                + ",\"symbols\":" + checkpointer.lastSymbols()
+                + ",\"bytes\":" + checkpointer.lastBytes() + "}";
+    }
+
+    private static String clusterJson(PartitionCoordinator cluster) {
+        return ",\"cluster\":{\"node\":\"" + cluster.node() + "\""
+                + ",\"members\":" + cluster.members()
+                + ",\"partitions\":" + cluster.owned() + "}";
+    }
+
+    private static String publishJson(RedisListener listener) {
+        if (!(listener.signalPublisher() instanceof AsyncSignalPublisher<?> async)) {
+            return ",\"publish\":{\"mode\":\"SYNC\"}";
+        }
+        return ",\"publish\":{\"mode\":\"ASYNC\""
+                + ",\"inFlight\":" + async.inFlight()
+                + ",\"published\":" + async.published()
+                + ",\"failed\":" + async.failed()
+                + ",\"dropped\":" + async.dropped() + "}";
+    }
 }
@@ -26,4 +26,16 @@ public interface TradingStrategy {
      * @return the human-readable name of this strategy
      */
     String name();
+
+    /**
+     * Whether the strategy may skip ticks that were superseded while it was
+     * busy. A conflating dispatcher then hands it only the latest price per
+     * symbol; strategies whose state must see every tick return {@code false}
+     * and keep receiving all of them.
+     *
+     * @return {@code true} unless the strategy opts out of conflation
+     */
+    default boolean conflatable() {
+        return true;
+    }
 }
@@ -0,0 +1,29 @@
+package com.algotrader.strategy.backtest;
+
+import java.math.BigDecimal;
+
+/**
+ * Configuration for {@link Backtester}.
+ *
+ * @param quantity   the position size taken on every signal, in base units (must be &gt; 0)
+ * @param allowShort whether a SELL opens a short position; if not it only closes a long one
+ * @param maxSymbols the maximum number of distinct symbols in the replay
+ */
+public record BacktestConfig(BigDecimal quantity, boolean allowShort, int maxSymbols) {
+
+    public BacktestConfig {
+        if (quantity.signum() <= 0) {
+            throw new IllegalArgumentException("Quantity must be > 0, got: " + quantity);
+        }
+        if (maxSymbols <= 0) {
+            throw new IllegalArgumentException("Max symbols must be > 0, got: " + maxSymbols);
+        }
+    }
+
+    /**
+     * @return one unit per signal, long-only, up to 4096 symbols
+     */
+    public static BacktestConfig defaults() {
+        return new BacktestConfig(BigDecimal.ONE, false, 4096);
+    }
+}
@@ -0,0 +1,45 @@
+package com.algotrader.strategy.backtest;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Outcome of one {@link Backtester} run. Amounts are in quote currency.
+ *
+ * @param ticks        ticks replayed
+ * @param signals      BUY/SELL signals emitted by the strategy
+ * @param trades       simulated fills (a reversal from long to short counts as one)
+ * @param realizedPnl  profit and loss of closed positions
+ * @param openPnl      profit and loss of positions still open, marked at their last tick
+ * @param maxDrawdown  largest fall of equity (realized + open) from a previous peak
+ * @param from         timestamp of the first tick, or {@code null} if there were none
+ * @param to           timestamp of the last tick, or {@code null} if there were none
+ * @param elapsed      wall-clock time the replay took
+ */
+public record BacktestResult(
+        long ticks,
+        long signals,
+        long trades,
+        BigDecimal realizedPnl,
+        BigDecimal openPnl,
+        BigDecimal maxDrawdown,
+        Instant from,
+        Instant to,
+        Duration elapsed) {
+
+    /**
+     * @return realized plus open profit and loss
+     */
+    public BigDecimal totalPnl() {
+        return realizedPnl.add(openPnl);
+    }
+
+    /**
+     * @return replay throughput in ticks per wall-clock second
+     */
+    public double ticksPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : ticks * 1e9 / nanos;
+    }
+}
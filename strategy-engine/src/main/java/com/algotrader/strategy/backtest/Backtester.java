@@ -0,0 +1,176 @@
+package com.algotrader.strategy.backtest;
+
+import com.algotrader.shared.model.Price;
+import com.algotrader.shared.model.Signal;
+import com.algotrader.shared.model.SignalType;
+import com.algotrader.shared.model.Tick;
+import com.algotrader.shared.util.SymbolTable;
+import com.algotrader.strategy.TradingStrategy;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Replays historical ticks through a {@link TradingStrategy} with no Redis
+ * and no JSON in between, simulating fills and tracking profit and loss.
+ * <p>
+ * Before each tick reaches the strategy the {@link SimulatedClock} is moved to
+ * the tick's timestamp, so strategies built on that clock stamp signals with
+ * market time. Every BUY targets a long position of the configured quantity
+ * and every SELL a short one (or a flat one when shorting is off); the
+ * difference is filled at the signal's price. Open positions are marked to
+ * market on every tick of their symbol, and the drawdown is measured on that
+ * equity curve.
+ * </p>
+ * Amounts are fixed-point longs at {@value #PRICE_SCALE} price decimals plus
+ * the quantity's decimals, and per-symbol state lives in arrays indexed by
+ * {@link SymbolTable} IDs, so a tick costs no allocation beyond its own.
+ * A backtester runs once and is driven by one thread.
+ */
+public class Backtester implements Consumer<Tick> {
+
+    /** Number of decimal places kept for prices. */
+    static final int PRICE_SCALE = 8;
+
+    private final TradingStrategy strategy;
+    private final SimulatedClock clock;
+    private final boolean allowShort;
+    private final long quantity;
+    private final int amountScale;
+
+    private final SymbolTable symbols;
+    private final long[] positions;
+    private final long[] entryPrices;
+    private final long[] marks;
+
+    private long ticks;
+    private long signals;
+    private long trades;
+    private long cash;
+    private long marketValue;
+    private long realized;
+    private long peakEquity;
+    private long maxDrawdown;
+    private Instant first;
+    private Instant last;
+
+    /**
+     * @param strategy the strategy under test, built on {@code clock}
+     * @param clock    the clock the strategy stamps signals with
+     */
+    public Backtester(TradingStrategy strategy, SimulatedClock clock, BacktestConfig config) {
+        this.strategy = strategy;
+        this.clock = clock;
+        this.allowShort = config.allowShort();
+        BigDecimal qty = config.quantity().stripTrailingZeros();
+        if (qty.scale() < 0) {
+            qty = qty.setScale(0);
+        }
+        this.quantity = Price.mantissa(qty);
+        this.amountScale = PRICE_SCALE + qty.scale();
+        this.symbols = new SymbolTable(config.maxSymbols());
+        this.positions = new long[config.maxSymbols()];
+        this.entryPrices = new long[config.maxSymbols()];
+        this.marks = new long[config.maxSymbols()];
+    }
+
+    /**
+     * Replays {@code source} to the end.
+     */
+    public BacktestResult run(TickSource source) throws IOException {
+        long start = System.nanoTime();
+        source.replay(this);
+        return result(Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * Processes one tick: advances the clock, marks the symbol's position,
+     * runs the strategy and fills its signal.
+     */
+    @Override
+    public void accept(Tick tick) {
+        Instant timestamp = tick.timestamp();
+        clock.set(timestamp);
+        if (first == null) {
+            first = timestamp;
+        }
+        last = timestamp;
+        ticks++;
+
+        int id = idOf(tick.symbol());
+        long price = toFixedPoint(tick.priceMantissa(), tick.priceScale());
+        marketValue = Math.addExact(marketValue, Math.multiplyExact(positions[id], price - marks[id]));
+        marks[id] = price;
+
+        Optional<Signal> signal = strategy.process(tick);
+        if (signal.isPresent()) {
+            fill(signal.get(), tick.symbol(), id);
+        }
+
+        long equity = cash + marketValue;
+        if (equity > peakEquity) {
+            peakEquity = equity;
+        } else if (peakEquity - equity > maxDrawdown) {
+            maxDrawdown = peakEquity - equity;
+        }
+    }
+
+    /**
+     * @param elapsed the wall-clock time to report
+     * @return the figures so far
+     */
+    public BacktestResult result(Duration elapsed) {
+        return new BacktestResult(ticks, signals, trades, amount(realized), amount(cash + marketValue - realized),
+                amount(maxDrawdown), first, last, elapsed);
+    }
+
+    private void fill(Signal signal, String tickSymbol, int tickId) {
+        if (signal.type() == SignalType.HOLD) {
+            return;
+        }
+        signals++;
+        int id = signal.symbol().equals(tickSymbol) ? tickId : idOf(signal.symbol());
+        long price = signal.priceMantissa() == Price.NONE
+                ? marks[id]
+                : toFixedPoint(signal.priceMantissa(), signal.priceScale());
+        long target = signal.type() == SignalType.BUY ? quantity : allowShort ? -quantity : 0;
+        long position = positions[id];
+        long delta = target - position;
+        if (delta == 0) {
+            return;
+        }
+        trades++;
+        if (position != 0) {
+            // Targets are ±quantity or flat, so any move away from a position closes all of it
+            realized = Math.addExact(realized, Math.multiplyExact(position, price - entryPrices[id]));
+        }
+        cash = Math.subtractExact(cash, Math.multiplyExact(delta, price));
+        marketValue = Math.addExact(marketValue, Math.multiplyExact(delta, marks[id]));
+        positions[id] = target;
+        entryPrices[id] = price;
+    }
+
+    private int idOf(String symbol) {
+        int id = symbols.idOf(symbol);
+        if (id == SymbolTable.NO_ID) {
+            id = symbols.intern(symbol);
+            if (id == SymbolTable.NO_ID) {
+                throw new IllegalStateException("More than " + symbols.capacity() + " symbols in the replay");
+            }
+        }
+        return id;
+    }
+
+    private BigDecimal amount(long mantissa) {
+        return BigDecimal.valueOf(mantissa, amountScale);
+    }
+
+    private static long toFixedPoint(long mantissa, int scale) {
+        return Price.rescale(mantissa, scale, PRICE_SCALE, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,247 @@
+package com.algotrader.strategy.backtest;
+
+import com.algotrader.shared.model.Price;
+import com.algotrader.shared.model.Tick;
+import com.algotrader.shared.util.SymbolCache;
+import com.algotrader.shared.util.TextParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streams ticks from a CSV file with the columns {@code symbol,price,ts} —
+ * the layout of the {@code ticks} table, so {@code COPY ticks (symbol, price, ts)
+ * TO STDOUT (FORMAT csv)} output replays as-is. Files ending in {@code .gz}
+ * are decompressed on the fly.
+ * <p>
+ * The file is read through one fixed buffer and each line is parsed in place
+ * with the shared {@link TextParser}: prices straight into a {@link Price}
+ * mantissa and scale, symbols through a {@link SymbolCache} so repeated
+ * symbols share one {@code String}. {@code ts} may be
+ * epoch milliseconds or an ISO-8601 timestamp ({@code 2026-01-15T10:00:00.123Z},
+ * or PostgreSQL's {@code 2026-01-15 10:00:00.123+00}). A header line is
+ * skipped; rows without a price (a NULL in the table) are counted in
+ * {@link #skipped()} and left out. Columns after {@code ts} are ignored.
+ * </p>
+ * Not thread-safe — a source is replayed by one thread at a time.
+ */
+public class CsvTickSource implements TickSource {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path path;
+    private final SymbolCache symbols = new SymbolCache();
+    private final TextParser text = new TextParser();
+
+    // Parse state for the current line, kept in fields so parsing allocates nothing
+    private long line;
+    private int cursor;
+    private long priceMantissa;
+    private int priceScale;
+    private long skipped;
+
+    public CsvTickSource(Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public long replay(Consumer<? super Tick> sink) throws IOException {
+        try (InputStream in = open()) {
+            return replay(in, sink);
+        }
+    }
+
+    /**
+     * @return rows left out of the last replay because they had no price
+     */
+    public long skipped() {
+        return skipped;
+    }
+
+    private InputStream open() throws IOException {
+        InputStream in = Files.newInputStream(path);
+        return path.getFileName().toString().endsWith(".gz") ? new GZIPInputStream(in, BUFFER_SIZE) : in;
+    }
+
+    long replay(InputStream in, Consumer<? super Tick> sink) throws IOException {
+        byte[] buf = new byte[BUFFER_SIZE];
+        int start = 0;
+        int scan = 0;
+        int end = 0;
+        boolean eof = false;
+        long count = 0;
+        line = 0;
+        skipped = 0;
+        while (true) {
+            while (scan < end && buf[scan] != '\n') {
+                scan++;
+            }
+            if (scan < end) {
+                line++;
+                if (parseLine(buf, start, scan, sink)) {
+                    count++;
+                }
+                start = ++scan;
+                continue;
+            }
+            if (eof) {
+                if (start < end) {
+                    line++;
+                    if (parseLine(buf, start, end, sink)) {
+                        count++;
+                    }
+                }
+                return count;
+            }
+            // Keep the partial line, then refill behind it
+            if (start > 0) {
+                System.arraycopy(buf, start, buf, 0, end - start);
+                end -= start;
+                scan -= start;
+                start = 0;
+            }
+            if (end == buf.length) {
+                throw new IOException("Line " + (line + 1) + " of " + path + " is longer than " + BUFFER_SIZE + " bytes");
+            }
+            int n = in.read(buf, end, buf.length - end);
+            if (n < 0) {
+                eof = true;
+            } else {
+                end += n;
+            }
+        }
+    }
+
+    // ── Line parsing ───────────────────────────────────────────────────
+
+    /**
+     * @return true if the line produced a tick
+     */
+    private boolean parseLine(byte[] buf, int from, int to, Consumer<? super Tick> sink) throws IOException {
+        if (to > from && buf[to - 1] == '\r') {
+            to--;
+        }
+        if (to == from) {
+            return false;
+        }
+        cursor = from;
+        String symbol = parseSymbol(buf, to);
+        int priceEnd = fieldEnd(buf, cursor, to);
+        if (priceEnd == cursor) {
+            skipped++;
+            return false;
+        }
+        if (!parsePrice(buf, cursor, priceEnd)) {
+            if (line == 1) {
+                return false; // header
+            }
+            throw malformed("price", buf, cursor, priceEnd);
+        }
+        cursor = priceEnd + 1;
+        if (cursor > to) {
+            throw malformed("row", buf, from, to);
+        }
+        Instant timestamp = parseTimestamp(buf, cursor, fieldEnd(buf, cursor, to));
+        sink.accept(new Tick(symbol, priceMantissa, priceScale, timestamp));
+        return true;
+    }
+
+    private static int fieldEnd(byte[] buf, int from, int to) {
+        int i = from;
+        while (i < to && buf[i] != ',') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Reads the first field, which may be quoted, and leaves the cursor on the next one.
+     */
+    private String parseSymbol(byte[] buf, int to) throws IOException {
+        int from = cursor;
+        if (from < to && buf[from] == '"') {
+            boolean escaped = false;
+            int i = from + 1;
+            while (i < to) {
+                if (buf[i] == '"') {
+                    if (i + 1 < to && buf[i + 1] == '"') {
+                        escaped = true;
+                        i += 2;
+                        continue;
+                    }
+                    break;
+                }
+                i++;
+            }
+            if (i + 1 >= to || buf[i + 1] != ',') {
+                throw malformed("symbol", buf, from, to);
+            }
+            cursor = i + 2;
+            return escaped
+                    ? new String(buf, from + 1, i - from - 1, StandardCharsets.UTF_8).replace("\"\"", "\"")
+                    : symbols.symbol(buf, from + 1, i - from - 1);
+        }
+        int end = fieldEnd(buf, from, to);
+        if (end == to) {
+            throw malformed("row", buf, from, to);
+        }
+        cursor = end + 1;
+        return symbols.symbol(buf, from, end - from);
+    }
+
+    /**
+     * Parses the price into {@link #priceMantissa} and {@link #priceScale};
+     * anything beyond 18 digits goes through {@link BigDecimal}.
+     *
+     * @return false if the field is not a number
+     */
+    private boolean parsePrice(byte[] buf, int from, int to) {
+        if (text.parseDecimal(buf, from, to - from)) {
+            priceMantissa = text.mantissa();
+            priceScale = text.scale();
+            return true;
+        }
+        try {
+            BigDecimal price = new BigDecimal(new String(buf, from, to - from, StandardCharsets.US_ASCII));
+            priceMantissa = Price.mantissa(price);
+            priceScale = Price.scale(price);
+            return true;
+        } catch (NumberFormatException | ArithmeticException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads epoch milliseconds or an ISO-8601 timestamp; shapes the fast path
+     * does not know go through {@link Instant#parse}, which also rejects
+     * impossible dates.
+     */
+    private Instant parseTimestamp(byte[] buf, int from, int to) throws IOException {
+        long millis = text.parseUnsigned(buf, from, to - from);
+        if (millis >= 0) {
+            return Instant.ofEpochMilli(millis);
+        }
+        Instant parsed = text.parseIsoInstant(buf, from, to - from);
+        if (parsed != null) {
+            return parsed;
+        }
+        try {
+            return Instant.parse(new String(buf, from, to - from, StandardCharsets.US_ASCII));
+        } catch (DateTimeException e) {
+            throw malformed("timestamp", buf, from, to);
+        }
+    }
+
+    private IOException malformed(String what, byte[] buf, int from, int to) {
+        return new IOException("Malformed " + what + " at line " + line + " of " + path + ": '"
+                + new String(buf, from, Math.max(0, to - from), StandardCharsets.UTF_8) + "'");
+    }
+}
@@ -0,0 +1,163 @@
+package com.algotrader.strategy.backtest;
+
+import com.algotrader.strategy.TradingStrategy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Backtests many configurations of a strategy over the same {@link TickSeries}
+ * in parallel, and ranks them.
+ * <p>
+ * Candidates are split recursively across a {@link ForkJoinPool} down to one
+ * backtest per task, so idle workers steal whatever is left. Every backtest
+ * builds its own strategy, clock and book and replays the shared read-only
+ * series; results land in disjoint array slots. Runs therefore share no
+ * mutable state and scale with the number of cores.
+ * </p>
+ *
+ * @param <P> the strategy parameters, e.g. an SMA window
+ */
+public class ParameterSweep<P> {
+
+    /**
+     * Builds a fresh strategy for one candidate.
+     */
+    @FunctionalInterface
+    public interface StrategyFactory<P> {
+
+        /**
+         * @param clock the replay clock the strategy must stamp its signals with
+         */
+        TradingStrategy create(P params, SimulatedClock clock);
+    }
+
+    /** Highest total PnL first; equal PnL ranks the smaller drawdown first. */
+    public static final Comparator<BacktestResult> BY_TOTAL_PNL =
+            Comparator.comparing(BacktestResult::totalPnl).reversed()
+                    .thenComparing(BacktestResult::maxDrawdown);
+
+    private final TickSeries series;
+    private final StrategyFactory<P> factory;
+    private final BacktestConfig config;
+    private final ForkJoinPool pool;
+
+    /**
+     * @param pool runs the backtests, e.g. {@link ForkJoinPool#commonPool()}
+     */
+    public ParameterSweep(TickSeries series, StrategyFactory<P> factory, BacktestConfig config, ForkJoinPool pool) {
+        this.series = series;
+        this.factory = factory;
+        this.config = config;
+        this.pool = pool;
+    }
+
+    /**
+     * Backtests every candidate, ranked {@link #BY_TOTAL_PNL}.
+     */
+    public List<SweepResult<P>> run(List<P> candidates) {
+        return run(candidates, BY_TOTAL_PNL);
+    }
+
+    /**
+     * Backtests every candidate.
+     *
+     * @return one result per candidate, best first according to {@code ranking}
+     */
+    public List<SweepResult<P>> run(List<P> candidates, Comparator<BacktestResult> ranking) {
+        List<P> params = List.copyOf(candidates);
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        SweepResult<P>[] results = new SweepResult[params.size()];
+        pool.invoke(new Split(params, results, 0, params.size()));
+        List<SweepResult<P>> ranked = new ArrayList<>(Arrays.asList(results));
+        ranked.sort(Comparator.comparing(SweepResult::result, ranking));
+        return ranked;
+    }
+
+    private SweepResult<P> backtest(P params) {
+        SimulatedClock clock = new SimulatedClock();
+        Backtester backtester = new Backtester(factory.create(params, clock), clock, config);
+        long start = System.nanoTime();
+        series.replay(backtester);
+        return new SweepResult<>(params, backtester.result(Duration.ofNanos(System.nanoTime() - start)));
+    }
+
+    /**
+     * Halves the candidate range until a single backtest is left.
+     */
+    private final class Split extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<P> params;
+        private final transient SweepResult<P>[] results;
+        private final int from;
+        private final int to;
+
+        Split(List<P> params, SweepResult<P>[] results, int from, int to) {
+            this.params = params;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                results[from] = backtest(params.get(from));
+            } else if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Split(params, results, from, mid), new Split(params, results, mid, to));
+            }
+        }
+    }
+
+    // ── Search spaces ──────────────────────────────────────────────────
+
+    /**
+     * @return {@code from, from + step, …} up to and including {@code to} — a grid axis
+     */
+    public static List<Integer> range(int from, int to, int step) {
+        if (step <= 0) {
+            throw new IllegalArgumentException("Step must be > 0, got: " + step);
+        }
+        List<Integer> values = new ArrayList<>();
+        for (long v = from; v <= to; v += step) {
+            values.add((int) v);
+        }
+        return values;
+    }
+
+    /**
+     * Random search: {@code count} distinct candidates drawn from {@code space},
+     * reproducibly for a given {@code seed}.
+     */
+    public static <P> List<P> sample(List<P> space, int count, long seed) {
+        List<P> shuffled = new ArrayList<>(space);
+        Collections.shuffle(shuffled, new Random(seed));
+        return List.copyOf(shuffled.subList(0, Math.min(count, shuffled.size())));
+    }
+
+    /**
+     * Renders the first {@code top} results as a fixed-width table.
+     */
+    public static String table(List<? extends SweepResult<?>> ranked, int top) {
+        StringBuilder sb = new StringBuilder(String.format("%4s  %-12s %16s %16s %16s %8s %10s%n",
+                "rank", "params", "total PnL", "realized", "max drawdown", "trades", "ms"));
+        for (int i = 0; i < Math.min(top, ranked.size()); i++) {
+            SweepResult<?> r = ranked.get(i);
+            BacktestResult b = r.result();
+            sb.append(String.format("%4d  %-12s %16s %16s %16s %8d %10d%n", i + 1, r.params(),
+                    b.totalPnl().toPlainString(), b.realizedPnl().toPlainString(),
+                    b.maxDrawdown().toPlainString(), b.trades(), b.elapsed().toMillis()));
+        }
+        return sb.toString();
+    }
+}
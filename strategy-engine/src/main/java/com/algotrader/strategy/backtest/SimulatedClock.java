@@ -0,0 +1,71 @@
+package com.algotrader.strategy.backtest;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * A {@link Clock} that reads the replay time instead of the wall clock.
+ * <p>
+ * The {@link Backtester} sets it to each tick's timestamp before the strategy
+ * sees the tick, so signals stamped through it carry market time. Reading it
+ * returns the tick's own {@link Instant} and allocates nothing.
+ * </p>
+ * Not thread-safe — it is advanced by the thread that drives the replay.
+ */
+public final class SimulatedClock extends Clock {
+
+    private final ZoneId zone;
+    private Instant now;
+
+    /**
+     * A UTC clock starting at the epoch.
+     */
+    public SimulatedClock() {
+        this(Instant.EPOCH, ZoneOffset.UTC);
+    }
+
+    private SimulatedClock(Instant now, ZoneId zone) {
+        this.now = now;
+        this.zone = zone;
+    }
+
+    /**
+     * Moves the clock to {@code instant}; replayed time may also step backwards.
+     */
+    public void set(Instant instant) {
+        this.now = instant;
+    }
+
+    @Override
+    public Instant instant() {
+        return now;
+    }
+
+    /**
+     * @return the replay time in nanoseconds since the epoch, e.g. as the
+     *         nano clock of a {@code StrategyRegistry} under replay
+     */
+    public long epochNanos() {
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+
+    @Override
+    public long millis() {
+        return now.toEpochMilli();
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * @return a clock in {@code zone} frozen at the current replay time
+     */
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return new SimulatedClock(now, zone);
+    }
+}
@@ -0,0 +1,94 @@
+package com.algotrader.strategy.backtest;
+
+import com.algotrader.strategy.impl.SimpleMovingAverageStrategy;
+import com.algotrader.strategy.registry.StrategyRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parameter sweep of the SMA crossover window.
+ *
+ * <ul>
+ * <li>Decodes {@code BACKTEST_SOURCE} (or the first argument) once into a
+ * {@link TickSeries} — a tick CSV file or a tick journal directory.</li>
+ * <li>Backtests every window in {@code SWEEP_WINDOWS} ({@code from..to} or
+ * {@code from..to:step}), or — with {@code SWEEP_SAMPLES} &gt; 0 — that many
+ * windows drawn from it at random ({@code SWEEP_SEED}), on
+ * {@code SWEEP_THREADS} fork-join workers (default: one per core).</li>
+ * <li>Trades as {@link BacktestApp} does and logs the {@code SWEEP_TOP}
+ * windows ranked by total PnL.</li>
+ * </ul>
+ * Run it with {@code gradle :strategy-engine:sweep}.
+ */
+public class SweepApp {
+
+    private static final Logger log = LoggerFactory.getLogger(SweepApp.class);
+
+    private static final String SWEEP_WINDOWS = "2..500";
+    private static final int SWEEP_TOP = 20;
+    private static final int MAX_SYMBOLS = 4096;
+    private static final int SYMBOL_IDLE_MINUTES = 60;
+
+    public static void main(String[] args) throws IOException {
+        String source = args.length > 0 ? args[0] : System.getenv("BACKTEST_SOURCE");
+        if (source == null) {
+            throw new IllegalArgumentException("Set BACKTEST_SOURCE to a tick CSV file or journal directory");
+        }
+        List<Integer> windows = windows(System.getenv().getOrDefault("SWEEP_WINDOWS", SWEEP_WINDOWS));
+        int samples = Integer.parseInt(System.getenv().getOrDefault("SWEEP_SAMPLES", "0"));
+        long seed = Long.parseLong(System.getenv().getOrDefault("SWEEP_SEED", "42"));
+        int threads = Integer.parseInt(System.getenv().getOrDefault("SWEEP_THREADS",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        int top = Integer.parseInt(System.getenv().getOrDefault("SWEEP_TOP", String.valueOf(SWEEP_TOP)));
+        int maxSymbols = Integer.parseInt(
+                System.getenv().getOrDefault("MAX_SYMBOLS", String.valueOf(MAX_SYMBOLS)));
+        Duration idleTimeout = Duration.ofMinutes(Integer.parseInt(
+                System.getenv().getOrDefault("SYMBOL_IDLE_MINUTES", String.valueOf(SYMBOL_IDLE_MINUTES))));
+        var config = new BacktestConfig(
+                new BigDecimal(System.getenv().getOrDefault("BACKTEST_QUANTITY", "1")),
+                Boolean.parseBoolean(System.getenv().getOrDefault("BACKTEST_ALLOW_SHORT", "false")),
+                maxSymbols);
+
+        // ── Decode once ─────────────────────────────────────────────────
+        long loadStart = System.nanoTime();
+        TickSeries series = TickSeries.load(TickSource.open(Path.of(source)));
+        log.info("Loaded {} ticks for {} symbol(s) from {} in {} ms", series.size(), series.symbolCount(), source,
+                (System.nanoTime() - loadStart) / 1_000_000);
+
+        // ── Sweep ───────────────────────────────────────────────────────
+        List<Integer> candidates = samples > 0 ? ParameterSweep.sample(windows, samples, seed) : windows;
+        var sweep = new ParameterSweep<Integer>(series,
+                (window, clock) -> new StrategyRegistry(() -> new SimpleMovingAverageStrategy(window, clock),
+                        maxSymbols, idleTimeout, clock::epochNanos),
+                config, new ForkJoinPool(threads));
+        log.info("Backtesting {} SMA window(s) on {} thread(s)", candidates.size(), threads);
+
+        long sweepStart = System.nanoTime();
+        List<SweepResult<Integer>> ranked = sweep.run(candidates);
+        long sweepMillis = (System.nanoTime() - sweepStart) / 1_000_000;
+
+        log.info("Swept {} window(s) in {} ms ({} ticks/s overall)", ranked.size(), sweepMillis,
+                sweepMillis == 0 ? 0 : Math.round((double) series.size() * ranked.size() * 1000 / sweepMillis));
+        log.info("Top {} by total PnL:\n{}", Math.min(top, ranked.size()), ParameterSweep.table(ranked, top));
+    }
+
+    /**
+     * Parses {@code from..to} or {@code from..to:step}.
+     */
+    static List<Integer> windows(String spec) {
+        String[] rangeAndStep = spec.trim().split(":");
+        String[] bounds = rangeAndStep[0].split("\\.\\.");
+        if (bounds.length != 2 || rangeAndStep.length > 2) {
+            throw new IllegalArgumentException("Expected from..to[:step], got: " + spec);
+        }
+        int step = rangeAndStep.length == 2 ? Integer.parseInt(rangeAndStep[1].trim()) : 1;
+        return ParameterSweep.range(Integer.parseInt(bounds[0].trim()), Integer.parseInt(bounds[1].trim()), step);
+    }
+}
@@ -0,0 +1,11 @@
+package com.algotrader.strategy.backtest;
+
+/**
+ * One candidate of a {@link ParameterSweep} and how it did.
+ *
+ * @param params the strategy parameters backtested
+ * @param result the backtest outcome
+ * @param <P>    the parameter type
+ */
+public record SweepResult<P>(P params, BacktestResult result) {
+}
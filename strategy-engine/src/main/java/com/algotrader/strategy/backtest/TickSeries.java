@@ -0,0 +1,145 @@
+package com.algotrader.strategy.backtest;
+
+import com.algotrader.shared.model.Tick;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Historical ticks decoded once into columnar primitive arrays, for replaying
+ * the same data many times — e.g. once per candidate in a {@link ParameterSweep}.
+ * <p>
+ * Symbols are dictionary-encoded to {@code int} IDs, prices kept as
+ * {@code Price} mantissas and scales, timestamps as epoch nanoseconds: about
+ * 21 bytes per tick. A series is immutable once loaded, so any number of
+ * threads may {@link #replay} it at once; each replay builds its own
+ * {@link Tick}s and shares nothing but the arrays.
+ * </p>
+ */
+public final class TickSeries implements TickSource {
+
+    private final String[] symbols;
+    private final int[] symbolIds;
+    private final long[] priceMantissas;
+    private final byte[] priceScales;
+    private final long[] epochNanos;
+    private final int size;
+
+    private TickSeries(String[] symbols, int[] symbolIds, long[] priceMantissas, byte[] priceScales,
+                       long[] epochNanos, int size) {
+        this.symbols = symbols;
+        this.symbolIds = symbolIds;
+        this.priceMantissas = priceMantissas;
+        this.priceScales = priceScales;
+        this.epochNanos = epochNanos;
+        this.size = size;
+    }
+
+    /**
+     * Reads {@code source} to the end into a new series.
+     *
+     * @throws IllegalArgumentException if a price scale is outside a byte, or
+     *                                  the source holds more than {@code Integer.MAX_VALUE - 8} ticks
+     */
+    public static TickSeries load(TickSource source) throws IOException {
+        Loader loader = new Loader();
+        source.replay(loader);
+        return loader.build();
+    }
+
+    @Override
+    public long replay(Consumer<? super Tick> sink) {
+        for (int i = 0; i < size; i++) {
+            sink.accept(tick(i));
+        }
+        return size;
+    }
+
+    /**
+     * @return the {@code index}-th tick, as a new {@link Tick}
+     */
+    public Tick tick(int index) {
+        Objects.checkIndex(index, size);
+        long nanos = epochNanos[index];
+        return new Tick(symbols[symbolIds[index]], priceMantissas[index], priceScales[index],
+                Instant.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L), Math.floorMod(nanos, 1_000_000_000L)));
+    }
+
+    /**
+     * @return the number of ticks
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of distinct symbols
+     */
+    public int symbolCount() {
+        return symbols.length;
+    }
+
+    /**
+     * Accumulates ticks into arrays that double as they fill.
+     */
+    private static final class Loader implements Consumer<Tick> {
+
+        private static final int MAX_SIZE = Integer.MAX_VALUE - 8;
+
+        private final Map<String, Integer> ids = new HashMap<>();
+        private String[] symbols = new String[16];
+        private int[] symbolIds = new int[1 << 16];
+        private long[] priceMantissas = new long[1 << 16];
+        private byte[] priceScales = new byte[1 << 16];
+        private long[] epochNanos = new long[1 << 16];
+        private int size;
+
+        @Override
+        public void accept(Tick tick) {
+            if (tick.priceScale() != (byte) tick.priceScale()) {
+                throw new IllegalArgumentException("Price scale out of range: " + tick);
+            }
+            if (size == symbolIds.length) {
+                grow();
+            }
+            Integer id = ids.get(tick.symbol());
+            if (id == null) {
+                id = ids.size();
+                ids.put(tick.symbol(), id);
+                if (id == symbols.length) {
+                    symbols = Arrays.copyOf(symbols, id * 2);
+                }
+                symbols[id] = tick.symbol();
+            }
+            Instant timestamp = tick.timestamp();
+            symbolIds[size] = id;
+            priceMantissas[size] = tick.priceMantissa();
+            priceScales[size] = (byte) tick.priceScale();
+            epochNanos[size] = Math.addExact(Math.multiplyExact(timestamp.getEpochSecond(), 1_000_000_000L),
+                    timestamp.getNano());
+            size++;
+        }
+
+        private void grow() {
+            if (size == MAX_SIZE) {
+                throw new IllegalArgumentException("More than " + MAX_SIZE + " ticks in one series");
+            }
+            int capacity = (int) Math.min(MAX_SIZE, size * 2L);
+            symbolIds = Arrays.copyOf(symbolIds, capacity);
+            priceMantissas = Arrays.copyOf(priceMantissas, capacity);
+            priceScales = Arrays.copyOf(priceScales, capacity);
+            epochNanos = Arrays.copyOf(epochNanos, capacity);
+        }
+
+        TickSeries build() {
+            // The columns keep their spare capacity: trimming would briefly need twice the memory
+            return new TickSeries(Arrays.copyOf(symbols, ids.size()), symbolIds, priceMantissas, priceScales,
+                    epochNanos, size);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.algotrader.strategy.backtest;
+
+import com.algotrader.shared.journal.JournalReader;
+import com.algotrader.shared.journal.TickJournal;
+import com.algotrader.shared.model.Tick;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * A stream of historical ticks for a backtest — or for a restarted engine to
+ * catch up on — read in order and never held in memory as a whole.
+ */
+@FunctionalInterface
+public interface TickSource {
+
+    /**
+     * Feeds every tick to {@code sink}, in file order.
+     *
+     * @return the number of ticks delivered
+     */
+    long replay(Consumer<? super Tick> sink) throws IOException;
+
+    /**
+     * Opens {@code path} by its shape: a directory is read as a
+     * {@link TickJournal}, anything else as a CSV file ({@link CsvTickSource}).
+     */
+    static TickSource open(Path path) {
+        if (Files.isDirectory(path)) {
+            return journal(path);
+        }
+        return new CsvTickSource(path);
+    }
+
+    /**
+     * @return a source replaying the {@link TickJournal} in {@code dir} from its oldest segment
+     */
+    static TickSource journal(Path dir) {
+        return sink -> {
+            try (JournalReader reader = new JournalReader(dir)) {
+                return reader.replay(sink);
+            }
+        };
+    }
+
+    /**
+     * @return a source replaying the {@link TickJournal} in {@code dir} from
+     *         its first tick at or after {@code from}
+     */
+    static TickSource journal(Path dir, Instant from) {
+        return sink -> {
+            try (JournalReader reader = new JournalReader(dir)) {
+                reader.seek(from);
+                return reader.replay(sink);
+            }
+        };
+    }
+}
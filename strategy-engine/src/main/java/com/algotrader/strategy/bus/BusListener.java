@@ -0,0 +1,119 @@
+package com.algotrader.strategy.bus;
+
+import com.algotrader.shared.bus.MessageBus;
+import com.algotrader.shared.bus.Topic;
+import com.algotrader.shared.model.Signal;
+import com.algotrader.shared.model.Tick;
+import com.algotrader.strategy.MultiSignalStrategy;
+import com.algotrader.strategy.TradingStrategy;
+import com.algotrader.strategy.dispatch.DispatchConfig;
+import com.algotrader.strategy.dispatch.ShardedDispatcher;
+import com.algotrader.strategy.redis.PipelineMetrics;
+import com.algotrader.strategy.redis.RedisListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * The strategy engine's pipeline on a {@link MessageBus}: subscribes to
+ * {@link Topic#TICKS}, runs each tick through a {@link TradingStrategy} and
+ * publishes every resulting {@link Signal} to {@link Topic#SIGNALS}.
+ * <p>
+ * It does what {@link RedisListener} does, minus the wire: on an
+ * {@link com.algotrader.shared.bus.InProcessBus} ticks arrive as the
+ * ingestor's own records and signals leave the same way. Ticks are processed
+ * on the subscription's thread, or handed to a {@link ShardedDispatcher} with
+ * a sharded {@link DispatchConfig}.
+ * </p>
+ * Stages are timed into {@link PipelineMetrics} as in {@link RedisListener};
+ * with nothing to decode, {@link PipelineMetrics#tickAgeAtReceive()} counts
+ * the ticks received.
+ */
+public class BusListener implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(BusListener.class);
+
+    /** The subscriber name, which is also the consumer group on Redis streams. */
+    public static final String SUBSCRIBER = "strategy-engine";
+
+    private final MessageBus bus;
+    private final MultiSignalStrategy strategy;
+    /** Signals of the tick being processed inline; only touched by the subscription thread. */
+    private final List<Signal> signals = new ArrayList<>();
+    private final ShardedDispatcher dispatcher;
+    private final PipelineMetrics metrics = new PipelineMetrics();
+    private final MessageBus.Subscription subscription;
+
+    /**
+     * @param strategyFactory creates the strategy — once when inline, once per shard when sharded
+     * @param dispatch        inline or sharded tick dispatch
+     */
+    public BusListener(MessageBus bus, Supplier<? extends TradingStrategy> strategyFactory,
+            DispatchConfig dispatch) {
+        this.bus = bus;
+        if (dispatch.isSharded()) {
+            this.strategy = null;
+            this.dispatcher = new ShardedDispatcher(dispatch, () -> metrics.timed(strategyFactory.get()),
+                    this::publishSignal);
+        } else {
+            this.strategy = metrics.timed(strategyFactory.get());
+            this.dispatcher = null;
+        }
+        this.subscription = bus.subscribe(Topic.TICKS, SUBSCRIBER, this::onTick);
+    }
+
+    private void onTick(Tick tick) {
+        try {
+            metrics.tickAgeAtReceive().recordAgeOf(tick.timestamp());
+            if (dispatcher != null) {
+                dispatcher.dispatch(tick);
+                return;
+            }
+            strategy.process(tick, signals);
+            for (int i = 0; i < signals.size(); i++) {
+                publishSignal(signals.get(i));
+            }
+        } catch (Exception e) {
+            metrics.recordError();
+            log.error("Error processing {} tick: {}", tick.symbol(), e.getMessage(), e);
+        } finally {
+            signals.clear();
+        }
+    }
+
+    private void publishSignal(Signal signal) {
+        long start = System.nanoTime();
+        bus.publish(Topic.SIGNALS, signal);
+        metrics.publish().recordSince(start);
+    }
+
+    /**
+     * @return per-stage latency histograms and counters
+     */
+    public PipelineMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * @return the sharded dispatcher, or empty when ticks are processed inline
+     */
+    public Optional<ShardedDispatcher> dispatcher() {
+        return Optional.ofNullable(dispatcher);
+    }
+
+    /**
+     * Stops taking ticks, then lets the shards drain. The bus is left open.
+     */
+    @Override
+    public void close() {
+        log.info("Closing bus listener...");
+        subscription.close();
+        if (dispatcher != null) {
+            dispatcher.close();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.algotrader.strategy.checkpoint;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Where the latest {@link StrategySnapshot} is kept between runs. Each save
+ * replaces the previous snapshot as a whole.
+ */
+public interface CheckpointStore {
+
+    void save(byte[] snapshot) throws IOException;
+
+    /**
+     * @return the latest saved snapshot, or empty if none was ever saved
+     */
+    Optional<byte[]> load() throws IOException;
+
+    /**
+     * @return where snapshots go, for logs
+     */
+    String describe();
+}
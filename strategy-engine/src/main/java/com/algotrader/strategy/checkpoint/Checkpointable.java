@@ -0,0 +1,55 @@
+package com.algotrader.strategy.checkpoint;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * A per-symbol strategy whose state survives a restart.
+ * <p>
+ * A {@link com.algotrader.strategy.registry.StrategyRegistry} of such
+ * strategies can capture every symbol's state for a {@link Checkpointer} and
+ * seed fresh instances from a {@link StrategySnapshot}, so a restarted engine
+ * picks up its windows where it left off instead of warming up from scratch.
+ * Every method runs on the thread that owns the strategy; only a
+ * {@link StateCopy} is written out elsewhere.
+ * </p>
+ */
+public interface Checkpointable {
+
+    /**
+     * A detached copy of a strategy's state, written out later on another thread.
+     */
+    @FunctionalInterface
+    interface StateCopy {
+        void writeTo(DataOutput out) throws IOException;
+    }
+
+    /**
+     * Writes the state needed to resume — compactly, as it is written for
+     * every symbol on every checkpoint.
+     */
+    void writeState(DataOutput out) throws IOException;
+
+    /**
+     * Replaces this (fresh) instance's state with one written by {@link #writeState}.
+     *
+     * @throws IOException if the state is malformed or was written by a
+     *                     differently configured strategy
+     */
+    void readState(DataInput in) throws IOException;
+
+    /**
+     * Copies the state so that it can be written out off the owning thread.
+     * Called between two ticks, so it should be as cheap as a plain copy; the
+     * default writes the state out right away.
+     */
+    default StateCopy copyState() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        writeState(new DataOutputStream(bytes));
+        byte[] state = bytes.toByteArray();
+        return out -> out.write(state);
+    }
+}
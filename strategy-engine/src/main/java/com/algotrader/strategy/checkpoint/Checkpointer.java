@@ -0,0 +1,228 @@
+package com.algotrader.strategy.checkpoint;
+
+import com.algotrader.strategy.checkpoint.StrategySnapshot.SymbolState;
+import com.algotrader.strategy.registry.StrategyRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Periodically writes the state of every tracked {@link StrategyRegistry} to
+ * a {@link CheckpointStore}, and restores it on startup.
+ * <p>
+ * Each round writes what every registry captured since the previous round
+ * and asks for a fresh capture, which each registry takes on its own thread
+ * before its next tick; a registry that saw no ticks keeps its previous
+ * capture. A capture pauses tick processing only for as long as it takes to
+ * copy the live symbols' states; encoding and the write itself happen on the
+ * {@code strategy-checkpoint} thread. On {@link #close()} every registry is
+ * captured afresh, so the final snapshot is current.
+ * </p>
+ * On startup {@link #restore()} reads the latest snapshot; registries tracked
+ * afterwards are seeded from it, live from the time it was taken, and symbols
+ * they have not seen yet are carried over into later snapshots until they are.
+ */
+public class Checkpointer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(Checkpointer.class);
+
+    private final String strategy;
+    private final CheckpointStore store;
+    private final Clock clock;
+    private final List<StrategyRegistry> registries = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "strategy-checkpoint");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile int lastSymbols;
+    private volatile int lastBytes;
+
+    /** States from the restored snapshot that no registry has taken yet. */
+    private Map<String, SymbolState> pending = Map.of();
+    /** When the restored snapshot was taken, or {@code null} when starting cold. */
+    private Instant liveFrom;
+
+    /**
+     * @param strategy the name of the per-symbol strategy; snapshots of any
+     *                 other strategy are not restored
+     */
+    public Checkpointer(String strategy, CheckpointStore store) {
+        this(strategy, store, Clock.systemUTC());
+    }
+
+    /**
+     * Test-friendly constructor: inject the clock that stamps snapshots.
+     */
+    Checkpointer(String strategy, CheckpointStore store, Clock clock) {
+        this.strategy = strategy;
+        this.store = store;
+        this.clock = clock;
+    }
+
+    /**
+     * Loads the latest snapshot. Call once, before tracking any registry.
+     *
+     * @return the snapshot, or empty if there is none or it is unreadable or
+     *         belongs to a different strategy — the engine then starts cold
+     */
+    public Optional<StrategySnapshot> restore() {
+        StrategySnapshot snapshot;
+        try {
+            Optional<byte[]> data = store.load();
+            if (data.isEmpty()) {
+                log.info("No strategy snapshot in {} — starting cold", store.describe());
+                return Optional.empty();
+            }
+            snapshot = StrategySnapshot.decode(data.get());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable strategy snapshot in {}: {}", store.describe(), e.getMessage());
+            return Optional.empty();
+        }
+        if (!snapshot.strategy().equals(strategy)) {
+            log.warn("Ignoring snapshot of {} in {} — the engine runs {}", snapshot.strategy(), store.describe(),
+                    strategy);
+            return Optional.empty();
+        }
+        pending = snapshot.bySymbol();
+        liveFrom = snapshot.takenAt();
+        log.info("Restoring {} symbol(s) of {} from {}, taken at {}", snapshot.symbols().size(), strategy,
+                store.describe(), snapshot.takenAt());
+        return Optional.of(snapshot);
+    }
+
+    /**
+     * Includes a registry in every checkpoint from now on, seeding it from the
+     * restored snapshot if there is one.
+     */
+    public void track(StrategyRegistry registry) {
+        if (!registry.checkpointable()) {
+            log.warn("{} state cannot be checkpointed — not tracked", registry.name());
+            return;
+        }
+        if (liveFrom != null) {
+            registry.restore(pending, liveFrom);
+        }
+        registries.add(registry);
+    }
+
+    /**
+     * Checkpoints every {@code interval}, starting one interval from now.
+     */
+    public void start(Duration interval) {
+        scheduler.scheduleAtFixedRate(this::checkpoint, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        log.info("Checkpointing {} to {} every {} s", strategy, store.describe(), interval.toSeconds());
+    }
+
+    /**
+     * Writes one snapshot of the latest captures, and requests fresh ones.
+     *
+     * @return whether a snapshot was written — not before any registry captured
+     */
+    public boolean checkpoint() {
+        Map<String, SymbolState> merged = new LinkedHashMap<>();
+        boolean captured = false;
+        for (StrategyRegistry registry : registries) {
+            Optional<List<SymbolState>> states = registry.latestCheckpoint();
+            registry.requestCheckpoint();
+            if (states.isEmpty()) {
+                continue;
+            }
+            captured = true;
+            for (SymbolState state : states.get()) {
+                merged.merge(state.symbol(), state, Checkpointer::newer);
+            }
+        }
+        if (!captured) {
+            return false;
+        }
+        for (SymbolState state : pending.values()) {
+            merged.putIfAbsent(state.symbol(), state);
+        }
+        try {
+            byte[] data = new StrategySnapshot(strategy, clock.instant(), new ArrayList<>(merged.values())).encode();
+            store.save(data);
+            written.incrementAndGet();
+            lastSymbols = merged.size();
+            lastBytes = data.length;
+            log.debug("Checkpointed {} symbol(s) in {} bytes", merged.size(), data.length);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            failed.incrementAndGet();
+            log.warn("Checkpoint to {} failed: {}", store.describe(), e.getMessage());
+            return false;
+        }
+    }
+
+    private static SymbolState newer(SymbolState a, SymbolState b) {
+        return a.lastTickMillis() >= b.lastTickMillis() ? a : b;
+    }
+
+    /**
+     * @return snapshots written
+     */
+    public long written() {
+        return written.get();
+    }
+
+    /**
+     * @return snapshots that could not be written
+     */
+    public long failed() {
+        return failed.get();
+    }
+
+    /**
+     * @return the number of symbols in the last snapshot written
+     */
+    public int lastSymbols() {
+        return lastSymbols;
+    }
+
+    /**
+     * @return the size of the last snapshot written, in bytes
+     */
+    public int lastBytes() {
+        return lastBytes;
+    }
+
+    /**
+     * Stops the schedule, captures every registry afresh and writes a final
+     * snapshot. Close the pipeline first: the captures are taken on this
+     * thread and must not race a tick.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
+                scheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            scheduler.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        for (StrategyRegistry registry : registries) {
+            registry.captureNow();
+        }
+        checkpoint();
+        log.info("Checkpointer closed — {} snapshot(s) written, {} failed", written.get(), failed.get());
+    }
+}
@@ -0,0 +1,42 @@
+package com.algotrader.strategy.checkpoint;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Keeps the snapshot in a local file.
+ * <p>
+ * Each save writes a sibling temporary file and renames it over the snapshot,
+ * so a crash mid-write leaves the previous snapshot intact.
+ * </p>
+ */
+public class FileCheckpointStore implements CheckpointStore {
+
+    private final Path path;
+    private final Path temp;
+
+    public FileCheckpointStore(Path path) {
+        this.path = path.toAbsolutePath();
+        this.temp = this.path.resolveSibling(this.path.getFileName() + ".tmp");
+    }
+
+    @Override
+    public void save(byte[] snapshot) throws IOException {
+        Files.createDirectories(path.getParent());
+        Files.write(temp, snapshot);
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public Optional<byte[]> load() throws IOException {
+        return Files.exists(path) ? Optional.of(Files.readAllBytes(path)) : Optional.empty();
+    }
+
+    @Override
+    public String describe() {
+        return "file " + path;
+    }
+}
@@ -0,0 +1,38 @@
+package com.algotrader.strategy.checkpoint;
+
+import io.lettuce.core.api.sync.RedisCommands;
+
+import java.util.Optional;
+
+/**
+ * Keeps the snapshot in a Redis key — for engines without a persistent local
+ * disk. {@code SET} replaces the value atomically.
+ */
+public class RedisCheckpointStore implements CheckpointStore {
+
+    private final RedisCommands<String, byte[]> commands;
+    private final String key;
+
+    /**
+     * @param commands a connection with raw byte values
+     */
+    public RedisCheckpointStore(RedisCommands<String, byte[]> commands, String key) {
+        this.commands = commands;
+        this.key = key;
+    }
+
+    @Override
+    public void save(byte[] snapshot) {
+        commands.set(key, snapshot);
+    }
+
+    @Override
+    public Optional<byte[]> load() {
+        return Optional.ofNullable(commands.get(key));
+    }
+
+    @Override
+    public String describe() {
+        return "Redis key '" + key + "'";
+    }
+}
@@ -0,0 +1,72 @@
+package com.algotrader.strategy.checkpoint;
+
+import com.algotrader.shared.codec.MessageCodec;
+import com.algotrader.shared.codec.NegotiatingCodec;
+import com.algotrader.shared.codec.WireFormat;
+import com.algotrader.shared.model.Tick;
+import com.algotrader.shared.stream.TransportConfig;
+import com.algotrader.strategy.backtest.TickSource;
+import io.lettuce.core.Limit;
+import io.lettuce.core.Range;
+import io.lettuce.core.StreamMessage;
+import io.lettuce.core.api.sync.RedisCommands;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Replays the ticks a Redis stream still retains from a point in time on —
+ * stream entry IDs start with their append time in milliseconds, so
+ * {@code XRANGE} can start there without a consumer group.
+ * <p>
+ * Entries are read in pages until the end of the stream; payloads in either
+ * wire format are accepted, and an undecodable entry is logged and skipped.
+ * </p>
+ */
+public class RedisStreamTickSource implements TickSource {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisStreamTickSource.class);
+
+    private static final int PAGE_SIZE = 1000;
+
+    private final RedisCommands<String, byte[]> commands;
+    private final String stream;
+    private final Instant from;
+    private final MessageCodec<Tick> codec = NegotiatingCodec.ticks(WireFormat.JSON);
+
+    /**
+     * @param commands a connection with raw byte values
+     * @param from     the append time of the first entry replayed
+     */
+    public RedisStreamTickSource(RedisCommands<String, byte[]> commands, String stream, Instant from) {
+        this.commands = commands;
+        this.stream = stream;
+        this.from = from;
+    }
+
+    @Override
+    public long replay(Consumer<? super Tick> sink) {
+        Range.Boundary<String> lower = Range.Boundary.including(from.toEpochMilli() + "-0");
+        long replayed = 0;
+        while (true) {
+            List<StreamMessage<String, byte[]>> page = commands.xrange(stream,
+                    Range.from(lower, Range.Boundary.unbounded()), Limit.create(0, PAGE_SIZE));
+            for (StreamMessage<String, byte[]> entry : page) {
+                byte[] payload = entry.getBody().get(TransportConfig.PAYLOAD_FIELD);
+                try {
+                    sink.accept(codec.decode(payload));
+                    replayed++;
+                } catch (RuntimeException e) {
+                    log.warn("Skipping entry {} of '{}': {}", entry.getId(), stream, e.getMessage());
+                }
+            }
+            if (page.size() < PAGE_SIZE) {
+                return replayed;
+            }
+            lower = Range.Boundary.excluding(page.get(page.size() - 1).getId());
+        }
+    }
+}
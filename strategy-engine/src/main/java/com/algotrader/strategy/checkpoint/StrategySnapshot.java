@@ -0,0 +1,142 @@
+package com.algotrader.strategy.checkpoint;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Every symbol's strategy state at one point in time, in a compact binary form.
+ * <p>
+ * Layout: magic {@code "ATCK"}, a version byte, the strategy name, the time
+ * taken and the symbol count, then per symbol its name, the timestamp of the
+ * last tick folded into its state and the length-prefixed state written by
+ * {@link Checkpointable#writeState}; a CRC-32 of everything before it closes
+ * the snapshot, so a torn or corrupted write is rejected rather than restored.
+ * </p>
+ *
+ * @param strategy the strategy name, e.g. {@code "SMA-200"} — a snapshot only
+ *                 restores into an identically configured strategy
+ * @param takenAt  when the snapshot was written
+ * @param symbols  one entry per symbol
+ */
+public record StrategySnapshot(String strategy, Instant takenAt, List<SymbolState> symbols) {
+
+    private static final int MAGIC = 0x4154434B; // "ATCK"
+    private static final byte VERSION = 1;
+
+    /**
+     * @param symbol         the trading pair
+     * @param lastTickMillis the timestamp of the newest tick in {@code state}
+     * @param state          as written by {@link Checkpointable#writeState}
+     */
+    public record SymbolState(String symbol, long lastTickMillis, byte[] state) {
+    }
+
+    public StrategySnapshot {
+        symbols = List.copyOf(symbols);
+    }
+
+    /**
+     * @return where a replay has to start so every symbol catches up — the
+     *         oldest last tick, or {@link #takenAt()} with no symbols
+     */
+    public Instant replayFrom() {
+        long from = takenAt.toEpochMilli();
+        for (SymbolState s : symbols) {
+            from = Math.min(from, s.lastTickMillis());
+        }
+        return Instant.ofEpochMilli(from);
+    }
+
+    /**
+     * @return the symbols' states keyed by symbol, in a map registries may
+     *         take entries from concurrently
+     */
+    public Map<String, SymbolState> bySymbol() {
+        Map<String, SymbolState> map = new ConcurrentHashMap<>(symbols.size() * 2);
+        for (SymbolState s : symbols) {
+            map.put(s.symbol(), s);
+        }
+        return map;
+    }
+
+    public byte[] encode() {
+        int estimate = 64;
+        for (SymbolState s : symbols) {
+            estimate += 16 + s.symbol().length() + s.state().length;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(estimate);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeUTF(strategy);
+            out.writeLong(takenAt.toEpochMilli());
+            out.writeInt(symbols.size());
+            for (SymbolState s : symbols) {
+                out.writeUTF(s.symbol());
+                out.writeLong(s.lastTickMillis());
+                out.writeInt(s.state().length);
+                out.write(s.state());
+            }
+            CRC32 crc = new CRC32();
+            crc.update(bytes.toByteArray());
+            out.writeInt((int) crc.getValue());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @throws IOException if {@code data} is not an intact snapshot
+     */
+    public static StrategySnapshot decode(byte[] data) throws IOException {
+        if (data.length < Integer.BYTES * 2) {
+            throw new IOException("Snapshot truncated: " + data.length + " bytes");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length - Integer.BYTES);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        in.skipNBytes(data.length - Integer.BYTES);
+        if (in.readInt() != (int) crc.getValue()) {
+            throw new IOException("Snapshot checksum mismatch");
+        }
+
+        in = new DataInputStream(new ByteArrayInputStream(data, 0, data.length - Integer.BYTES));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a strategy snapshot");
+        }
+        byte version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+        String strategy = in.readUTF();
+        Instant takenAt = Instant.ofEpochMilli(in.readLong());
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Bad symbol count: " + count);
+        }
+        List<SymbolState> symbols = new ArrayList<>(Math.min(count, 1 << 16));
+        for (int i = 0; i < count; i++) {
+            String symbol = in.readUTF();
+            long lastTick = in.readLong();
+            int length = in.readInt();
+            if (length < 0 || length > in.available()) {
+                throw new IOException("Bad state length for " + symbol + ": " + length);
+            }
+            byte[] state = new byte[length];
+            in.readFully(state);
+            symbols.add(new SymbolState(symbol, lastTick, state));
+        }
+        return new StrategySnapshot(strategy, takenAt, symbols);
+    }
+}
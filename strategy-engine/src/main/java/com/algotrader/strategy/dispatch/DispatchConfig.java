@@ -0,0 +1,43 @@
+package com.algotrader.strategy.dispatch;
+
+/**
+ * Configuration for {@link ShardedDispatcher}.
+ *
+ * @param shards        the number of worker shards; {@code 0} processes ticks inline
+ * @param queueCapacity the per-shard queue capacity (rounded up to a power of two)
+ * @param overflow      what to do when a shard's queue is full
+ * @param conflate      keep only the latest unprocessed tick per symbol, for
+ *                      strategies that are {@link com.algotrader.strategy.TradingStrategy#conflatable()}
+ */
+public record DispatchConfig(int shards, int queueCapacity, OverflowPolicy overflow, boolean conflate) {
+
+    public DispatchConfig {
+        if (shards < 0) {
+            throw new IllegalArgumentException("Shard count must be >= 0, got: " + shards);
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be > 0, got: " + queueCapacity);
+        }
+        if (conflate && shards == 0) {
+            throw new IllegalArgumentException("Conflation needs at least one shard");
+        }
+    }
+
+    /**
+     * A config that queues every tick.
+     */
+    public DispatchConfig(int shards, int queueCapacity, OverflowPolicy overflow) {
+        this(shards, queueCapacity, overflow, false);
+    }
+
+    /**
+     * @return a config that processes every tick on the subscriber thread
+     */
+    public static DispatchConfig inline() {
+        return new DispatchConfig(0, 1, OverflowPolicy.DROP);
+    }
+
+    public boolean isSharded() {
+        return shards > 0;
+    }
+}
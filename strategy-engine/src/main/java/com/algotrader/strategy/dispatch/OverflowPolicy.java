@@ -0,0 +1,11 @@
+package com.algotrader.strategy.dispatch;
+
+/**
+ * What a shard does when its queue is full.
+ */
+public enum OverflowPolicy {
+    /** Discard the tick and count it as dropped. */
+    DROP,
+    /** Wait for space, stalling the producer (the Redis event loop). */
+    BLOCK
+}
@@ -0,0 +1,355 @@
+package com.algotrader.strategy.dispatch;
+
+import com.algotrader.shared.concurrent.MpscRingQueue;
+import com.algotrader.shared.model.Signal;
+import com.algotrader.shared.model.Tick;
+import com.algotrader.strategy.MultiSignalStrategy;
+import com.algotrader.strategy.TradingStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Spreads tick processing across N single-threaded worker shards.
+ * <p>
+ * Each tick is routed by a hash of {@link Tick#symbol()}, so every tick for a
+ * given symbol lands on the same shard and is processed in arrival order,
+ * while different symbols run in parallel. Each shard owns its own strategy
+ * instance (from {@code strategyFactory}) and a bounded {@link MpscRingQueue};
+ * a full queue is handled according to the configured {@link OverflowPolicy}.
+ * Every signal a {@link MultiSignalStrategy} emits for a tick reaches the sink.
+ * </p>
+ * With {@link DispatchConfig#conflate()}, a shard queues symbols rather than
+ * ticks: each symbol has a lock-free slot holding its latest unprocessed tick,
+ * and a new tick replaces the one waiting there instead of queueing behind it.
+ * A shard that falls behind during a burst therefore catches up on current
+ * prices, not on a backlog; every replaced tick is counted as
+ * {@linkplain #conflated() conflated}. The queue then holds at most one entry
+ * per symbol, and waits for space whatever the {@link OverflowPolicy}.
+ * Strategies that are not {@link TradingStrategy#conflatable()} keep
+ * receiving every tick. A shard drops the slot of a symbol that has had no
+ * tick for about a minute, so symbols that come and go do not pile up slots.
+ */
+public class ShardedDispatcher implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardedDispatcher.class);
+
+    private static final int IDLE_SPINS = 100;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final Duration SLOT_IDLE = Duration.ofMinutes(1);
+    /** A busy shard looks for idle slots every this many ticks (a power of two). */
+    private static final int SWEEP_EVERY = 1024;
+
+    private final Shard[] shards;
+    private final OverflowPolicy overflow;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong backpressured = new AtomicLong();
+    private final AtomicLong conflated = new AtomicLong();
+    private final boolean conflating;
+    private final long slotIdleNanos;
+    private volatile boolean running = true;
+
+    /**
+     * @param config          shard count, queue capacity and overflow policy
+     * @param strategyFactory creates the strategy owned by each shard
+     * @param signalSink      receives signals; called concurrently from shard threads
+     */
+    public ShardedDispatcher(DispatchConfig config,
+            Supplier<? extends TradingStrategy> strategyFactory,
+            Consumer<Signal> signalSink) {
+        this(config, strategyFactory, signalSink, SLOT_IDLE);
+    }
+
+    /**
+     * Test-friendly constructor: a short slot idle time.
+     */
+    ShardedDispatcher(DispatchConfig config,
+            Supplier<? extends TradingStrategy> strategyFactory,
+            Consumer<Signal> signalSink,
+            Duration slotIdle) {
+        this.slotIdleNanos = slotIdle.toNanos();
+        if (!config.isSharded()) {
+            throw new IllegalArgumentException("ShardedDispatcher needs at least one shard");
+        }
+        this.overflow = config.overflow();
+        TradingStrategy[] strategies = new TradingStrategy[config.shards()];
+        for (int i = 0; i < strategies.length; i++) {
+            strategies[i] = strategyFactory.get();
+        }
+        this.conflating = config.conflate() && strategies[0].conflatable();
+        if (config.conflate() && !conflating) {
+            log.warn("{} needs every tick — conflation disabled", strategies[0].name());
+        }
+        this.shards = new Shard[strategies.length];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard(i, config.queueCapacity(), strategies[i], signalSink);
+        }
+        for (Shard shard : shards) {
+            shard.thread.start();
+        }
+        log.info("Started {} strategy shard(s), queue capacity {}, overflow {}{}",
+                shards.length, conflating ? shards[0].pending.capacity() : shards[0].queue.capacity(), overflow,
+                conflating ? ", conflating" : "");
+    }
+
+    /**
+     * Routes a tick to its symbol's shard.
+     *
+     * @return {@code false} if the tick was dropped
+     */
+    public boolean dispatch(Tick tick) {
+        Shard shard = shards[shardOf(tick.symbol(), shards.length)];
+        if (conflating) {
+            return conflate(shard, tick);
+        }
+        if (shard.queue.offer(tick)) {
+            return true;
+        }
+        if (overflow == OverflowPolicy.DROP || !running) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        backpressured.incrementAndGet();
+        while (!shard.queue.offer(tick)) {
+            if (!running) {
+                dropped.incrementAndGet();
+                return false;
+            }
+            Thread.onSpinWait();
+        }
+        return true;
+    }
+
+    /**
+     * Parks {@code tick} in its symbol's slot, queueing the slot only if it was empty.
+     */
+    private boolean conflate(Shard shard, Tick tick) {
+        Slot slot = shard.slots.computeIfAbsent(tick.symbol(), symbol -> new Slot());
+        if (slot.getAndSet(tick) != null) {
+            // The shard has not taken the previous tick yet, and now never will
+            conflated.incrementAndGet();
+            return true;
+        }
+        if (shard.pending.offer(slot)) {
+            return true;
+        }
+        backpressured.incrementAndGet();
+        while (!shard.pending.offer(slot)) {
+            if (!running) {
+                slot.set(null);
+                dropped.incrementAndGet();
+                return false;
+            }
+            Thread.onSpinWait();
+        }
+        return true;
+    }
+
+    /**
+     * @return the shard index for a symbol
+     */
+    static int shardOf(String symbol, int shardCount) {
+        int h = symbol.hashCode();
+        return ((h ^ (h >>> 16)) & Integer.MAX_VALUE) % shardCount;
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    /**
+     * @return the approximate number of ticks waiting in the given shard — when
+     *         conflating, the number of symbols with a tick waiting
+     */
+    public int queueDepth(int shard) {
+        return conflating ? shards[shard].pending.size() : shards[shard].queue.size();
+    }
+
+    /**
+     * @return symbols with a conflation slot, across every shard; {@code 0} unless conflating
+     */
+    public int conflationSlots() {
+        int slots = 0;
+        if (conflating) {
+            for (Shard shard : shards) {
+                slots += shard.slots.size();
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * @return ticks processed by the given shard since start-up
+     */
+    public long processed(int shard) {
+        return shards[shard].processed.get();
+    }
+
+    /**
+     * @return ticks discarded because a queue was full
+     */
+    public long dropped() {
+        return dropped.get();
+    }
+
+    /**
+     * @return how many times the producer had to wait for queue space
+     */
+    public long backpressured() {
+        return backpressured.get();
+    }
+
+    /**
+     * @return ticks replaced by a newer tick for the same symbol before a shard took them
+     */
+    public long conflated() {
+        return conflated.get();
+    }
+
+    /**
+     * @return whether ticks are conflated per symbol
+     */
+    public boolean isConflating() {
+        return conflating;
+    }
+
+    /**
+     * Stops the shards after they drain whatever is already queued.
+     */
+    @Override
+    public void close() {
+        running = false;
+        for (Shard shard : shards) {
+            LockSupport.unpark(shard.thread);
+        }
+        for (Shard shard : shards) {
+            try {
+                shard.thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        log.info("Stopped {} strategy shard(s)", shards.length);
+    }
+
+    /**
+     * A symbol's latest unprocessed tick, or {@code null} once a shard has taken it.
+     */
+    private static final class Slot extends AtomicReference<Tick> {
+
+        private static final long serialVersionUID = 1L;
+
+        /** Ticks taken from the slot; only touched by its shard. */
+        private int taken;
+        /** {@link #taken} at the shard's previous sweep. */
+        private int takenAtSweep;
+    }
+
+    private final class Shard implements Runnable {
+
+        /** Ticks in arrival order; {@code null} when conflating. */
+        private final MpscRingQueue<Tick> queue;
+        /** Slots holding a tick, in the order they filled; {@code null} unless conflating. */
+        private final MpscRingQueue<Slot> pending;
+        private final ConcurrentHashMap<String, Slot> slots;
+        private final TradingStrategy strategy;
+        private final Consumer<Signal> signalSink;
+        private final List<Signal> signals = new ArrayList<>();
+        private final AtomicLong processed = new AtomicLong();
+        private final Thread thread;
+        private long lastSweepNanos = System.nanoTime();
+
+        private Shard(int index, int capacity, TradingStrategy strategy, Consumer<Signal> signalSink) {
+            this.queue = conflating ? null : new MpscRingQueue<>(capacity);
+            this.pending = conflating ? new MpscRingQueue<>(capacity) : null;
+            this.slots = conflating ? new ConcurrentHashMap<>() : null;
+            this.strategy = strategy;
+            this.signalSink = signalSink;
+            this.thread = new Thread(this, "strategy-shard-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            int idle = 0;
+            while (running || !isDrained()) {
+                Tick tick = next();
+                if (conflating && (tick == null || (processed.get() & (SWEEP_EVERY - 1)) == 0)) {
+                    sweepSlots();
+                }
+                if (tick == null) {
+                    if (++idle < IDLE_SPINS) {
+                        Thread.onSpinWait();
+                    } else {
+                        LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    }
+                    continue;
+                }
+                idle = 0;
+                try {
+                    MultiSignalStrategy.collect(strategy, tick, signals);
+                    for (int i = 0; i < signals.size(); i++) {
+                        signalSink.accept(signals.get(i));
+                    }
+                } catch (Exception e) {
+                    log.error("Error processing {} tick on {}: {}", tick.symbol(),
+                            Thread.currentThread().getName(), e.getMessage(), e);
+                } finally {
+                    signals.clear();
+                }
+                processed.lazySet(processed.get() + 1);
+            }
+        }
+
+        private Tick next() {
+            if (!conflating) {
+                return queue.poll();
+            }
+            Slot slot = pending.poll();
+            if (slot == null) {
+                return null;
+            }
+            slot.taken++;
+            // Emptying the slot re-arms it: the symbol's next tick queues it again
+            return slot.getAndSet(null);
+        }
+
+        /**
+         * Once per idle period, removes the slots no tick has passed through
+         * since the previous sweep. A producer still holding a removed slot
+         * queues it as usual and its tick is processed; the symbol's next
+         * tick simply gets a new slot.
+         */
+        private void sweepSlots() {
+            long now = System.nanoTime();
+            if (now - lastSweepNanos < slotIdleNanos) {
+                return;
+            }
+            lastSweepNanos = now;
+            for (Map.Entry<String, Slot> entry : slots.entrySet()) {
+                Slot slot = entry.getValue();
+                if (slot.taken == slot.takenAtSweep && slot.get() == null) {
+                    slots.remove(entry.getKey(), slot);
+                } else {
+                    slot.takenAtSweep = slot.taken;
+                }
+            }
+        }
+
+        private boolean isDrained() {
+            return conflating ? pending.isEmpty() : queue.isEmpty();
+        }
+    }
+}
@@ -1,15 +1,21 @@
 package com.algotrader.strategy.impl;
 
+import com.algotrader.shared.model.Price;
 import com.algotrader.shared.model.Signal;
 import com.algotrader.shared.model.SignalType;
 import com.algotrader.shared.model.Tick;
 import com.algotrader.strategy.TradingStrategy;
+import com.algotrader.strategy.checkpoint.Checkpointable;
+import com.algotrader.strategy.indicator.RollingWindow;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.LinkedList;
+import java.time.Clock;
 import java.util.Optional;
 
 /**
@@ -19,14 +25,30 @@ import java.util.Optional;
  * the SMA,
  * and a {@link SignalType#SELL} when it crosses <b>below</b>.
  * <p>
- * State is maintained in a sliding window of the last {@code N} prices.
+ * State is maintained in a {@link RollingWindow} of the last {@code N} prices,
+ * held as fixed-point longs with {@value #PRICE_SCALE} decimal places. The
+ * crossover test compares {@code price * N} against the running sum, so each
+ * tick costs O(1) regardless of the window size and never divides. Prices are
+ * read from the tick's {@link Price} mantissa, so no {@code BigDecimal} is
+ * created unless a signal is logged.
+ * <p>
+ * Signals are stamped by the injected {@link Clock}, which a backtest replaces
+ * with one that follows the replayed ticks.
+ * <p>
+ * The window and the crossover baseline can be {@linkplain Checkpointable
+ * checkpointed}: {@code 9 + 8·N} bytes per symbol.
  */
-public class SimpleMovingAverageStrategy implements TradingStrategy {
+public class SimpleMovingAverageStrategy implements TradingStrategy, Checkpointable {
 
     private static final Logger log = LoggerFactory.getLogger(SimpleMovingAverageStrategy.class);
 
+    /** Number of decimal places kept in the fixed-point price window. */
+    static final int PRICE_SCALE = 8;
+
     private final int window;
-    private final LinkedList<BigDecimal> priceWindow = new LinkedList<>();
+    private final RollingWindow priceWindow;
+    private final Clock clock;
+    private final String name;
 
     /**
      * Tracks whether the previous tick's price was above the SMA.
@@ -39,58 +61,127 @@ public class SimpleMovingAverageStrategy implements TradingStrategy {
      *               1)
      */
     public SimpleMovingAverageStrategy(int window) {
+        this(window, Clock.systemUTC());
+    }
+
+    /**
+     * @param window the number of prices to use for the SMA calculation (must be ≥ 1)
+     * @param clock  stamps emitted signals
+     */
+    public SimpleMovingAverageStrategy(int window, Clock clock) {
         if (window <= 0) {
             throw new IllegalArgumentException("SMA window must be > 0, got: " + window);
         }
         this.window = window;
+        this.priceWindow = new RollingWindow(window);
+        this.clock = clock;
+        this.name = "SMA-" + window;
     }
 
     @Override
     public Optional<Signal> process(Tick tick) {
-        priceWindow.addLast(tick.price());
-
-        // Evict oldest price if window is full
-        if (priceWindow.size() > window) {
-            priceWindow.removeFirst();
-        }
+        long price = toFixedPoint(tick.priceMantissa(), tick.priceScale());
+        priceWindow.add(price);
 
         // Not enough data yet — cannot compute SMA
-        if (priceWindow.size() < window) {
+        if (!priceWindow.isFull()) {
             return Optional.empty();
         }
 
-        BigDecimal sma = calculateSma();
-        boolean isAboveSma = tick.price().compareTo(sma) > 0;
+        // price > sum / N  ⇔  price * N > sum — exact, no division
+        boolean isAboveSma = Math.multiplyExact(price, window) > priceWindow.sum();
 
-        log.debug("{} price={} SMA-{}={} above={}",
-                tick.symbol(), tick.price(), window, sma, isAboveSma);
+        if (log.isDebugEnabled()) {
+            log.debug("{} price={} SMA-{}={} above={}",
+                    tick.symbol(), tick.price(), window, calculateSma(), isAboveSma);
+        }
 
         Optional<Signal> signal = Optional.empty();
 
         if (wasAboveSma != null) {
             if (isAboveSma && !wasAboveSma) {
                 // Price crossed ABOVE the SMA → BUY
-                signal = Optional.of(Signal.of(SignalType.BUY, tick.symbol(), tick.price(), name()));
-                log.info("BUY signal: {} @ {} (SMA-{}={})", tick.symbol(), tick.price(), window, sma);
+                signal = Optional.of(Signal.of(SignalType.BUY, tick.symbol(), tick.priceMantissa(), tick.priceScale(), name(), clock));
             } else if (!isAboveSma && wasAboveSma) {
                 // Price crossed BELOW the SMA → SELL
-                signal = Optional.of(Signal.of(SignalType.SELL, tick.symbol(), tick.price(), name()));
-                log.info("SELL signal: {} @ {} (SMA-{}={})", tick.symbol(), tick.price(), window, sma);
+                signal = Optional.of(Signal.of(SignalType.SELL, tick.symbol(), tick.priceMantissa(), tick.priceScale(), name(), clock));
             }
         }
 
+        // Guarded: the arguments allocate, and backtests replay millions of signals with INFO off
+        if (signal.isPresent() && log.isInfoEnabled()) {
+            log.info("{} signal: {} @ {} (SMA-{}={})",
+                    signal.get().type(), tick.symbol(), tick.price(), window, calculateSma());
+        }
+
         wasAboveSma = isAboveSma;
         return signal;
     }
 
     @Override
     public String name() {
-        return "SMA-" + window;
+        return name;
     }
 
+    /**
+     * Writes the window size, its prices oldest first, and the crossover baseline.
+     */
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        writeState(out, window, priceWindow.toArray(), wasAboveSma);
+    }
+
+    /**
+     * Copies the window in two array copies; the encoding is left to the checkpointer.
+     */
+    @Override
+    public StateCopy copyState() {
+        int size = window;
+        long[] prices = priceWindow.toArray();
+        Boolean baseline = wasAboveSma;
+        return out -> writeState(out, size, prices, baseline);
+    }
+
+    private static void writeState(DataOutput out, int window, long[] prices, Boolean baseline)
+            throws IOException {
+        out.writeInt(window);
+        out.writeInt(prices.length);
+        for (long price : prices) {
+            out.writeLong(price);
+        }
+        out.writeByte(baseline == null ? -1 : baseline ? 1 : 0);
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        int savedWindow = in.readInt();
+        if (savedWindow != window) {
+            throw new IOException("State is for SMA-" + savedWindow + ", not " + name);
+        }
+        int size = in.readInt();
+        if (size < 0 || size > window) {
+            throw new IOException("Bad window size: " + size);
+        }
+        priceWindow.clear();
+        for (int i = 0; i < size; i++) {
+            priceWindow.add(in.readLong());
+        }
+        byte baseline = in.readByte();
+        wasAboveSma = baseline < 0 ? null : baseline == 1;
+    }
+
+    /**
+     * Converts a price to a fixed-point long with {@link #PRICE_SCALE} decimals.
+     */
+    static long toFixedPoint(long mantissa, int scale) {
+        return Price.rescale(mantissa, scale, PRICE_SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Renders the current SMA for logging only — never used for the crossover decision.
+     */
     private BigDecimal calculateSma() {
-        BigDecimal sum = priceWindow.stream()
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        return sum.divide(BigDecimal.valueOf(window), 10, RoundingMode.HALF_UP);
+        return BigDecimal.valueOf(priceWindow.sum(), PRICE_SCALE)
+                .divide(BigDecimal.valueOf(window), 10, RoundingMode.HALF_UP);
     }
 }
@@ -0,0 +1,78 @@
+package com.algotrader.strategy.indicator;
+
+/**
+ * Wilder's average true range.
+ * <p>
+ * The true range of a bar is the largest of {@code high − low},
+ * {@code |high − previous close|} and {@code |low − previous close|}, so the
+ * first bar only provides a close. The first ATR is the mean of the next
+ * {@code period} true ranges and is then smoothed as
+ * {@code atr = (atr · (period − 1) + tr) / period}: ready after exactly
+ * {@code period + 1} bars.
+ * </p>
+ * Fed plain prices through {@link #update(long)}, each tick is a bar with
+ * {@code high = low = close}, so the true range is the absolute tick-to-tick
+ * move; callers that aggregate bars use {@link #update(long, long, long)}.
+ */
+public final class AtrIndicator implements Indicator {
+
+    private final int period;
+
+    private boolean started;
+    private long previousClose;
+    private int ranges;
+    private double atr;
+
+    /**
+     * @param period the smoothing period (must be ≥ 1)
+     */
+    public AtrIndicator(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("ATR period must be > 0, got: " + period);
+        }
+        this.period = period;
+    }
+
+    @Override
+    public void update(long price) {
+        update(price, price, price);
+    }
+
+    /**
+     * Folds in a bar; all prices fixed-point with {@value Indicators#PRICE_SCALE} decimals.
+     */
+    public void update(long high, long low, long close) {
+        if (!started) {
+            started = true;
+            previousClose = close;
+            return;
+        }
+        long range = Math.max(Math.subtractExact(high, low),
+                Math.max(Math.abs(Math.subtractExact(high, previousClose)),
+                        Math.abs(Math.subtractExact(low, previousClose))));
+        double trueRange = range / Indicators.SCALE_FACTOR;
+        previousClose = close;
+        if (ranges < period) {
+            atr += trueRange;
+            if (++ranges == period) {
+                atr /= period;
+            }
+            return;
+        }
+        atr = (atr * (period - 1) + trueRange) / period;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ranges == period;
+    }
+
+    @Override
+    public double value() {
+        return ranges == period ? atr : 0;
+    }
+
+    public int period() {
+        return period;
+    }
+}
@@ -0,0 +1,98 @@
+package com.algotrader.strategy.indicator;
+
+/**
+ * Bollinger bands: the {@code period}-price SMA, plus and minus {@code k}
+ * population standard deviations.
+ * <p>
+ * The middle band is the exact fixed-point mean of a {@link RollingWindow}.
+ * The variance is maintained incrementally with Welford's algorithm — adding
+ * the new price and, once the window is full, removing the evicted one — so
+ * each price costs O(1) however long the window. Ready once the window is full.
+ * </p>
+ */
+public final class BollingerBands implements Indicator {
+
+    private final RollingWindow window;
+    private final double k;
+
+    /** Welford state over the window, in price units. */
+    private double mean;
+    private double m2;
+
+    /**
+     * @param period the number of prices in the window (must be ≥ 1)
+     * @param k      the band width in standard deviations (must be &gt; 0)
+     */
+    public BollingerBands(int period, double k) {
+        if (!(k > 0)) {
+            throw new IllegalArgumentException("Bollinger width must be > 0, got: " + k);
+        }
+        this.window = new RollingWindow(period);
+        this.k = k;
+    }
+
+    @Override
+    public void update(long price) {
+        double x = price / Indicators.SCALE_FACTOR;
+        if (window.isFull()) {
+            double evicted = window.oldest() / Indicators.SCALE_FACTOR;
+            window.add(price);
+            double previousMean = mean;
+            mean += (x - evicted) / window.size();
+            m2 += (x - evicted) * (x - mean + evicted - previousMean);
+        } else {
+            window.add(price);
+            double delta = x - mean;
+            mean += delta / window.size();
+            m2 += delta * (x - mean);
+        }
+        if (m2 < 0) {
+            m2 = 0; // rounding on a flat window
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return window.isFull();
+    }
+
+    /**
+     * @return the middle band
+     */
+    @Override
+    public double value() {
+        return window.size() == 0 ? 0 : (double) window.sum() / window.size() / Indicators.SCALE_FACTOR;
+    }
+
+    public double upper() {
+        return value() + k * stdDev();
+    }
+
+    public double lower() {
+        return value() - k * stdDev();
+    }
+
+    /**
+     * @return the population standard deviation of the window
+     */
+    public double stdDev() {
+        return window.size() == 0 ? 0 : Math.sqrt(m2 / window.size());
+    }
+
+    /**
+     * @param price fixed-point with {@value Indicators#PRICE_SCALE} decimals
+     * @return where {@code price} sits between the bands: 0 at the lower, 1 at the upper
+     */
+    public double percentB(long price) {
+        double width = upper() - lower();
+        return width == 0 ? 0.5 : (price / Indicators.SCALE_FACTOR - lower()) / width;
+    }
+
+    public int period() {
+        return window.capacity();
+    }
+
+    public double k() {
+        return k;
+    }
+}
@@ -0,0 +1,57 @@
+package com.algotrader.strategy.indicator;
+
+/**
+ * Exponential moving average with smoothing {@code α = 2 / (period + 1)}.
+ * <p>
+ * Seeded with the simple average of the first {@code period} prices, kept as
+ * an exact fixed-point sum, so the warm-up is deterministic: the indicator is
+ * ready after exactly {@code period} prices. From then on each price costs
+ * one multiply-add.
+ * </p>
+ */
+public final class EmaIndicator implements Indicator {
+
+    private final int period;
+    private final double alpha;
+
+    private int seen;
+    private long seedSum;
+    private double ema;
+
+    /**
+     * @param period the EMA period (must be ≥ 1)
+     */
+    public EmaIndicator(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("EMA period must be > 0, got: " + period);
+        }
+        this.period = period;
+        this.alpha = 2.0 / (period + 1);
+    }
+
+    @Override
+    public void update(long price) {
+        if (seen < period) {
+            seedSum = Math.addExact(seedSum, price);
+            if (++seen == period) {
+                ema = (double) seedSum / period / Indicators.SCALE_FACTOR;
+            }
+            return;
+        }
+        ema += alpha * (price / Indicators.SCALE_FACTOR - ema);
+    }
+
+    @Override
+    public boolean isReady() {
+        return seen == period;
+    }
+
+    @Override
+    public double value() {
+        return ema;
+    }
+
+    public int period() {
+        return period;
+    }
+}
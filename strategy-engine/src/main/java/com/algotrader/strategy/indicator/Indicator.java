@@ -0,0 +1,42 @@
+package com.algotrader.strategy.indicator;
+
+import com.algotrader.shared.model.Tick;
+
+/**
+ * A streaming technical indicator over one symbol's prices.
+ * <p>
+ * Indicators are updated once per tick with the price as a fixed-point
+ * {@code long} of {@value Indicators#PRICE_SCALE} decimals, in O(1) and
+ * without allocating. Within a {@link com.algotrader.strategy.set.StrategySet}
+ * one instance per distinct indicator is shared by every strategy that
+ * declares it, through {@link Indicators}; any other strategy can own
+ * indicators directly and feed them with {@link #update(Tick)}.
+ * </p>
+ * Not thread-safe — updated by the thread that owns the symbol.
+ */
+public interface Indicator {
+
+    /**
+     * Folds the next price into the indicator.
+     *
+     * @param price fixed-point with {@value Indicators#PRICE_SCALE} decimals
+     */
+    void update(long price);
+
+    /**
+     * Folds the tick's price into the indicator.
+     */
+    default void update(Tick tick) {
+        update(Indicators.toFixedPoint(tick.priceMantissa(), tick.priceScale()));
+    }
+
+    /**
+     * @return whether enough prices have been seen for {@link #value()} to be meaningful
+     */
+    boolean isReady();
+
+    /**
+     * @return the current value, in price units; only meaningful once {@link #isReady()}
+     */
+    double value();
+}
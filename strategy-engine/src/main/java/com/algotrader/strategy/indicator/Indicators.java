@@ -0,0 +1,122 @@
+package com.algotrader.strategy.indicator;
+
+import com.algotrader.shared.model.Price;
+
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The indicators of one symbol, each computed once no matter how many
+ * strategies read it.
+ * <p>
+ * Strategies ask for indicators by kind and parameters when they are built;
+ * equal requests return the same instance. {@link #update(long)} then advances
+ * every distinct indicator once per tick, in the order they were first
+ * requested, before any strategy looks at them.
+ * </p>
+ * Not thread-safe — owned by the thread that delivers the symbol's ticks.
+ */
+public final class Indicators {
+
+    /** Number of decimal places in the fixed-point prices indicators are fed. */
+    public static final int PRICE_SCALE = 8;
+
+    /** {@code 10^PRICE_SCALE}, for converting fixed-point prices to {@code double}s. */
+    static final double SCALE_FACTOR = 1e8;
+
+    private final Map<String, Indicator> byKey = new LinkedHashMap<>();
+    private Indicator[] all = new Indicator[0];
+
+    /**
+     * @return the shared simple moving average over {@code period} prices
+     */
+    public SmaIndicator sma(int period) {
+        return shared("SMA(" + period + ")", SmaIndicator.class, () -> new SmaIndicator(period));
+    }
+
+    /**
+     * @return the shared exponential moving average over {@code period} prices
+     */
+    public EmaIndicator ema(int period) {
+        return shared("EMA(" + period + ")", EmaIndicator.class, () -> new EmaIndicator(period));
+    }
+
+    /**
+     * @return the shared Wilder RSI over {@code period} price changes
+     */
+    public RsiIndicator rsi(int period) {
+        return shared("RSI(" + period + ")", RsiIndicator.class, () -> new RsiIndicator(period));
+    }
+
+    /**
+     * @return the shared Bollinger bands over {@code period} prices, {@code k} deviations wide
+     */
+    public BollingerBands bollinger(int period, double k) {
+        return shared("BB(" + period + "," + k + ")", BollingerBands.class, () -> new BollingerBands(period, k));
+    }
+
+    /**
+     * @return the shared VWAP over {@code period} ticks — each of unit volume, as ticks carry no size
+     */
+    public VwapIndicator vwap(int period) {
+        return shared("VWAP(" + period + ")", VwapIndicator.class, () -> new VwapIndicator(period));
+    }
+
+    /**
+     * @return the shared ATR over {@code period} tick-to-tick true ranges
+     */
+    public AtrIndicator atr(int period) {
+        return shared("ATR(" + period + ")", AtrIndicator.class, () -> new AtrIndicator(period));
+    }
+
+    /**
+     * Returns the indicator registered under {@code key}, creating it on first use.
+     * Custom indicators use this directly; the key must identify both the kind
+     * and every parameter, e.g. {@code "SMA(20)"}.
+     *
+     * @throws IllegalArgumentException if {@code key} already names an indicator of another type
+     */
+    public <I extends Indicator> I shared(String key, Class<I> type, Supplier<? extends I> factory) {
+        Indicator existing = byKey.get(key);
+        if (existing == null) {
+            I created = factory.get();
+            byKey.put(key, created);
+            all = Arrays.copyOf(all, all.length + 1);
+            all[all.length - 1] = created;
+            return created;
+        }
+        if (!type.isInstance(existing)) {
+            throw new IllegalArgumentException("Indicator " + key + " is a " + existing.getClass().getSimpleName()
+                    + ", not a " + type.getSimpleName());
+        }
+        return type.cast(existing);
+    }
+
+    /**
+     * Advances every indicator with the next price.
+     *
+     * @param price fixed-point with {@value #PRICE_SCALE} decimals
+     */
+    public void update(long price) {
+        for (Indicator indicator : all) {
+            indicator.update(price);
+        }
+    }
+
+    /**
+     * @return the number of distinct indicators
+     */
+    public int size() {
+        return all.length;
+    }
+
+    /**
+     * Converts a {@link Price} mantissa and scale to a fixed-point long with {@link #PRICE_SCALE} decimals.
+     */
+    public static long toFixedPoint(long mantissa, int scale) {
+        return Price.rescale(mantissa, scale, PRICE_SCALE, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,108 @@
+package com.algotrader.strategy.indicator;
+
+/**
+ * Fixed-capacity ring buffer of fixed-point {@code long} values with a running sum.
+ * <p>
+ * Every operation is O(1) and allocation-free, which makes this the building
+ * block for incremental indicators: an SMA is {@link #sum()} / {@link #size()},
+ * updated on each tick by adding the newest value and subtracting the evicted one.
+ * </p>
+ * Not thread-safe — each window is owned by a single strategy instance.
+ */
+public final class RollingWindow {
+
+    private final long[] values;
+
+    /** Index of the slot that the next {@link #add(long)} writes to. */
+    private int head;
+    private int size;
+    private long sum;
+
+    /**
+     * @param capacity the maximum number of values retained (must be ≥ 1)
+     */
+    public RollingWindow(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Window capacity must be > 0, got: " + capacity);
+        }
+        this.values = new long[capacity];
+    }
+
+    /**
+     * Appends a value, evicting the oldest one once the window is full.
+     *
+     * @param value the new value
+     * @throws ArithmeticException if the running sum overflows a {@code long}
+     */
+    public void add(long value) {
+        if (size == values.length) {
+            sum -= values[head];
+        } else {
+            size++;
+        }
+        sum = Math.addExact(sum, value);
+        values[head] = value;
+        head = (head + 1 == values.length) ? 0 : head + 1;
+    }
+
+    /**
+     * @param index position in the window, {@code 0} being the oldest value
+     * @return the value at that position
+     */
+    public long get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of window of size " + size);
+        }
+        int slot = head - size + index;
+        return values[slot < 0 ? slot + values.length : slot];
+    }
+
+    public long oldest() {
+        return get(0);
+    }
+
+    public long newest() {
+        return get(size - 1);
+    }
+
+    /**
+     * @return the sum of all values currently in the window
+     */
+    public long sum() {
+        return sum;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return values.length;
+    }
+
+    public boolean isFull() {
+        return size == values.length;
+    }
+
+    /**
+     * @return a copy of the values, oldest first
+     */
+    public long[] toArray() {
+        long[] copy = new long[size];
+        int start = head - size;
+        if (start >= 0) {
+            System.arraycopy(values, start, copy, 0, size);
+        } else {
+            int wrapped = -start;
+            System.arraycopy(values, values.length - wrapped, copy, 0, wrapped);
+            System.arraycopy(values, 0, copy, wrapped, head);
+        }
+        return copy;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+        sum = 0;
+    }
+}
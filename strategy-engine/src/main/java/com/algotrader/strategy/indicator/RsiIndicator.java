@@ -0,0 +1,73 @@
+package com.algotrader.strategy.indicator;
+
+/**
+ * Wilder's relative strength index, on a 0–100 scale.
+ * <p>
+ * The first average gain and loss are the simple means of the first
+ * {@code period} price changes; after that each is smoothed as
+ * {@code avg = (avg · (period − 1) + change) / period}. The indicator is
+ * therefore ready after exactly {@code period + 1} prices. With no losses in
+ * the window the RSI is 100; with no movement at all it is 50.
+ * </p>
+ */
+public final class RsiIndicator implements Indicator {
+
+    private final int period;
+
+    private boolean started;
+    private long previous;
+    private int changes;
+    private double avgGain;
+    private double avgLoss;
+
+    /**
+     * @param period the smoothing period (must be ≥ 1)
+     */
+    public RsiIndicator(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("RSI period must be > 0, got: " + period);
+        }
+        this.period = period;
+    }
+
+    @Override
+    public void update(long price) {
+        if (!started) {
+            started = true;
+            previous = price;
+            return;
+        }
+        double change = Math.subtractExact(price, previous) / Indicators.SCALE_FACTOR;
+        previous = price;
+        double gain = Math.max(change, 0);
+        double loss = Math.max(-change, 0);
+        if (changes < period) {
+            avgGain += gain;
+            avgLoss += loss;
+            if (++changes == period) {
+                avgGain /= period;
+                avgLoss /= period;
+            }
+            return;
+        }
+        avgGain = (avgGain * (period - 1) + gain) / period;
+        avgLoss = (avgLoss * (period - 1) + loss) / period;
+    }
+
+    @Override
+    public boolean isReady() {
+        return changes == period;
+    }
+
+    @Override
+    public double value() {
+        if (avgLoss == 0) {
+            return avgGain == 0 ? 50 : 100;
+        }
+        return 100 - 100 / (1 + avgGain / avgLoss);
+    }
+
+    public int period() {
+        return period;
+    }
+}
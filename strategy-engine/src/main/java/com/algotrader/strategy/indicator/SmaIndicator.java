@@ -0,0 +1,56 @@
+package com.algotrader.strategy.indicator;
+
+/**
+ * Simple moving average of the last {@code period} prices, over a {@link RollingWindow}.
+ * <p>
+ * {@link #isAbove(long)} compares {@code price * period} with the running sum,
+ * so crossover decisions are exact and never divide; {@link #value()} is for
+ * display and for strategies that can live with a {@code double}.
+ * </p>
+ */
+public final class SmaIndicator implements Indicator {
+
+    private final RollingWindow window;
+
+    /**
+     * @param period the number of prices averaged (must be ≥ 1)
+     */
+    public SmaIndicator(int period) {
+        this.window = new RollingWindow(period);
+    }
+
+    @Override
+    public void update(long price) {
+        window.add(price);
+    }
+
+    @Override
+    public boolean isReady() {
+        return window.isFull();
+    }
+
+    @Override
+    public double value() {
+        return window.size() == 0 ? 0 : (double) window.sum() / window.size() / Indicators.SCALE_FACTOR;
+    }
+
+    /**
+     * @param price fixed-point with {@value Indicators#PRICE_SCALE} decimals
+     * @return whether {@code price} is strictly above the average
+     * @throws ArithmeticException if {@code price * period} overflows a {@code long}
+     */
+    public boolean isAbove(long price) {
+        return Math.multiplyExact(price, window.size()) > window.sum();
+    }
+
+    /**
+     * @return the sum of the prices in the window, fixed-point
+     */
+    public long sum() {
+        return window.sum();
+    }
+
+    public int period() {
+        return window.capacity();
+    }
+}
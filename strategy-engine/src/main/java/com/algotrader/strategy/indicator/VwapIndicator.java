@@ -0,0 +1,82 @@
+package com.algotrader.strategy.indicator;
+
+/**
+ * Volume-weighted average price over the last {@code period} trades.
+ * <p>
+ * Turnover ({@code price × quantity}) and volume are kept in parallel ring
+ * buffers with running sums, so each trade costs O(1). Ticks carry no size, so {@link #update(long)} weighs every price equally — the VWAP then
+ * equals the SMA; callers that know trade sizes use {@link #update(long, double)}.
+ * Ready once {@code period} trades have been seen.
+ * </p>
+ */
+public final class VwapIndicator implements Indicator {
+
+    private final double[] turnover;
+    private final double[] volume;
+
+    private int head;
+    private int size;
+    private double turnoverSum;
+    private double volumeSum;
+    private double last;
+
+    /**
+     * @param period the number of trades in the window (must be ≥ 1)
+     */
+    public VwapIndicator(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("VWAP period must be > 0, got: " + period);
+        }
+        this.turnover = new double[period];
+        this.volume = new double[period];
+    }
+
+    /**
+     * Folds in a trade of unit size.
+     */
+    @Override
+    public void update(long price) {
+        update(price, 1);
+    }
+
+    /**
+     * Folds in a trade.
+     *
+     * @param price    fixed-point with {@value Indicators#PRICE_SCALE} decimals
+     * @param quantity the traded quantity (must be ≥ 0)
+     */
+    public void update(long price, double quantity) {
+        if (!(quantity >= 0)) {
+            throw new IllegalArgumentException("Quantity must be >= 0, got: " + quantity);
+        }
+        last = price / Indicators.SCALE_FACTOR;
+        if (size == turnover.length) {
+            turnoverSum -= turnover[head];
+            volumeSum -= volume[head];
+        } else {
+            size++;
+        }
+        turnover[head] = last * quantity;
+        volume[head] = quantity;
+        turnoverSum += turnover[head];
+        volumeSum += volume[head];
+        head = (head + 1 == turnover.length) ? 0 : head + 1;
+    }
+
+    @Override
+    public boolean isReady() {
+        return size == turnover.length;
+    }
+
+    /**
+     * @return the VWAP, or the last price while the window holds no volume
+     */
+    @Override
+    public double value() {
+        return volumeSum > 0 ? turnoverSum / volumeSum : last;
+    }
+
+    public int period() {
+        return turnover.length;
+    }
+}
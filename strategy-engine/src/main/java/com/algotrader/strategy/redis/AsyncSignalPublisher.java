@@ -0,0 +1,192 @@
+package com.algotrader.strategy.redis;
+
+import com.algotrader.shared.model.Signal;
+import com.algotrader.shared.stream.TransportConfig;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.XAddArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Publishes signals through Lettuce's async API with command pipelining.
+ * <p>
+ * Auto-flush is disabled on a dedicated connection, so {@code PUBLISH}
+ * commands are buffered and written to the socket in one go once
+ * {@link PublishConfig#batchSize()} commands are pending or
+ * {@link PublishConfig#flushInterval()} has elapsed. A semaphore bounds the
+ * number of unacknowledged commands; a publish that cannot get a permit within
+ * {@link PublishConfig#offerTimeout()} is dropped and counted rather than
+ * stalling the tick-processing thread indefinitely. Given stream arguments,
+ * the pipelined commands are {@code XADD}s instead of {@code PUBLISH}es.
+ * </p>
+ *
+ * @param <V> the connection's value type — {@code String} for JSON, {@code byte[]} for binary
+ */
+public class AsyncSignalPublisher<V> implements SignalPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncSignalPublisher.class);
+
+    private final StatefulRedisConnection<String, V> connection;
+    private final RedisAsyncCommands<String, V> commands;
+    private final String channel;
+    private final Function<Signal, V> encoder;
+    private final XAddArgs streamArgs;
+    private final int batchSize;
+    private final int maxInFlight;
+    private final long offerTimeoutNanos;
+
+    private final Semaphore inFlight;
+    private final Object flushLock = new Object();
+    private final ScheduledExecutorService flusher;
+    private int pending;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * @param connection a dedicated connection — the publisher takes ownership
+     *                   of it and disables its auto-flush
+     * @param encoder    converts a signal to the connection's value type
+     */
+    public AsyncSignalPublisher(StatefulRedisConnection<String, V> connection, String channel,
+            PublishConfig config, Function<Signal, V> encoder) {
+        this(connection, channel, config, encoder, null);
+    }
+
+    /**
+     * @param streamArgs {@code XADD} options to append to the stream {@code channel},
+     *                   or {@code null} to {@code PUBLISH} to it
+     */
+    public AsyncSignalPublisher(StatefulRedisConnection<String, V> connection, String channel,
+            PublishConfig config, Function<Signal, V> encoder, XAddArgs streamArgs) {
+        this.connection = connection;
+        this.connection.setAutoFlushCommands(false);
+        this.commands = connection.async();
+        this.channel = channel;
+        this.encoder = encoder;
+        this.streamArgs = streamArgs;
+        this.batchSize = config.batchSize();
+        this.maxInFlight = config.maxInFlight();
+        this.offerTimeoutNanos = config.offerTimeout().toNanos();
+        this.inFlight = new Semaphore(config.maxInFlight());
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "signal-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        long intervalNanos = config.flushInterval().toNanos();
+        flusher.scheduleAtFixedRate(this::flush, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        log.info("Async signal publishing to '{}' (batch={}, flushInterval={}, maxInFlight={})",
+                channel, batchSize, config.flushInterval(), maxInFlight);
+    }
+
+    @Override
+    public void publish(Signal signal) {
+        V payload = encoder.apply(signal);
+        try {
+            if (!inFlight.tryAcquire(offerTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                dropped.incrementAndGet();
+                log.warn("Dropped {} signal for {}: {} publishes already in flight",
+                        signal.type(), signal.symbol(), maxInFlight);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dropped.incrementAndGet();
+            return;
+        }
+
+        RedisFuture<?> future;
+        synchronized (flushLock) {
+            future = streamArgs == null
+                    ? commands.publish(channel, payload)
+                    : commands.xadd(channel, streamArgs, TransportConfig.PAYLOAD_FIELD, payload);
+            if (++pending >= batchSize) {
+                flushLocked();
+            }
+        }
+        future.whenComplete((result, error) -> {
+            inFlight.release();
+            if (error != null) {
+                failed.incrementAndGet();
+                log.error("Failed to publish {} signal to '{}': {}", signal.type(), channel, error.getMessage());
+            } else {
+                published.incrementAndGet();
+            }
+        });
+        log.info("Queued {} signal to '{}': {}", signal.type(), channel, signal);
+    }
+
+    /**
+     * Writes all buffered commands to the socket.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            if (pending > 0) {
+                flushLocked();
+            }
+        }
+    }
+
+    private void flushLocked() {
+        connection.flushCommands();
+        pending = 0;
+    }
+
+    /**
+     * @return signals acknowledged by Redis
+     */
+    public long published() {
+        return published.get();
+    }
+
+    /**
+     * @return signals Redis rejected or that failed in transit
+     */
+    public long failed() {
+        return failed.get();
+    }
+
+    /**
+     * @return signals discarded because the in-flight window stayed full
+     */
+    public long dropped() {
+        return dropped.get();
+    }
+
+    /**
+     * @return publishes sent (or buffered) but not yet acknowledged
+     */
+    public int inFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    /**
+     * Flushes what is buffered, waits briefly for acknowledgements, then closes
+     * the dedicated connection.
+     */
+    @Override
+    public void close() {
+        flusher.shutdownNow();
+        flush();
+        try {
+            if (!inFlight.tryAcquire(maxInFlight, 5, TimeUnit.SECONDS)) {
+                log.warn("Closing with {} signal publish(es) still unacknowledged", inFlight());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        connection.close();
+    }
+}
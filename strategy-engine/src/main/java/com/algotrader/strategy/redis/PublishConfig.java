@@ -0,0 +1,44 @@
+package com.algotrader.strategy.redis;
+
+import com.algotrader.shared.codec.WireFormat;
+
+import java.time.Duration;
+
+/**
+ * Configuration for signal publishing.
+ *
+ * @param mode          sync or async (pipelined) publishing
+ * @param format        the wire format of published signals
+ * @param batchSize     async: flush once this many commands are buffered
+ * @param flushInterval async: flush buffered commands at least this often
+ * @param maxInFlight   async: the maximum number of unacknowledged publishes
+ * @param offerTimeout  async: how long a publish may wait for in-flight capacity before it is dropped
+ */
+public record PublishConfig(
+        PublishMode mode,
+        WireFormat format,
+        int batchSize,
+        Duration flushInterval,
+        int maxInFlight,
+        Duration offerTimeout) {
+
+    public PublishConfig {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be > 0, got: " + batchSize);
+        }
+        if (maxInFlight < batchSize) {
+            throw new IllegalArgumentException("Max in-flight (" + maxInFlight
+                    + ") must be >= batch size (" + batchSize + ")");
+        }
+        if (flushInterval.isNegative() || flushInterval.isZero()) {
+            throw new IllegalArgumentException("Flush interval must be positive, got: " + flushInterval);
+        }
+    }
+
+    /**
+     * @return the original behaviour: one synchronous JSON publish per signal
+     */
+    public static PublishConfig sync() {
+        return new PublishConfig(PublishMode.SYNC, WireFormat.JSON, 1, Duration.ofMillis(1), 1, Duration.ZERO);
+    }
+}
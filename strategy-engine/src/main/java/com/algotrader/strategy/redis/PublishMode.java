@@ -0,0 +1,11 @@
+package com.algotrader.strategy.redis;
+
+/**
+ * How {@link RedisListener} publishes signals.
+ */
+public enum PublishMode {
+    /** One blocking {@code PUBLISH} round trip per signal. */
+    SYNC,
+    /** Pipelined {@code PUBLISH}es flushed in batches, with a bounded in-flight window. */
+    ASYNC
+}
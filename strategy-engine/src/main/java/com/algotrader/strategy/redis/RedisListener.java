@@ -1,111 +1,351 @@
 package com.algotrader.strategy.redis;
 
+import com.algotrader.shared.codec.BinaryCodec;
+import com.algotrader.shared.codec.MalformedPayloadException;
+import com.algotrader.shared.codec.MessageCodec;
+import com.algotrader.shared.codec.NegotiatingCodec;
+import com.algotrader.shared.codec.WireFormat;
 import com.algotrader.shared.model.Signal;
 import com.algotrader.shared.model.Tick;
-import com.algotrader.shared.util.JsonUtil;
+import com.algotrader.shared.stream.RedisStreamConsumer;
+import com.algotrader.shared.stream.RedisTransport;
+import com.algotrader.shared.stream.TransportConfig;
+import com.algotrader.shared.util.StreamingJson;
+import com.algotrader.strategy.MultiSignalStrategy;
 import com.algotrader.strategy.TradingStrategy;
-import io.lettuce.core.RedisClient;
+import com.algotrader.strategy.backtest.TickSource;
+import com.algotrader.strategy.dispatch.DispatchConfig;
+import com.algotrader.strategy.dispatch.OverflowPolicy;
+import com.algotrader.strategy.dispatch.ShardedDispatcher;
+import io.lettuce.core.XAddArgs;
 import io.lettuce.core.api.StatefulRedisConnection;
 import io.lettuce.core.api.sync.RedisCommands;
-import io.lettuce.core.pubsub.RedisPubSubAdapter;
-import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * Subscribes to a Redis channel for incoming {@link Tick} messages,
  * runs each tick through a {@link TradingStrategy}, and publishes
- * any resulting {@link Signal} to an output channel.
+ * any resulting {@link Signal} — every one, for a {@link MultiSignalStrategy} —
+ * to an output channel.
+ * <p>
+ * By default ticks are processed inline on the Lettuce event-loop thread. With
+ * a sharded {@link DispatchConfig}, ticks are instead handed to a
+ * {@link ShardedDispatcher} so that strategy work for different symbols runs
+ * on separate cores. With streams, where every input has a reader thread of
+ * its own, an inline config becomes a single shard, so the strategy still
+ * sees one tick at a time.
+ * </p>
+ * Signals go out through a {@link SignalPublisher}: synchronous by default,
+ * or pipelined and batched with {@link PublishMode#ASYNC}.
+ * <p>
+ * Ticks are received as raw bytes through a {@link RedisTransport} and
+ * decoded by a {@link NegotiatingCodec}, so JSON and binary producers can
+ * share the input channel during a rollout.
+ * </p>
+ * With {@link com.algotrader.shared.stream.Transport#STREAMS} both channels
+ * are Redis streams instead: ticks are read through a consumer group by a
+ * {@link RedisStreamConsumer}, so engine instances share the load and resume
+ * after a restart, and signals are appended with {@code XADD}.
+ * <p>
+ * Every stage — decode, strategy, publish — is timed into the listener's
+ * {@link PipelineMetrics}, on whichever thread runs it.
+ * </p>
+ * A warm-up {@link TickSource}, e.g. the ticks since a restored strategy
+ * snapshot, is run through the strategy before the listener starts taking
+ * live ticks.
+ * <p>
+ * Inputs can also be {@linkplain #addInput added} and {@linkplain
+ * #removeInput removed} while running — the partition channels a cluster
+ * node currently owns. A stream added this way is read as a consumer named
+ * after the stream, so whichever node owns it next picks up the entries its
+ * previous owner left unacknowledged.
+ * </p>
  */
 public class RedisListener implements AutoCloseable {
 
     private static final Logger log = LoggerFactory.getLogger(RedisListener.class);
 
-    private final RedisClient redisClient;
-    private final StatefulRedisPubSubConnection<String, String> subConnection;
+    /** Queue capacity of the single shard that serializes stream inputs for an inline strategy. */
+    private static final int HAND_OFF_CAPACITY = 8192;
+
+    private final RedisTransport redis;
+    /** Receives the input channel; {@code null} without one. */
+    private final RedisTransport.Receiver input;
+    private final Map<String, RedisTransport.Receiver> addedInputs = new ConcurrentHashMap<>();
     private final StatefulRedisConnection<String, String> pubConnection;
     private final RedisCommands<String, String> pubCommands;
-    private final TradingStrategy strategy;
-    private final String outputChannel;
+    private final StatefulRedisConnection<String, byte[]> binaryPubConnection;
+    private final MessageCodec<Tick> tickCodec = NegotiatingCodec.ticks(WireFormat.JSON);
+    private final MultiSignalStrategy strategy;
+    /** Signals of the tick being processed inline; only touched by the receiving thread. */
+    private final List<Signal> signals = new ArrayList<>();
+    private final ShardedDispatcher dispatcher;
+    private final SignalPublisher signalPublisher;
+    private final PipelineMetrics metrics = new PipelineMetrics();
 
     public RedisListener(String redisUri, TradingStrategy strategy,
             String inputChannel, String outputChannel) {
-        this.redisClient = RedisClient.create(redisUri);
-        this.strategy = strategy;
-        this.outputChannel = outputChannel;
+        this(redisUri, () -> strategy, DispatchConfig.inline(), PublishConfig.sync(), inputChannel, outputChannel);
+    }
+
+    public RedisListener(String redisUri, Supplier<? extends TradingStrategy> strategyFactory,
+            DispatchConfig dispatch, PublishConfig publish, String inputChannel, String outputChannel) {
+        this(redisUri, strategyFactory, dispatch, publish, TransportConfig.pubSub(), inputChannel, outputChannel);
+    }
+
+    /**
+     * @param strategyFactory creates the strategy — once when inline, once per shard when sharded
+     * @param dispatch        inline or sharded tick dispatch
+     * @param publish         sync or async (pipelined) signal publishing
+     * @param transport       pub/sub channels or Redis streams with a consumer group
+     */
+    public RedisListener(String redisUri, Supplier<? extends TradingStrategy> strategyFactory,
+            DispatchConfig dispatch, PublishConfig publish, TransportConfig transport,
+            String inputChannel, String outputChannel) {
+        this(redisUri, strategyFactory, dispatch, publish, transport, null, inputChannel, outputChannel);
+    }
+
+    /**
+     * @param strategyFactory creates the strategy — once when inline, once per shard when sharded
+     * @param dispatch        inline or sharded tick dispatch
+     * @param publish         sync or async (pipelined) signal publishing
+     * @param transport       pub/sub channels or Redis streams with a consumer group
+     * @param warmUp          ticks to process before subscribing, or {@code null}
+     * @param inputChannel    the tick channel, or {@code null} to only take
+     *                        ticks from channels {@linkplain #addInput added} later
+     */
+    public RedisListener(String redisUri, Supplier<? extends TradingStrategy> strategyFactory,
+            DispatchConfig dispatch, PublishConfig publish, TransportConfig transport, TickSource warmUp,
+            String inputChannel, String outputChannel) {
+        this(new RedisTransport(redisUri, transport), strategyFactory, dispatch, publish, warmUp,
+                inputChannel, outputChannel);
+    }
+
+    /**
+     * Test-friendly constructor: inject the transport.
+     */
+    RedisListener(RedisTransport redis, Supplier<? extends TradingStrategy> strategyFactory,
+            DispatchConfig dispatch, PublishConfig publish, TickSource warmUp,
+            String inputChannel, String outputChannel) {
+        this.redis = redis;
+        TransportConfig transport = redis.config();
 
         // ── Publisher connection (for emitting signals) ─────────────
-        this.pubConnection = redisClient.connect();
+        this.pubConnection = redis.client().connect();
         this.pubCommands = pubConnection.sync();
+        boolean binary = publish.format() == WireFormat.BINARY;
+        this.binaryPubConnection = binary && publish.mode() == PublishMode.SYNC
+                ? redis.client().connect(RedisTransport.BYTES_CODEC)
+                : null;
+        this.signalPublisher = createPublisher(publish, transport.isStreams() ? transport.xaddArgs() : null,
+                outputChannel);
 
-        // ── Subscriber connection (for receiving ticks) ─────────────
-        this.subConnection = redisClient.connectPubSub();
-
-        subConnection.addListener(new RedisPubSubAdapter<>() {
-            @Override
-            public void message(String channel, String message) {
-                onMessage(channel, message);
-            }
-        });
+        // ── Tick processing (inline or sharded) ─────────────────────
+        if (!dispatch.isSharded() && transport.isStreams()) {
+            // Each stream input is read on a thread of its own, and one strategy must only ever run on one
+            dispatch = new DispatchConfig(1, HAND_OFF_CAPACITY, OverflowPolicy.BLOCK);
+            log.info("Stream inputs are read concurrently — handing ticks to one strategy thread");
+        }
+        if (dispatch.isSharded()) {
+            this.strategy = null;
+            this.dispatcher = new ShardedDispatcher(dispatch, () -> metrics.timed(strategyFactory.get()),
+                    this::publishSignal);
+        } else {
+            this.strategy = metrics.timed(strategyFactory.get());
+            this.dispatcher = null;
+        }
+        if (warmUp != null) {
+            warmUp(warmUp);
+        }
 
-        subConnection.sync().subscribe(inputChannel);
-        log.info("Subscribed to '{}' — signals will be published to '{}'", inputChannel, outputChannel);
+        // ── Tick input (channel or stream) ──────────────────────────
+        String sink = transport.isStreams() ? "appended to stream" : "published to";
+        if (inputChannel == null) {
+            this.input = null;
+            log.info("Awaiting inputs — signals will be {} '{}'", sink, outputChannel);
+            return;
+        }
+        this.input = redis.receive(inputChannel, payload -> onMessage(inputChannel, payload));
+        log.info("Receiving '{}' — signals will be {} '{}'", inputChannel, sink, outputChannel);
     }
 
     /**
      * Test-friendly constructor: inject pre-built components.
      */
-    RedisListener(RedisClient redisClient,
-            StatefulRedisPubSubConnection<String, String> subConnection,
+    RedisListener(RedisTransport redis,
             StatefulRedisConnection<String, String> pubConnection,
             RedisCommands<String, String> pubCommands,
             TradingStrategy strategy,
             String outputChannel) {
-        this.redisClient = redisClient;
-        this.subConnection = subConnection;
+        this.redis = redis;
+        this.input = null;
         this.pubConnection = pubConnection;
         this.pubCommands = pubCommands;
-        this.strategy = strategy;
-        this.outputChannel = outputChannel;
+        this.binaryPubConnection = null;
+        this.strategy = metrics.timed(strategy);
+        this.dispatcher = null;
+        this.signalPublisher = SyncSignalPublisher.json(pubCommands, outputChannel);
     }
 
-    private void onMessage(String channel, String message) {
-        try {
-            Tick tick = JsonUtil.fromJson(message, Tick.class);
-            log.debug("Received tick on '{}': {} @ {}", channel, tick.symbol(), tick.price());
-
-            Optional<Signal> signal = strategy.process(tick);
+    /**
+     * @param streamArgs {@code XADD} options when signals go to a stream, else {@code null}
+     */
+    private SignalPublisher createPublisher(PublishConfig publish, XAddArgs streamArgs, String outputChannel) {
+        boolean binary = publish.format() == WireFormat.BINARY;
+        if (publish.mode() == PublishMode.ASYNC) {
+            return binary
+                    ? new AsyncSignalPublisher<>(redis.client().connect(RedisTransport.BYTES_CODEC), outputChannel,
+                            publish, BinaryCodec::encodeSignal, streamArgs)
+                    : new AsyncSignalPublisher<>(redis.client().connect(), outputChannel, publish, StreamingJson::toJson,
+                            streamArgs);
+        }
+        return binary
+                ? new SyncSignalPublisher<>(binaryPubConnection.sync(), outputChannel, BinaryCodec::encodeSignal,
+                        streamArgs)
+                : new SyncSignalPublisher<>(pubCommands, outputChannel, StreamingJson::toJson, streamArgs);
+    }
 
-            signal.ifPresent(s -> {
-                String json = JsonUtil.toJson(s);
-                pubCommands.publish(outputChannel, json);
-                log.info("Published {} signal to '{}': {}", s.type(), outputChannel, json);
-            });
+    private void warmUp(TickSource source) {
+        long start = System.nanoTime();
+        try {
+            long replayed = source.replay(this::onTick);
+            log.info("Replayed {} tick(s) in {} ms", replayed, (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("Warm-up replay failed, starting from the restored state: {}", e.getMessage());
+        }
+    }
 
+    private void onMessage(String channel, byte[] message) {
+        try {
+            long start = System.nanoTime();
+            Tick tick = tickCodec.decode(message);
+            metrics.decode().recordSince(start);
+            metrics.tickAgeAtReceive().recordAgeOf(tick.timestamp());
+            log.debug("Received tick on '{}': {}", channel, tick);
+            onTick(tick);
+        } catch (MalformedPayloadException e) {
+            metrics.recordMalformed();
+            log.warn("Dropping malformed message from '{}': {}", channel, e.getMessage());
         } catch (Exception e) {
+            metrics.recordError();
             log.error("Error processing message from '{}': {}", channel, e.getMessage(), e);
         }
     }
 
+    private void onTick(Tick tick) {
+        if (dispatcher != null) {
+            dispatcher.dispatch(tick);
+            return;
+        }
+        try {
+            strategy.process(tick, signals);
+            for (int i = 0; i < signals.size(); i++) {
+                publishSignal(signals.get(i));
+            }
+        } finally {
+            signals.clear();
+        }
+    }
+
+    private void publishSignal(Signal signal) {
+        long start = System.nanoTime();
+        signalPublisher.publish(signal);
+        metrics.publish().recordSince(start);
+    }
+
+    /**
+     * @return the publisher used for outgoing signals
+     */
+    public SignalPublisher signalPublisher() {
+        return signalPublisher;
+    }
+
+    /**
+     * @return per-stage latency histograms and counters
+     */
+    public PipelineMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * @return the sharded dispatcher, or empty when ticks are processed inline
+     */
+    public Optional<ShardedDispatcher> dispatcher() {
+        return Optional.ofNullable(dispatcher);
+    }
+
+    /**
+     * @return the tick stream consumer, or empty with pub/sub
+     */
+    public Optional<RedisStreamConsumer> streamConsumer() {
+        return input == null ? Optional.empty() : input.streamConsumer();
+    }
+
+    /**
+     * @return every stream consumer: the input's, then one per added stream
+     */
+    public List<RedisStreamConsumer> streamConsumers() {
+        List<RedisStreamConsumer> consumers = new ArrayList<>(addedInputs.size() + 1);
+        streamConsumer().ifPresent(consumers::add);
+        for (RedisTransport.Receiver receiver : addedInputs.values()) {
+            receiver.streamConsumer().ifPresent(consumers::add);
+        }
+        return consumers;
+    }
+
+    /**
+     * Starts taking ticks from another channel or stream as well.
+     */
+    public void addInput(String channel) {
+        addedInputs.computeIfAbsent(channel, c -> redis.receive(c, redis.config().withConsumer(c),
+                payload -> onMessage(c, payload)));
+        log.info("Added input '{}'", channel);
+    }
+
+    /**
+     * Stops taking ticks from an {@linkplain #addInput added} channel or
+     * stream. Returns once no more of its ticks will be delivered — for a
+     * stream, after the batch in hand has been processed and acknowledged.
+     */
+    public void removeInput(String channel) {
+        RedisTransport.Receiver receiver = addedInputs.remove(channel);
+        if (receiver != null) {
+            receiver.close();
+        }
+        log.info("Removed input '{}'", channel);
+    }
+
     /**
      * Pings Redis to verify connectivity.
      */
     public boolean isConnected() {
-        try {
-            return "PONG".equals(pubCommands.ping());
-        } catch (Exception e) {
-            log.warn("Redis ping failed: {}", e.getMessage());
-            return false;
-        }
+        return redis.isConnected();
     }
 
     @Override
     public void close() {
         log.info("Closing Redis listener...");
-        subConnection.close();
+        if (input != null) {
+            input.close();
+        }
+        addedInputs.values().forEach(RedisTransport.Receiver::close);
+        addedInputs.clear();
+        if (dispatcher != null) {
+            dispatcher.close();
+        }
+        signalPublisher.close();
+        if (binaryPubConnection != null) {
+            binaryPubConnection.close();
+        }
         pubConnection.close();
-        redisClient.shutdown();
+        redis.close();
     }
 }
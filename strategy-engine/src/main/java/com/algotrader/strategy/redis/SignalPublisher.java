@@ -0,0 +1,25 @@
+package com.algotrader.strategy.redis;
+
+import com.algotrader.shared.model.Signal;
+
+/**
+ * Sends {@link Signal}s to the output channel.
+ * <p>
+ * Implementations may be called concurrently from several shard threads.
+ * </p>
+ */
+public interface SignalPublisher extends AutoCloseable {
+
+    /**
+     * Publishes a signal. Implementations must not throw for transport errors;
+     * failures are logged and counted instead.
+     */
+    void publish(Signal signal);
+
+    /**
+     * Releases any resources owned by the publisher (but not shared connections).
+     */
+    @Override
+    default void close() {
+    }
+}
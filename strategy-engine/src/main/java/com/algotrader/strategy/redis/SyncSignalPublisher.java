@@ -0,0 +1,65 @@
+package com.algotrader.strategy.redis;
+
+import com.algotrader.shared.model.Signal;
+import com.algotrader.shared.stream.TransportConfig;
+import com.algotrader.shared.util.StreamingJson;
+import io.lettuce.core.XAddArgs;
+import io.lettuce.core.api.sync.RedisCommands;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.Function;
+
+/**
+ * Publishes each signal with a blocking {@code PUBLISH} on a shared connection,
+ * or appends it to a Redis stream with {@code XADD} when given stream arguments.
+ *
+ * @param <V> the connection's value type — {@code String} for JSON, {@code byte[]} for binary
+ */
+public class SyncSignalPublisher<V> implements SignalPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncSignalPublisher.class);
+
+    private final RedisCommands<String, V> commands;
+    private final String channel;
+    private final Function<Signal, V> encoder;
+    private final XAddArgs streamArgs;
+
+    public SyncSignalPublisher(RedisCommands<String, V> commands, String channel, Function<Signal, V> encoder) {
+        this(commands, channel, encoder, null);
+    }
+
+    /**
+     * @param streamArgs {@code XADD} options to append to the stream {@code channel},
+     *                   or {@code null} to {@code PUBLISH} to it
+     */
+    public SyncSignalPublisher(RedisCommands<String, V> commands, String channel, Function<Signal, V> encoder,
+            XAddArgs streamArgs) {
+        this.commands = commands;
+        this.channel = channel;
+        this.encoder = encoder;
+        this.streamArgs = streamArgs;
+    }
+
+    /**
+     * @return a publisher that sends signals as JSON text
+     */
+    public static SyncSignalPublisher<String> json(RedisCommands<String, String> commands, String channel) {
+        return new SyncSignalPublisher<>(commands, channel, StreamingJson::toJson);
+    }
+
+    @Override
+    public void publish(Signal signal) {
+        V payload = encoder.apply(signal);
+        try {
+            if (streamArgs == null) {
+                commands.publish(channel, payload);
+            } else {
+                commands.xadd(channel, streamArgs, TransportConfig.PAYLOAD_FIELD, payload);
+            }
+            log.info("Published {} signal to '{}': {}", signal.type(), channel, signal);
+        } catch (Exception e) {
+            log.error("Failed to publish {} signal to '{}': {}", signal.type(), channel, e.getMessage(), e);
+        }
+    }
+}
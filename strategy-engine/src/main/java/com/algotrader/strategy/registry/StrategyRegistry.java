@@ -0,0 +1,443 @@
+package com.algotrader.strategy.registry;
+
+import com.algotrader.shared.model.Signal;
+import com.algotrader.shared.model.Tick;
+import com.algotrader.shared.util.SymbolTable;
+import com.algotrader.strategy.MultiSignalStrategy;
+import com.algotrader.strategy.TradingStrategy;
+import com.algotrader.strategy.checkpoint.Checkpointable;
+import com.algotrader.strategy.checkpoint.StrategySnapshot.SymbolState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Symbol-partitioned {@link TradingStrategy}: keeps an independent strategy
+ * instance per symbol so that ticks for different pairs never share a window.
+ * <p>
+ * Symbols are interned to dense IDs by a {@link SymbolTable}; strategy instances
+ * and last-seen times live in arrays indexed by those IDs, and the IDs are
+ * chained in a doubly linked list from least to most recently seen. Memory is
+ * bounded by {@code maxSymbols}: symbols idle for longer than
+ * {@code idleTimeout} are evicted by a periodic sweep from the head of that
+ * list, and when the table is full its head makes room for a new symbol — both
+ * in time proportional to the symbols evicted, not to {@code maxSymbols}. When the per-symbol strategies are
+ * {@link MultiSignalStrategy}s, {@link #process(Tick, List)} passes all of
+ * their signals through.
+ * </p>
+ * When the per-symbol strategies are {@link Checkpointable}, the registry
+ * captures every live symbol's state on request, on its own thread between
+ * two ticks, for a {@link com.algotrader.strategy.checkpoint.Checkpointer} to
+ * write out. The capture only {@linkplain Checkpointable#copyState() copies}
+ * each state; encoding happens when the checkpointer collects it, on its own
+ * thread. After a {@link #restore(Map, Instant) restore} the registry seeds
+ * each symbol from the snapshot the first time the symbol is seen. Ticks
+ * stamped before the snapshot was taken are then warm-up: they update the
+ * state but emit nothing — the engine that wrote the snapshot had already
+ * processed them — and those older than a symbol's last snapshotted tick are
+ * skipped, so a replay may safely overlap it. A tick stamped in the very
+ * millisecond of that last tick is folded in again: it may not have been part
+ * of the snapshot, and a duplicate costs less than a loss.
+ * <p>
+ * Not thread-safe — a registry is owned by the thread that delivers its ticks.
+ * </p>
+ */
+public class StrategyRegistry implements MultiSignalStrategy {
+
+    private static final Logger log = LoggerFactory.getLogger(StrategyRegistry.class);
+
+    private static final int NONE = -1;
+
+    private final Supplier<? extends TradingStrategy> factory;
+    private final String name;
+    private final boolean conflatable;
+    private final boolean checkpointable;
+    private final long idleTimeoutNanos;
+    private final LongSupplier nanoClock;
+
+    private final SymbolTable symbols;
+    private final TradingStrategy[] strategies;
+    private final long[] lastSeenNanos;
+    /** Recency list over symbol IDs: {@code older}/{@code newer} links, {@link #NONE}-terminated. */
+    private final int[] older;
+    private final int[] newer;
+    private int leastRecent = NONE;
+    private int mostRecent = NONE;
+    /** The instance created to read the strategy's traits, handed to the first symbol admitted. */
+    private TradingStrategy unclaimed;
+    /** Timestamp of the newest tick in each symbol's state, for checkpoints. */
+    private final long[] lastTickMillis;
+    private long lastSweepNanos;
+    private final Queue<Predicate<? super String>> evictions = new ConcurrentLinkedQueue<>();
+    private volatile boolean evictionRequested;
+
+    // ── Checkpointing ──
+    private Map<String, SymbolState> restored = Map.of();
+    /** Ticks stamped before this are warm-up: processed, but their signals are discarded. */
+    private long liveFromMillis = Long.MIN_VALUE;
+    private final List<Signal> discarded = new ArrayList<>();
+    private volatile boolean captureRequested;
+    private volatile Capture captured;
+
+    /**
+     * @param factory     creates a fresh strategy for each newly seen symbol
+     * @param maxSymbols  the maximum number of symbols tracked at once
+     * @param idleTimeout how long a symbol may go without ticks before it is evicted
+     */
+    public StrategyRegistry(Supplier<? extends TradingStrategy> factory, int maxSymbols, Duration idleTimeout) {
+        this(factory, maxSymbols, idleTimeout, System::nanoTime);
+    }
+
+    /**
+     * Constructor with an injected monotonic clock — in tests, or replay time in a backtest.
+     */
+    public StrategyRegistry(Supplier<? extends TradingStrategy> factory, int maxSymbols,
+            Duration idleTimeout, LongSupplier nanoClock) {
+        this.factory = factory;
+        this.unclaimed = factory.get();
+        this.name = unclaimed.name();
+        this.conflatable = unclaimed.conflatable();
+        this.checkpointable = unclaimed instanceof Checkpointable;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.nanoClock = nanoClock;
+        this.symbols = new SymbolTable(maxSymbols);
+        this.strategies = new TradingStrategy[maxSymbols];
+        this.lastSeenNanos = new long[maxSymbols];
+        this.older = new int[maxSymbols];
+        this.newer = new int[maxSymbols];
+        this.lastTickMillis = new long[maxSymbols];
+        this.lastSweepNanos = nanoClock.getAsLong();
+    }
+
+    @Override
+    public Optional<Signal> process(Tick tick) {
+        TradingStrategy strategy = strategyFor(tick);
+        if (strategy == null) {
+            return Optional.empty();
+        }
+        Optional<Signal> signal = strategy.process(tick);
+        return isWarmUp(tick) ? Optional.empty() : signal;
+    }
+
+    @Override
+    public int process(Tick tick, List<? super Signal> out) {
+        TradingStrategy strategy = strategyFor(tick);
+        if (strategy == null) {
+            return 0;
+        }
+        if (!isWarmUp(tick)) {
+            return MultiSignalStrategy.collect(strategy, tick, out);
+        }
+        MultiSignalStrategy.collect(strategy, tick, discarded);
+        discarded.clear();
+        return 0;
+    }
+
+    /**
+     * @return the tick's strategy, or {@code null} if its snapshot already holds the tick
+     */
+    private TradingStrategy strategyFor(Tick tick) {
+        if (captureRequested) {
+            capture();
+        }
+        if (evictionRequested) {
+            evictRequested();
+        }
+        long now = nanoClock.getAsLong();
+        if (now - lastSweepNanos >= idleTimeoutNanos) {
+            evictIdle(now);
+        }
+
+        int id = symbols.idOf(tick.symbol());
+        if (id == SymbolTable.NO_ID) {
+            id = admit(tick.symbol());
+        } else if (id != mostRecent) {
+            unlink(id);
+            link(id);
+        }
+        lastSeenNanos[id] = now;
+        long timestamp = tick.timestamp().toEpochMilli();
+        if (timestamp < liveFromMillis && timestamp < lastTickMillis[id]) {
+            return null;
+        }
+        lastTickMillis[id] = Math.max(lastTickMillis[id], timestamp);
+        return strategies[id];
+    }
+
+    private boolean isWarmUp(Tick tick) {
+        return tick.timestamp().toEpochMilli() < liveFromMillis;
+    }
+
+    /**
+     * @return the name shared by every per-symbol instance
+     */
+    @Override
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return whether the per-symbol strategies may skip superseded ticks
+     */
+    @Override
+    public boolean conflatable() {
+        return conflatable;
+    }
+
+    /**
+     * @return the number of symbols currently holding state
+     */
+    public int size() {
+        return symbols.size();
+    }
+
+    /**
+     * @return whether the per-symbol strategies are {@link Checkpointable}
+     */
+    public boolean checkpointable() {
+        return checkpointable;
+    }
+
+    /**
+     * Seeds symbols from a snapshot as they are first seen, and treats ticks
+     * stamped before {@code liveFrom} as warm-up. Call before the first tick.
+     *
+     * @param states   the snapshot's states by symbol; shared by every registry,
+     *                 each of which takes its own symbols out
+     * @param liveFrom when the snapshot was taken: earlier ticks were already
+     *                 processed before it and emit no signals; later ones —
+     *                 including any published while the engine was down — do
+     */
+    public void restore(Map<String, SymbolState> states, Instant liveFrom) {
+        this.restored = states;
+        this.liveFromMillis = liveFrom.toEpochMilli();
+    }
+
+    /**
+     * Asks for every symbol's state to be captured before the next tick is
+     * processed. Never blocks; does nothing unless {@link #checkpointable()}.
+     */
+    public void requestCheckpoint() {
+        if (checkpointable) {
+            captureRequested = true;
+        }
+    }
+
+    /**
+     * Captures every symbol's state right away, on the calling thread. Only
+     * call once no thread delivers ticks any more, e.g. at shutdown after the
+     * pipeline has stopped.
+     */
+    public void captureNow() {
+        if (checkpointable) {
+            capture();
+        }
+    }
+
+    /**
+     * Encodes the most recent capture, on the calling thread, the first time
+     * it is asked for.
+     *
+     * @return the most recent capture, or empty if none was taken yet
+     */
+    public Optional<List<SymbolState>> latestCheckpoint() {
+        Capture capture = captured;
+        return capture == null ? Optional.empty() : Optional.of(capture.states());
+    }
+
+    private void capture() {
+        captureRequested = false;
+        int count = symbols.size();
+        String[] names = new String[count];
+        long[] lastTicks = new long[count];
+        Checkpointable.StateCopy[] copies = new Checkpointable.StateCopy[count];
+        int n = 0;
+        for (int id = leastRecent; id != NONE; id = newer[id]) {
+            try {
+                copies[n] = ((Checkpointable) strategies[id]).copyState();
+            } catch (IOException e) {
+                log.warn("Could not capture {} state for {}: {}", name, symbols.symbol(id), e.getMessage());
+                continue;
+            }
+            names[n] = symbols.symbol(id);
+            lastTicks[n] = lastTickMillis[id];
+            n++;
+        }
+        captured = new Capture(names, lastTicks, copies, n);
+    }
+
+    /**
+     * Symbols' state copies as taken between two ticks, encoded by whichever
+     * thread first asks for them.
+     */
+    private final class Capture {
+
+        private final String[] names;
+        private final long[] lastTickMillis;
+        private final Checkpointable.StateCopy[] copies;
+        private final int count;
+        private List<SymbolState> encoded;
+
+        private Capture(String[] names, long[] lastTickMillis, Checkpointable.StateCopy[] copies, int count) {
+            this.names = names;
+            this.lastTickMillis = lastTickMillis;
+            this.copies = copies;
+            this.count = count;
+        }
+
+        private synchronized List<SymbolState> states() {
+            if (encoded != null) {
+                return encoded;
+            }
+            List<SymbolState> states = new ArrayList<>(count);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            for (int i = 0; i < count; i++) {
+                bytes.reset();
+                try {
+                    copies[i].writeTo(out);
+                    out.flush();
+                } catch (IOException e) {
+                    log.warn("Could not encode {} state for {}: {}", name, names[i], e.getMessage());
+                    continue;
+                }
+                states.add(new SymbolState(names[i], lastTickMillis[i], bytes.toByteArray()));
+            }
+            encoded = List.copyOf(states);
+            return encoded;
+        }
+    }
+
+    /**
+     * Asks for every symbol matching {@code which} to be dropped before the
+     * next tick is processed — e.g. the symbols of a partition this node no
+     * longer owns, so that they start from scratch if it comes back. Never
+     * blocks; may be called from any thread.
+     */
+    public void evictIf(Predicate<? super String> which) {
+        evictions.add(which);
+        evictionRequested = true;
+    }
+
+    private void evictRequested() {
+        evictionRequested = false;
+        Predicate<? super String> which;
+        while ((which = evictions.poll()) != null) {
+            int evicted = 0;
+            for (int id = leastRecent; id != NONE; ) {
+                int next = newer[id];
+                if (which.test(symbols.symbol(id))) {
+                    evict(id);
+                    evicted++;
+                }
+                id = next;
+            }
+            if (evicted > 0) {
+                log.info("Evicted {} symbol(s) on request; {} remain", evicted, symbols.size());
+            }
+        }
+    }
+
+    /**
+     * Drops the state of every symbol that has been idle for longer than the timeout.
+     *
+     * @return the number of symbols evicted
+     */
+    int evictIdle(long now) {
+        lastSweepNanos = now;
+        int evicted = 0;
+        while (leastRecent != NONE && now - lastSeenNanos[leastRecent] >= idleTimeoutNanos) {
+            evict(leastRecent);
+            evicted++;
+        }
+        if (evicted > 0) {
+            log.info("Evicted {} idle symbol(s); {} remain", evicted, symbols.size());
+        }
+        return evicted;
+    }
+
+    private int admit(String symbol) {
+        if (symbols.size() == symbols.capacity()) {
+            evict(leastRecent);
+        }
+        int id = symbols.intern(symbol);
+        link(id);
+        if (unclaimed != null) {
+            strategies[id] = unclaimed;
+            unclaimed = null;
+        } else {
+            strategies[id] = factory.get();
+        }
+        lastTickMillis[id] = Long.MIN_VALUE;
+        SymbolState saved = restored.isEmpty() ? null : restored.remove(symbol);
+        if (saved != null) {
+            restore(id, saved);
+        } else {
+            log.debug("Created {} state for {} (id={})", name, symbol, id);
+        }
+        return id;
+    }
+
+    private void restore(int id, SymbolState saved) {
+        try {
+            ((Checkpointable) strategies[id]).readState(
+                    new DataInputStream(new ByteArrayInputStream(saved.state())));
+            lastTickMillis[id] = saved.lastTickMillis();
+            log.debug("Restored {} state for {} as of {}", name, saved.symbol(),
+                    Instant.ofEpochMilli(saved.lastTickMillis()));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Discarding {} snapshot state for {}: {}", name, saved.symbol(), e.getMessage());
+            strategies[id] = factory.get();
+        }
+    }
+
+    private void evict(int id) {
+        log.debug("Evicting {} state for {}", name, symbols.symbol(id));
+        unlink(id);
+        strategies[id] = null;
+        symbols.release(id);
+    }
+
+    /** Appends {@code id} as the most recently seen symbol. */
+    private void link(int id) {
+        older[id] = mostRecent;
+        newer[id] = NONE;
+        if (mostRecent == NONE) {
+            leastRecent = id;
+        } else {
+            newer[mostRecent] = id;
+        }
+        mostRecent = id;
+    }
+
+    private void unlink(int id) {
+        int before = older[id];
+        int after = newer[id];
+        if (before == NONE) {
+            leastRecent = after;
+        } else {
+            newer[before] = after;
+        }
+        if (after == NONE) {
+            mostRecent = before;
+        } else {
+            older[after] = before;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.algotrader.strategy.set;
+
+import com.algotrader.shared.model.SignalType;
+import com.algotrader.strategy.indicator.EmaIndicator;
+import com.algotrader.strategy.indicator.Indicators;
+
+/**
+ * Fast / slow EMA crossover: {@link SignalType#BUY} when the fast EMA crosses
+ * above the slow one, {@link SignalType#SELL} when it crosses below. Silent
+ * until the slow EMA has warmed up.
+ */
+public final class EmaCrossover implements IndicatorStrategy {
+
+    private final EmaIndicator fast;
+    private final EmaIndicator slow;
+    private final String name;
+
+    /**
+     * Whether the fast EMA was above the slow one on the previous tick;
+     * {@code null} until both are available.
+     */
+    private Boolean wasAbove;
+
+    /**
+     * @param fast the fast EMA period
+     * @param slow the slow EMA period (must be greater than {@code fast})
+     */
+    public EmaCrossover(Indicators indicators, int fast, int slow) {
+        this.fast = indicators.ema(fast);
+        this.slow = indicators.ema(slow);
+        this.name = "EMA-" + fast + "/" + slow;
+    }
+
+    /**
+     * @return a factory for crossovers of a {@code fast} and a {@code slow} EMA
+     */
+    public static IndicatorStrategy.Factory factory(int fast, int slow) {
+        if (fast <= 0 || slow <= fast) {
+            throw new IllegalArgumentException("EMA periods must satisfy 0 < fast < slow, got: " + fast + "/" + slow);
+        }
+        return indicators -> new EmaCrossover(indicators, fast, slow);
+    }
+
+    @Override
+    public SignalType evaluate(long price) {
+        if (!slow.isReady() || !fast.isReady()) {
+            return null;
+        }
+        boolean isAbove = fast.value() > slow.value();
+        SignalType signal = null;
+        if (wasAbove != null && isAbove != wasAbove) {
+            signal = isAbove ? SignalType.BUY : SignalType.SELL;
+        }
+        wasAbove = isAbove;
+        return signal;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+}
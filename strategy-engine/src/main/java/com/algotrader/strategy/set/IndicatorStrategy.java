@@ -0,0 +1,42 @@
+package com.algotrader.strategy.set;
+
+import com.algotrader.shared.model.SignalType;
+import com.algotrader.strategy.indicator.Indicators;
+
+/**
+ * A member of a {@link StrategySet}: trading logic over shared indicators,
+ * with no price history of its own.
+ * <p>
+ * A member declares its indicators when its {@link Factory} runs, by asking
+ * the symbol's {@link Indicators} for them, and keeps the returned instances.
+ * On every tick the set advances each distinct indicator once, then calls
+ * {@link #evaluate(long)} on every member.
+ * </p>
+ */
+public interface IndicatorStrategy {
+
+    /**
+     * Builds a member for one symbol.
+     */
+    @FunctionalInterface
+    interface Factory {
+
+        /**
+         * @param indicators the symbol's indicators, shared with the other members
+         */
+        IndicatorStrategy create(Indicators indicators);
+    }
+
+    /**
+     * Called once per tick, after the set has updated every indicator.
+     *
+     * @param price the tick's price, fixed-point with {@value Indicators#PRICE_SCALE} decimals
+     * @return the signal to emit, or {@code null} for none
+     */
+    SignalType evaluate(long price);
+
+    /**
+     * @return the name stamped on this member's signals; unique within a set
+     */
+    String name();
+}
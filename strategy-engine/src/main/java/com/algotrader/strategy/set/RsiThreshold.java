@@ -0,0 +1,72 @@
+package com.algotrader.strategy.set;
+
+import com.algotrader.shared.model.SignalType;
+import com.algotrader.strategy.indicator.Indicators;
+import com.algotrader.strategy.indicator.RsiIndicator;
+
+/**
+ * RSI mean reversion: {@link SignalType#BUY} when the RSI climbs back above
+ * the {@code lower} threshold out of oversold territory,
+ * {@link SignalType#SELL} when it falls back below the {@code upper} one.
+ */
+public final class RsiThreshold implements IndicatorStrategy {
+
+    private final RsiIndicator rsi;
+    private final double lower;
+    private final double upper;
+    private final String name;
+
+    /** The RSI on the previous tick, or {@code NaN} before it was available. */
+    private double previous = Double.NaN;
+
+    /**
+     * @param period the RSI period
+     * @param lower  the oversold threshold
+     * @param upper  the overbought threshold
+     */
+    public RsiThreshold(Indicators indicators, int period, double lower, double upper) {
+        this.rsi = indicators.rsi(period);
+        this.lower = lower;
+        this.upper = upper;
+        this.name = "RSI-" + period + "-" + format(lower) + "/" + format(upper);
+    }
+
+    /**
+     * @return a factory for {@code period}-RSI threshold strategies
+     */
+    public static IndicatorStrategy.Factory factory(int period, double lower, double upper) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("RSI period must be > 0, got: " + period);
+        }
+        if (!(0 <= lower && lower < upper && upper <= 100)) {
+            throw new IllegalArgumentException(
+                    "RSI thresholds must satisfy 0 <= lower < upper <= 100, got: " + lower + "/" + upper);
+        }
+        return indicators -> new RsiThreshold(indicators, period, lower, upper);
+    }
+
+    @Override
+    public SignalType evaluate(long price) {
+        if (!rsi.isReady()) {
+            return null;
+        }
+        double current = rsi.value();
+        SignalType signal = null;
+        if (previous <= lower && current > lower) {
+            signal = SignalType.BUY;
+        } else if (previous >= upper && current < upper) {
+            signal = SignalType.SELL;
+        }
+        previous = current;
+        return signal;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    private static String format(double threshold) {
+        return threshold == Math.rint(threshold) ? String.valueOf((long) threshold) : String.valueOf(threshold);
+    }
+}
@@ -0,0 +1,61 @@
+package com.algotrader.strategy.set;
+
+import com.algotrader.shared.model.SignalType;
+import com.algotrader.strategy.impl.SimpleMovingAverageStrategy;
+import com.algotrader.strategy.indicator.Indicators;
+import com.algotrader.strategy.indicator.SmaIndicator;
+
+/**
+ * Price / SMA crossover over a shared {@link SmaIndicator}: {@link SignalType#BUY}
+ * when the price crosses above the average, {@link SignalType#SELL} when it
+ * crosses below. Emits exactly what {@link SimpleMovingAverageStrategy} does
+ * for the same window, under the same name.
+ */
+public final class SmaCrossover implements IndicatorStrategy {
+
+    private final SmaIndicator sma;
+    private final String name;
+
+    /**
+     * Whether the previous price was above the SMA; {@code null} until the
+     * average is first available.
+     */
+    private Boolean wasAbove;
+
+    /**
+     * @param window the number of prices in the SMA (must be ≥ 1)
+     */
+    public SmaCrossover(Indicators indicators, int window) {
+        this.sma = indicators.sma(window);
+        this.name = "SMA-" + window;
+    }
+
+    /**
+     * @return a factory for crossovers of a {@code window}-price SMA
+     */
+    public static IndicatorStrategy.Factory factory(int window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("SMA window must be > 0, got: " + window);
+        }
+        return indicators -> new SmaCrossover(indicators, window);
+    }
+
+    @Override
+    public SignalType evaluate(long price) {
+        if (!sma.isReady()) {
+            return null;
+        }
+        boolean isAbove = sma.isAbove(price);
+        SignalType signal = null;
+        if (wasAbove != null && isAbove != wasAbove) {
+            signal = isAbove ? SignalType.BUY : SignalType.SELL;
+        }
+        wasAbove = isAbove;
+        return signal;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+}
@@ -0,0 +1,169 @@
+package com.algotrader.strategy.set;
+
+import com.algotrader.shared.model.Signal;
+import com.algotrader.shared.model.SignalType;
+import com.algotrader.shared.model.Tick;
+import com.algotrader.strategy.MultiSignalStrategy;
+import com.algotrader.strategy.indicator.Indicators;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Runs many strategies on one symbol's ticks while computing each distinct
+ * indicator only once.
+ * <p>
+ * Members are {@link IndicatorStrategy}s built against a single
+ * {@link Indicators}, so two SMA crossovers over the same window read one
+ * rolling sum instead of keeping two. Per tick the price is converted to
+ * fixed point once, every indicator is advanced once, and every member is
+ * evaluated; each member's signal is emitted under its own name. Like any
+ * strategy, a set holds one symbol's state — wrap its factory in a
+ * {@link com.algotrader.strategy.registry.StrategyRegistry} to run it per symbol.
+ * </p>
+ * Not thread-safe.
+ */
+public final class StrategySet implements MultiSignalStrategy {
+
+    private static final Logger log = LoggerFactory.getLogger(StrategySet.class);
+
+    private final Indicators indicators = new Indicators();
+    private final IndicatorStrategy[] members;
+    private final Clock clock;
+    private final String name;
+
+    public StrategySet(List<? extends IndicatorStrategy.Factory> members) {
+        this(members, Clock.systemUTC());
+    }
+
+    /**
+     * @param members builds each member strategy (must not be empty)
+     * @param clock   stamps emitted signals
+     * @throws IllegalArgumentException if two members share a name
+     */
+    public StrategySet(List<? extends IndicatorStrategy.Factory> members, Clock clock) {
+        if (members.isEmpty()) {
+            throw new IllegalArgumentException("A strategy set needs at least one strategy");
+        }
+        this.members = new IndicatorStrategy[members.size()];
+        Set<String> names = new LinkedHashSet<>();
+        for (int i = 0; i < this.members.length; i++) {
+            IndicatorStrategy member = members.get(i).create(indicators);
+            if (!names.add(member.name())) {
+                throw new IllegalArgumentException("Duplicate strategy in set: " + member.name());
+            }
+            this.members[i] = member;
+        }
+        this.clock = clock;
+        this.name = String.join(",", names);
+    }
+
+    @Override
+    public int process(Tick tick, List<? super Signal> out) {
+        long price = Indicators.toFixedPoint(tick.priceMantissa(), tick.priceScale());
+        indicators.update(price);
+
+        int emitted = 0;
+        for (IndicatorStrategy member : members) {
+            SignalType type = member.evaluate(price);
+            if (type == null) {
+                continue;
+            }
+            out.add(Signal.of(type, tick.symbol(), tick.priceMantissa(), tick.priceScale(), member.name(), clock));
+            emitted++;
+            if (log.isInfoEnabled()) {
+                log.info("{} signal: {} @ {} ({})", type, tick.symbol(), tick.price(), member.name());
+            }
+        }
+        return emitted;
+    }
+
+    /**
+     * @return the members' names, comma-separated
+     */
+    @Override
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return the number of member strategies
+     */
+    public int size() {
+        return members.length;
+    }
+
+    /**
+     * @return the number of distinct indicators computed per tick
+     */
+    public int indicatorCount() {
+        return indicators.size();
+    }
+
+    // ── Configuration ──────────────────────────────────────────────────
+
+    /**
+     * Parses a set definition such as {@code "sma:20,ema:12/26,rsi:14:30/70"}:
+     * a comma-separated list of {@code kind:parameters} entries.
+     * <ul>
+     * <li>{@code sma:N} — price / N-tick SMA crossover ({@link SmaCrossover})</li>
+     * <li>{@code ema:F/S} — fast / slow EMA crossover ({@link EmaCrossover})</li>
+     * <li>{@code rsi:N:L/U} — N-tick RSI leaving the L / U thresholds ({@link RsiThreshold})</li>
+     * </ul>
+     *
+     * @throws IllegalArgumentException if an entry is malformed or of an unknown kind
+     */
+    public static List<IndicatorStrategy.Factory> parse(String spec) {
+        List<IndicatorStrategy.Factory> factories = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int colon = trimmed.indexOf(':');
+            String kind = (colon < 0 ? trimmed : trimmed.substring(0, colon)).toLowerCase(Locale.ROOT);
+            String params = colon < 0 ? "" : trimmed.substring(colon + 1);
+            try {
+                factories.add(switch (kind) {
+                    case "sma" -> SmaCrossover.factory(Integer.parseInt(params));
+                    case "ema" -> {
+                        String[] periods = split(params, '/');
+                        yield EmaCrossover.factory(Integer.parseInt(periods[0]), Integer.parseInt(periods[1]));
+                    }
+                    case "rsi" -> {
+                        String[] parts = split(params, ':');
+                        String[] thresholds = split(parts[1], '/');
+                        yield RsiThreshold.factory(Integer.parseInt(parts[0]),
+                                Double.parseDouble(thresholds[0]), Double.parseDouble(thresholds[1]));
+                    }
+                    default -> throw new IllegalArgumentException("Unknown strategy kind '" + kind + "'");
+                });
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Malformed strategy '" + trimmed + "' in set: " + spec, e);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(e.getMessage() + " in set: " + spec, e);
+            }
+        }
+        if (factories.isEmpty()) {
+            throw new IllegalArgumentException("Empty strategy set: " + spec);
+        }
+        return factories;
+    }
+
+    /**
+     * @return the two halves of {@code value} around its single {@code separator}
+     */
+    private static String[] split(String value, char separator) {
+        int at = value.indexOf(separator);
+        if (at < 0 || value.indexOf(separator, at + 1) >= 0) {
+            throw new NumberFormatException("Expected two values separated by '" + separator + "': " + value);
+        }
+        return new String[]{value.substring(0, at), value.substring(at + 1)};
+    }
+}
@@ -0,0 +1,130 @@
+package com.algotrader.strategy.backtest
+
+import com.algotrader.shared.model.Signal
+import com.algotrader.shared.model.SignalType
+import com.algotrader.shared.model.Tick
+import com.algotrader.strategy.TradingStrategy
+import com.algotrader.strategy.impl.SimpleMovingAverageStrategy
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.time.Duration
+import java.time.Instant
+
+class BacktesterSpec extends Specification {
+
+    @TempDir
+    Path dir
+
+    static final Instant T0 = Instant.parse("2026-01-15T10:00:00Z")
+
+    /** Replays {@code prices} for one symbol, one second apart. */
+    static TickSource prices(List<String> prices) {
+        { sink ->
+            prices.eachWithIndex { p, i -> sink.accept(new Tick("BTCUSDT", new BigDecimal(p), T0.plusSeconds(i))) }
+            (long) prices.size()
+        } as TickSource
+    }
+
+    /** Emits the scripted signal type (if any) on the n-th tick. */
+    static TradingStrategy scripted(Map<Integer, SignalType> script) {
+        int n = 0
+        [process: { Tick tick ->
+            def type = script[n++]
+            type == null ? Optional.empty()
+                    : Optional.of(new Signal(type, tick.symbol(), tick.price(), "scripted", tick.timestamp()))
+        }, name  : { "scripted" }] as TradingStrategy
+    }
+
+    def "should fill long-only trades at the signal price and track drawdown"() {
+        given:
+        def clock = new SimulatedClock()
+        def config = new BacktestConfig(new BigDecimal("2"), false, 16)
+        def backtester = new Backtester(scripted([0: SignalType.BUY, 3: SignalType.SELL]), clock, config)
+
+        when:
+        def result = backtester.run(prices(["100", "110", "90", "120", "130"]))
+
+        then: "bought 2 @ 100, sold 2 @ 120"
+        result.ticks() == 5
+        result.signals() == 2
+        result.trades() == 2
+        result.realizedPnl() == 40
+        result.openPnl() == 0
+
+        and: "equity peaked at +20 before falling to -20"
+        result.maxDrawdown() == 40
+
+        and:
+        result.from() == T0
+        result.to() == T0.plusSeconds(4)
+        clock.instant() == T0.plusSeconds(4)
+    }
+
+    def "should reverse into a short and mark it to market when shorting is allowed"() {
+        given:
+        def config = new BacktestConfig(new BigDecimal("0.5"), true, 16)
+        def backtester = new Backtester(scripted([0: SignalType.BUY, 2: SignalType.SELL]), new SimulatedClock(), config)
+
+        when:
+        def result = backtester.run(prices(["100", "80", "120", "130"]))
+
+        then: "long 0.5 @ 100 → short 0.5 @ 120 in one fill"
+        result.trades() == 2
+        result.realizedPnl() == 10
+        result.openPnl() == -5
+        result.totalPnl() == 5
+
+        and: "equity went 0 → -10 → +10 → +5"
+        result.maxDrawdown() == 10
+    }
+
+    def "should ignore HOLD signals and signals for the position already held"() {
+        given:
+        def backtester = new Backtester(scripted([0: SignalType.BUY, 1: SignalType.BUY, 2: SignalType.HOLD]),
+                new SimulatedClock(), BacktestConfig.defaults())
+
+        when:
+        def result = backtester.run(prices(["100", "101", "102"]))
+
+        then:
+        result.signals() == 2
+        result.trades() == 1
+        result.openPnl() == 2
+    }
+
+    def "should stamp strategy signals with replay time"() {
+        given: "an SMA strategy on the simulated clock, replayed from CSV"
+        def clock = new SimulatedClock()
+        def signals = []
+        def sma = new SimpleMovingAverageStrategy(3, clock)
+        def recording = [process: { Tick t -> sma.process(t).tap { it.ifPresent { signals << it } } },
+                         name   : { sma.name() }] as TradingStrategy
+        def csv = dir.resolve("ticks.csv")
+        Files.writeString(csv, ["100", "90", "80", "120", "60"].withIndex()
+                .collect { p, i -> "BTCUSDT,$p,${T0.plusSeconds(i)}" }.join("\n"))
+
+        when:
+        def result = new Backtester(recording, clock, BacktestConfig.defaults()).run(new CsvTickSource(csv))
+
+        then:
+        signals*.type() == [SignalType.BUY, SignalType.SELL]
+        signals*.timestamp() == [T0.plusSeconds(3), T0.plusSeconds(4)]
+        result.realizedPnl() == -60
+        result.elapsed() > Duration.ZERO
+    }
+
+    def "should fail when the replay holds more symbols than configured"() {
+        given:
+        def backtester = new Backtester(scripted([:]), new SimulatedClock(), new BacktestConfig(BigDecimal.ONE, false, 1))
+
+        when:
+        backtester.accept(new Tick("BTCUSDT", BigDecimal.ONE, T0))
+        backtester.accept(new Tick("ETHUSDT", BigDecimal.ONE, T0))
+
+        then:
+        thrown(IllegalStateException)
+    }
+}
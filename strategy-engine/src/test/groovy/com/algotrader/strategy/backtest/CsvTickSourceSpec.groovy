@@ -0,0 +1,109 @@
+package com.algotrader.strategy.backtest
+
+import com.algotrader.shared.model.Tick
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.time.Instant
+import java.util.zip.GZIPOutputStream
+
+class CsvTickSourceSpec extends Specification {
+
+    @TempDir
+    Path dir
+
+    List<Tick> replay(CsvTickSource source) {
+        def ticks = []
+        source.replay { ticks << it }
+        ticks
+    }
+
+    def "should parse every timestamp form and skip the header"() {
+        given:
+        def file = dir.resolve("ticks.csv")
+        Files.writeString(file, """symbol,price,ts
+BTCUSDT,42000.50,2026-01-15T10:00:00.123Z
+"ETHUSDT",2500,2026-01-15 10:00:01.5+00
+BTCUSDT,-1.25,1768471202000\r
+BTCUSDT,0.00000001,2026-01-15T12:00:03+02:00
+BTCUSDT,7,2026-01-15T10:00:04.123456789Z""")
+
+        when:
+        def ticks = replay(new CsvTickSource(file))
+
+        then:
+        ticks == [
+                new Tick("BTCUSDT", new BigDecimal("42000.50"), Instant.parse("2026-01-15T10:00:00.123Z")),
+                new Tick("ETHUSDT", new BigDecimal("2500"), Instant.parse("2026-01-15T10:00:01.500Z")),
+                new Tick("BTCUSDT", new BigDecimal("-1.25"), Instant.parse("2026-01-15T10:00:02Z")),
+                new Tick("BTCUSDT", new BigDecimal("0.00000001"), Instant.parse("2026-01-15T10:00:03Z")),
+                new Tick("BTCUSDT", new BigDecimal("7"), Instant.parse("2026-01-15T10:00:04.123456789Z"))]
+
+        and: "repeated symbols come back as the same String"
+        ticks[0].symbol().is(ticks[2].symbol())
+    }
+
+    def "should read what the ticks COPY sink writes, including quoted symbols and NULL prices"() {
+        given:
+        def file = dir.resolve("export.csv")
+        Files.writeString(file, '"BTC""X",1E+3,2026-01-15T10:00:00Z\n"BTCUSDT",,2026-01-15T10:00:01Z\n\n'
+                + '"BTCUSDT",1234567890.123456789,2026-01-15T10:00:02Z\n')
+        def source = new CsvTickSource(file)
+
+        when:
+        def ticks = replay(source)
+
+        then:
+        ticks*.symbol() == ['BTC"X', "BTCUSDT"]
+        ticks[0].price() == new BigDecimal("1E+3")
+        ticks[1].price() == new BigDecimal("1234567890.123456789")
+        source.skipped() == 1
+    }
+
+    def "should stream files larger than its buffer, gzipped or not"() {
+        given:
+        def lines = (0..<100_000).collect { "SYM${it % 7},${it}.5,${1_700_000_000_000L + it}\n" }.join()
+        def plain = dir.resolve("big.csv")
+        Files.writeString(plain, lines)
+        def gzipped = dir.resolve("big.csv.gz")
+        new GZIPOutputStream(Files.newOutputStream(gzipped)).withCloseable { it.write(lines.bytes) }
+
+        expect:
+        [plain, gzipped].every { file ->
+            def count = 0
+            Tick last = null
+            def n = new CsvTickSource(file).replay { count++; last = it }
+            n == 100_000 && count == 100_000 && last.symbol() == "SYM${99_999 % 7}".toString()
+                    && last.price() == new BigDecimal("99999.5")
+                    && last.timestamp() == Instant.ofEpochMilli(1_700_000_099_999L)
+        }
+    }
+
+    def "should report the line of a malformed row"() {
+        given:
+        def file = dir.resolve("bad.csv")
+        Files.writeString(file, "BTCUSDT,1,1000\nBTCUSDT,abc,1001\n")
+
+        when:
+        replay(new CsvTickSource(file))
+
+        then:
+        def e = thrown(IOException)
+        e.message.contains("price at line 2")
+    }
+
+    def "should reject a timestamp on a date that does not exist"() {
+        given:
+        def file = dir.resolve("bad-date.csv")
+        Files.writeString(file, "BTCUSDT,1,2024-02-29T00:00:00Z\nBTCUSDT,1,2024-02-30T00:00:00Z\n")
+
+        when:
+        replay(new CsvTickSource(file))
+
+        then:
+        def e = thrown(IOException)
+        e.message.contains("timestamp at line 2")
+    }
+}
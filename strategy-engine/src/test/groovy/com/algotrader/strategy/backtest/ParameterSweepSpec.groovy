@@ -0,0 +1,112 @@
+package com.algotrader.strategy.backtest
+
+import com.algotrader.shared.model.Tick
+import com.algotrader.strategy.impl.SimpleMovingAverageStrategy
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.time.Duration
+import java.time.Instant
+import java.util.concurrent.ForkJoinPool
+
+class ParameterSweepSpec extends Specification {
+
+    static final Instant T0 = Instant.parse("2026-01-15T10:00:00Z")
+
+    @Shared
+    TickSeries series
+
+    @Shared
+    ForkJoinPool pool = new ForkJoinPool(4)
+
+    def setupSpec() {
+        def random = new Random(7)
+        double price = 100
+        def ticks = (0..<5_000).collect {
+            price *= 1 + random.nextGaussian() * 0.002
+            new Tick("BTCUSDT", new BigDecimal(price).setScale(2, BigDecimal.ROUND_HALF_UP), T0.plusSeconds(it))
+        }
+        series = TickSeries.load({ sink -> ticks.each { sink.accept(it) }; (long) ticks.size() } as TickSource)
+    }
+
+    def cleanupSpec() {
+        pool.shutdown()
+    }
+
+    static ParameterSweep.StrategyFactory<Integer> sma() {
+        { window, clock -> new SimpleMovingAverageStrategy(window, clock) } as ParameterSweep.StrategyFactory<Integer>
+    }
+
+    def "should match sequential backtests and rank them by total PnL"() {
+        given:
+        def windows = ParameterSweep.range(2, 40, 1)
+        def sweep = new ParameterSweep<Integer>(series, sma(), BacktestConfig.defaults(), pool)
+
+        when:
+        def ranked = sweep.run(windows)
+
+        then: "every window was backtested once"
+        ranked*.params().sort() == windows
+
+        and: "each result equals a single-threaded run of the same window"
+        ranked.every { r ->
+            def clock = new SimulatedClock()
+            def expected = new Backtester(new SimpleMovingAverageStrategy(r.params(), clock), clock,
+                    BacktestConfig.defaults()).run(series)
+            r.result().totalPnl() == expected.totalPnl() && r.result().trades() == expected.trades()
+                    && r.result().maxDrawdown() == expected.maxDrawdown()
+        }
+
+        and: "best first"
+        (0..<ranked.size() - 1).every { ranked[it].result().totalPnl() >= ranked[it + 1].result().totalPnl() }
+    }
+
+    def "should rank by a custom order"() {
+        given:
+        def sweep = new ParameterSweep<Integer>(series, sma(), BacktestConfig.defaults(), pool)
+
+        when:
+        def ranked = sweep.run([3, 10, 30], Comparator.comparing { BacktestResult r -> r.maxDrawdown() })
+
+        then:
+        ranked[0].result().maxDrawdown() <= ranked[1].result().maxDrawdown()
+        ranked[1].result().maxDrawdown() <= ranked[2].result().maxDrawdown()
+    }
+
+    def "should build grid axes and reproducible random samples"() {
+        expect:
+        ParameterSweep.range(2, 10, 4) == [2, 6, 10]
+        ParameterSweep.range(5, 4, 1) == []
+
+        and:
+        def space = ParameterSweep.range(2, 500, 1)
+        def sample = ParameterSweep.sample(space, 20, 42L)
+        sample.size() == 20
+        sample.toSet().size() == 20
+        space.containsAll(sample)
+        sample == ParameterSweep.sample(space, 20, 42L)
+        ParameterSweep.sample([1, 2], 5, 1L).toSet() == [1, 2] as Set
+
+        when:
+        ParameterSweep.range(1, 2, 0)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "should render the top of the ranking as a table"() {
+        given:
+        def result = { String pnl -> new BacktestResult(10, 2, 2, new BigDecimal(pnl), BigDecimal.ZERO,
+                BigDecimal.ONE, T0, T0, Duration.ofMillis(5)) }
+        def ranked = [new SweepResult(8, result("12.5")), new SweepResult(3, result("-1"))]
+
+        when:
+        def lines = ParameterSweep.table(ranked, 1).readLines()
+
+        then:
+        lines.size() == 2
+        lines[0].contains("total PnL")
+        lines[1].trim().startsWith("1  8")
+        lines[1].contains("12.5")
+    }
+}
@@ -0,0 +1,75 @@
+package com.algotrader.strategy.backtest
+
+import com.algotrader.shared.model.Tick
+import spock.lang.Specification
+
+import java.time.Instant
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+
+class TickSeriesSpec extends Specification {
+
+    static final Instant T0 = Instant.parse("2026-01-15T10:00:00.123456789Z")
+
+    static List<Tick> ticks(int n) {
+        (0..<n).collect { new Tick("SYM${it % 3}".toString(), new BigDecimal("${it}.${it % 10}"), T0.plusMillis(it)) }
+    }
+
+    static TickSource source(List<Tick> ticks) {
+        { sink -> ticks.each { sink.accept(it) }; (long) ticks.size() } as TickSource
+    }
+
+    def "should replay exactly the ticks it was loaded from"() {
+        given: "more ticks than the initial column capacity"
+        def original = ticks(70_000)
+
+        when:
+        def series = TickSeries.load(source(original))
+        def replayed = []
+        def count = series.replay { replayed << it }
+
+        then:
+        count == 70_000
+        series.size() == 70_000
+        series.symbolCount() == 3
+        replayed == original
+        series.tick(69_999) == original[69_999]
+    }
+
+    def "should keep timestamps before the epoch"() {
+        given:
+        def early = new Tick("BTCUSDT", BigDecimal.ONE, Instant.parse("1969-12-31T23:59:59.5Z"))
+
+        expect:
+        TickSeries.load(source([early])).tick(0) == early
+    }
+
+    def "should reject indexes past the last tick"() {
+        when:
+        TickSeries.load(source(ticks(3))).tick(3)
+
+        then:
+        thrown(IndexOutOfBoundsException)
+    }
+
+    def "should serve concurrent replays from the same arrays"() {
+        given:
+        def series = TickSeries.load(source(ticks(20_000)))
+        def pool = Executors.newFixedThreadPool(4)
+
+        when:
+        def sums = pool.invokeAll((1..4).collect {
+            { ->
+                long sum = 0
+                series.replay { sum += it.priceMantissa() }
+                sum
+            } as Callable<Long>
+        })*.get()
+
+        then:
+        sums.unique().size() == 1
+
+        cleanup:
+        pool.shutdown()
+    }
+}
@@ -0,0 +1,114 @@
+package com.algotrader.strategy.bus
+
+import com.algotrader.shared.bus.InProcessBus
+import com.algotrader.shared.bus.Topic
+import com.algotrader.shared.model.Signal
+import com.algotrader.shared.model.SignalType
+import com.algotrader.shared.model.Tick
+import com.algotrader.strategy.TradingStrategy
+import com.algotrader.strategy.dispatch.DispatchConfig
+import com.algotrader.strategy.dispatch.OverflowPolicy
+import com.algotrader.strategy.impl.SimpleMovingAverageStrategy
+import com.algotrader.strategy.set.StrategySet
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.CopyOnWriteArrayList
+
+class BusListenerSpec extends Specification {
+
+    def conditions = new PollingConditions(timeout: 5)
+    def bus = new InProcessBus(1024)
+    def signals = new CopyOnWriteArrayList<Signal>()
+
+    def setup() {
+        bus.subscribe(Topic.SIGNALS, "execution", { signals << it })
+    }
+
+    def cleanup() {
+        bus.close()
+    }
+
+    def "should publish the strategy's signal for a tick onto the bus"() {
+        given:
+        def signal = Signal.of(SignalType.BUY, "BTCUSDT", new BigDecimal("42000"), "TEST")
+        def strategy = Stub(TradingStrategy) {
+            process(_) >> Optional.of(signal)
+        }
+        def listener = new BusListener(bus, { strategy }, DispatchConfig.inline())
+
+        when:
+        bus.publish(Topic.TICKS, Tick.of("BTCUSDT", new BigDecimal("42000")))
+
+        then: "the execution side receives the strategy's own record"
+        conditions.eventually {
+            assert signals.size() == 1
+        }
+        signals[0].is(signal)
+        listener.metrics().tickAgeAtReceive().count() == 1
+        listener.metrics().publish().count() == 1
+
+        cleanup:
+        listener.close()
+    }
+
+    def "should publish every signal a strategy set emits for one tick"() {
+        given: "a set whose two members flip on the same tick"
+        def listener = new BusListener(bus, { new StrategySet(StrategySet.parse("sma:2,sma:3")) },
+                DispatchConfig.inline())
+
+        when:
+        [100, 90, 80, 120].each { bus.publish(Topic.TICKS, Tick.of("BTCUSDT", new BigDecimal(it))) }
+
+        then: "each signal goes out under its own strategy name"
+        conditions.eventually {
+            assert signals*.strategy() == ["SMA-2", "SMA-3"]
+        }
+        listener.metrics().tickAgeAtSignal().count() == 1
+
+        cleanup:
+        listener.close()
+    }
+
+    def "should spread ticks across shards and still publish every signal"() {
+        given:
+        def dispatch = new DispatchConfig(2, 64, OverflowPolicy.BLOCK)
+        def listener = new BusListener(bus, { new SimpleMovingAverageStrategy(2) }, dispatch)
+
+        when: "two symbols each cross their average once"
+        ["BTCUSDT", "ETHUSDT"].each { symbol ->
+            [100, 90, 120].each { bus.publish(Topic.TICKS, Tick.of(symbol, new BigDecimal(it))) }
+        }
+
+        then:
+        conditions.eventually {
+            assert signals*.symbol().toSorted() == ["BTCUSDT", "ETHUSDT"]
+        }
+        listener.dispatcher().isPresent()
+        (0..<2).sum { listener.dispatcher().get().processed(it) } == 6
+
+        cleanup:
+        listener.close()
+    }
+
+    def "should count a strategy failure and keep processing"() {
+        given:
+        def strategy = Stub(TradingStrategy) {
+            process({ it.symbol() == "BAD" }) >> { throw new IllegalStateException("boom") }
+            process(_) >> Optional.of(Signal.of(SignalType.SELL, "BTCUSDT", BigDecimal.ONE, "TEST"))
+        }
+        def listener = new BusListener(bus, { strategy }, DispatchConfig.inline())
+
+        when:
+        ["BAD", "BTCUSDT"].each { bus.publish(Topic.TICKS, Tick.of(it, BigDecimal.ONE)) }
+
+        then:
+        conditions.eventually {
+            assert signals.size() == 1
+        }
+        listener.metrics().errors() == 1
+
+        cleanup:
+        listener.close()
+    }
+}
@@ -0,0 +1,182 @@
+package com.algotrader.strategy.checkpoint
+
+import com.algotrader.shared.model.SignalType
+import com.algotrader.shared.model.Tick
+import com.algotrader.strategy.checkpoint.StrategySnapshot.SymbolState
+import com.algotrader.strategy.impl.SimpleMovingAverageStrategy
+import com.algotrader.strategy.registry.StrategyRegistry
+import com.algotrader.strategy.set.StrategySet
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.time.Clock
+import java.time.Duration
+import java.time.Instant
+import java.time.ZoneOffset
+
+class CheckpointerSpec extends Specification {
+
+    @TempDir
+    Path dir
+
+    def clock = Clock.fixed(Instant.ofEpochMilli(60_000), ZoneOffset.UTC)
+
+    def "should write what the registries captured and restore it after a restart"() {
+        given:
+        def store = new FileCheckpointStore(dir.resolve("sma.ckpt"))
+        def checkpointer = new Checkpointer("SMA-3", store, clock)
+        def registry = registry()
+        checkpointer.track(registry)
+        [100, 90].each { registry.process(Tick.of("BTCUSDT", new BigDecimal(it))) }
+
+        when: "the first round only requests a capture, which the next tick takes"
+        def first = checkpointer.checkpoint()
+        registry.process(Tick.of("ETHUSDT", BigDecimal.ONE))
+        def second = checkpointer.checkpoint()
+
+        then:
+        !first
+        second
+        checkpointer.written() == 1
+        checkpointer.lastSymbols() == 1
+        Files.size(dir.resolve("sma.ckpt")) == checkpointer.lastBytes()
+
+        when: "a new engine restores the file"
+        def restarted = new Checkpointer("SMA-3", store, clock)
+        def snapshot = restarted.restore()
+
+        then:
+        snapshot.get().symbols()*.symbol() == ["BTCUSDT"]
+        snapshot.get().takenAt() == clock.instant()
+    }
+
+    def "should carry restored symbols no registry has seen yet into later snapshots"() {
+        given: "a snapshot holding BTC and ETH"
+        def store = new InMemoryStore(data: snapshotOf("SMA-3", "BTCUSDT", "ETHUSDT").encode())
+        def checkpointer = new Checkpointer("SMA-3", store, clock)
+        checkpointer.restore()
+        def registry = registry()
+        checkpointer.track(registry)
+
+        when: "only BTC ticks before the next two rounds"
+        registry.process(new Tick("BTCUSDT", BigDecimal.TEN, Instant.ofEpochMilli(61_000)))
+        checkpointer.checkpoint()
+        registry.process(new Tick("BTCUSDT", BigDecimal.TEN, Instant.ofEpochMilli(62_000)))
+        checkpointer.checkpoint()
+
+        then: "ETH keeps its restored state"
+        def written = StrategySnapshot.decode(store.data).bySymbol()
+        written.keySet() == ["BTCUSDT", "ETHUSDT"] as Set
+        written.BTCUSDT.lastTickMillis() == 61_000
+        written.ETHUSDT.lastTickMillis() == 1_000
+    }
+
+    def "should write a fresh capture on close"() {
+        given: "a round whose capture is then overtaken by later ticks"
+        def store = new InMemoryStore()
+        def checkpointer = new Checkpointer("SMA-3", store, clock)
+        def registry = registry()
+        checkpointer.track(registry)
+        registry.process(new Tick("BTCUSDT", BigDecimal.TEN, Instant.ofEpochMilli(1_000)))
+        checkpointer.checkpoint()
+        registry.process(new Tick("BTCUSDT", BigDecimal.TEN, Instant.ofEpochMilli(2_000)))
+        registry.process(new Tick("BTCUSDT", BigDecimal.TEN, Instant.ofEpochMilli(3_000)))
+
+        when:
+        checkpointer.close()
+
+        then: "the final snapshot holds the latest tick"
+        StrategySnapshot.decode(store.data).bySymbol().BTCUSDT.lastTickMillis() == 3_000
+    }
+
+    def "should not hold back signals when starting cold"() {
+        given: "no snapshot"
+        def checkpointer = new Checkpointer("SMA-2", new InMemoryStore(), clock)
+        checkpointer.restore()
+        def registry = new StrategyRegistry({ new SimpleMovingAverageStrategy(2) }, 16, Duration.ofMinutes(1))
+        checkpointer.track(registry)
+
+        when: "ticks stamped before start-up arrive, e.g. from a retained stream"
+        def signals = [100, 90, 120].withIndex().collect { price, i ->
+            registry.process(new Tick("BTCUSDT", new BigDecimal(price), Instant.ofEpochMilli(1_000 * (i + 1))))
+        }
+
+        then: "they are all live"
+        signals[2].get().type() == SignalType.BUY
+    }
+
+    def "should start cold from a snapshot it cannot use"() {
+        given:
+        def checkpointer = new Checkpointer("SMA-3", new InMemoryStore(data: data), clock)
+
+        expect:
+        checkpointer.restore().isEmpty()
+
+        where:
+        data << [
+                null,
+                snapshotOf("SMA-20", "BTCUSDT").encode(),
+                "garbage".bytes,
+        ]
+    }
+
+    def "should count a failed write and keep going"() {
+        given:
+        def store = Stub(CheckpointStore) {
+            save(_) >> { throw new IOException("disk full") }
+        }
+        def checkpointer = new Checkpointer("SMA-3", store, clock)
+        def registry = registry()
+        checkpointer.track(registry)
+        registry.requestCheckpoint()
+        registry.process(Tick.of("BTCUSDT", BigDecimal.ONE))
+
+        when:
+        def written = checkpointer.checkpoint()
+
+        then:
+        !written
+        checkpointer.failed() == 1
+    }
+
+    def "should not track a registry whose strategies cannot be checkpointed"() {
+        given:
+        def checkpointer = new Checkpointer("sets", new InMemoryStore(), clock)
+        def registry = new StrategyRegistry({ new StrategySet(StrategySet.parse("sma:2")) }, 4,
+                Duration.ofMinutes(1))
+
+        when:
+        checkpointer.track(registry)
+        registry.process(Tick.of("BTCUSDT", BigDecimal.ONE))
+
+        then: "it is never asked for a capture"
+        !checkpointer.checkpoint()
+        registry.latestCheckpoint().isEmpty()
+    }
+
+    private static StrategyRegistry registry() {
+        new StrategyRegistry({ new SimpleMovingAverageStrategy(3) }, 16, Duration.ofMinutes(1))
+    }
+
+    private static StrategySnapshot snapshotOf(String strategy, String... symbols) {
+        def state = new ByteArrayOutputStream()
+        new SimpleMovingAverageStrategy(3).writeState(new DataOutputStream(state))
+        new StrategySnapshot(strategy, Instant.ofEpochMilli(2_000),
+                symbols.collect { new SymbolState(it, 1_000, state.toByteArray()) })
+    }
+
+    static class InMemoryStore implements CheckpointStore {
+        byte[] data
+
+        @Override
+        void save(byte[] snapshot) { data = snapshot }
+
+        @Override
+        Optional<byte[]> load() { Optional.ofNullable(data) }
+
+        @Override
+        String describe() { "memory" }
+    }
+}
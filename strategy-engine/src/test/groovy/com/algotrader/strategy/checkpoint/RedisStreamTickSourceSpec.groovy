@@ -0,0 +1,55 @@
+package com.algotrader.strategy.checkpoint
+
+import com.algotrader.shared.codec.BinaryCodec
+import com.algotrader.shared.model.Tick
+import com.algotrader.shared.stream.TransportConfig
+import com.algotrader.shared.util.StreamingJson
+import io.lettuce.core.Range
+import io.lettuce.core.StreamMessage
+import io.lettuce.core.api.sync.RedisCommands
+import spock.lang.Specification
+
+import java.time.Instant
+
+class RedisStreamTickSourceSpec extends Specification {
+
+    def commands = Mock(RedisCommands)
+    def tick = new Tick("BTCUSDT", new BigDecimal("42000.5"), Instant.ofEpochMilli(5_000))
+
+    def "should replay the stream from the requested time in either wire format, skipping bad entries"() {
+        given:
+        def source = new RedisStreamTickSource(commands, "market_data", Instant.ofEpochMilli(5_000))
+        def ticks = []
+
+        when:
+        def replayed = source.replay { ticks << it }
+
+        then: "the range starts at the first entry ID appended at that millisecond"
+        1 * commands.xrange("market_data", { Range r -> r.lower.value == "5000-0" && r.lower.including }, _) >> [
+                entry("5000-0", StreamingJson.toJsonBytes(tick)),
+                entry("5000-1", "not a tick".bytes),
+                entry("5001-0", BinaryCodec.encodeTick(tick)),
+        ]
+        replayed == 2
+        ticks == [tick, tick]
+    }
+
+    def "should page through a long stream after the last entry it read"() {
+        given:
+        def source = new RedisStreamTickSource(commands, "market_data", Instant.EPOCH)
+        def full = (0..<1000).collect { entry("1-$it", BinaryCodec.encodeTick(tick)) }
+
+        when:
+        def replayed = source.replay {}
+
+        then:
+        1 * commands.xrange("market_data", { Range r -> r.lower.including }, _) >> full
+        1 * commands.xrange("market_data", { Range r -> r.lower.value == "1-999" && !r.lower.including }, _) >>
+                [entry("2-0", BinaryCodec.encodeTick(tick))]
+        replayed == 1001
+    }
+
+    private static StreamMessage<String, byte[]> entry(String id, byte[] payload) {
+        new StreamMessage<>("market_data", id, [(TransportConfig.PAYLOAD_FIELD): payload])
+    }
+}
@@ -0,0 +1,50 @@
+package com.algotrader.strategy.checkpoint
+
+import com.algotrader.strategy.checkpoint.StrategySnapshot.SymbolState
+import spock.lang.Specification
+
+import java.time.Instant
+
+class StrategySnapshotSpec extends Specification {
+
+    def snapshot = new StrategySnapshot("SMA-5", Instant.ofEpochMilli(10_000), [
+            new SymbolState("BTCUSDT", 9_000, [1, 2, 3] as byte[]),
+            new SymbolState("ETHUSDT", 7_000, [] as byte[]),
+    ])
+
+    def "should round-trip through its binary form"() {
+        when:
+        def decoded = StrategySnapshot.decode(snapshot.encode())
+
+        then:
+        decoded.strategy() == "SMA-5"
+        decoded.takenAt() == snapshot.takenAt()
+        decoded.symbols()*.symbol() == ["BTCUSDT", "ETHUSDT"]
+        decoded.symbols()*.lastTickMillis() == [9_000L, 7_000L]
+        decoded.symbols()[0].state() == [1, 2, 3] as byte[]
+    }
+
+    def "should replay from the oldest symbol's last tick"() {
+        expect:
+        snapshot.replayFrom() == Instant.ofEpochMilli(7_000)
+        new StrategySnapshot("SMA-5", Instant.ofEpochMilli(10_000), []).replayFrom() == Instant.ofEpochMilli(10_000)
+    }
+
+    def "should reject a corrupted or truncated snapshot"() {
+        given:
+        def data = snapshot.encode()
+
+        when:
+        StrategySnapshot.decode(mangle(data))
+
+        then:
+        thrown(IOException)
+
+        where:
+        mangle << [
+                { byte[] d -> d[12] ^= 0x01; d },
+                { byte[] d -> Arrays.copyOf(d, d.length - 5) },
+                { byte[] d -> new byte[3] },
+        ]
+    }
+}
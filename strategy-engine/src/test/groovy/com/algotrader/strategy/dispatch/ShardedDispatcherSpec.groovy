@@ -0,0 +1,242 @@
+package com.algotrader.strategy.dispatch
+
+import com.algotrader.shared.model.Signal
+import com.algotrader.shared.model.SignalType
+import com.algotrader.shared.model.Tick
+import com.algotrader.strategy.TradingStrategy
+import com.algotrader.strategy.set.StrategySet
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.time.Duration
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class ShardedDispatcherSpec extends Specification {
+
+    /** Records the order of prices seen per symbol and which thread saw them. */
+    static class RecordingStrategy implements TradingStrategy {
+        final Map<String, List<BigDecimal>> seen
+        final Map<String, Set<String>> threads
+
+        RecordingStrategy(Map seen, Map threads) {
+            this.seen = seen
+            this.threads = threads
+        }
+
+        @Override
+        Optional<Signal> process(Tick tick) {
+            seen.computeIfAbsent(tick.symbol(), { new ConcurrentLinkedQueue() }) << tick.price()
+            threads.computeIfAbsent(tick.symbol(), { ConcurrentHashMap.newKeySet() }) << Thread.currentThread().name
+            return Optional.empty()
+        }
+
+        @Override
+        String name() {
+            return "RECORDING"
+        }
+    }
+
+    /** Blocks on its first tick until released, then records the prices it sees. */
+    static class GatedStrategy implements TradingStrategy {
+        final CountDownLatch entered = new CountDownLatch(1)
+        final CountDownLatch release = new CountDownLatch(1)
+        final Queue<String> seen = new ConcurrentLinkedQueue<>()
+        final boolean conflatable
+
+        GatedStrategy(boolean conflatable) {
+            this.conflatable = conflatable
+        }
+
+        @Override
+        Optional<Signal> process(Tick tick) {
+            entered.countDown()
+            release.await(5, TimeUnit.SECONDS)
+            seen << "${tick.symbol()}@${tick.price()}".toString()
+            return Optional.empty()
+        }
+
+        @Override
+        String name() {
+            return "GATED"
+        }
+
+        @Override
+        boolean conflatable() {
+            return conflatable
+        }
+    }
+
+    def "should preserve per-symbol order and pin each symbol to one shard"() {
+        given: "a 4-shard dispatcher with recording strategies"
+        def seen = new ConcurrentHashMap()
+        def threads = new ConcurrentHashMap()
+        def dispatcher = new ShardedDispatcher(new DispatchConfig(4, 16, OverflowPolicy.BLOCK),
+                { new RecordingStrategy(seen, threads) }, { })
+        def symbols = (1..20).collect { "SYM$it".toString() }
+
+        when: "many ticks per symbol are dispatched"
+        for (int i = 0; i < 500; i++) {
+            symbols.each { dispatcher.dispatch(new Tick(it, new BigDecimal(i), null)) }
+        }
+        dispatcher.close()
+
+        then: "every symbol saw its prices in order on a single thread"
+        symbols.every { seen[it].toList() == (0..<500).collect { new BigDecimal(it) } }
+        symbols.every { threads[it].size() == 1 }
+        (0..<4).sum { dispatcher.processed(it) } == 500 * 20
+        dispatcher.dropped() == 0
+    }
+
+    def "should forward strategy signals to the sink"() {
+        given: "a strategy that signals on every tick"
+        def received = new CountDownLatch(3)
+        def strategy = Stub(TradingStrategy) {
+            process(_) >> { Tick t -> Optional.of(Signal.of(SignalType.BUY, t.symbol(), t.price(), "STUB")) }
+        }
+        def dispatcher = new ShardedDispatcher(new DispatchConfig(2, 8, OverflowPolicy.BLOCK),
+                { strategy }, { received.countDown() })
+
+        when:
+        3.times { dispatcher.dispatch(Tick.of("BTCUSDT", BigDecimal.ONE)) }
+
+        then:
+        received.await(5, TimeUnit.SECONDS)
+
+        cleanup:
+        dispatcher.close()
+    }
+
+    def "should forward every signal of a multi-signal strategy"() {
+        given: "a strategy set whose two members flip on the same tick"
+        def received = new ConcurrentLinkedQueue<Signal>()
+        def members = StrategySet.parse("sma:2,sma:3")
+        def dispatcher = new ShardedDispatcher(new DispatchConfig(2, 8, OverflowPolicy.BLOCK),
+                { new StrategySet(members) }, { received << it })
+
+        when:
+        [100, 90, 80, 120].each { dispatcher.dispatch(Tick.of("BTCUSDT", new BigDecimal(it))) }
+        dispatcher.close()
+
+        then:
+        received*.strategy() == ["SMA-2", "SMA-3"]
+    }
+
+    def "should drop and count ticks when a shard queue is full under DROP"() {
+        given: "a single shard whose strategy blocks until released"
+        def release = new CountDownLatch(1)
+        def entered = new CountDownLatch(1)
+        def strategy = Stub(TradingStrategy) {
+            process(_) >> { entered.countDown(); release.await(); Optional.empty() }
+        }
+        def dispatcher = new ShardedDispatcher(new DispatchConfig(1, 2, OverflowPolicy.DROP), { strategy }, { })
+
+        when: "the shard is busy and its queue fills up"
+        dispatcher.dispatch(Tick.of("BTCUSDT", BigDecimal.ONE))
+        entered.await(5, TimeUnit.SECONDS)
+        def accepted = (1..5).collect { dispatcher.dispatch(Tick.of("BTCUSDT", BigDecimal.ONE)) }
+
+        then: "ticks beyond the queue capacity are dropped"
+        accepted == [true, true, false, false, false]
+        dispatcher.dropped() == 3
+        dispatcher.queueDepth(0) == 2
+
+        cleanup:
+        release.countDown()
+        dispatcher.close()
+    }
+
+    def "should hand a busy shard only the latest tick per symbol when conflating"() {
+        given: "a single conflating shard stuck on its first tick"
+        def strategy = new GatedStrategy(true)
+        def dispatcher = new ShardedDispatcher(new DispatchConfig(1, 4, OverflowPolicy.DROP, true), { strategy }, { })
+        dispatcher.dispatch(Tick.of("BTCUSDT", 0G))
+        strategy.entered.await(5, TimeUnit.SECONDS)
+
+        when: "a burst arrives for two symbols while it is busy"
+        def accepted = (1..10).collect {
+            [dispatcher.dispatch(Tick.of("BTCUSDT", new BigDecimal(it))),
+             dispatcher.dispatch(Tick.of("ETHUSDT", new BigDecimal(it)))]
+        }.flatten()
+        def depth = dispatcher.queueDepth(0)
+        strategy.release.countDown()
+        dispatcher.close()
+
+        then: "each symbol waits in one slot and is processed once, at its latest price"
+        accepted.every()
+        depth == 2
+        strategy.seen.toList() == ["BTCUSDT@0", "BTCUSDT@10", "ETHUSDT@10"]
+        dispatcher.isConflating()
+        dispatcher.conflated() == 18
+        dispatcher.processed(0) == 3
+        dispatcher.dropped() == 0
+    }
+
+    def "should deliver every tick to a strategy that opts out of conflation"() {
+        given:
+        def strategy = new GatedStrategy(false)
+        def dispatcher = new ShardedDispatcher(new DispatchConfig(1, 16, OverflowPolicy.BLOCK, true), { strategy }, { })
+
+        when:
+        (0..5).each { dispatcher.dispatch(Tick.of("BTCUSDT", new BigDecimal(it))) }
+        strategy.release.countDown()
+        dispatcher.close()
+
+        then:
+        !dispatcher.isConflating()
+        strategy.seen.toList() == (0..5).collect { "BTCUSDT@$it".toString() }
+        dispatcher.conflated() == 0
+    }
+
+    def "should drop the conflation slots of symbols that have gone idle"() {
+        given:
+        def seen = new ConcurrentHashMap()
+        def dispatcher = new ShardedDispatcher(new DispatchConfig(2, 256, OverflowPolicy.BLOCK, true),
+                { new RecordingStrategy(seen, new ConcurrentHashMap()) }, { }, Duration.ofMillis(50))
+
+        when: "a hundred symbols tick once and then go quiet"
+        (0..<100).each { dispatcher.dispatch(Tick.of("SYM$it", BigDecimal.ONE)) }
+
+        then:
+        new PollingConditions(timeout: 5).eventually {
+            assert seen.size() == 100
+            assert dispatcher.conflationSlots() == 0
+        }
+
+        when: "one of them comes back"
+        dispatcher.dispatch(Tick.of("SYM7", BigDecimal.TEN))
+
+        then: "it gets a new slot and its tick still arrives"
+        new PollingConditions(timeout: 5).eventually {
+            assert seen["SYM7"].toList() == [BigDecimal.ONE, BigDecimal.TEN]
+        }
+
+        cleanup:
+        dispatcher.close()
+    }
+
+    def "should not conflate without shards"() {
+        when:
+        new DispatchConfig(0, 16, OverflowPolicy.BLOCK, true)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "should route a symbol to the same shard every time"() {
+        expect:
+        ShardedDispatcher.shardOf("BTCUSDT", 8) == ShardedDispatcher.shardOf(new String("BTCUSDT"), 8)
+        (0..<1000).every { int s = ShardedDispatcher.shardOf("S$it", 7); s >= 0 && s < 7 }
+    }
+
+    def "should reject an inline config"() {
+        when:
+        new ShardedDispatcher(DispatchConfig.inline(), { Stub(TradingStrategy) }, { })
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
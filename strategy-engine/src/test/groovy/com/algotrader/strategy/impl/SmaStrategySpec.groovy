@@ -132,4 +132,32 @@ class SmaStrategySpec extends Specification {
         then:
         thrown(IllegalArgumentException)
     }
+
+    def "should resume from a checkpointed state exactly where it left off"() {
+        given: "an SMA-3 that has seen two ticks below its average"
+        [100, 90, 80].each { strategy.process(Tick.of("BTCUSDT", new BigDecimal(it))) }
+        def bytes = new ByteArrayOutputStream()
+        strategy.writeState(new DataOutputStream(bytes))
+
+        when: "a fresh instance reads the state back"
+        def restored = new SimpleMovingAverageStrategy(3)
+        restored.readState(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+
+        then: "it crosses on the very next tick, like the original"
+        bytes.size() == 9 + 8 * 3
+        restored.process(Tick.of("BTCUSDT", new BigDecimal("120"))).get().type() == SignalType.BUY
+        strategy.process(Tick.of("BTCUSDT", new BigDecimal("120"))).get().type() == SignalType.BUY
+    }
+
+    def "should refuse the state of a differently sized window"() {
+        given:
+        def bytes = new ByteArrayOutputStream()
+        new SimpleMovingAverageStrategy(5).writeState(new DataOutputStream(bytes))
+
+        when:
+        strategy.readState(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+
+        then:
+        thrown(IOException)
+    }
 }
@@ -0,0 +1,59 @@
+package com.algotrader.strategy.indicator
+
+import spock.lang.Specification
+
+class AtrIndicatorSpec extends Specification {
+
+    /** Recomputes Wilder's ATR from scratch over bars of [high, low, close]. */
+    static double naiveAtr(List<List<Long>> bars, int period) {
+        def ranges = (1..<bars.size()).collect {
+            def (high, low, close) = bars[it]
+            def previous = bars[it - 1][2]
+            [high - low, Math.abs(high - previous), Math.abs(low - previous)].max() / 1e8 as double
+        }
+        double atr = ranges.take(period).sum() / period
+        ranges.drop(period).each { atr = (atr * (period - 1) + it) / period }
+        atr
+    }
+
+    def "should match the naive reference on bars once warmed up"() {
+        given:
+        def atr = new AtrIndicator(period)
+        def random = new Random(13)
+        def bars = EmaIndicatorSpec.prices(400, 13).collect { close ->
+            [close + random.nextInt(50) * 1_000000L, close - random.nextInt(50) * 1_000000L, close]
+        }
+
+        expect: "ready after exactly period + 1 bars"
+        bars.eachWithIndex { bar, i ->
+            atr.update(bar[0], bar[1], bar[2])
+            assert atr.isReady() == (i >= period)
+            if (atr.isReady()) {
+                assert Math.abs(atr.value() - naiveAtr(bars.take(i + 1), period)) < 1e-9
+            }
+        }
+
+        where:
+        period << [1, 2, 14, 100]
+    }
+
+    def "should average absolute tick-to-tick moves for bare prices"() {
+        given:
+        def atr = new AtrIndicator(3)
+
+        when: "moves of 1, 2 and 3"
+        [100, 101, 99, 102].each { atr.update(it * 100_000_000L) }
+
+        then:
+        atr.isReady()
+        atr.value() == 2d
+    }
+
+    def "should reject a non-positive period"() {
+        when:
+        new AtrIndicator(-1)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
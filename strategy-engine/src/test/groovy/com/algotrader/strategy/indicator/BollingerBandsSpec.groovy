@@ -0,0 +1,69 @@
+package com.algotrader.strategy.indicator
+
+import spock.lang.Specification
+
+class BollingerBandsSpec extends Specification {
+
+    def "should match a two-pass mean and standard deviation over the window"() {
+        given:
+        def bands = new BollingerBands(period, 2.0)
+        def history = EmaIndicatorSpec.prices(2000, 5)
+
+        expect:
+        history.eachWithIndex { price, i ->
+            bands.update(price)
+            assert bands.isReady() == (i + 1 >= period)
+            if (bands.isReady()) {
+                def window = history.subList(i + 1 - period, i + 1).collect { it / 1e8 as double }
+                double mean = window.sum() / period
+                double sd = Math.sqrt(window.sum { (it - mean) * (it - mean) } / period)
+                assert Math.abs(bands.value() - mean) < 1e-9
+                assert Math.abs(bands.stdDev() - sd) < 1e-5
+                assert Math.abs(bands.upper() - (mean + 2 * sd)) < 1e-5
+                assert Math.abs(bands.lower() - (mean - 2 * sd)) < 1e-5
+            }
+        }
+
+        where:
+        period << [1, 2, 20, 100]
+    }
+
+    def "should collapse to the mean on a flat window"() {
+        given:
+        def bands = new BollingerBands(4, 2.0)
+
+        when:
+        [101, 103, 99, 100, 100, 100, 100].each { bands.update(it * 100_000_000L) }
+
+        then:
+        bands.stdDev() == 0d
+        bands.upper() == 100d
+        bands.lower() == 100d
+        bands.percentB(100_00000000L) == 0.5d
+    }
+
+    def "should place prices between the bands with percent B"() {
+        given:
+        def bands = new BollingerBands(2, 1.0)
+
+        when: "prices 90 and 110: mean 100, deviation 10"
+        bands.update(90_00000000L)
+        bands.update(110_00000000L)
+
+        then:
+        bands.percentB(90_00000000L) == 0d
+        bands.percentB(110_00000000L) == 1d
+        bands.percentB(105_00000000L) == 0.75d
+    }
+
+    def "should reject a non-positive width"() {
+        when:
+        new BollingerBands(20, k)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        k << [0d, -1d, Double.NaN]
+    }
+}
@@ -0,0 +1,67 @@
+package com.algotrader.strategy.indicator
+
+import com.algotrader.shared.model.Tick
+import spock.lang.Specification
+
+class EmaIndicatorSpec extends Specification {
+
+    /** A random walk around 100 with two decimals, as fixed-point longs. */
+    static List<Long> prices(int count, long seed) {
+        def random = new Random(seed)
+        long price = 100_00000000L
+        (1..count).collect { price = Math.max(1_000000L, price + (random.nextInt(201) - 100) * 1_000000L) }
+    }
+
+    /** Recomputes the EMA from scratch over {@code history}: SMA seed, then α-smoothing. */
+    static double naiveEma(List<Long> history, int period) {
+        def xs = history.collect { it / 1e8 as double }
+        double alpha = 2d / (period + 1)
+        double ema = (double) xs.take(period).sum() / period
+        xs.drop(period).each { double x -> ema += alpha * (x - ema) }
+        ema
+    }
+
+    def "should match the naive reference at every tick once warmed up"() {
+        given:
+        def ema = new EmaIndicator(period)
+        def history = prices(400, 7)
+
+        expect:
+        history.eachWithIndex { price, i ->
+            ema.update(price)
+            assert ema.isReady() == (i + 1 >= period)
+            if (ema.isReady()) {
+                assert Math.abs(ema.value() - naiveEma(history.take(i + 1), period)) < 1e-9
+            }
+        }
+
+        where:
+        period << [1, 2, 12, 26, 200]
+    }
+
+    def "should seed with the simple average of the first period prices"() {
+        given:
+        def ema = new EmaIndicator(3)
+
+        when:
+        [10, 20, 30].each { ema.update(Tick.of("BTCUSDT", new BigDecimal(it))) }
+
+        then:
+        ema.isReady()
+        ema.value() == 20d
+
+        when: "the next price moves it by α = 0.5 of the gap"
+        ema.update(Tick.of("BTCUSDT", 40G))
+
+        then:
+        ema.value() == 30d
+    }
+
+    def "should reject a non-positive period"() {
+        when:
+        new EmaIndicator(0)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
@@ -0,0 +1,106 @@
+package com.algotrader.strategy.indicator
+
+import spock.lang.Specification
+
+class RollingWindowSpec extends Specification {
+
+    def "should accumulate values until the window is full"() {
+        given: "a window of capacity 3"
+        def window = new RollingWindow(3)
+
+        when: "two values are added"
+        window.add(10)
+        window.add(20)
+
+        then: "the window is partially filled"
+        window.size() == 2
+        !window.isFull()
+        window.sum() == 30
+        window.oldest() == 10
+        window.newest() == 20
+    }
+
+    def "should evict the oldest value and keep the running sum"() {
+        given: "a full window of capacity 3"
+        def window = new RollingWindow(3)
+        [10, 20, 30].each { window.add(it) }
+
+        when: "a fourth value is added"
+        window.add(40)
+
+        then: "the oldest value is evicted"
+        window.isFull()
+        window.size() == 3
+        window.sum() == 90
+        (0..<3).collect { window.get(it) } == [20L, 30L, 40L]
+    }
+
+    def "should copy its values oldest first, across the wrap-around"() {
+        given:
+        def window = new RollingWindow(3)
+
+        when:
+        values.each { window.add(it) }
+
+        then:
+        window.toArray() as List == expected
+
+        where:
+        values           || expected
+        []               || []
+        [10, 20]         || [10L, 20L]
+        [10, 20, 30]     || [10L, 20L, 30L]
+        [10, 20, 30, 40] || [20L, 30L, 40L]
+    }
+
+    def "running sum should match a naive sum over a long sequence"() {
+        given: "a window of capacity 7 and a pseudo-random sequence"
+        def window = new RollingWindow(7)
+        def random = new Random(42)
+        def history = []
+
+        when: "many values are added"
+        1000.times {
+            long v = random.nextInt(1_000_000)
+            window.add(v)
+            history << v
+        }
+
+        then: "the running sum equals the sum of the last 7 values"
+        window.sum() == history.takeRight(7).sum()
+    }
+
+    def "clear should reset the window"() {
+        given:
+        def window = new RollingWindow(2)
+        window.add(5)
+        window.add(6)
+
+        when:
+        window.clear()
+
+        then:
+        window.size() == 0
+        window.sum() == 0
+    }
+
+    def "should reject out-of-range indices"() {
+        given:
+        def window = new RollingWindow(2)
+        window.add(1)
+
+        when:
+        window.get(1)
+
+        then:
+        thrown(IndexOutOfBoundsException)
+    }
+
+    def "should reject invalid capacity"() {
+        when:
+        new RollingWindow(0)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
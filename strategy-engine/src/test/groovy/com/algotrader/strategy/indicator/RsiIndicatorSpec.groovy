@@ -0,0 +1,58 @@
+package com.algotrader.strategy.indicator
+
+import spock.lang.Specification
+
+class RsiIndicatorSpec extends Specification {
+
+    /** Recomputes Wilder's RSI from scratch over {@code history}. */
+    static double naiveRsi(List<Long> history, int period) {
+        def changes = (1..<history.size()).collect { (history[it] - history[it - 1]) / 1e8 as double }
+        double gain = changes.take(period).sum { Math.max(it, 0d) } / period
+        double loss = changes.take(period).sum { Math.max(-it, 0d) } / period
+        changes.drop(period).each {
+            gain = (gain * (period - 1) + Math.max(it, 0d)) / period
+            loss = (loss * (period - 1) + Math.max(-it, 0d)) / period
+        }
+        loss == 0 ? (gain == 0 ? 50 : 100) : 100 - 100 / (1 + gain / loss)
+    }
+
+    def "should match the naive reference at every tick once warmed up"() {
+        given:
+        def rsi = new RsiIndicator(period)
+        def history = EmaIndicatorSpec.prices(400, 11)
+
+        expect: "ready after exactly period + 1 prices"
+        history.eachWithIndex { price, i ->
+            rsi.update(price)
+            assert rsi.isReady() == (i >= period)
+            if (rsi.isReady()) {
+                assert Math.abs(rsi.value() - naiveRsi(history.take(i + 1), period)) < 1e-9
+            }
+        }
+
+        where:
+        period << [1, 2, 14, 50]
+    }
+
+    def "should read 100 without losses and 50 without movement"() {
+        given:
+        def rising = new RsiIndicator(3)
+        def flat = new RsiIndicator(3)
+
+        when:
+        (1..4).each { rising.update(it * 100_000_000L) }
+        4.times { flat.update(100_000_000L) }
+
+        then:
+        rising.value() == 100d
+        flat.value() == 50d
+    }
+
+    def "should stay within 0 and 100"() {
+        given:
+        def rsi = new RsiIndicator(5)
+
+        expect:
+        EmaIndicatorSpec.prices(1000, 3).every { rsi.update(it); rsi.value() >= 0 && rsi.value() <= 100 }
+    }
+}
@@ -0,0 +1,59 @@
+package com.algotrader.strategy.indicator
+
+import spock.lang.Specification
+
+class VwapIndicatorSpec extends Specification {
+
+    def "should match the naive volume-weighted average over the window"() {
+        given:
+        def vwap = new VwapIndicator(period)
+        def history = EmaIndicatorSpec.prices(1000, 9)
+        def random = new Random(9)
+        def quantities = history.collect { random.nextInt(1000) / 100d }
+
+        expect:
+        history.eachWithIndex { price, i ->
+            vwap.update(price, quantities[i])
+            assert vwap.isReady() == (i + 1 >= period)
+            def from = Math.max(0, i + 1 - period)
+            double turnover = (from..i).sum { history[it] / 1e8 * quantities[it] }
+            double volume = (from..i).sum { quantities[it] }
+            if (volume > 0) {
+                assert Math.abs(vwap.value() - turnover / volume) < 1e-6
+            }
+        }
+
+        where:
+        period << [1, 3, 50]
+    }
+
+    def "should weigh bare prices equally"() {
+        given:
+        def vwap = new VwapIndicator(3)
+
+        when:
+        [10, 20, 30, 40].each { vwap.update(it * 100_000_000L) }
+
+        then: "the average of the last three"
+        vwap.value() == 30d
+    }
+
+    def "should fall back to the last price without volume"() {
+        given:
+        def vwap = new VwapIndicator(2)
+
+        when:
+        vwap.update(42_00000000L, 0)
+
+        then:
+        vwap.value() == 42d
+    }
+
+    def "should reject a negative quantity"() {
+        when:
+        new VwapIndicator(2).update(1L, -1)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
@@ -0,0 +1,153 @@
+package com.algotrader.strategy.redis
+
+import com.algotrader.shared.codec.WireFormat
+import com.algotrader.shared.model.Signal
+import com.algotrader.shared.model.SignalType
+import com.algotrader.shared.util.JsonUtil
+import io.lettuce.core.RedisFuture
+import io.lettuce.core.XAddArgs
+import io.lettuce.core.api.StatefulRedisConnection
+import io.lettuce.core.api.async.RedisAsyncCommands
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit
+
+class AsyncSignalPublisherSpec extends Specification {
+
+    /** Minimal RedisFuture the test can complete by hand. */
+    static class ManualFuture extends CompletableFuture<Long> implements RedisFuture<Long> {
+        @Override
+        String getError() { null }
+
+        @Override
+        boolean await(long timeout, TimeUnit unit) { true }
+    }
+
+    def futures = []
+    def commands = Mock(RedisAsyncCommands) {
+        publish(_, _) >> { def f = new ManualFuture(); futures << f; f }
+    }
+    def connection = Mock(StatefulRedisConnection) {
+        async() >> commands
+    }
+
+    def signal = Signal.of(SignalType.BUY, "BTCUSDT", new BigDecimal("42000"), "TEST")
+
+    def "should disable auto-flush and flush once a batch is full"() {
+        given: "a publisher with a batch size of 3 and a long flush interval"
+        def publisher = new AsyncSignalPublisher(connection, "trading_signals",
+                new PublishConfig(PublishMode.ASYNC, WireFormat.JSON, 3, Duration.ofHours(1), 10, Duration.ZERO),
+                { JsonUtil.toJson(it) })
+
+        when: "two signals are published"
+        2.times { publisher.publish(signal) }
+
+        then: "they are buffered, not flushed"
+        0 * connection.flushCommands()
+
+        when: "a third signal completes the batch"
+        publisher.publish(signal)
+
+        then: "the pipeline is flushed once"
+        1 * connection.flushCommands()
+
+        cleanup:
+        futures*.complete(1L)
+        publisher.close()
+    }
+
+    def "should flush a partial batch on the timer"() {
+        given: "a publisher with a short flush interval"
+        def flushed = new CompletableFuture()
+        connection.flushCommands() >> { flushed.complete(true) }
+        def publisher = new AsyncSignalPublisher(connection, "trading_signals",
+                new PublishConfig(PublishMode.ASYNC, WireFormat.JSON, 100, Duration.ofMillis(5), 100, Duration.ZERO),
+                { JsonUtil.toJson(it) })
+
+        when: "a single signal is published"
+        publisher.publish(signal)
+
+        then: "the timer flushes it"
+        flushed.get(5, TimeUnit.SECONDS)
+
+        cleanup:
+        futures*.complete(1L)
+        publisher.close()
+    }
+
+    def "should bound the in-flight window and count dropped signals"() {
+        given: "a publisher allowing two unacknowledged publishes"
+        def publisher = new AsyncSignalPublisher(connection, "trading_signals",
+                new PublishConfig(PublishMode.ASYNC, WireFormat.JSON, 1, Duration.ofHours(1), 2, Duration.ZERO),
+                { JsonUtil.toJson(it) })
+
+        when: "three signals are published without acknowledgements"
+        3.times { publisher.publish(signal) }
+
+        then: "the third is dropped"
+        publisher.inFlight() == 2
+        publisher.dropped() == 1
+
+        when: "Redis acknowledges one and fails the other"
+        futures[0].complete(1L)
+        futures[1].completeExceptionally(new RuntimeException("boom"))
+
+        then: "the window frees up and outcomes are counted"
+        publisher.inFlight() == 0
+        publisher.published() == 1
+        publisher.failed() == 1
+
+        cleanup:
+        publisher.close()
+    }
+
+    def "should publish signals as JSON on the output channel"() {
+        given:
+        def publisher = new AsyncSignalPublisher(connection, "trading_signals",
+                new PublishConfig(PublishMode.ASYNC, WireFormat.JSON, 1, Duration.ofHours(1), 10, Duration.ZERO),
+                { JsonUtil.toJson(it) })
+
+        when:
+        publisher.publish(signal)
+
+        then:
+        1 * commands.publish("trading_signals", { it.contains('"type":"BUY"') }) >> {
+            def f = new ManualFuture(); f.complete(1L); f
+        }
+
+        cleanup:
+        publisher.close()
+    }
+
+    def "should reject a window smaller than the batch size"() {
+        when:
+        new PublishConfig(PublishMode.ASYNC, WireFormat.JSON, 10, Duration.ofMillis(1), 5, Duration.ZERO)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "should append to a stream instead of publishing when given XADD arguments"() {
+        given:
+        def streamCommands = Mock(RedisAsyncCommands)
+        def streamConnection = Mock(StatefulRedisConnection) { async() >> streamCommands }
+        def args = XAddArgs.Builder.maxlen(1000).approximateTrimming()
+        def publisher = new AsyncSignalPublisher(streamConnection, "trading_signals",
+                new PublishConfig(PublishMode.ASYNC, WireFormat.JSON, 1, Duration.ofHours(1), 10, Duration.ZERO),
+                { JsonUtil.toJson(it) }, args)
+
+        when:
+        publisher.publish(signal)
+
+        then:
+        1 * streamCommands.xadd("trading_signals", args, "d", { String json ->
+            JsonUtil.fromJson(json, Signal).symbol() == "BTCUSDT"
+        }) >> { def f = new ManualFuture(); f.complete(1L); f }
+        0 * streamCommands.publish(*_)
+
+        cleanup:
+        publisher.close()
+    }
+}
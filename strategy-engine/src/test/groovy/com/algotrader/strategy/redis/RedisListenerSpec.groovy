@@ -1,26 +1,45 @@
 package com.algotrader.strategy.redis
 
+import com.algotrader.shared.codec.BinaryCodec
 import com.algotrader.shared.model.Signal
 import com.algotrader.shared.model.SignalType
 import com.algotrader.shared.model.Tick
+import com.algotrader.shared.stream.RedisTransport
+import com.algotrader.shared.stream.Transport
+import com.algotrader.shared.stream.TransportConfig
 import com.algotrader.shared.util.JsonUtil
 import com.algotrader.strategy.TradingStrategy
+import com.algotrader.strategy.dispatch.DispatchConfig
+import com.algotrader.strategy.set.StrategySet
 import io.lettuce.core.RedisClient
+import io.lettuce.core.StreamMessage
+import io.lettuce.core.XReadArgs
 import io.lettuce.core.api.StatefulRedisConnection
 import io.lettuce.core.api.sync.RedisCommands
 import io.lettuce.core.pubsub.StatefulRedisPubSubConnection
+import io.lettuce.core.pubsub.api.sync.RedisPubSubCommands
 import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.time.Duration
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.atomic.AtomicInteger
 
 class RedisListenerSpec extends Specification {
 
+    def subCommands = Mock(RedisPubSubCommands)
+    def subConnection = Mock(StatefulRedisPubSubConnection) { sync() >> subCommands }
+    def redis = new RedisTransport(Mock(RedisClient) {
+        connect(_) >> Mock(StatefulRedisConnection)
+        connectPubSub(_) >> subConnection
+    }, TransportConfig.pubSub())
+
     def "should publish a signal to output channel when strategy emits BUY"() {
         given: "mocked Redis components"
         def pubCommands = Mock(RedisCommands)
-        def subConnection = Mock(StatefulRedisPubSubConnection)
         def pubConnection = Mock(StatefulRedisConnection) {
             sync() >> pubCommands
         }
-        def redisClient = Mock(RedisClient)
 
         and: "a strategy that returns a BUY signal"
         def mockSignal = Signal.of(SignalType.BUY, "BTCUSDT", new BigDecimal("42000"), "TEST")
@@ -30,7 +49,7 @@ class RedisListenerSpec extends Specification {
 
         and: "a RedisListener using the test constructor"
         def listener = new RedisListener(
-                redisClient, subConnection, pubConnection, pubCommands,
+                redis, pubConnection, pubCommands,
                 strategy, "trading_signals"
         )
 
@@ -39,9 +58,9 @@ class RedisListenerSpec extends Specification {
         def tickJson = JsonUtil.toJson(tick)
 
         // Invoke the private onMessage method
-        def onMessage = RedisListener.getDeclaredMethod("onMessage", String, String)
+        def onMessage = RedisListener.getDeclaredMethod("onMessage", String, byte[])
         onMessage.setAccessible(true)
-        onMessage.invoke(listener, "market_data", tickJson)
+        onMessage.invoke(listener, "market_data", tickJson.bytes)
 
         then: "the signal is published as JSON to the output channel"
         1 * pubCommands.publish("trading_signals", { String json ->
@@ -53,18 +72,16 @@ class RedisListenerSpec extends Specification {
     def "should NOT publish when strategy returns empty"() {
         given: "a strategy that returns no signal"
         def pubCommands = Mock(RedisCommands)
-        def subConnection = Mock(StatefulRedisPubSubConnection)
         def pubConnection = Mock(StatefulRedisConnection) {
             sync() >> pubCommands
         }
-        def redisClient = Mock(RedisClient)
 
         def strategy = Mock(TradingStrategy) {
             process(_) >> Optional.empty()
         }
 
         def listener = new RedisListener(
-                redisClient, subConnection, pubConnection, pubCommands,
+                redis, pubConnection, pubCommands,
                 strategy, "trading_signals"
         )
 
@@ -72,11 +89,197 @@ class RedisListenerSpec extends Specification {
         def tick = Tick.of("BTCUSDT", new BigDecimal("42000"))
         def tickJson = JsonUtil.toJson(tick)
 
-        def onMessage = RedisListener.getDeclaredMethod("onMessage", String, String)
+        def onMessage = RedisListener.getDeclaredMethod("onMessage", String, byte[])
         onMessage.setAccessible(true)
-        onMessage.invoke(listener, "market_data", tickJson)
+        onMessage.invoke(listener, "market_data", tickJson.bytes)
 
         then: "no signal is published"
         0 * pubCommands.publish(_, _)
     }
+
+    def "should decode binary ticks on the same channel as JSON ticks"() {
+        given: "a strategy that records the ticks it sees"
+        def pubCommands = Mock(RedisCommands)
+        def pubConnection = Mock(StatefulRedisConnection) {
+            sync() >> pubCommands
+        }
+        def seen = []
+        def strategy = Mock(TradingStrategy) {
+            process(_) >> { Tick t -> seen << t; Optional.empty() }
+        }
+        def listener = new RedisListener(
+                redis, pubConnection, pubCommands,
+                strategy, "trading_signals"
+        )
+        def onMessage = RedisListener.getDeclaredMethod("onMessage", String, byte[])
+        onMessage.setAccessible(true)
+
+        when: "one JSON and one binary tick arrive"
+        def jsonTick = Tick.of("BTCUSDT", new BigDecimal("42000.50"))
+        def binaryTick = Tick.of("ETHUSDT", new BigDecimal("2500.25"))
+        onMessage.invoke(listener, "market_data", JsonUtil.toJson(jsonTick).bytes)
+        onMessage.invoke(listener, "market_data", BinaryCodec.encodeTick(binaryTick))
+
+        then: "both reach the strategy intact"
+        seen == [jsonTick, binaryTick]
+    }
+
+    def "should publish every signal a strategy set emits for one tick"() {
+        given: "a set whose two members flip on the same tick"
+        def pubCommands = Mock(RedisCommands)
+        def pubConnection = Mock(StatefulRedisConnection) {
+            sync() >> pubCommands
+        }
+        def listener = new RedisListener(
+                redis, pubConnection, pubCommands,
+                new StrategySet(StrategySet.parse("sma:2,sma:3")), "trading_signals"
+        )
+        def onMessage = RedisListener.getDeclaredMethod("onMessage", String, byte[])
+        onMessage.setAccessible(true)
+        def published = []
+
+        when:
+        [100, 90, 80, 120].each {
+            onMessage.invoke(listener, "market_data", JsonUtil.toJson(Tick.of("BTCUSDT", new BigDecimal(it))).bytes)
+        }
+
+        then: "each signal goes out under its own strategy name"
+        2 * pubCommands.publish("trading_signals", _) >> { String channel, String json ->
+            published << JsonUtil.fromJson(json, Signal).strategy()
+            1L
+        }
+        published == ["SMA-2", "SMA-3"]
+        listener.metrics().tickAgeAtSignal().count() == 1
+    }
+
+    def "should time every pipeline stage and count errors"() {
+        given: "a strategy that signals on every tick"
+        def pubCommands = Mock(RedisCommands)
+        def pubConnection = Mock(StatefulRedisConnection) {
+            sync() >> pubCommands
+        }
+        def strategy = Mock(TradingStrategy) {
+            process(_) >> { Tick t -> Optional.of(Signal.of(SignalType.BUY, t.symbol(), t.price(), "TEST")) }
+        }
+        def listener = new RedisListener(
+                redis, pubConnection, pubCommands,
+                strategy, "trading_signals"
+        )
+        def onMessage = RedisListener.getDeclaredMethod("onMessage", String, byte[])
+        onMessage.setAccessible(true)
+
+        when: "a tick stamped 200 ms ago arrives, then garbage"
+        def tick = new Tick("BTCUSDT", new BigDecimal("42000"), java.time.Instant.now().minusMillis(200))
+        onMessage.invoke(listener, "market_data", JsonUtil.toJson(tick).bytes)
+        onMessage.invoke(listener, "market_data", "not a tick".bytes)
+
+        then:
+        def metrics = listener.metrics()
+        metrics.decode().count() == 1
+        metrics.strategy().count() == 1
+        metrics.publish().count() == 1
+        metrics.tickAgeAtReceive().max() >= 200_000_000
+        metrics.tickAgeAtSignal().count() == 1
+        metrics.errors() == 1
+    }
+
+    def "should count and drop a truncated binary tick as malformed"() {
+        given:
+        def strategy = Mock(TradingStrategy)
+        def listener = new RedisListener(
+                redis, Mock(StatefulRedisConnection), Mock(RedisCommands), strategy, "trading_signals"
+        )
+        def onMessage = RedisListener.getDeclaredMethod("onMessage", String, byte[])
+        onMessage.setAccessible(true)
+        def truncated = Arrays.copyOf(BinaryCodec.encodeTick(Tick.of("BTCUSDT", BigDecimal.ONE)), 12)
+
+        when:
+        onMessage.invoke(listener, "market_data", truncated)
+
+        then:
+        0 * strategy.process(_)
+        listener.metrics().malformed() == 1
+        listener.metrics().errors() == 1
+    }
+
+    def "should subscribe to and unsubscribe from inputs added while running"() {
+        given:
+        def pubCommands = Mock(RedisCommands)
+        def listener = new RedisListener(redis,
+                Mock(StatefulRedisConnection) { sync() >> pubCommands }, pubCommands,
+                Stub(TradingStrategy), "trading_signals")
+
+        when: "a partition is assigned, then revoked"
+        listener.addInput("market_data:3")
+        listener.removeInput("market_data:3")
+
+        then:
+        1 * subCommands.subscribe("market_data:3")
+
+        then:
+        1 * subCommands.unsubscribe("market_data:3")
+    }
+
+    def "should never run an inline strategy on two added stream inputs at once"() {
+        given: "two partition streams with 200 ticks each, served in batches"
+        def byteCommands = Mock(RedisCommands)
+        def batches = [:].withDefault { new ConcurrentLinkedQueue() }
+        ["market_data:0", "market_data:1"].each { stream ->
+            (0..<10).each { b ->
+                batches[stream] << (0..<20).collect { i ->
+                    def tick = Tick.of("SYM${i % 4}", new BigDecimal(100 + i))
+                    new StreamMessage<>(stream, "${b}-${i}",
+                            [(TransportConfig.PAYLOAD_FIELD): JsonUtil.toJson(tick).bytes])
+                }
+            }
+        }
+        byteCommands.xreadgroup(*_) >> { args ->
+            def offset = (args[2] as XReadArgs.StreamOffset[])[0]
+            def next = offset.offset == ">" ? batches[offset.name].poll() : null
+            if (next == null) {
+                Thread.sleep(5)
+                return []
+            }
+            next
+        }
+        def client = Mock(RedisClient) {
+            connect(_) >> Mock(StatefulRedisConnection) { sync() >> byteCommands }
+            connect() >> Mock(StatefulRedisConnection) { sync() >> Mock(RedisCommands) }
+        }
+        def streams = new TransportConfig(Transport.STREAMS, "strategy-engine", "engine-1", 20,
+                Duration.ofMillis(10), 1000, '$')
+
+        and: "a strategy that notices being entered by two threads"
+        def inside = new AtomicInteger()
+        def overlaps = new AtomicInteger()
+        def processed = new AtomicInteger()
+        def strategy = Stub(TradingStrategy) {
+            process(_) >> {
+                if (inside.incrementAndGet() > 1) {
+                    overlaps.incrementAndGet()
+                }
+                Thread.sleep(0, 50_000)
+                inside.decrementAndGet()
+                processed.incrementAndGet()
+                Optional.empty()
+            }
+        }
+        def listener = new RedisListener(new RedisTransport(client, streams), { strategy },
+                DispatchConfig.inline(), PublishConfig.sync(), null, null, "trading_signals")
+
+        when: "both partitions are assigned"
+        listener.addInput("market_data:0")
+        listener.addInput("market_data:1")
+
+        then: "every tick is processed, one at a time"
+        new PollingConditions(timeout: 10).eventually {
+            assert processed.get() == 400
+        }
+        overlaps.get() == 0
+        listener.dispatcher().get().shardCount() == 1
+        listener.streamConsumers().size() == 2
+
+        cleanup:
+        listener?.close()
+    }
 }
@@ -0,0 +1,233 @@
+package com.algotrader.strategy.registry
+
+import com.algotrader.shared.model.SignalType
+import com.algotrader.shared.model.Tick
+import com.algotrader.strategy.TradingStrategy
+import com.algotrader.strategy.checkpoint.StrategySnapshot
+import com.algotrader.strategy.impl.SimpleMovingAverageStrategy
+import spock.lang.Specification
+
+import java.time.Duration
+import java.time.Instant
+import java.util.function.LongSupplier
+
+class StrategyRegistrySpec extends Specification {
+
+    long now = 0L
+    LongSupplier clock = { now } as LongSupplier
+
+    def "should keep an independent price window per symbol"() {
+        given: "an SMA-3 registry"
+        def registry = new StrategyRegistry({ new SimpleMovingAverageStrategy(3) }, 16, Duration.ofMinutes(1), clock)
+
+        when: "BTC and ETH ticks are interleaved"
+        def results = [
+                ["BTCUSDT", 100], ["ETHUSDT", 10],
+                ["BTCUSDT", 90], ["ETHUSDT", 20],
+                ["BTCUSDT", 80], ["ETHUSDT", 30],
+                ["BTCUSDT", 120], ["ETHUSDT", 5],
+        ].collect { sym, p -> registry.process(Tick.of(sym, new BigDecimal(p))) }
+
+        then: "each symbol crosses its own SMA"
+        results[6].get().type() == SignalType.BUY
+        results[6].get().symbol() == "BTCUSDT"
+        results[7].get().type() == SignalType.SELL
+        results[7].get().symbol() == "ETHUSDT"
+        registry.size() == 2
+    }
+
+    def "should inherit the per-symbol strategy's conflation opt-out"() {
+        given:
+        def everyTick = new SimpleMovingAverageStrategy(5) {
+            @Override
+            boolean conflatable() { false }
+        }
+
+        expect:
+        new StrategyRegistry({ new SimpleMovingAverageStrategy(5) }, 4, Duration.ofMinutes(1)).conflatable()
+        !new StrategyRegistry({ everyTick }, 4, Duration.ofMinutes(1)).conflatable()
+    }
+
+    def "should expose the per-symbol strategy name"() {
+        expect:
+        new StrategyRegistry({ new SimpleMovingAverageStrategy(5) }, 4, Duration.ofMinutes(1)).name() == "SMA-5"
+    }
+
+    def "should evict symbols that have been idle past the timeout"() {
+        given: "a registry with a 10-second idle timeout"
+        def registry = new StrategyRegistry({ new SimpleMovingAverageStrategy(2) }, 16, Duration.ofSeconds(10), clock)
+        registry.process(Tick.of("BTCUSDT", BigDecimal.ONE))
+        registry.process(Tick.of("ETHUSDT", BigDecimal.ONE))
+
+        when: "only BTC keeps ticking past the timeout"
+        now = Duration.ofSeconds(6).toNanos()
+        registry.process(Tick.of("BTCUSDT", BigDecimal.ONE))
+        now = Duration.ofSeconds(11).toNanos()
+        registry.process(Tick.of("BTCUSDT", BigDecimal.ONE))
+
+        then: "ETH has been evicted"
+        registry.size() == 1
+    }
+
+    def "should evict the least recently seen symbol when full"() {
+        given: "a registry that holds two symbols"
+        def created = []
+        def registry = new StrategyRegistry({
+            def s = new SimpleMovingAverageStrategy(2); created << s; s
+        }, 2, Duration.ofHours(1), clock)
+
+        when: "a third symbol arrives"
+        now = 1; registry.process(Tick.of("A", BigDecimal.ONE))
+        now = 2; registry.process(Tick.of("B", BigDecimal.ONE))
+        now = 3; registry.process(Tick.of("A", BigDecimal.ONE))
+        now = 4; registry.process(Tick.of("C", BigDecimal.ONE))
+
+        and: "B comes back"
+        now = 5; registry.process(Tick.of("B", BigDecimal.ONE))
+
+        then: "B lost its state and was recreated (A + B + C + B again)"
+        created.size() == 4
+        registry.size() == 2
+    }
+
+    def "should evict in least-recently-seen order however symbols were admitted"() {
+        given: "a registry that holds three symbols"
+        def registry = new StrategyRegistry({ new SimpleMovingAverageStrategy(2) }, 3, Duration.ofSeconds(10), clock)
+        now = 1; registry.process(Tick.of("A", BigDecimal.ONE))
+        now = 2; registry.process(Tick.of("B", BigDecimal.ONE))
+        now = 3; registry.process(Tick.of("C", BigDecimal.ONE))
+
+        when: "A and B are seen again, then D arrives"
+        now = 4; registry.process(Tick.of("A", BigDecimal.ONE))
+        now = 5; registry.process(Tick.of("B", BigDecimal.ONE))
+        now = 6; registry.process(Tick.of("D", BigDecimal.ONE))
+
+        then: "C, the least recently seen, made room"
+        registry.size() == 3
+
+        when: "only D keeps ticking past the timeout"
+        now = Duration.ofSeconds(10).toNanos() + 5
+        def evicted = registry.evictIdle(now)
+
+        then: "A and B are swept, D stays"
+        evicted == 2
+        registry.size() == 1
+    }
+
+    def "should evict the symbols it is asked to before the next tick"() {
+        given:
+        def created = []
+        def registry = new StrategyRegistry({
+            def s = new SimpleMovingAverageStrategy(2); created << s; s
+        }, 16, Duration.ofHours(1), clock)
+        ["A", "B", "C"].each { registry.process(Tick.of(it, BigDecimal.ONE)) }
+
+        when: "A and C are evicted from another thread"
+        Thread.start { registry.evictIf { it != "B" } }.join()
+
+        then: "nothing happens until the next tick"
+        registry.size() == 3
+
+        when:
+        registry.process(Tick.of("B", BigDecimal.ONE))
+        registry.process(Tick.of("A", BigDecimal.ONE))
+
+        then: "B kept its state, A started from scratch"
+        registry.size() == 2
+        created.size() == 4
+    }
+
+    def "should capture every symbol's state between two ticks when asked"() {
+        given:
+        def registry = new StrategyRegistry({ new SimpleMovingAverageStrategy(2) }, 16, Duration.ofMinutes(1), clock)
+        registry.process(at("BTCUSDT", 100, 1_000))
+        registry.process(at("ETHUSDT", 10, 2_000))
+
+        when: "a checkpoint is requested"
+        registry.requestCheckpoint()
+
+        then: "nothing is captured until the next tick"
+        registry.latestCheckpoint().isEmpty()
+
+        when:
+        registry.process(at("BTCUSDT", 90, 3_000))
+
+        then: "the capture precedes that tick"
+        def states = registry.latestCheckpoint().get()
+        states*.symbol() == ["BTCUSDT", "ETHUSDT"]
+        states*.lastTickMillis() == [1_000L, 2_000L]
+    }
+
+    def "should seed restored symbols and treat ticks before the snapshot as warm-up"() {
+        given: "BTC's state after 100, 90 at t=1s and t=2s, snapshotted at t=2.5s"
+        def registry = restored(2_500)
+
+        when: "the replay overlaps the snapshot, then a warm-up tick crosses, then a live one does"
+        def overlap = registry.process(at("BTCUSDT", 5_000, 1_500))
+        def baseline = registry.process(at("BTCUSDT", 80, 2_000))
+        def warmUp = registry.process(at("BTCUSDT", 120, 2_200))
+        def live = registry.process(at("BTCUSDT", 50, 3_000))
+
+        then: "the overlapping tick is skipped, and only the crossover after the snapshot is emitted"
+        overlap.isEmpty()
+        baseline.isEmpty()
+        warmUp.isEmpty()
+        live.get().type() == SignalType.SELL
+    }
+
+    def "should emit signals for ticks published after the snapshot, however long before the restart"() {
+        given:
+        def registry = restored(2_500)
+
+        when: "a tick in the snapshot's last millisecond, then one from while the engine was down"
+        registry.process(at("BTCUSDT", 80, 2_000))
+        def whileDown = registry.process(at("BTCUSDT", 120, 3_000))
+
+        then: "the same-millisecond tick was folded in, and the crossover it sets up goes out"
+        whileDown.get().type() == SignalType.BUY
+    }
+
+    def "should capture afresh on demand and encode only when the capture is collected"() {
+        given:
+        def registry = new StrategyRegistry({ new SimpleMovingAverageStrategy(2) }, 16, Duration.ofMinutes(1), clock)
+        registry.process(at("BTCUSDT", 100, 1_000))
+
+        when:
+        registry.captureNow()
+        registry.process(at("BTCUSDT", 90, 2_000))
+
+        then: "the capture is the state before the later tick"
+        def states = registry.latestCheckpoint().get()
+        states*.lastTickMillis() == [1_000L]
+        registry.latestCheckpoint().get().is(states)
+    }
+
+    def "should not checkpoint strategies that cannot write their state"() {
+        given:
+        def registry = new StrategyRegistry({ Stub(TradingStrategy) { name() >> "STUB" } }, 4, Duration.ofMinutes(1))
+
+        when:
+        registry.requestCheckpoint()
+        registry.process(Tick.of("BTCUSDT", BigDecimal.ONE))
+
+        then:
+        !registry.checkpointable()
+        registry.latestCheckpoint().isEmpty()
+    }
+
+    private StrategyRegistry restored(long takenAtMillis) {
+        def before = new StrategyRegistry({ new SimpleMovingAverageStrategy(3) }, 16, Duration.ofMinutes(1), clock)
+        before.process(at("BTCUSDT", 100, 1_000))
+        before.process(at("BTCUSDT", 90, 2_000))
+        before.captureNow()
+        def snapshot = new StrategySnapshot("SMA-3", Instant.ofEpochMilli(takenAtMillis),
+                before.latestCheckpoint().get())
+        def registry = new StrategyRegistry({ new SimpleMovingAverageStrategy(3) }, 16, Duration.ofMinutes(1), clock)
+        registry.restore(snapshot.bySymbol(), snapshot.takenAt())
+        registry
+    }
+
+    private static Tick at(String symbol, long price, long millis) {
+        new Tick(symbol, BigDecimal.valueOf(price), Instant.ofEpochMilli(millis))
+    }
+}
@@ -0,0 +1,155 @@
+package com.algotrader.strategy.set
+
+import com.algotrader.shared.model.Signal
+import com.algotrader.shared.model.SignalType
+import com.algotrader.shared.model.Tick
+import com.algotrader.strategy.impl.SimpleMovingAverageStrategy
+import com.algotrader.strategy.indicator.Indicator
+import com.algotrader.strategy.indicator.Indicators
+import com.algotrader.strategy.registry.StrategyRegistry
+import spock.lang.Specification
+
+import java.time.Duration
+
+class StrategySetSpec extends Specification {
+
+    static List<Tick> ticks(String symbol, List<Number> prices) {
+        prices.collect { Tick.of(symbol, new BigDecimal(it.toString())) }
+    }
+
+    def "should emit the same signals as independent strategies, each under its own name"() {
+        given: "a set of three SMA crossovers and the equivalent standalone strategies"
+        def set = new StrategySet(StrategySet.parse("sma:3, sma:5,sma:8"))
+        def standalone = [3, 5, 8].collect { new SimpleMovingAverageStrategy(it) }
+        def random = new Random(42)
+        def prices = (1..500).collect { 100 + random.nextInt(2000) / 100 }
+
+        when: "the same ticks go through both"
+        def fromSet = []
+        def expected = []
+        ticks("BTCUSDT", prices).each { tick ->
+            set.process(tick, fromSet)
+            standalone.each { it.process(tick).ifPresent { expected << it } }
+        }
+
+        then: "every signal matches in type, price and strategy name"
+        !expected.isEmpty()
+        fromSet.collect { [it.type(), it.price(), it.strategy()] } ==
+                expected.collect { [it.type(), it.price(), it.strategy()] }
+        fromSet*.strategy().toSet() == ["SMA-3", "SMA-5", "SMA-8"] as Set
+    }
+
+    def "should compute a shared indicator once for every strategy that declares it"() {
+        given: "a probe indicator that counts its updates"
+        def updates = 0
+        def probe = [update: { long p -> updates++ }, isReady: { true }, value: { 0d }] as Indicator
+
+        and: "two members declaring the probe and SMA-5, one declaring SMA-20"
+        def member = { String name, int window -> { Indicators indicators ->
+            indicators.shared("PROBE", Indicator, { probe })
+            def cross = new SmaCrossover(indicators, window)
+            [evaluate: { long p -> cross.evaluate(p) }, name: { name }] as IndicatorStrategy
+        } as IndicatorStrategy.Factory }
+        def set = new StrategySet([member("a", 5), member("b", 5), member("c", 20)])
+
+        when:
+        ticks("ETHUSDT", [1, 2, 3, 4]).each { set.process(it, []) }
+
+        then: "the probe, SMA-5 and SMA-20 each exist once, and the probe is updated once per tick"
+        set.size() == 3
+        set.indicatorCount() == 3
+        updates == 4
+    }
+
+    def "should emit several signals for one tick"() {
+        given: "two crossovers that both flip on the last tick"
+        def set = new StrategySet(StrategySet.parse("sma:2,sma:3"))
+        def out = []
+
+        when:
+        ticks("BTCUSDT", [100, 90, 80, 120]).each { set.process(it, out) }
+
+        then:
+        out.size() == 2
+        out*.type() == [SignalType.BUY, SignalType.BUY]
+        out*.strategy() == ["SMA-2", "SMA-3"]
+
+        and: "the single-signal view returns the first"
+        def again = new StrategySet(StrategySet.parse("sma:2,sma:3"))
+        ticks("BTCUSDT", [100, 90, 80]).each { again.process(it) }
+        again.process(Tick.of("BTCUSDT", 120G)).get().strategy() == "SMA-2"
+    }
+
+    def "should keep independent state per symbol inside a registry"() {
+        given:
+        def members = StrategySet.parse("sma:3")
+        def registry = new StrategyRegistry({ new StrategySet(members) }, 16, Duration.ofMinutes(1))
+        def out = new ArrayList<Signal>()
+
+        when: "BTC and ETH ticks are interleaved"
+        [["BTCUSDT", 100], ["ETHUSDT", 10], ["BTCUSDT", 90], ["ETHUSDT", 20],
+         ["BTCUSDT", 80], ["ETHUSDT", 30], ["BTCUSDT", 120], ["ETHUSDT", 5]].each { sym, p ->
+            registry.process(Tick.of(sym, new BigDecimal(p)), out)
+        }
+
+        then:
+        out.collect { [it.symbol(), it.type()] } == [["BTCUSDT", SignalType.BUY], ["ETHUSDT", SignalType.SELL]]
+        registry.name() == "SMA-3"
+    }
+
+    def "should parse EMA crossovers and RSI thresholds sharing their indicators"() {
+        given:
+        def set = new StrategySet(StrategySet.parse("ema:12/26, ema:5/26, rsi:14:30/70, rsi:14:20.5/80"))
+
+        expect: "EMA-5, EMA-12, EMA-26 and RSI-14"
+        set.name() == "EMA-12/26,EMA-5/26,RSI-14-30/70,RSI-14-20.5/80"
+        set.indicatorCount() == 4
+    }
+
+    def "should cross EMAs on a trend reversal"() {
+        given:
+        def set = new StrategySet(StrategySet.parse("ema:2/4"))
+        def out = []
+
+        when: "a downtrend, then a sharp rally"
+        ticks("BTCUSDT", [100, 99, 98, 97, 96, 95, 110, 120]).each { set.process(it, out) }
+
+        then:
+        out*.type() == [SignalType.BUY]
+        out*.strategy() == ["EMA-2/4"]
+    }
+
+    def "should buy when RSI leaves oversold and sell when it leaves overbought"() {
+        given:
+        def set = new StrategySet(StrategySet.parse("rsi:2:30/70"))
+        def out = []
+
+        when: "a fall, a bounce, a rally, a drop"
+        ticks("BTCUSDT", [100, 90, 80, 85, 95, 105, 100]).each { set.process(it, out) }
+
+        then:
+        out*.type() == [SignalType.BUY, SignalType.SELL]
+        out*.price() == [85G, 100G]
+    }
+
+    def "should reject malformed definitions"() {
+        when:
+        StrategySet.parse(spec)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        spec << ["", " , ", "sma", "sma:x", "sma:0", "macd:12", "ema:26/12", "ema:12", "ema:1/2/3",
+                 "rsi:14", "rsi:14:70/30", "rsi:0:30/70", "rsi:14:30/170"]
+    }
+
+    def "should reject two members with the same name"() {
+        when:
+        new StrategySet(StrategySet.parse("sma:5,sma:5"))
+
+        then:
+        def e = thrown(IllegalArgumentException)
+        e.message.contains("SMA-5")
+    }
+}